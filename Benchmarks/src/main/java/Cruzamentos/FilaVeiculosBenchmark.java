@@ -0,0 +1,93 @@
+package Cruzamentos;
+
+import PontosEntrada.PontoEntrada;
+import Veiculo.TipoVeiculo;
+import Veiculo.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara as implementações de FilaVeiculos (LinkedQueue com lock vs MPSC sem locks)
+ * com vários produtores (ligações) e um consumidor (semáforo), como num cruzamento.
+ *
+ * Os produtores só inserem enquanto a fila tiver menos de CAPACIDADE veículos,
+ * para a fila não crescer sem limite quando o consumidor fica para trás;
+ * isto também mede getTamanhoAtual, usado pelas estatísticas.
+ * O grupo "estatisticas" junta uma thread que só lê o tamanho da fila.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class FilaVeiculosBenchmark {
+
+    private static final int CAPACIDADE = 1024;
+
+    @Param({"BLOQUEANTE", "MPSC"})
+    public TipoFila tipoFila;
+
+    private FilaVeiculos fila;
+    private Veiculo veiculo;
+
+    @Setup
+    public void preparar() {
+        fila = FilaVeiculos.criar(tipoFila);
+        veiculo = new Veiculo("V1", TipoVeiculo.CARRO, PontoEntrada.E1, List.of("Cr1", "S"));
+    }
+
+    @Benchmark
+    @Group("fila")
+    @GroupThreads(3)
+    public boolean adicionar() {
+        if (fila.getTamanhoAtual() < CAPACIDADE) {
+            fila.adicionar(veiculo);
+            return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Group("fila")
+    @GroupThreads(1)
+    public Veiculo retirar() {
+        return fila.removerSeDisponivel();
+    }
+
+    @Benchmark
+    @Group("estatisticas")
+    @GroupThreads(3)
+    public boolean adicionarComLeitor() {
+        return adicionar();
+    }
+
+    @Benchmark
+    @Group("estatisticas")
+    @GroupThreads(1)
+    public Veiculo retirarComLeitor() {
+        return retirar();
+    }
+
+    @Benchmark
+    @Group("estatisticas")
+    @GroupThreads(1)
+    public int lerTamanho() {
+        return fila.getTamanhoAtual();
+    }
+}
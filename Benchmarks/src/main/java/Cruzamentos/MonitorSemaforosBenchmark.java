@@ -0,0 +1,96 @@
+package Cruzamentos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de uma volta completa de passagem de vez entre as fases de um cruzamento.
+ *
+ * As fases correm no AgendadorExecutor do cruzamento, com filas vazias e um
+ * controlador que termina o verde de imediato, por isso mede-se apenas o custo
+ * de o MonitorSemaforos escolher e agendar a fase seguinte.
+ * Cada operação mede "total" passagens de vez.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonitorSemaforosBenchmark {
+
+    @Param({"2", "4"})
+    public int total;
+
+    private final Semaphore passagens = new Semaphore(0);
+    private Agendador agendador;
+    private MonitorSemaforos monitor;
+
+    /**
+     * Rotação simples, com verde nulo; conta cada passagem de vez.
+     */
+    private class ControladorInstantaneo extends ControladorSemaforos {
+        @Override
+        public TipoControlador getTipo() {
+            return TipoControlador.FIXO;
+        }
+
+        @Override
+        public int proximaFase(int atual, int[] tamanhosFilas) {
+            passagens.release();
+            return (atual + 1) % tamanhosFilas.length;
+        }
+
+        @Override
+        public long fimVerde(long inicioVerdeNs, long ultimoVeiculoNs) {
+            return inicioVerdeNs;
+        }
+    }
+
+    @Setup
+    public void preparar() {
+        Cruzamento cruzamento = new Cruzamento("Bench", "localhost", 5999, "localhost", 6000);
+
+        agendador = new AgendadorExecutor("Agendador-Bench");
+        monitor = new MonitorSemaforos(agendador, new ControladorInstantaneo(), 0);
+
+        for (int id = 0; id < total; id++) {
+            monitor.adicionarFase(List.of(new Semaforo(id, "O" + id, "S", monitor, FilaVeiculos.criar(TipoFila.MPSC), cruzamento)));
+        }
+        monitor.iniciar();
+    }
+
+    /**
+     * As fases não param entre iterações: descarta as passagens acumuladas.
+     */
+    @Setup(Level.Iteration)
+    public void limparPassagens() {
+        passagens.drainPermits();
+    }
+
+    @TearDown
+    public void terminar() {
+        monitor.parar();
+        agendador.parar();
+    }
+
+    @Benchmark
+    public void volta() throws InterruptedException {
+        passagens.acquire(total);
+    }
+}
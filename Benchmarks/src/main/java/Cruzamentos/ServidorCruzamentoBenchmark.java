@@ -0,0 +1,87 @@
+package Cruzamentos;
+
+import PontosEntrada.PontoEntrada;
+import Rede.CodecBinario;
+import Rede.Mensagem;
+import Veiculo.TipoVeiculo;
+import Veiculo.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de receção de um veículo no ServidorCruzamento, até à chamada
+ * a Cruzamento.receberVeiculo: linha/trama → Mensagem → Veiculo + origem.
+ *
+ * Não inclui a rede nem a fila (ver FilaVeiculosBenchmark).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ServidorCruzamentoBenchmark {
+
+    private String linhaJson;
+    private byte[] tramaBinaria;
+    private CodecBinario codec;
+
+    @Setup
+    public void preparar() throws IOException {
+        Veiculo veiculo = new Veiculo("E1-123", TipoVeiculo.CAMIAO, PontoEntrada.E1, List.of("Cr1", "Cr2", "Cr5", "S"));
+        Mensagem mensagem = new Mensagem("VEICULO", "Cr1", "Cr2", Map.of("veiculo", veiculo, "origem", "Cr1"));
+        linhaJson = mensagem.toJson();
+
+        codec = new CodecBinario();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        codec.escrever(mensagem, saida);
+        tramaBinaria = saida.toByteArray();
+    }
+
+    @Benchmark
+    public void receberJson(Blackhole bh) {
+        processar(Mensagem.fromJson(linhaJson), bh);
+    }
+
+    @Benchmark
+    public void receberBinario(Blackhole bh) throws IOException {
+        processar(codec.ler(new DataInputStream(new ByteArrayInputStream(tramaBinaria))), bh);
+    }
+
+    /**
+     * Mesmos passos de ServidorCruzamento.processarVeiculo.
+     */
+    private static void processar(Mensagem mensagem, Blackhole bh) {
+        if (!"VEICULO".equalsIgnoreCase(mensagem.tipo())) {
+            return;
+        }
+
+        Veiculo veiculo = mensagem.getVeiculo();
+        String origem = mensagem.origem();
+        Object origemObj = mensagem.conteudo().get("origem");
+        if (origemObj != null) {
+            origem = origemObj.toString();
+        }
+
+        bh.consume(veiculo);
+        bh.consume(origem);
+    }
+}
@@ -0,0 +1,50 @@
+package Dashboard.Estatisticas;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registo da saída de um veículo no GestorEstatisticas, com uma thread
+ * (uma ligação) e com várias ligações em simultâneo.
+ * Sem ouvintes registados, para medir apenas o gestor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GestorEstatisticasBenchmark {
+
+    private static final List<String> CAMINHO = List.of("E1", "Cr1", "Cr4", "Cr5", "S");
+
+    private GestorEstatisticas gestor;
+
+    @Setup
+    public void preparar() {
+        gestor = new GestorEstatisticas();
+    }
+
+    @Benchmark
+    public void registarVeiculoSaiu() {
+        gestor.registarVeiculoSaiu("CARRO", 12, CAMINHO);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void registarVeiculoSaiuConcorrente() {
+        gestor.registarVeiculoSaiu("CARRO", 12, CAMINHO);
+    }
+}
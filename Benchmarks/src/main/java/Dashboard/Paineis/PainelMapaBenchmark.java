@@ -0,0 +1,69 @@
+package Dashboard.Paineis;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Um passo de animação do PainelMapa (atualizarVeiculos) com milhares de veículos.
+ *
+ * Todos os semáforos ficam vermelhos, por isso depois do aquecimento os
+ * veículos estão parados em fila e o número de veículos mantém-se constante.
+ * O Timer do painel é parado para o passo só ser executado pelo benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class PainelMapaBenchmark {
+
+    private static final String[][] LIGACOES = {
+            {"E1", "Cr1"}, {"E2", "Cr2"}, {"E3", "Cr3"}, {"Cr1", "Cr4"}, {"Cr2", "Cr5"}
+    };
+
+    @Param({"1000", "5000"})
+    public int veiculos;
+
+    private PainelMapa painel;
+
+    @Setup
+    public void preparar() {
+        painel = new PainelMapa();
+        painel.pararAnimacao();
+
+        for (int i = 0; i < LIGACOES.length; i++) {
+            String origem = LIGACOES[i][0];
+            String destino = LIGACOES[i][1];
+            painel.registarSemaforoId(destino, i, origem, destino);
+        }
+
+        String[] tipos = {"CARRO", "MOTA", "CAMIAO"};
+        for (int i = 0; i < veiculos; i++) {
+            String[] ligacao = LIGACOES[i % LIGACOES.length];
+            painel.atualizarOuCriarVeiculo("V" + i, tipos[i % tipos.length], ligacao[0], ligacao[1]);
+        }
+    }
+
+    @TearDown
+    public void terminar() {
+        painel.pararAnimacao();
+    }
+
+    @Benchmark
+    public void atualizarVeiculos() {
+        painel.atualizarVeiculos();
+    }
+}
@@ -0,0 +1,106 @@
+package Rede;
+
+import PontosEntrada.PontoEntrada;
+import Veiculo.PoolVeiculos;
+import Veiculo.TipoVeiculo;
+import Veiculo.Veiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificação e descodificação de uma Mensagem VEICULO (a mais frequente),
+ * em JSON (uma linha por mensagem) e no codec binário.
+ *
+ * saltoBinario() é o caminho de um salto entre cruzamentos: o veículo é lido
+ * diretamente para um Transporte.Recetor (PoolVeiculos), escrito de novo e
+ * devolvido ao pool. Correr com "-prof gc" para ver a alocação por operação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MensagemBenchmark {
+
+    private Mensagem mensagem;
+    private String linhaJson;
+
+    private CodecBinario codec;
+    private ByteArrayOutputStream saidaBinaria;
+    private byte[] tramaBinaria;
+
+    private ByteArrayInputStream entradaSalto;
+    private DataInputStream leitorSalto;
+    private Transporte.Recetor recetorSalto;
+
+    @Setup
+    public void preparar() throws IOException {
+        Veiculo veiculo = new Veiculo("E1-123", TipoVeiculo.CARRO, PontoEntrada.E1, List.of("Cr1", "Cr4", "Cr5", "S"));
+        mensagem = new Mensagem("VEICULO", "E1", "Cr1", Map.of("veiculo", veiculo, "origem", "E1"));
+        linhaJson = mensagem.toJson();
+
+        codec = new CodecBinario();
+        saidaBinaria = new ByteArrayOutputStream(256);
+        codec.escrever(mensagem, saidaBinaria);
+        tramaBinaria = saidaBinaria.toByteArray();
+
+        entradaSalto = new ByteArrayInputStream(tramaBinaria);
+        leitorSalto = new DataInputStream(entradaSalto);
+        recetorSalto = (recebido, origem) -> {
+            try {
+                codec.escreverVeiculo(recebido, origem, saidaBinaria);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            PoolVeiculos.devolver(recebido);
+        };
+    }
+
+    @Benchmark
+    public String codificarJson() {
+        return mensagem.toJson();
+    }
+
+    @Benchmark
+    public Mensagem descodificarJson() {
+        return Mensagem.fromJson(linhaJson);
+    }
+
+    @Benchmark
+    public int codificarBinario() throws IOException {
+        saidaBinaria.reset();
+        codec.escrever(mensagem, saidaBinaria);
+        return saidaBinaria.size();
+    }
+
+    @Benchmark
+    public Mensagem descodificarBinario() throws IOException {
+        return codec.ler(new DataInputStream(new ByteArrayInputStream(tramaBinaria)));
+    }
+
+    @Benchmark
+    public int saltoBinario() throws IOException {
+        entradaSalto.reset();
+        saidaBinaria.reset();
+        codec.ler(leitorSalto, recetorSalto);
+        return saidaBinaria.size();
+    }
+}
@@ -0,0 +1,63 @@
+package Saida;
+
+import PontosEntrada.PontoEntrada;
+import Veiculo.TipoVeiculo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registo de uma saída no histórico por colunas (com capacidade, em regime
+ * estável: os blocos são reutilizados) e uma consulta que percorre 100 000
+ * saídas sem criar objetos Veiculo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HistoricoSaidasBenchmark {
+
+    private static final int SAIDAS = 100_000;
+
+    private HistoricoSaidas anel;
+    private HistoricoSaidas cheio;
+    private long sequencia = 0;
+
+    @Setup
+    public void preparar() {
+        anel = new HistoricoSaidas(SAIDAS, null);
+        cheio = new HistoricoSaidas(0, null);
+        for (int i = 0; i < SAIDAS; i++) {
+            cheio.registar("E1-" + i, TipoVeiculo.values()[i % 3], PontoEntrada.E1, i, i + 1000L + i % 7000);
+        }
+    }
+
+    @Benchmark
+    public void registar() {
+        long agora = sequencia++;
+        anel.registar("E2-042", TipoVeiculo.MOTA, PontoEntrada.E2, agora, agora + 5000);
+    }
+
+    @Benchmark
+    public long permanenciaMaximaCamioes() {
+        long[] maxima = {0};
+        cheio.paraCada((seq, tipo, entrada, chegada, saida) -> {
+            if (tipo == TipoVeiculo.CAMIAO) {
+                maxima[0] = Math.max(maxima[0], saida - chegada);
+            }
+        });
+        return maxima[0];
+    }
+}
@@ -0,0 +1,61 @@
+package Veiculo;
+
+import PontosEntrada.PontoEntrada;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Criação de um veículo e o trabalho por salto (o que cada cruzamento
+ * consulta ao receber e ao enviar o veículo), ao longo de todo o caminho.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VeiculoBenchmark {
+
+    private static final List<String> CAMINHO = List.of("Cr1", "Cr2", "Cr3", "S");
+
+    private Veiculo veiculo;
+
+    @Setup
+    public void preparar() {
+        veiculo = new Veiculo("E1-123", TipoVeiculo.CARRO, PontoEntrada.E1, CAMINHO);
+    }
+
+    @Benchmark
+    public Veiculo criar() {
+        return new Veiculo("E1-123", TipoVeiculo.CARRO, PontoEntrada.E1, CAMINHO);
+    }
+
+    @Benchmark
+    public void percorrerCaminho(Blackhole bh) {
+        Veiculo v = new Veiculo("E1-123", TipoVeiculo.CARRO, PontoEntrada.E1, CAMINHO);
+        while (!"S".equals(v.getProximoNo())) {
+            bh.consume(v.getNoSeguinte());
+            v.avancarCaminho();
+            bh.consume(v.getProximoNo());
+        }
+    }
+
+    @Benchmark
+    public String lerCaminho() {
+        List<String> caminho = veiculo.getCaminho();
+        return caminho.get(caminho.size() - 1);
+    }
+}
@@ -0,0 +1,169 @@
+package Collections.Queue;
+
+import Collections.Exceptions.EmptyCollectionException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.security.InvalidParameterException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fila sem locks para vários produtores e um único consumidor
+ * (fila ligada intrusiva de D. Vyukov).
+ *
+ * Cada produtor troca atomicamente a cauda pelo seu nó e só depois liga
+ * o nó anterior ao novo, por isso enqueue nunca bloqueia nem repete.
+ * A cabeça só é mexida pelo consumidor. Entre a troca da cauda e a ligação
+ * o nó fica momentaneamente invisível: nesse intervalo o consumidor vê a
+ * fila como vazia (ou espera uns ciclos se já sabe que há elementos).
+ *
+ * dequeue, poll e first só podem ser chamados por uma thread de cada vez.
+ * size é O(1) e aproximado (diferença entre dois contadores).
+ *
+ * @param <T> Tipo dos elementos
+ */
+public class MpscQueue<T> implements QueueADT<T> {
+
+    private static final class No<T> {
+        private static final VarHandle PROXIMO;
+
+        static {
+            try {
+                PROXIMO = MethodHandles.lookup().findVarHandle(No.class, "proximo", No.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        T elemento;
+        volatile No<T> proximo;
+
+        No(T elemento) {
+            this.elemento = elemento;
+        }
+
+        void ligar(No<T> seguinte) {
+            PROXIMO.setRelease(this, seguinte);
+        }
+    }
+
+    // Consumidor: nó sentinela cujo seguinte é o primeiro elemento
+    private No<T> cabeca;
+    private volatile long retirados = 0;
+
+    // Produtores
+    private final AtomicReference<No<T>> cauda;
+    private final AtomicLong inseridos = new AtomicLong();
+
+    public MpscQueue() {
+        No<T> sentinela = new No<>(null);
+        this.cabeca = sentinela;
+        this.cauda = new AtomicReference<>(sentinela);
+    }
+
+    /**
+     * Adicionar elemento a fila (pode ser chamado por várias threads)
+     *
+     * @param element
+     */
+    @Override
+    public void enqueue(T element) {
+        if (element == null) {
+            throw new InvalidParameterException("Elemento não pode ser nulo.");
+        }
+
+        No<T> novo = new No<>(element);
+        No<T> anterior = cauda.getAndSet(novo);
+        anterior.ligar(novo);
+        inseridos.incrementAndGet();
+    }
+
+    /**
+     * Remover o primeiro elemento, sem exceção se a fila estiver vazia
+     * (apenas o consumidor)
+     *
+     * @return Primeiro elemento, ou null se a fila estiver vazia
+     */
+    public T poll() {
+        No<T> seguinte = cabeca.proximo;
+
+        if (seguinte == null) {
+            if (cabeca == cauda.get()) {
+                return null;
+            }
+            // Um produtor já trocou a cauda mas ainda não ligou o nó
+            while ((seguinte = cabeca.proximo) == null) {
+                Thread.onSpinWait();
+            }
+        }
+
+        T resultado = seguinte.elemento;
+        seguinte.elemento = null;
+        cabeca.proximo = null;
+        cabeca = seguinte;
+        retirados = retirados + 1;
+        return resultado;
+    }
+
+    /**
+     * Remover elemento da fila (apenas o consumidor)
+     *
+     * @return
+     * @throws EmptyCollectionException
+     */
+    @Override
+    public T dequeue() throws EmptyCollectionException {
+        T resultado = poll();
+        if (resultado == null) {
+            throw new EmptyCollectionException("Lista está vazia");
+        }
+        return resultado;
+    }
+
+    /**
+     * Obter o primeiro elemento da fila (apenas o consumidor)
+     *
+     * @return
+     * @throws EmptyCollectionException
+     */
+    @Override
+    public T first() throws EmptyCollectionException {
+        No<T> seguinte = cabeca.proximo;
+        if (seguinte == null) {
+            throw new EmptyCollectionException("Lista está vazia");
+        }
+        return seguinte.elemento;
+    }
+
+    /**
+     * Verificar se a fila está vazia (aproximado se houver inserções em curso)
+     *
+     * @return
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Devolver o tamanho aproximado da fila, em O(1)
+     *
+     * @return
+     */
+    @Override
+    public int size() {
+        long tamanho = inseridos.get() - retirados;
+        return (int) Math.max(0, Math.min(tamanho, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Representação em string da fila
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        return "MpscQueue[tamanho=" + size() + "]";
+    }
+}
@@ -0,0 +1,51 @@
+package Cruzamentos;
+
+/**
+ * Agendador de tarefas de um cruzamento.
+ *
+ * Todas as tarefas de um cruzamento (fases dos semáforos, passagem de
+ * veículos, envio de estatísticas) correm no mesmo agendador, uma de cada
+ * vez e pela ordem dos instantes marcados, por isso não precisam de
+ * sincronização entre si. O tempo é medido em nanossegundos (ver agora()).
+ */
+public interface Agendador {
+
+    /**
+     * Obtém o instante atual do agendador.
+     *
+     * @return Instante atual (ns)
+     */
+    long agora();
+
+    /**
+     * Agenda uma tarefa para daqui a atrasoNs.
+     *
+     * @param tarefa Tarefa a executar
+     * @param atrasoNs Atraso em ns (0 ou negativo executa logo que possível)
+     */
+    void agendar(Runnable tarefa, long atrasoNs);
+
+    /**
+     * Agenda uma tarefa para executar periodicamente.
+     *
+     * @param tarefa Tarefa a executar
+     * @param atrasoInicialNs Atraso da primeira execução em ns
+     * @param periodoNs Período em ns
+     */
+    void agendarPeriodico(Runnable tarefa, long atrasoInicialNs, long periodoNs);
+
+    /**
+     * Executa uma tarefa no agendador logo que possível.
+     * Pode ser chamado a partir de qualquer thread.
+     *
+     * @param tarefa Tarefa a executar
+     */
+    default void executar(Runnable tarefa) {
+        agendar(tarefa, 0);
+    }
+
+    /**
+     * Para o agendador; as tarefas pendentes são descartadas.
+     */
+    void parar();
+}
@@ -0,0 +1,78 @@
+package Cruzamentos;
+
+import Dashboard.Logs.TipoLog;
+import Logging.LogClienteDashboard;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agendador em tempo real, com uma única thread por cruzamento
+ * (ScheduledThreadPoolExecutor de tamanho 1).
+ *
+ * Substitui a thread por semáforo: os semáforos que estão vermelhos não
+ * ocupam nenhuma thread, apenas uma tarefa agendada quando chega a sua vez.
+ */
+public class AgendadorExecutor implements Agendador {
+    private final String nome;
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Construtor da classe
+     *
+     * @param nome Nome da thread do agendador (ex: "Agendador-Cr1")
+     */
+    public AgendadorExecutor(String nome) {
+        this.nome = nome;
+        this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, nome);
+            t.setDaemon(true);
+            return t;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    @Override
+    public long agora() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void agendar(Runnable tarefa, long atrasoNs) {
+        try {
+            executor.schedule(protegida(tarefa), Math.max(0, atrasoNs), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Agendador parado: a tarefa é descartada
+        }
+    }
+
+    @Override
+    public void agendarPeriodico(Runnable tarefa, long atrasoInicialNs, long periodoNs) {
+        try {
+            executor.scheduleAtFixedRate(protegida(tarefa), Math.max(0, atrasoInicialNs), periodoNs, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Agendador parado: a tarefa é descartada
+        }
+    }
+
+    @Override
+    public void parar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Regista as exceções das tarefas, que o executor guardaria em silêncio
+     * (e, nas periódicas, cancelaria as execuções seguintes).
+     */
+    private Runnable protegida(Runnable tarefa) {
+        return () -> {
+            try {
+                tarefa.run();
+            } catch (RuntimeException e) {
+                LogClienteDashboard.enviar(TipoLog.ERRO, "[" + nome + "] Erro numa tarefa agendada: " + e);
+            }
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package Cruzamentos;
+
+import Dashboard.Logs.TipoLog;
+import Logging.LogClienteDashboard;
+
+import java.util.PriorityQueue;
+
+/**
+ * Agendador em tempo virtual, para simulação por eventos discretos.
+ *
+ * As tarefas ficam num calendário (fila de prioridade ordenada pelo instante
+ * e, em caso de empate, pela ordem de agendamento). Não há esperas reais:
+ * executarProximo() avança o relógio virtual diretamente para o próximo
+ * evento, por isso a simulação corre tão depressa quanto o CPU permitir.
+ *
+ * Pode ser partilhado por todos os cruzamentos de uma simulação. Não é
+ * thread-safe: todas as chamadas devem ser feitas na thread que executa
+ * o calendário (as tarefas agendam outras tarefas nessa mesma thread).
+ */
+public class AgendadorVirtual implements Agendador {
+
+    /**
+     * Evento do calendário.
+     */
+    private record Evento(long instanteNs, long sequencia, Runnable tarefa) implements Comparable<Evento> {
+        @Override
+        public int compareTo(Evento outro) {
+            int c = Long.compare(instanteNs, outro.instanteNs);
+            return c != 0 ? c : Long.compare(sequencia, outro.sequencia);
+        }
+    }
+
+    private final PriorityQueue<Evento> calendario = new PriorityQueue<>();
+    private long agoraNs = 0;
+    private long sequencia = 0;
+    private long eventosExecutados = 0;
+    private boolean ativo = true;
+
+    @Override
+    public long agora() {
+        return agoraNs;
+    }
+
+    @Override
+    public void agendar(Runnable tarefa, long atrasoNs) {
+        if (!ativo) {
+            return;
+        }
+        calendario.add(new Evento(agoraNs + Math.max(0, atrasoNs), sequencia++, tarefa));
+    }
+
+    @Override
+    public void agendarPeriodico(Runnable tarefa, long atrasoInicialNs, long periodoNs) {
+        if (periodoNs <= 0) {
+            throw new IllegalArgumentException("Período deve ser positivo");
+        }
+        agendar(new Runnable() {
+            @Override
+            public void run() {
+                // Reagenda primeiro, para manter o período mesmo que a tarefa falhe
+                agendar(this, periodoNs);
+                tarefa.run();
+            }
+        }, atrasoInicialNs);
+    }
+
+    /**
+     * Avança o relógio até ao próximo evento do calendário e executa-o.
+     *
+     * @return False se o calendário estiver vazio ou o agendador parado
+     */
+    public boolean executarProximo() {
+        Evento evento = ativo ? calendario.poll() : null;
+        if (evento == null) {
+            return false;
+        }
+
+        agoraNs = evento.instanteNs();
+        eventosExecutados++;
+        try {
+            evento.tarefa().run();
+        } catch (RuntimeException e) {
+            LogClienteDashboard.enviar(TipoLog.ERRO, "[AgendadorVirtual] Erro numa tarefa agendada: " + e);
+        }
+        return true;
+    }
+
+    /**
+     * Executa os eventos até ao instante indicado (inclusive) ou até o calendário esvaziar.
+     * No fim o relógio fica no instante indicado, se o agendador não tiver sido parado.
+     *
+     * @param instanteNs Instante virtual final (ns)
+     */
+    public void executarAte(long instanteNs) {
+        while (ativo) {
+            Evento proximo = calendario.peek();
+            if (proximo == null || proximo.instanteNs() > instanteNs) {
+                break;
+            }
+            executarProximo();
+        }
+        if (ativo) {
+            agoraNs = Math.max(agoraNs, instanteNs);
+        }
+    }
+
+    /**
+     * Obtém o número de eventos executados desde a criação.
+     *
+     * @return Total de eventos executados
+     */
+    public long getEventosExecutados() {
+        return eventosExecutados;
+    }
+
+    /**
+     * Obtém o número de eventos ainda no calendário.
+     *
+     * @return Eventos pendentes
+     */
+    public int getEventosPendentes() {
+        return calendario.size();
+    }
+
+    @Override
+    public void parar() {
+        ativo = false;
+        calendario.clear();
+    }
+}
@@ -3,22 +3,15 @@ package Cruzamentos;
 import Dashboard.Logs.TipoLog;
 import Logging.LogClienteDashboard;
 import Veiculo.Veiculo;
-import Rede.Mensagem;
-import Rede.Cliente;
-
-import java.util.HashMap;
-import java.util.Map;
+import Rede.Transporte;
 
 /**
- * Cliente TCP utilizado por um cruzamento para enviar veículos
- * ao próximo cruzamento ou à Saída.
+ * Cliente utilizado por um cruzamento para enviar veículos
+ * ao próximo cruzamento ou à Saída, pelo transporte configurado.
  */
-public class ClienteCruzamento extends Thread {
-    private static final long INTERVALO_KEEPALIVE_MS = 5000;
-
+public class ClienteCruzamento {
     private final String nomeCruzamentoDestino;
-    private final Cliente clienteGenerico;
-    private volatile boolean ativo = true;
+    private final Transporte.Destino destino;
 
     /**
      * Construtor da classe
@@ -26,22 +19,11 @@ public class ClienteCruzamento extends Thread {
      * @param nomeCruzamentoDestino  Nome do cruzamento de destino
      * @param ipDestino              Endereço IP do destino
      * @param portaDestino           Porta TCP do destino
+     * @param transporte             Transporte usado para entregar os veículos
      */
-    public ClienteCruzamento(String nomeCruzamentoDestino, String ipDestino, int portaDestino) {
-        super("Cliente->" + nomeCruzamentoDestino);
+    public ClienteCruzamento(String nomeCruzamentoDestino, String ipDestino, int portaDestino, Transporte transporte) {
         this.nomeCruzamentoDestino = nomeCruzamentoDestino;
-        this.clienteGenerico = new Cliente(ipDestino, portaDestino);
-    }
-
-    @Override
-    public void run() {
-        while (ativo) {
-            try {
-                Thread.sleep(INTERVALO_KEEPALIVE_MS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
+        this.destino = transporte.ligar(ipDestino, portaDestino);
     }
 
     /**
@@ -60,19 +42,12 @@ public class ClienteCruzamento extends Thread {
             return;
         }
 
+        // O veículo não é lido depois do envio (pode voltar ao PoolVeiculos)
+        String idVeiculo = veiculo.getId();
         try {
-            Map<String, Object> conteudo = new HashMap<>();
-            conteudo.put("veiculo", veiculo);
-            conteudo.put("origem", origem);
-
-            Mensagem mensagem = new Mensagem(
-                    "VEICULO",
-                    origem,
-                    nomeCruzamentoDestino,
-                    conteudo
-            );
-
-            clienteGenerico.enviarMensagem(mensagem);
+            if (!destino.enviarVeiculo(veiculo, origem)) {
+                LogClienteDashboard.enviar(TipoLog.AVISO, "Veículo " + idVeiculo + " não foi entregue a " + nomeCruzamentoDestino);
+            }
         } catch (Exception e) {
             LogClienteDashboard.enviar(TipoLog.ERRO, "Falha ao enviar veículo para " + nomeCruzamentoDestino + ": " + e.getMessage());
         }
@@ -82,8 +57,7 @@ public class ClienteCruzamento extends Thread {
      * Parar cliente
      */
     public void parar() {
-        ativo = false;
-        interrupt();
+        destino.fechar();
     }
 }
 
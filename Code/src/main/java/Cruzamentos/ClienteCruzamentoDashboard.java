@@ -7,16 +7,23 @@ import Rede.Cliente;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Thread responsável por enviar periodicamente o estado do cruzamento para o Dashboard.
- * O envio é contínuo enquanto o cruzamento estiver ativo.
+ * Envia periodicamente o estado do cruzamento para o Dashboard.
+ *
+ * O estado é recolhido numa tarefa periódica no Agendador do cruzamento
+ * (sem concorrer com os semáforos); o envio em si corre numa thread virtual,
+ * para que um Dashboard lento não atrase as fases. Se o envio anterior ainda
+ * não terminou, o estado desse período é descartado.
  */
-public class ClienteCruzamentoDashboard extends Thread {
+public class ClienteCruzamentoDashboard {
     private static final long INTERVALO_KEEPALIVE_MS = 2000;
 
     private final Cruzamento cruzamento;
     private final Cliente clienteDashboard;
+    private final AtomicBoolean emEnvio = new AtomicBoolean(false);
     private volatile boolean ativo = true;
 
     // Frequência de envio das estatísticas ao Dashboard
@@ -30,47 +37,49 @@ public class ClienteCruzamentoDashboard extends Thread {
      * @param cruzamento      Referência ao cruzamento associado a este cliente
      */
     public ClienteCruzamentoDashboard(String ipDashboard, int portaDashboard, Cruzamento cruzamento) {
-        super("DashboardCliente-" + cruzamento.getNomeCruzamento());
         this.cruzamento = cruzamento;
         this.clienteDashboard = new Cliente(ipDashboard, portaDashboard);
     }
 
     /**
-     * Execução base da thread
+     * Inicia o envio periódico no agendador do cruzamento.
+     *
+     * @param agendador Agendador do cruzamento
      */
-    @Override
-    public void run() {
-        try {
-            Thread.sleep(INTERVALO_KEEPALIVE_MS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    public void iniciar(Agendador agendador) {
+        agendador.agendarPeriodico(this::enviarEstatisticas,
+                TimeUnit.MILLISECONDS.toNanos(INTERVALO_KEEPALIVE_MS),
+                TimeUnit.MILLISECONDS.toNanos(INTERVALO_ENVIO_MS));
+    }
 
-        while (ativo) {
-            try {
-                // Obtém o estado detalhado do cruzamento
-                Map<String, Object> estadoCruzamento = cruzamento.gerarEstatisticas();
+    /**
+     * Recolhe o estado do cruzamento e envia-o ao Dashboard.
+     */
+    private void enviarEstatisticas() {
+        if (!ativo || !emEnvio.compareAndSet(false, true)) {
+            return;
+        }
 
-                // Prepara mensagem JSON
-                Map<String, Object> conteudo = new HashMap<>();
-                conteudo.put("estado", estadoCruzamento);
+        // Obtém o estado detalhado do cruzamento
+        Map<String, Object> conteudo = new HashMap<>();
+        conteudo.put("estado", cruzamento.gerarEstatisticas());
 
-                Mensagem mensagem = new Mensagem(
-                        "ESTATISTICA",
-                        cruzamento.getNomeCruzamento(),
-                        "Dashboard",
-                        conteudo
-                );
+        Mensagem mensagem = new Mensagem(
+                "ESTATISTICA",
+                cruzamento.getNomeCruzamento(),
+                "Dashboard",
+                conteudo
+        );
 
+        Thread.ofVirtual().name("Estatisticas-" + cruzamento.getNomeCruzamento()).start(() -> {
+            try {
                 clienteDashboard.enviarMensagem(mensagem);
-
-                Thread.sleep(INTERVALO_ENVIO_MS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
             } catch (Exception e) {
-                LogClienteDashboard.enviar(TipoLog.ERRO,"[" + cruzamento.getNomeCruzamento() + "] Erro ao enviar estatísticas: " + e.getMessage());
+                LogClienteDashboard.enviar(TipoLog.ERRO, "[" + cruzamento.getNomeCruzamento() + "] Erro ao enviar estatísticas: " + e.getMessage());
+            } finally {
+                emEnvio.set(false);
             }
-        }
+        });
     }
 
     /**
@@ -78,7 +87,5 @@ public class ClienteCruzamentoDashboard extends Thread {
      */
     public void parar() {
         ativo = false;
-        interrupt();
     }
 }
-
@@ -0,0 +1,59 @@
+package Cruzamentos;
+
+/**
+ * Controlador atuado: o verde dura pelo menos verdeMin e é prolongado
+ * enquanto continuam a passar veículos com intervalos inferiores a
+ * "intervalo" (gap-out), até ao máximo verdeMax (max-out).
+ *
+ * As fases seguem pela ordem, saltando as que têm a fila vazia. Se todas
+ * estiverem vazias, segue para a próxima fase, que espera no máximo
+ * verdeMin por um veículo.
+ */
+class ControladorAtuado extends ControladorSemaforos {
+    private final long verdeMinNs;
+    private final long verdeMaxNs;
+    private final long intervaloNs;
+
+    /**
+     * Construtor da classe
+     *
+     * @param verdeMinMs Verde mínimo
+     * @param verdeMaxMs Verde máximo
+     * @param intervaloMs Intervalo máximo entre veículos para prolongar o verde
+     */
+    ControladorAtuado(long verdeMinMs, long verdeMaxMs, long intervaloMs) {
+        if (verdeMinMs <= 0 || verdeMaxMs < verdeMinMs) {
+            throw new IllegalArgumentException("Verde mínimo deve ser positivo e não superior ao máximo");
+        }
+        if (intervaloMs <= 0) {
+            throw new IllegalArgumentException("Intervalo entre veículos deve ser positivo");
+        }
+        this.verdeMinNs = ns(verdeMinMs);
+        this.verdeMaxNs = ns(verdeMaxMs);
+        this.intervaloNs = ns(intervaloMs);
+    }
+
+    @Override
+    public TipoControlador getTipo() {
+        return TipoControlador.ATUADO;
+    }
+
+    @Override
+    public int proximaFase(int atual, int[] tamanhosFilas) {
+        int total = tamanhosFilas.length;
+
+        for (int i = 1; i <= total; i++) {
+            int fase = (atual + i) % total;
+            if (tamanhosFilas[fase] > 0) {
+                return fase;
+            }
+        }
+        return seguinte(atual, total);
+    }
+
+    @Override
+    public long fimVerde(long inicioVerdeNs, long ultimoVeiculoNs) {
+        long fim = Math.max(inicioVerdeNs + verdeMinNs, ultimoVeiculoNs + intervaloNs);
+        return Math.min(fim, inicioVerdeNs + verdeMaxNs);
+    }
+}
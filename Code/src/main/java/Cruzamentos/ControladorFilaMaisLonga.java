@@ -0,0 +1,72 @@
+package Cruzamentos;
+
+/**
+ * Controlador que dá o verde à fase com a maior fila (longest-queue-first).
+ * A duração do verde segue as mesmas regras do ControladorAtuado.
+ *
+ * Só por si, a fila mais longa pode deixar à espera para sempre uma fase com
+ * pouca procura, enquanto outras tiverem filas maiores. Por isso conta-se,
+ * para cada fase com veículos à espera, quantas vezes foi preterida: ao fim
+ * de maxSaltos vezes passa à frente das restantes. Assim, um veículo espera
+ * no máximo cerca de (maxSaltos + número de fases) verdes máximos.
+ *
+ * Em caso de empate (no tamanho ou entre fases preteridas) ganha a primeira
+ * fase pela ordem de rotação.
+ */
+class ControladorFilaMaisLonga extends ControladorAtuado {
+    private final int maxSaltos;
+
+    // Vezes que cada fase com fila foi preterida desde o seu último verde
+    private int[] saltos = new int[0];
+
+    /**
+     * Construtor da classe
+     *
+     * @param verdeMinMs Verde mínimo
+     * @param verdeMaxMs Verde máximo
+     * @param intervaloMs Intervalo máximo entre veículos para prolongar o verde
+     * @param maxSaltos Vezes que uma fase com fila pode ser preterida antes de ter prioridade
+     */
+    ControladorFilaMaisLonga(long verdeMinMs, long verdeMaxMs, long intervaloMs, int maxSaltos) {
+        super(verdeMinMs, verdeMaxMs, intervaloMs);
+        if (maxSaltos <= 0) {
+            throw new IllegalArgumentException("Número máximo de saltos deve ser positivo");
+        }
+        this.maxSaltos = maxSaltos;
+    }
+
+    @Override
+    public TipoControlador getTipo() {
+        return TipoControlador.FILA_MAIS_LONGA;
+    }
+
+    @Override
+    public int proximaFase(int atual, int[] tamanhosFilas) {
+        int total = tamanhosFilas.length;
+        if (saltos.length != total) {
+            saltos = new int[total];
+        }
+
+        int escolhida = seguinte(atual, total);
+        int preterida = -1;
+
+        for (int i = 1; i <= total; i++) {
+            int fase = (atual + i) % total;
+            if (tamanhosFilas[fase] > tamanhosFilas[escolhida]) {
+                escolhida = fase;
+            }
+            if (preterida < 0 && saltos[fase] >= maxSaltos && tamanhosFilas[fase] > 0) {
+                preterida = fase;
+            }
+        }
+        if (preterida >= 0) {
+            escolhida = preterida;
+        }
+
+        // Só conta como salto se a fase tinha veículos à espera
+        for (int fase = 0; fase < total; fase++) {
+            saltos[fase] = (fase == escolhida || tamanhosFilas[fase] == 0) ? 0 : saltos[fase] + 1;
+        }
+        return escolhida;
+    }
+}
@@ -0,0 +1,36 @@
+package Cruzamentos;
+
+/**
+ * Controlador de tempo fixo: cada fase tem sempre o mesmo verde e as fases
+ * rodam pela ordem, mesmo que a fila esteja vazia.
+ */
+class ControladorFixo extends ControladorSemaforos {
+    private final long verdeNs;
+
+    /**
+     * Construtor da classe
+     *
+     * @param verdeMs Duração do verde
+     */
+    ControladorFixo(long verdeMs) {
+        if (verdeMs <= 0) {
+            throw new IllegalArgumentException("Duração do sinal verde deve ser positiva");
+        }
+        this.verdeNs = ns(verdeMs);
+    }
+
+    @Override
+    public TipoControlador getTipo() {
+        return TipoControlador.FIXO;
+    }
+
+    @Override
+    public int proximaFase(int atual, int[] tamanhosFilas) {
+        return seguinte(atual, tamanhosFilas.length);
+    }
+
+    @Override
+    public long fimVerde(long inicioVerdeNs, long ultimoVeiculoNs) {
+        return inicioVerdeNs + verdeNs;
+    }
+}
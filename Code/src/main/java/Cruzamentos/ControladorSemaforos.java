@@ -0,0 +1,87 @@
+package Cruzamentos;
+
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estratégia de controlo dos semáforos de um cruzamento.
+ *
+ * Decide qual a fase (semáforo) seguinte a receber verde, com base no
+ * tamanho das filas, e quando termina o verde da fase atual.
+ * É usada pelo MonitorSemaforos; a implementação é escolhida por
+ * TipoControlador (ver configurado()).
+ */
+public abstract class ControladorSemaforos {
+    static final long VERDE_POR_OMISSAO_MS = 5000;
+    static final long VERDE_MIN_POR_OMISSAO_MS = 1000;
+    static final long VERDE_MAX_POR_OMISSAO_MS = 8000;
+    static final long INTERVALO_POR_OMISSAO_MS = 1500;
+    static final long MAX_SALTOS_POR_OMISSAO = 3;
+
+    /**
+     * Cria o controlador definido na configuração de um cruzamento.
+     * Sem objeto "controlador", usa verde fixo de 5000 ms.
+     *
+     * @param configCruzamento Configuração do cruzamento
+     * @return Controlador configurado
+     */
+    public static ControladorSemaforos configurado(JsonObject configCruzamento) {
+        JsonObject config = (configCruzamento != null && configCruzamento.has("controlador"))
+                ? configCruzamento.getAsJsonObject("controlador") : null;
+
+        return switch (TipoControlador.configurado(config)) {
+            case FIXO -> new ControladorFixo(ler(config, "verdeMs", VERDE_POR_OMISSAO_MS));
+            case ATUADO -> new ControladorAtuado(
+                    ler(config, "verdeMinMs", VERDE_MIN_POR_OMISSAO_MS),
+                    ler(config, "verdeMaxMs", VERDE_MAX_POR_OMISSAO_MS),
+                    ler(config, "intervaloMs", INTERVALO_POR_OMISSAO_MS));
+            case FILA_MAIS_LONGA -> new ControladorFilaMaisLonga(
+                    ler(config, "verdeMinMs", VERDE_MIN_POR_OMISSAO_MS),
+                    ler(config, "verdeMaxMs", VERDE_MAX_POR_OMISSAO_MS),
+                    ler(config, "intervaloMs", INTERVALO_POR_OMISSAO_MS),
+                    (int) ler(config, "maxSaltos", MAX_SALTOS_POR_OMISSAO));
+        };
+    }
+
+    private static long ler(JsonObject config, String campo, long valorPorOmissao) {
+        return (config != null && config.has(campo)) ? config.get(campo).getAsLong() : valorPorOmissao;
+    }
+
+    /**
+     * Obtém o tipo deste controlador.
+     *
+     * @return Tipo do controlador
+     */
+    public abstract TipoControlador getTipo();
+
+    /**
+     * Escolhe a fase seguinte.
+     *
+     * @param atual Fase que acabou de terminar o verde
+     * @param tamanhosFilas Tamanho atual da fila de cada fase
+     * @return Índice da fase seguinte
+     */
+    public abstract int proximaFase(int atual, int[] tamanhosFilas);
+
+    /**
+     * Calcula o instante em que o verde da fase atual deve terminar.
+     * É chamado de novo após cada veículo, por isso pode prolongar o verde.
+     *
+     * @param inicioVerdeNs Início do verde (Agendador.agora())
+     * @param ultimoVeiculoNs Passagem do último veículo, ou o início do verde se ainda não passou nenhum
+     * @return Fim do verde (Agendador.agora())
+     */
+    public abstract long fimVerde(long inicioVerdeNs, long ultimoVeiculoNs);
+
+    /**
+     * Rotação simples: a fase a seguir à atual.
+     */
+    static int seguinte(int atual, int total) {
+        return (atual + 1) % total;
+    }
+
+    static long ns(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+}
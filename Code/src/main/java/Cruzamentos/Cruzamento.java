@@ -4,28 +4,35 @@ import Dashboard.Estatisticas.EstatisticaCruzamento;
 import Dashboard.Estatisticas.EstatisticaSemaforo;
 import Logging.LogClienteDashboard;
 import Dashboard.Logs.TipoLog;
+import Mapa.TabelaRotas;
+import Mapa.TipoEncaminhamento;
 import Veiculo.Veiculo;
 
-import com.google.gson.Gson;
+import Rede.PublicadorEventos;
+import Rede.ResumoFilas;
+import Rede.Transporte;
 
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.net.Socket;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Classe Cruzamento responsável por:
- *   Criar e gerir filas de veículos (uma por origem)
- *   Controlar os semáforos associados a cada fila
+ *   Criar e gerir as faixas: uma fila de veículos por (origem, próximo nó)
+ *   Controlar os semáforos associados a cada faixa (uma fase por origem)
  *   Receber veículos de outros cruzamentos
- *   Enviar veículos para o cruzamento seguinte ou para a saída via TCP
+ *   Enviar veículos para o cruzamento seguinte ou para a saída (TCP ou em memória)
  *   Comunicar periodicamente o seu estado ao Dashboard
+ *   No encaminhamento dinâmico, trocar resumos de filas com os vizinhos
+ *   e reescrever o caminho dos veículos à saída (ver EncaminhamentoDinamico)
  *
  * Nota:
  *   Os semáforos apenas retiram veículos da fila associada.
+ *   Os semáforos e o envio de estatísticas não têm threads próprias:
+ *   são tarefas num único Agendador por cruzamento.
  *   O envio entre cruzamentos é sempre feito pelo Cruzamento.
  */
 public class Cruzamento {
@@ -35,22 +42,45 @@ public class Cruzamento {
     private final String ipServidor;
     private final int portaServidor;
     private final Map<String, ClienteCruzamento> mapaDestinoParaCliente = new HashMap<>();
+    private final Transporte transporte;
     private ServidorCruzamento servidorCruzamento;
 
     // Dashboard
     private final String ipDashboard;
     private final int portaDashboard;
     private ClienteCruzamentoDashboard clienteCruzamentoDashboard;
+    private final PublicadorEventos publicadorEventos;
 
-    // Filas
-    private final Map<String, FilaVeiculos> mapaOrigemParaFila = new HashMap<>();
-    private final Map<FilaVeiculos, String> mapaFilaParaDestino = new HashMap<>();
+    // Faixas: origem → (próximo nó → fila), pela ordem das ligações
+    private final Map<String, Map<String, FilaVeiculos>> mapaFaixas = new LinkedHashMap<>();
+    private TipoFila tipoFila = TipoFila.MPSC;
 
     // Semáforos
     private final List<Semaforo> listaSemaforos = new ArrayList<>();
     private MonitorSemaforos monitorSemaforos;
+    private Agendador agendador;
+    private boolean agendadorProprio = false;
+    private ControladorSemaforos controlador = ControladorSemaforos.configurado(null);
+    private long limpezaMs = MonitorSemaforos.LIMPEZA_POR_OMISSAO_MS;
+
+    // Encaminhamento
+    private TipoEncaminhamento tipoEncaminhamento = TipoEncaminhamento.ESTATICO;
+    private long intervaloResumosMs = EncaminhamentoDinamico.INTERVALO_RESUMOS_POR_OMISSAO_MS;
+    private final Map<String, Transporte.Destino> vizinhosMontante = new LinkedHashMap<>();
+    private volatile EncaminhamentoDinamico encaminhamentoDinamico;
+
+    // Recetor registado no transporte: veículos e resumos de filas
+    private final Transporte.Recetor recetor = new Transporte.Recetor() {
+        @Override
+        public void receberVeiculo(Veiculo veiculo, String origem) {
+            Cruzamento.this.receberVeiculo(veiculo, origem);
+        }
 
-    private final Gson gson = new Gson();
+        @Override
+        public void receberResumo(ResumoFilas resumo) {
+            Cruzamento.this.receberResumo(resumo);
+        }
+    };
 
     /**
      * Construtor da classe.
@@ -67,6 +97,30 @@ public class Cruzamento {
         this.portaServidor = portaServidor;
         this.ipDashboard = ipDashboard;
         this.portaDashboard = portaDashboard;
+        this.publicadorEventos = PublicadorEventos.obter(ipDashboard, portaDashboard);
+        this.transporte = Transporte.configurado();
+    }
+
+    /**
+     * Construtor para simulação (ver iniciarSimulado): sem Dashboard e com
+     * o transporte indicado.
+     *
+     * @param nomeCruzamento Nome do cruzamento
+     * @param ipServidor IP do cruzamento (identifica-o no transporte)
+     * @param portaServidor Porta do cruzamento (identifica-o no transporte)
+     * @param transporte Transporte usado para receber e enviar veículos
+     */
+    public Cruzamento(String nomeCruzamento, String ipServidor, int portaServidor, Transporte transporte) {
+        if (transporte == null) {
+            throw new IllegalArgumentException("Transporte não pode ser null");
+        }
+        this.nomeCruzamento = nomeCruzamento;
+        this.ipServidor = ipServidor;
+        this.portaServidor = portaServidor;
+        this.ipDashboard = null;
+        this.portaDashboard = 0;
+        this.publicadorEventos = null;
+        this.transporte = transporte;
     }
 
     /**
@@ -78,8 +132,76 @@ public class Cruzamento {
         return nomeCruzamento;
     }
 
+    /**
+     * Define a implementação das filas criadas pelas ligações seguintes.
+     *
+     * @param tipoFila Tipo de fila
+     */
+    public void definirTipoFila(TipoFila tipoFila) {
+        if (tipoFila == null) {
+            throw new IllegalArgumentException("Tipo de fila não pode ser null");
+        }
+        this.tipoFila = tipoFila;
+    }
+
+    /**
+     * Define a estratégia de controlo dos semáforos (usada em iniciar()).
+     *
+     * @param controlador Controlador dos semáforos
+     */
+    public void definirControlador(ControladorSemaforos controlador) {
+        if (controlador == null) {
+            throw new IllegalArgumentException("Controlador não pode ser null");
+        }
+        this.controlador = controlador;
+    }
+
+    /**
+     * Define o intervalo de limpeza entre fases (usado em iniciar()).
+     *
+     * @param limpezaMs Intervalo de limpeza em ms (0 para nenhum)
+     */
+    public void definirIntervaloLimpeza(long limpezaMs) {
+        if (limpezaMs < 0) {
+            throw new IllegalArgumentException("Intervalo de limpeza não pode ser negativo");
+        }
+        this.limpezaMs = limpezaMs;
+    }
+
+    /**
+     * Define o encaminhamento dos veículos (usado em iniciar()).
+     *
+     * @param tipoEncaminhamento Tipo de encaminhamento
+     * @param intervaloResumosMs Intervalo de envio dos resumos de filas em ms (só no DINAMICO)
+     */
+    public void definirEncaminhamento(TipoEncaminhamento tipoEncaminhamento, long intervaloResumosMs) {
+        if (tipoEncaminhamento == null) {
+            throw new IllegalArgumentException("Tipo de encaminhamento não pode ser null");
+        }
+        if (intervaloResumosMs <= 0) {
+            throw new IllegalArgumentException("Intervalo dos resumos tem de ser positivo");
+        }
+        this.tipoEncaminhamento = tipoEncaminhamento;
+        this.intervaloResumosMs = intervaloResumosMs;
+    }
+
+    /**
+     * Define um cruzamento a montante (origem de ligações deste cruzamento),
+     * a quem são enviados os resumos de filas no encaminhamento dinâmico.
+     *
+     * @param nome Nome do cruzamento vizinho
+     * @param ipVizinho IP do cruzamento vizinho
+     * @param portaVizinho Porta do cruzamento vizinho
+     */
+    public void adicionarVizinhoMontante(String nome, String ipVizinho, int portaVizinho) {
+        if (!vizinhosMontante.containsKey(nome)) {
+            vizinhosMontante.put(nome, transporte.ligar(ipVizinho, portaVizinho));
+        }
+    }
+
     /**
      * Define uma ligação entre uma origem deste cruzamento e um cruzamento seguinte.
+     * Cada ligação é uma faixa, com fila e semáforo próprios.
      *
      * @param origem Nome da origem
      * @param destino Nome do próximo cruzamento
@@ -89,14 +211,17 @@ public class Cruzamento {
     public void adicionarLigacao(String origem, String destino, String ipDestino, int portaDestino) {
         LogClienteDashboard.enviar(TipoLog.SISTEMA, String.format("[%s] Configurar ligação: %s → %s", nomeCruzamento, origem, destino));
 
-        // Criar a fila associada à origem
-        FilaVeiculos fila = new FilaVeiculos();
-        mapaOrigemParaFila.put(origem, fila);
-        mapaFilaParaDestino.put(fila, destino);
+        // Criar a faixa (origem, destino)
+        Map<String, FilaVeiculos> faixas = mapaFaixas.computeIfAbsent(origem, k -> new LinkedHashMap<>());
+        if (faixas.containsKey(destino)) {
+            LogClienteDashboard.enviar(TipoLog.AVISO, String.format("[%s] Ligação repetida: %s → %s", nomeCruzamento, origem, destino));
+        } else {
+            faixas.put(destino, FilaVeiculos.criar(tipoFila));
+        }
 
-        // Criar cliente TCP apenas uma vez por destino
+        // Criar cliente apenas uma vez por destino
         if (!mapaDestinoParaCliente.containsKey(destino)) {
-            ClienteCruzamento cliente = new ClienteCruzamento(destino, ipDestino, portaDestino);
+            ClienteCruzamento cliente = new ClienteCruzamento(destino, ipDestino, portaDestino, transporte);
             mapaDestinoParaCliente.put(destino, cliente);
         }
     }
@@ -107,59 +232,136 @@ public class Cruzamento {
     public void iniciar() {
         LogClienteDashboard.enviar(TipoLog.CRUZAMENTO, "A iniciar o cruzamento " + nomeCruzamento);
 
-        monitorSemaforos = new MonitorSemaforos(mapaOrigemParaFila.size());
+        agendador = new AgendadorExecutor("Agendador-" + nomeCruzamento);
+        agendadorProprio = true;
+        criarSemaforos();
+
+        // Agora passamos o IP e a Porta
+        servidorCruzamento = new ServidorCruzamento(ipServidor, portaServidor, this);
+        servidorCruzamento.start();
+
+        // Envios de nós no mesmo processo (transporte em memória)
+        transporte.registar(ipServidor, portaServidor, recetor);
+        iniciarEncaminhamento();
+
+        clienteCruzamentoDashboard = new ClienteCruzamentoDashboard(ipDashboard, portaDashboard, this);
+        clienteCruzamentoDashboard.iniciar(agendador);
+
+        monitorSemaforos.iniciar();
+    }
 
+    /**
+     * Inicializa o cruzamento para simulação: sem servidor TCP nem Dashboard,
+     * com os semáforos no agendador indicado (ex: um AgendadorVirtual
+     * partilhado por todos os cruzamentos). Recebe veículos apenas pelo transporte.
+     *
+     * @param agendador Agendador da simulação (não é parado por parar())
+     */
+    public void iniciarSimulado(Agendador agendador) {
+        if (agendador == null) {
+            throw new IllegalArgumentException("Agendador não pode ser null");
+        }
+        this.agendador = agendador;
+        criarSemaforos();
+
+        transporte.registar(ipServidor, portaServidor, recetor);
+        iniciarEncaminhamento();
+        monitorSemaforos.iniciar();
+    }
+
+    /**
+     * Cria o monitor e os semáforos de todas as faixas no agendador atual.
+     */
+    private void criarSemaforos() {
+        monitorSemaforos = new MonitorSemaforos(agendador, controlador, limpezaMs);
+
+        // Uma fase por origem, com um semáforo por faixa
         int idSemaforo = 0;
-        for (Map.Entry<String, FilaVeiculos> entry : mapaOrigemParaFila.entrySet()) {
+        for (Map.Entry<String, Map<String, FilaVeiculos>> entry : mapaFaixas.entrySet()) {
 
             String origem = entry.getKey();
-            FilaVeiculos filaVeiculos = entry.getValue();
-
-            Semaforo semaforo = new Semaforo(
-                    idSemaforo,
-                    origem,
-                    monitorSemaforos,
-                    5000,
-                    filaVeiculos,
-                    this
-            );
-
-            listaSemaforos.add(semaforo);
-            idSemaforo++;
+            List<Semaforo> fase = new ArrayList<>();
+
+            for (Map.Entry<String, FilaVeiculos> faixa : entry.getValue().entrySet()) {
+                Semaforo semaforo = new Semaforo(
+                        idSemaforo,
+                        origem,
+                        faixa.getKey(),
+                        monitorSemaforos,
+                        faixa.getValue(),
+                        this
+                );
+
+                listaSemaforos.add(semaforo);
+                fase.add(semaforo);
+                idSemaforo++;
+            }
+
+            monitorSemaforos.adicionarFase(fase);
         }
+    }
 
-        // Agora passamos o IP e a Porta
-        servidorCruzamento = new ServidorCruzamento(ipServidor, portaServidor, this);
-        servidorCruzamento.start();
-
-        for (ClienteCruzamento cliente : mapaDestinoParaCliente.values()) {
-            cliente.start();
+    /**
+     * No encaminhamento dinâmico, agenda o envio periódico dos resumos de filas.
+     */
+    private void iniciarEncaminhamento() {
+        if (tipoEncaminhamento != TipoEncaminhamento.DINAMICO) {
+            return;
         }
 
-        clienteCruzamentoDashboard = new ClienteCruzamentoDashboard(ipDashboard, portaDashboard, this);
-        clienteCruzamentoDashboard.start();
+        encaminhamentoDinamico = new EncaminhamentoDinamico(nomeCruzamento, mapaFaixas, vizinhosMontante,
+                TabelaRotas.configurada(), agendador);
+        long periodoNs = TimeUnit.MILLISECONDS.toNanos(intervaloResumosMs);
+        agendador.agendarPeriodico(encaminhamentoDinamico::enviarResumos, periodoNs, periodoNs);
+    }
 
-        for (Semaforo semaforo : listaSemaforos) {
-            semaforo.start();
+    /**
+     * Recebe o resumo de filas de um cruzamento seguinte (ignorado no encaminhamento estático).
+     *
+     * @param resumo Resumo recebido
+     */
+    public void receberResumo(ResumoFilas resumo) {
+        EncaminhamentoDinamico encaminhamento = encaminhamentoDinamico;
+        if (encaminhamento != null) {
+            encaminhamento.receberResumo(resumo);
         }
     }
 
     /**
      * Recebe um veículo proveniente de outro cruzamento.
+     * O veículo entra na faixa da sua origem que segue para o seu próximo nó.
      *
      * @param veiculo Veículo recebido
      * @param origem Origem do envio
      */
     public void receberVeiculo(Veiculo veiculo, String origem) {
-        FilaVeiculos filaVeiculos = mapaOrigemParaFila.get(origem);
+        Map<String, FilaVeiculos> faixas = mapaFaixas.get(origem);
 
-        if (filaVeiculos == null) {
+        if (faixas == null) {
             LogClienteDashboard.enviar(TipoLog.ERRO, String.format("[%s] ERRO: Origem '%s' desconhecida", nomeCruzamento, origem));
             return;
         }
 
+        // No encaminhamento dinâmico, quem chega de uma entrada escolhe aqui a faixa
+        EncaminhamentoDinamico encaminhamento = encaminhamentoDinamico;
+        if (encaminhamento != null) {
+            encaminhamento.encaminharEntrada(veiculo, origem);
+        }
+
+        String proximo = proximoDestino(veiculo.getNoSeguinte());
+        FilaVeiculos filaVeiculos = faixas.get(proximo);
+
+        if (filaVeiculos == null) {
+            LogClienteDashboard.enviar(TipoLog.ERRO, String.format("[%s] ERRO: Sem faixa %s → %s para o veículo %s",
+                    nomeCruzamento, origem, proximo, veiculo.getId()));
+            return;
+        }
+
+        // Já na fila, o veículo pode ser enviado e voltar ao PoolVeiculos: o log usa o id lido antes
+        String idVeiculo = veiculo.getId();
         filaVeiculos.adicionar(veiculo);
-        LogClienteDashboard.enviar(TipoLog.SISTEMA, String.format("[%s] Recebido veículo %s → fila %s", nomeCruzamento, veiculo.getId(), origem));
+        LogClienteDashboard.enviar(TipoLog.FILA, () -> String.format("[%s] Recebido veículo %s → fila %s → %s",
+                nomeCruzamento, idVeiculo, origem, proximo));
     }
 
     /**
@@ -172,17 +374,26 @@ public class Cruzamento {
         // Avançar um passo no caminho
         veiculo.avancarCaminho();
 
-        // Obter próximo destino (ou "S" se for saída)
-        String destino = veiculo.getProximoNo();
-
-        if (destino == null || destino.equals(nomeCruzamento)) {
-            destino = "S";
+        // No encaminhamento dinâmico, o resto do caminho pode mudar
+        if (encaminhamentoDinamico != null) {
+            encaminhamentoDinamico.registarSaida(filaOrigem);
+            encaminhamentoDinamico.reencaminhar(veiculo);
         }
 
+        // Obter próximo destino (ou "S" se for saída)
+        String destino = proximoDestino(veiculo.getProximoNo());
+
         notificarDashboardMovimento(veiculo, nomeCruzamento, destino);
         enviarVeiculoParaDestino(destino, veiculo);
     }
 
+    /**
+     * Normaliza o próximo nó de um veículo: "S" se o caminho termina aqui.
+     */
+    private String proximoDestino(String no) {
+        return (no == null || no.equals(nomeCruzamento)) ? "S" : no;
+    }
+
     /**
      * Envia um veículo para um cruzamento destino.
      */
@@ -190,38 +401,24 @@ public class Cruzamento {
         ClienteCruzamento cliente = mapaDestinoParaCliente.get(destino);
 
         if (cliente == null) {
-            LogClienteDashboard.enviar(TipoLog.ERRO, String.format("[%s] ERRO: Cliente TCP para '%s' não existe",
+            LogClienteDashboard.enviar(TipoLog.ERRO, String.format("[%s] ERRO: Cliente para '%s' não existe",
                     nomeCruzamento, destino));
             return;
         }
 
-        LogClienteDashboard.enviar(TipoLog.SISTEMA, String.format("[%s] Enviar veículo %s → %s", nomeCruzamento, veiculo.getId(), destino));
+        LogClienteDashboard.enviar(TipoLog.SEMAFORO, "[%s] Enviar veículo %s → %s", nomeCruzamento, veiculo.getId(), destino);
         cliente.enviarVeiculo(veiculo, nomeCruzamento);
     }
 
     /**
      * Notifica o Dashboard sobre o movimento de um veículo.
+     * O evento segue no próximo lote do PublicadorEventos.
      */
     private void notificarDashboardMovimento(Veiculo veiculo, String origem, String destino) {
-        try (Socket socket = new Socket(ipDashboard, portaDashboard);
-             PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
-
-            Map<String, Object> conteudo = new HashMap<>();
-            conteudo.put("id", veiculo.getId());
-            conteudo.put("tipo", veiculo.getTipo().name());
-            conteudo.put("origem", origem);
-            conteudo.put("destino", destino);
-
-            Map<String, Object> mensagem = new HashMap<>();
-            mensagem.put("tipo", "VEICULO_MOVIMENTO");
-            mensagem.put("remetente", origem);
-            mensagem.put("destinatario", "Dashboard");
-            mensagem.put("conteudo", conteudo);
-
-            out.println(gson.toJson(mensagem));
-        } catch (IOException e) {
-            LogClienteDashboard.enviar(TipoLog.ERRO, String.format("[%s] Falha ao notificar Dashboard: %s", nomeCruzamento, e.getMessage()));
+        if (publicadorEventos == null) {
+            return;
         }
+        publicadorEventos.publicarMovimento(veiculo.getId(), veiculo.getTipo().name(), origem, destino);
     }
 
     /**
@@ -230,23 +427,43 @@ public class Cruzamento {
      * @return
      */
     public Map<String, Object> gerarEstatisticas() {
+        // Mantém compatibilidade: devolve Map<String,Object>
+        return getEstatistica().toMap();
+    }
+
+    /**
+     * Obtém o estado atual dos semáforos e da razão de verde do cruzamento.
+     *
+     * @return Estatísticas do cruzamento
+     */
+    public EstatisticaCruzamento getEstatistica() {
         List<EstatisticaSemaforo> lista = new ArrayList<>();
 
         for (Semaforo semaforo : listaSemaforos) {
             lista.add(semaforo.getEstatistica(nomeCruzamento));
         }
 
-        // Criar objeto de estatísticas do cruzamento
-        EstatisticaCruzamento estatistica = new EstatisticaCruzamento(nomeCruzamento, lista);
+        return new EstatisticaCruzamento(nomeCruzamento, lista, getRazaoVerde());
+    }
 
-        // Mantém compatibilidade: devolve Map<String,Object>
-        return estatistica.toMap();
+    /**
+     * Obtém a razão de verde efetivo do cruzamento (ver MonitorSemaforos.getRazaoVerde).
+     *
+     * @return Razão entre 0 e 1, ou 0 se o cruzamento ainda não foi iniciado
+     */
+    public double getRazaoVerde() {
+        return monitorSemaforos == null ? 0.0 : monitorSemaforos.getRazaoVerde();
     }
 
     /**
      * Encerra todos os componentes do cruzamento.
      */
     public void parar() {
+        transporte.remover(ipServidor, portaServidor);
+
+        if (monitorSemaforos != null) {
+            monitorSemaforos.parar();
+        }
         for (Semaforo semaforo : listaSemaforos) {
             semaforo.pararSemaforo();
         }
@@ -254,6 +471,9 @@ public class Cruzamento {
         for (ClienteCruzamento cliente : mapaDestinoParaCliente.values()) {
             cliente.parar();
         }
+        for (Transporte.Destino vizinho : vizinhosMontante.values()) {
+            vizinho.fechar();
+        }
 
         if (servidorCruzamento != null) {
             servidorCruzamento.pararServidor();
@@ -262,5 +482,13 @@ public class Cruzamento {
         if (clienteCruzamentoDashboard != null) {
             clienteCruzamentoDashboard.parar();
         }
+
+        if (agendador != null && agendadorProprio) {
+            agendador.parar();
+        }
+
+        if (publicadorEventos != null) {
+            publicadorEventos.descarregar();
+        }
     }
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import com.google.gson.JsonObject;
 
 import Dashboard.Logs.TipoLog;
 import Logging.LogClienteDashboard;
+import Mapa.TipoEncaminhamento;
+import Rede.Transporte;
 import Utils.ConfigLoader;
 
 /**
@@ -45,25 +47,7 @@ public class CruzamentoMain {
             JsonObject configCruzamento = carregarConfiguracao(nomeCruzamento);
 
             String nome = configCruzamento.get("nome").getAsString();
-            
-            // IMPORTANTE: Ler o IP da configuração
-            String ipServidor = configCruzamento.has("ipServidor") 
-                    ? configCruzamento.get("ipServidor").getAsString() 
-                    : "localhost";
-                    
-            int portaServidor = configCruzamento.get("portaServidor").getAsInt();
-            String ipDashboard = configCruzamento.get("ipDashboard").getAsString();
-            int portaDashboard = configCruzamento.get("portaDashboard").getAsInt();
-
-            LogClienteDashboard.enviar(
-                    TipoLog.SISTEMA,
-                    String.format("Configuração carregada para %s: servidor=%s:%d, dashboard=%s:%d",
-                            nome, ipServidor, portaServidor, ipDashboard, portaDashboard)
-            );
-
-            // Passar IP para o construtor
-            Cruzamento cruzamento = new Cruzamento(nome, ipServidor, portaServidor, ipDashboard, portaDashboard);
-            carregarLigacoes(cruzamento, configCruzamento, nome);
+            Cruzamento cruzamento = criarCruzamento(configCruzamento);
 
             cruzamento.iniciar();
             LogClienteDashboard.enviar(TipoLog.SISTEMA, "Cruzamento " + nome + " ativo e operacional");
@@ -78,6 +62,114 @@ public class CruzamentoMain {
         }
     }
 
+    /**
+     * Cria um cruzamento (ainda não iniciado) a partir da sua configuração,
+     * com o tipo de fila e todas as ligações definidas.
+     *
+     * Usado por este processo e pela simulação num único processo (Simulacao).
+     *
+     * @param configCruzamento Configuração JSON do cruzamento
+     * @return Cruzamento pronto a iniciar
+     */
+    public static Cruzamento criarCruzamento(JsonObject configCruzamento) {
+        String nome = configCruzamento.get("nome").getAsString();
+
+        // IMPORTANTE: Ler o IP da configuração
+        String ipServidor = configCruzamento.has("ipServidor")
+                ? configCruzamento.get("ipServidor").getAsString()
+                : "localhost";
+
+        int portaServidor = configCruzamento.get("portaServidor").getAsInt();
+        String ipDashboard = configCruzamento.get("ipDashboard").getAsString();
+        int portaDashboard = configCruzamento.get("portaDashboard").getAsInt();
+
+        LogClienteDashboard.enviar(
+                TipoLog.SISTEMA,
+                String.format("Configuração carregada para %s: servidor=%s:%d, dashboard=%s:%d",
+                        nome, ipServidor, portaServidor, ipDashboard, portaDashboard)
+        );
+
+        // Passar IP para o construtor
+        Cruzamento cruzamento = new Cruzamento(nome, ipServidor, portaServidor, ipDashboard, portaDashboard);
+        configurar(cruzamento, configCruzamento, nome);
+
+        return cruzamento;
+    }
+
+    /**
+     * Cria um cruzamento para simulação (ver Cruzamento.iniciarSimulado):
+     * sem Dashboard e ligado pelo transporte indicado.
+     *
+     * @param configCruzamento Configuração JSON do cruzamento
+     * @param transporte Transporte partilhado pelos nós da simulação
+     * @return Cruzamento pronto a iniciar
+     */
+    public static Cruzamento criarCruzamento(JsonObject configCruzamento, Transporte transporte) {
+        String nome = configCruzamento.get("nome").getAsString();
+        String ipServidor = configCruzamento.has("ipServidor")
+                ? configCruzamento.get("ipServidor").getAsString()
+                : "localhost";
+        int portaServidor = configCruzamento.get("portaServidor").getAsInt();
+
+        Cruzamento cruzamento = new Cruzamento(nome, ipServidor, portaServidor, transporte);
+        configurar(cruzamento, configCruzamento, nome);
+
+        return cruzamento;
+    }
+
+    /**
+     * Aplica ao cruzamento o tipo de fila, o controlador, a limpeza, o encaminhamento
+     * e as ligações configuradas.
+     */
+    private static void configurar(Cruzamento cruzamento, JsonObject configCruzamento, String nome) {
+        cruzamento.definirTipoFila(TipoFila.configurado(configCruzamento));
+        cruzamento.definirControlador(ControladorSemaforos.configurado(configCruzamento));
+        if (configCruzamento.has("limpezaMs")) {
+            cruzamento.definirIntervaloLimpeza(configCruzamento.get("limpezaMs").getAsLong());
+        }
+
+        TipoEncaminhamento encaminhamento = TipoEncaminhamento.configurado(configCruzamento);
+        cruzamento.definirEncaminhamento(encaminhamento, intervaloResumos());
+        carregarLigacoes(cruzamento, configCruzamento, nome);
+
+        if (encaminhamento == TipoEncaminhamento.DINAMICO) {
+            carregarVizinhosMontante(cruzamento, configCruzamento);
+        }
+    }
+
+    /**
+     * Obtém o intervalo dos resumos de filas ("intervaloResumosMs" da secção "rotas").
+     */
+    private static long intervaloResumos() {
+        JsonObject rotas = ConfigLoader.carregarRotas();
+        return (rotas != null && rotas.has("intervaloResumosMs"))
+                ? rotas.get("intervaloResumosMs").getAsLong()
+                : EncaminhamentoDinamico.INTERVALO_RESUMOS_POR_OMISSAO_MS;
+    }
+
+    /**
+     * Define como vizinhos a montante os cruzamentos que são origem de ligações
+     * deste cruzamento (as entradas não recebem resumos).
+     *
+     * @param cruzamento Instância do cruzamento
+     * @param config Configuração JSON do cruzamento
+     */
+    private static void carregarVizinhosMontante(Cruzamento cruzamento, JsonObject config) {
+        if (!config.has("ligacoes")) {
+            return;
+        }
+
+        for (JsonElement elem : config.getAsJsonArray("ligacoes")) {
+            String origem = elem.getAsJsonObject().get("origem").getAsString();
+            JsonObject configOrigem = ConfigLoader.carregarCruzamento(origem);
+
+            if (configOrigem != null) {
+                String ip = configOrigem.has("ipServidor") ? configOrigem.get("ipServidor").getAsString() : "localhost";
+                cruzamento.adicionarVizinhoMontante(origem, ip, configOrigem.get("portaServidor").getAsInt());
+            }
+        }
+    }
+
     /**
      * Carrega a configuração de um cruzamento específico do ficheiro configMapa.json.
      *
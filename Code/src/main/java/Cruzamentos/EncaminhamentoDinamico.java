@@ -0,0 +1,291 @@
+package Cruzamentos;
+
+import Mapa.GrafoMapa;
+import Mapa.TabelaRotas;
+import Rede.ResumoFilas;
+import Rede.Transporte;
+import Veiculo.Veiculo;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Encaminhamento dinâmico de um cruzamento (ver Mapa.TipoEncaminhamento).
+ *
+ * Periodicamente, o cruzamento envia a cada vizinho a montante (os
+ * cruzamentos de onde lhe chegam veículos) um ResumoFilas com o tempo
+ * estimado até à Saída por cada faixa que vem desse vizinho: a espera na
+ * fila da faixa mais o menor tempo anunciado pelo próximo nó. Os tempos
+ * propagam-se assim de vizinho em vizinho até à Saída.
+ *
+ * A espera numa faixa é o número de veículos à frente (mais o próprio) vezes
+ * o intervalo médio entre saídas da faixa quando tem fila, que já inclui o
+ * vermelho e a partilha do verde com as outras fases.
+ *
+ * Quando um veículo sai para o cruzamento N, a faixa em que entra em N é
+ * escolhida pelo nó que se segue a N. Entre o caminho atual e as rotas da
+ * TabelaRotas para (este cruzamento, N) que não repetem cruzamentos já
+ * percorridos, escolhe-se a de menor tempo anunciado por N para essa faixa
+ * (a atual ou a mais curta em empate) e o resto do caminho é reescrito.
+ * Sem resumo de N, o caminho não muda. Os veículos que chegam de uma
+ * entrada escolhem a faixa à chegada, com as filas do próprio cruzamento.
+ *
+ * Até chegar o resumo seguinte, cada veículo enviado soma ao tempo da sua
+ * faixa o acréscimo por veículo anunciado por N: sem isto, todos os veículos
+ * que saem entre dois resumos seguiriam pela mesma faixa.
+ */
+class EncaminhamentoDinamico {
+
+    static final long INTERVALO_RESUMOS_POR_OMISSAO_MS = 500;
+
+    private static final long SEM_ROTA = Long.MAX_VALUE;
+
+    // Peso de cada nova amostra na média móvel do intervalo entre saídas
+    private static final double PESO_AMOSTRA = 0.2;
+
+    private final String nomeCruzamento;
+    private final Map<String, Map<String, FilaVeiculos>> mapaFaixas;
+    private final Map<String, Transporte.Destino> vizinhos;
+    private final TabelaRotas tabela;
+
+    /**
+     * Último resumo de um cruzamento seguinte, com os acréscimos dos veículos enviados
+     * desde então (alterado apenas no agendador do cruzamento).
+     */
+    private record Resumo(Map<String, Long> temposMs, long acrescimoMs) {}
+
+    private final Map<String, Resumo> resumosRecebidos = new ConcurrentHashMap<>();
+
+    /**
+     * Saídas de uma faixa (alterado apenas no agendador do cruzamento).
+     */
+    private static final class SaidasFaixa {
+        long ultimaSaidaNs = -1;
+        boolean comFila = false;
+        volatile double intervaloMs;
+
+        SaidasFaixa(double intervaloInicialMs) {
+            this.intervaloMs = intervaloInicialMs;
+        }
+    }
+
+    private final Map<FilaVeiculos, SaidasFaixa> saidas = new IdentityHashMap<>();
+    private final Agendador agendador;
+
+    /**
+     * Construtor da classe
+     *
+     * @param nomeCruzamento Nome do cruzamento
+     * @param mapaFaixas Faixas do cruzamento: origem → (próximo nó → fila)
+     * @param vizinhos Cruzamentos a montante a quem enviar os resumos
+     * @param tabela Rotas alternativas de cada estado
+     * @param agendador Agendador do cruzamento (mede o intervalo entre saídas)
+     */
+    EncaminhamentoDinamico(String nomeCruzamento, Map<String, Map<String, FilaVeiculos>> mapaFaixas,
+                           Map<String, Transporte.Destino> vizinhos, TabelaRotas tabela, Agendador agendador) {
+        this.nomeCruzamento = nomeCruzamento;
+        this.mapaFaixas = mapaFaixas;
+        this.vizinhos = vizinhos;
+        this.tabela = tabela;
+        this.agendador = agendador;
+
+        // Antes da primeira medição: a passagem base, com o verde repartido pelas fases
+        double intervaloInicialMs = Semaforo.T_SEM_BASE * mapaFaixas.size();
+        for (Map<String, FilaVeiculos> faixas : mapaFaixas.values()) {
+            for (FilaVeiculos fila : faixas.values()) {
+                saidas.put(fila, new SaidasFaixa(intervaloInicialMs));
+            }
+        }
+    }
+
+    /**
+     * Regista a saída de um veículo de uma faixa (no agendador do cruzamento).
+     *
+     * @param fila Fila da faixa, já sem o veículo
+     */
+    void registarSaida(FilaVeiculos fila) {
+        SaidasFaixa faixa = saidas.get(fila);
+        if (faixa == null) {
+            return;
+        }
+
+        long agora = agendador.agora();
+        if (faixa.comFila && faixa.ultimaSaidaNs >= 0) {
+            double amostraMs = (agora - faixa.ultimaSaidaNs) / 1_000_000.0;
+            faixa.intervaloMs += PESO_AMOSTRA * (amostraMs - faixa.intervaloMs);
+        }
+        faixa.ultimaSaidaNs = agora;
+        faixa.comFila = !fila.isVazia();
+    }
+
+    /**
+     * Guarda o resumo enviado por um cruzamento seguinte.
+     * Pode ser chamado a partir de qualquer thread.
+     *
+     * @param resumo Resumo recebido
+     */
+    void receberResumo(ResumoFilas resumo) {
+        if (resumo.cruzamento() != null && resumo.temposMs() != null) {
+            resumosRecebidos.put(resumo.cruzamento(),
+                    new Resumo(new ConcurrentHashMap<>(resumo.temposMs()), resumo.acrescimoPorVeiculoMs()));
+        }
+    }
+
+    /**
+     * Envia a cada vizinho a montante o tempo estimado das faixas que vêm dele
+     * (tarefa periódica no agendador do cruzamento).
+     */
+    void enviarResumos() {
+        for (Map.Entry<String, Transporte.Destino> vizinho : vizinhos.entrySet()) {
+            Map<String, FilaVeiculos> faixas = mapaFaixas.get(vizinho.getKey());
+            if (faixas == null) {
+                continue;
+            }
+
+            Map<String, Long> tempos = new HashMap<>();
+            double acrescimoMs = 0;
+            for (Map.Entry<String, FilaVeiculos> faixa : faixas.entrySet()) {
+                acrescimoMs += saidas.get(faixa.getValue()).intervaloMs / faixas.size();
+
+                long restante = tempoRestante(faixa.getKey());
+                if (restante != SEM_ROTA) {
+                    tempos.put(faixa.getKey(), espera(faixa.getValue()) + restante);
+                }
+            }
+
+            vizinho.getValue().enviarResumo(new ResumoFilas(nomeCruzamento, tempos, (long) acrescimoMs));
+        }
+    }
+
+    /**
+     * Espera estimada de quem entra agora numa faixa.
+     */
+    private long espera(FilaVeiculos fila) {
+        return (long) ((fila.getTamanhoAtual() + 1) * saidas.get(fila).intervaloMs);
+    }
+
+    /**
+     * Tempo estimado desde a saída deste cruzamento para o próximo nó até à Saída:
+     * o menor tempo anunciado pelo próximo nó ou, sem resumo, o da rota mais
+     * curta com as filas vazias.
+     */
+    private long tempoRestante(String proximo) {
+        if (GrafoMapa.SAIDA.equals(proximo)) {
+            return 0;
+        }
+
+        Resumo resumo = resumosRecebidos.get(proximo);
+        if (resumo != null && !resumo.temposMs().isEmpty()) {
+            long menor = SEM_ROTA;
+            for (long tempo : resumo.temposMs().values()) {
+                menor = Math.min(menor, tempo);
+            }
+            return menor;
+        }
+
+        List<List<String>> rotas = tabela.getRotas(nomeCruzamento, proximo);
+        if (rotas.isEmpty()) {
+            return SEM_ROTA;
+        }
+        return (rotas.get(0).size() - 1L) * Semaforo.T_SEM_BASE * mapaFaixas.size();
+    }
+
+    /**
+     * Reescreve o resto do caminho de um veículo que já avançou para o próximo
+     * nó, pelo resumo desse nó (no agendador do cruzamento).
+     *
+     * @param veiculo Veículo que sai do cruzamento
+     */
+    void reencaminhar(Veiculo veiculo) {
+        String proximo = veiculo.getProximoNo();
+        Resumo resumo = resumosRecebidos.get(proximo);
+        if (resumo == null) {
+            return;
+        }
+
+        Map<String, Long> tempos = resumo.temposMs();
+        Escolha escolha = escolher(veiculo, tabela.getRotas(nomeCruzamento, proximo),
+                seguinte -> tempos.getOrDefault(seguinte, SEM_ROTA));
+
+        if (escolha != null) {
+            tempos.put(seguinte(escolha.rota()), escolha.tempoMs() + resumo.acrescimoMs());
+        }
+    }
+
+    /**
+     * Escolhe a faixa de um veículo que chega de uma entrada: a entrada não
+     * escolhe à saída, por isso a escolha é feita aqui, com as filas deste
+     * cruzamento e os resumos dos seguintes. Pode ser chamado a partir de
+     * qualquer thread.
+     *
+     * @param veiculo Veículo recebido (o próximo nó é este cruzamento)
+     * @param origem Entrada de onde o veículo chega
+     */
+    void encaminharEntrada(Veiculo veiculo, String origem) {
+        Map<String, FilaVeiculos> faixas = mapaFaixas.get(origem);
+        if (faixas == null || vizinhos.containsKey(origem)) {
+            return;
+        }
+
+        escolher(veiculo, tabela.getRotas(origem, nomeCruzamento), seguinte -> {
+            FilaVeiculos fila = faixas.get(seguinte);
+            long restante = tempoRestante(seguinte);
+            return (fila == null || restante == SEM_ROTA) ? SEM_ROTA : espera(fila) + restante;
+        });
+    }
+
+    /**
+     * Rota escolhida e o seu tempo estimado.
+     */
+    private record Escolha(List<String> rota, long tempoMs) {}
+
+    /**
+     * Escolhe, entre o resto do caminho atual e as rotas candidatas que não
+     * repetem cruzamentos já percorridos, a de menor tempo estimado para a
+     * faixa que usa no seu primeiro cruzamento, e reescreve o caminho se mudar.
+     *
+     * @return Rota escolhida, ou null se nenhuma tiver tempo estimado
+     */
+    private Escolha escolher(Veiculo veiculo, List<List<String>> candidatas, ToLongFunction<String> tempoFaixa) {
+        List<String> caminho = veiculo.getCaminho();
+        int indice = veiculo.getIndiceCaminhoAtual();
+        if (indice >= caminho.size()) {
+            return null;
+        }
+
+        List<String> percorridos = caminho.subList(0, indice);
+        List<String> atual = caminho.subList(indice, caminho.size());
+        List<String> melhor = atual;
+        long melhorTempo = tempoFaixa.applyAsLong(seguinte(atual));
+
+        for (List<String> rota : candidatas) {
+            long tempo = tempoFaixa.applyAsLong(seguinte(rota));
+            if (tempo < melhorTempo && !repete(rota, percorridos)) {
+                melhor = rota;
+                melhorTempo = tempo;
+            }
+        }
+
+        if (melhor != atual) {
+            veiculo.reescreverCaminho(melhor);
+        }
+        return melhorTempo == SEM_ROTA ? null : new Escolha(melhor, melhorTempo);
+    }
+
+    private static String seguinte(List<String> rota) {
+        return rota.size() > 1 ? rota.get(1) : GrafoMapa.SAIDA;
+    }
+
+    private static boolean repete(List<String> rota, List<String> percorridos) {
+        for (String no : rota) {
+            if (percorridos.contains(no)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
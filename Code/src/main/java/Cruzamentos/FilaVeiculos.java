@@ -1,80 +1,93 @@
 package Cruzamentos;
 
-import Collections.Exceptions.EmptyCollectionException;
-import Collections.Queue.LinkedQueue;
 import Veiculo.Veiculo;
 
+import java.util.concurrent.TimeUnit;
+
 /**
- * Classe que encapsula uma fila de veículos.
- * Usa uma LinkedQueue como estrutura de dados subjacente.
- * A LinkedQueue usada, foi utilizada na UC Estrutura de Dados
- * Oferece métodos sincronizados para garantir segurança em concorrência.
+ * Fila de veículos de uma origem de um cruzamento.
+ *
+ * Os veículos são adicionados pelas threads das ligações que os recebem
+ * e retirados apenas pelo Semaforo dessa origem. A implementação é escolhida
+ * por TipoFila (ver criar()).
+ *
+ * Um semáforo verde sem veículos pode registar um ouvinte de chegada em vez
+ * de ficar bloqueado numa thread (ver definirOuvinteChegada()).
  */
-public class FilaVeiculos {
+public abstract class FilaVeiculos {
 
-    /** Estrutura interna da fila */
-    private final LinkedQueue<Veiculo> filaVeiculos = new LinkedQueue<>();
+    private volatile Runnable ouvinteChegada;
 
     /**
-     * Adiciona um veículo à fila.
+     * Cria uma fila do tipo indicado.
      *
-     * @param veiculo Veículo a adicionar
+     * @param tipo Implementação a usar
+     * @return Nova fila vazia
      */
-    public synchronized void adicionar(Veiculo veiculo) {
-        if (veiculo == null) {
-            // System.err.println("[FilaVeiculos] Tentativa de adicionar veículo nulo ignorada.");
-            return;
-        }
+    public static FilaVeiculos criar(TipoFila tipo) {
+        return switch (tipo) {
+            case BLOQUEANTE -> new FilaVeiculosBloqueante();
+            case MPSC -> new FilaVeiculosMpsc();
+        };
+    }
 
-        filaVeiculos.enqueue(veiculo);
+    /**
+     * Define a ação executada, na thread de quem adiciona, após cada veículo adicionado.
+     * Deve ser rápida e não bloquear (tipicamente agenda uma tarefa).
+     *
+     * @param ouvinte Ação a executar (null para remover)
+     */
+    public void definirOuvinteChegada(Runnable ouvinte) {
+        this.ouvinteChegada = ouvinte;
+    }
 
-        // Log interno (comentado — útil para debug futuro)
-        // System.out.printf("[FilaVeiculos] Veículo %s adicionado à fila. Tamanho atual: %d%n",
-        //        veiculo.getId(), filaVeiculos.size());
+    /**
+     * Avisa o ouvinte de chegada, se existir. Chamado pelas implementações
+     * depois de o veículo estar visível na fila.
+     */
+    protected void notificarChegada() {
+        Runnable ouvinte = ouvinteChegada;
+        if (ouvinte != null) {
+            ouvinte.run();
+        }
     }
 
+    /**
+     * Adiciona um veículo à fila e acorda o semáforo se estiver à espera.
+     *
+     * @param veiculo Veículo a adicionar (null é ignorado)
+     */
+    public abstract void adicionar(Veiculo veiculo);
+
     /**
      * Remove e devolve o primeiro veículo da fila, se existir.
      *
      * @return Retorna null se a fila estiver vazia.
      */
-    public synchronized Veiculo removerSeDisponivel() {
-        if (filaVeiculos.isEmpty()) {
-            return null;
-        }
+    public abstract Veiculo removerSeDisponivel();
 
-        try {
-            return filaVeiculos.dequeue();
-        } catch (EmptyCollectionException e) {
-            return null;
-        }
-    }
+    /**
+     * Remove e devolve o primeiro veículo da fila, esperando no máximo
+     * o tempo indicado que chegue um veículo.
+     *
+     * @param tempo Tempo máximo de espera
+     * @param unidade Unidade do tempo
+     * @return Primeiro veículo, ou null se o tempo terminou com a fila vazia
+     * @throws InterruptedException se a thread for interrompida durante a espera
+     */
+    public abstract Veiculo remover(long tempo, TimeUnit unidade) throws InterruptedException;
 
     /**
      * Devolve o tamanho atual da fila.
      *
      * @return Número de veículos na fila
      */
-    public synchronized int getTamanhoAtual() {
-        return filaVeiculos.size();
-    }
+    public abstract int getTamanhoAtual();
 
     /**
      * Verifica se a fila está vazia.
      *
      * @return True se vazia, false caso contrário
      */
-    public synchronized boolean isVazia() {
-        return filaVeiculos.isEmpty();
-    }
-
-    /**
-     * Representação textual da fila (para debug)
-     *
-     * @return Uma String com dados da fila
-     */
-    @Override
-    public synchronized String toString() {
-        return filaVeiculos.toString();
-    }
-}
\ No newline at end of file
+    public abstract boolean isVazia();
+}
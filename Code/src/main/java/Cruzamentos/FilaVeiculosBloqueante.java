@@ -0,0 +1,153 @@
+package Cruzamentos;
+
+import Collections.Exceptions.EmptyCollectionException;
+import Collections.Queue.LinkedQueue;
+import Veiculo.Veiculo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fila de veículos sobre uma LinkedQueue (TipoFila.BLOQUEANTE).
+ * A LinkedQueue usada, foi utilizada na UC Estrutura de Dados
+ * Os acessos são protegidos por um ReentrantLock; a Condition "naoVazia"
+ * permite ao semáforo esperar pela chegada de um veículo em vez de
+ * verificar a fila periodicamente.
+ */
+class FilaVeiculosBloqueante extends FilaVeiculos {
+
+    /** Estrutura interna da fila */
+    private final LinkedQueue<Veiculo> filaVeiculos = new LinkedQueue<>();
+
+    private final ReentrantLock trinco = new ReentrantLock();
+    private final Condition naoVazia = trinco.newCondition();
+
+    /**
+     * Adiciona um veículo à fila e acorda quem estiver à espera.
+     *
+     * @param veiculo Veículo a adicionar
+     */
+    @Override
+    public void adicionar(Veiculo veiculo) {
+        if (veiculo == null) {
+            // System.err.println("[FilaVeiculos] Tentativa de adicionar veículo nulo ignorada.");
+            return;
+        }
+
+        trinco.lock();
+        try {
+            filaVeiculos.enqueue(veiculo);
+            naoVazia.signal();
+        } finally {
+            trinco.unlock();
+        }
+        notificarChegada();
+
+        // Log interno (comentado — útil para debug futuro)
+        // System.out.printf("[FilaVeiculos] Veículo %s adicionado à fila. Tamanho atual: %d%n",
+        //        veiculo.getId(), filaVeiculos.size());
+    }
+
+    /**
+     * Remove e devolve o primeiro veículo da fila, se existir.
+     *
+     * @return Retorna null se a fila estiver vazia.
+     */
+    @Override
+    public Veiculo removerSeDisponivel() {
+        trinco.lock();
+        try {
+            return retirarPrimeiro();
+        } finally {
+            trinco.unlock();
+        }
+    }
+
+    /**
+     * Remove e devolve o primeiro veículo da fila, esperando no máximo
+     * o tempo indicado que chegue um veículo.
+     *
+     * @param tempo Tempo máximo de espera
+     * @param unidade Unidade do tempo
+     * @return Primeiro veículo, ou null se o tempo terminou com a fila vazia
+     * @throws InterruptedException se a thread for interrompida durante a espera
+     */
+    @Override
+    public Veiculo remover(long tempo, TimeUnit unidade) throws InterruptedException {
+        long restanteNs = unidade.toNanos(tempo);
+
+        trinco.lockInterruptibly();
+        try {
+            while (filaVeiculos.isEmpty()) {
+                if (restanteNs <= 0) {
+                    return null;
+                }
+                restanteNs = naoVazia.awaitNanos(restanteNs);
+            }
+            return retirarPrimeiro();
+        } finally {
+            trinco.unlock();
+        }
+    }
+
+    /**
+     * Devolve o tamanho atual da fila.
+     *
+     * @return Número de veículos na fila
+     */
+    @Override
+    public int getTamanhoAtual() {
+        trinco.lock();
+        try {
+            return filaVeiculos.size();
+        } finally {
+            trinco.unlock();
+        }
+    }
+
+    /**
+     * Verifica se a fila está vazia.
+     *
+     * @return True se vazia, false caso contrário
+     */
+    @Override
+    public boolean isVazia() {
+        trinco.lock();
+        try {
+            return filaVeiculos.isEmpty();
+        } finally {
+            trinco.unlock();
+        }
+    }
+
+    /**
+     * Representação textual da fila (para debug)
+     *
+     * @return Uma String com dados da fila
+     */
+    @Override
+    public String toString() {
+        trinco.lock();
+        try {
+            return filaVeiculos.toString();
+        } finally {
+            trinco.unlock();
+        }
+    }
+
+    /**
+     * Retira o primeiro veículo (o trinco tem de estar adquirido).
+     */
+    private Veiculo retirarPrimeiro() {
+        if (filaVeiculos.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return filaVeiculos.dequeue();
+        } catch (EmptyCollectionException e) {
+            return null;
+        }
+    }
+}
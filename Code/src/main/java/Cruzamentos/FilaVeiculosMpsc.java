@@ -0,0 +1,94 @@
+package Cruzamentos;
+
+import Collections.Queue.MpscQueue;
+import Veiculo.Veiculo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fila de veículos sem locks (TipoFila.MPSC).
+ *
+ * Usa uma MpscQueue: as threads das ligações adicionam sem bloquear e o
+ * Semaforo, único consumidor, retira. Em remover(), com a fila vazia, o
+ * consumidor regista-se em "consumidor" e fica parado (LockSupport.parkNanos)
+ * até um produtor o acordar ou o tempo acabar. O tamanho é lido em O(1) sem locks,
+ * por isso as estatísticas não competem com o semáforo.
+ *
+ * removerSeDisponivel e remover só podem ser chamados por uma thread de cada vez.
+ */
+class FilaVeiculosMpsc extends FilaVeiculos {
+
+    private final MpscQueue<Veiculo> filaVeiculos = new MpscQueue<>();
+
+    /** Thread do semáforo quando está parada à espera de veículos */
+    private volatile Thread consumidor;
+
+    @Override
+    public void adicionar(Veiculo veiculo) {
+        if (veiculo == null) {
+            return;
+        }
+
+        filaVeiculos.enqueue(veiculo);
+
+        Thread aEspera = consumidor;
+        if (aEspera != null) {
+            LockSupport.unpark(aEspera);
+        }
+        notificarChegada();
+    }
+
+    @Override
+    public Veiculo removerSeDisponivel() {
+        return filaVeiculos.poll();
+    }
+
+    @Override
+    public Veiculo remover(long tempo, TimeUnit unidade) throws InterruptedException {
+        Veiculo veiculo = filaVeiculos.poll();
+        if (veiculo != null) {
+            return veiculo;
+        }
+
+        long prazo = System.nanoTime() + unidade.toNanos(tempo);
+        consumidor = Thread.currentThread();
+        try {
+            while (true) {
+                // Verificar depois de publicar "consumidor" para não perder um unpark
+                veiculo = filaVeiculos.poll();
+                if (veiculo != null) {
+                    return veiculo;
+                }
+
+                long restanteNs = prazo - System.nanoTime();
+                if (restanteNs <= 0) {
+                    return null;
+                }
+
+                LockSupport.parkNanos(this, restanteNs);
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            consumidor = null;
+        }
+    }
+
+    @Override
+    public int getTamanhoAtual() {
+        return filaVeiculos.size();
+    }
+
+    @Override
+    public boolean isVazia() {
+        return filaVeiculos.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return filaVeiculos.toString();
+    }
+}
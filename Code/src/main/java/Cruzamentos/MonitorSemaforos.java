@@ -1,53 +1,212 @@
 package Cruzamentos;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
+ * Sequenciador das fases de um cruzamento: garante que apenas uma fase
+ * está verde de cada vez e, no fim de cada verde, pede ao
+ * ControladorSemaforos qual a fase seguinte.
+ *
+ * Cada fase agrupa os semáforos das faixas de uma origem (um por próximo nó):
+ * ficam verdes em simultâneo e cada faixa termina o seu verde de forma
+ * independente; a fase termina quando terminar a última faixa.
  *
+ * Não bloqueia nenhuma thread: o início de cada fase é uma tarefa no
+ * Agendador do cruzamento. Entre fases aplica o intervalo de limpeza
+ * (todos vermelhos), contado a partir da passagem do último veículo:
+ * se o cruzamento já está livre (nenhum veículo passou no verde, ou a fase
+ * se repete) a fase seguinte começa de imediato. Regista também o tempo
+ * total de verde, para calcular a razão de verde efetivo do cruzamento.
+ *
+ * Os métodos de controlo das fases são chamados apenas no agendador.
  */
 public class MonitorSemaforos {
+    public static final long LIMPEZA_POR_OMISSAO_MS = 1000;
+
+    private final Agendador agendador;
+    private final ControladorSemaforos controlador;
+    private final long limpezaNs;
+
+    private final List<List<Semaforo>> fases = new ArrayList<>();
+    private int[] tamanhosFilas = new int[0];
     private int turno = 0;
-    private final int total;
+    private volatile boolean ativo = false;
+
+    // Estado da fase atual (lido e escrito apenas no agendador)
+    private int faixasPorTerminar = 0;
+    private long inicioFaseNs;
+    private long ultimoVeiculoFaseNs;
+
+    // Contabilidade da razão de verde
+    private long inicioNs;
+    private long ultimaMudancaNs;
+    private long tempoVerdeNs = 0;
 
     /**
      * Construtor da classe
      *
-     * @param total
+     * @param agendador Agendador do cruzamento
+     * @param controlador Estratégia de escolha das fases e da duração do verde
+     * @param limpezaMs Intervalo de limpeza entre fases (0 para nenhum)
      */
-    public MonitorSemaforos(int total) {
-        if (total <= 0) {
-            throw new IllegalArgumentException("Total de semáforos deve ser maior que zero");
+    public MonitorSemaforos(Agendador agendador, ControladorSemaforos controlador, long limpezaMs) {
+        if (agendador == null) {
+            throw new IllegalArgumentException("Agendador não pode ser null");
         }
-        this.total = total;
+        if (controlador == null) {
+            throw new IllegalArgumentException("Controlador não pode ser null");
+        }
+        if (limpezaMs < 0) {
+            throw new IllegalArgumentException("Intervalo de limpeza não pode ser negativo");
+        }
+        this.agendador = agendador;
+        this.controlador = controlador;
+        this.limpezaNs = TimeUnit.MILLISECONDS.toNanos(limpezaMs);
     }
 
     /**
+     * Acrescenta uma fase, com os semáforos das faixas que ficam verdes em simultâneo.
      *
-     *
-     * @param id
-     * @throws InterruptedException
+     * @param semaforos Semáforos da fase
      */
-    public synchronized void esperarVez(int id) throws InterruptedException {
-        if (id < 0 || id >= total) {
-            throw new IllegalArgumentException("ID de semáforo inválido: " + id);
+    public void adicionarFase(List<Semaforo> semaforos) {
+        if (semaforos == null || semaforos.isEmpty()) {
+            throw new IllegalArgumentException("Fase deve ter pelo menos um semáforo");
         }
-        while (turno != id)
-            wait();
+        // Percorre em vez de contains(null), que lança NullPointerException nas listas imutáveis
+        for (Semaforo semaforo : semaforos) {
+            if (semaforo == null) {
+                throw new IllegalArgumentException("Semáforo da fase não pode ser null");
+            }
+        }
+        fases.add(List.copyOf(semaforos));
     }
 
     /**
+     * Inicia o ciclo de fases, começando pela primeira.
+     */
+    public void iniciar() {
+        if (fases.isEmpty()) {
+            throw new IllegalStateException("Total de semáforos deve ser maior que zero");
+        }
+        tamanhosFilas = new int[fases.size()];
+        ativo = true;
+
+        agendador.executar(() -> {
+            synchronized (this) {
+                inicioNs = agendador.agora();
+                ultimaMudancaNs = inicioNs;
+            }
+            iniciarFase(fases.get(turno));
+        });
+    }
+
+    /**
+     * Põe verdes todas as faixas de uma fase.
+     */
+    private void iniciarFase(List<Semaforo> fase) {
+        faixasPorTerminar = fase.size();
+        inicioFaseNs = agendador.agora();
+        ultimoVeiculoFaseNs = inicioFaseNs;
+
+        for (Semaforo semaforo : fase) {
+            semaforo.iniciarVerde();
+        }
+    }
+
+    /**
+     * Termina o verde de uma faixa da fase atual. Quando terminar a última,
+     * agenda a fase escolhida pelo controlador. A fase seguinte só começa
+     * depois do intervalo de limpeza, contado a partir da passagem do último
+     * veículo em qualquer faixa da fase.
      *
-     *
+     * @param inicioVerdeNs Início do verde que terminou
+     * @param ultimoVeiculoNs Passagem do último veículo, ou o início do verde se não passou nenhum
      */
-    public synchronized void proximaVez() {
-        turno = (turno + 1) % total;
-        notifyAll();
+    public void terminarVerde(long inicioVerdeNs, long ultimoVeiculoNs) {
+        if (!ativo) {
+            return;
+        }
+
+        if (ultimoVeiculoNs != inicioVerdeNs) {
+            ultimoVeiculoFaseNs = Math.max(ultimoVeiculoFaseNs, ultimoVeiculoNs);
+        }
+        if (--faixasPorTerminar > 0) {
+            return;
+        }
+
+        long agora = agendador.agora();
+        synchronized (this) {
+            tempoVerdeNs += agora - inicioFaseNs;
+            ultimaMudancaNs = agora;
+        }
+
+        // O controlador vê a procura de cada fase: a soma das filas das suas faixas
+        for (int i = 0; i < tamanhosFilas.length; i++) {
+            int total = 0;
+            for (Semaforo semaforo : fases.get(i)) {
+                total += semaforo.getTamanhoFila();
+            }
+            tamanhosFilas[i] = total;
+        }
+
+        int anterior = turno;
+        turno = controlador.proximaFase(turno, tamanhosFilas);
+
+        // Limpeza apenas se um veículo pode ainda estar no cruzamento e a fase muda
+        boolean cruzamentoLivre = ultimoVeiculoFaseNs == inicioFaseNs || turno == anterior;
+        long inicioProxima = cruzamentoLivre ? agora : Math.max(agora, ultimoVeiculoFaseNs + limpezaNs);
+
+        List<Semaforo> proxima = fases.get(turno);
+        agendador.agendar(() -> {
+            if (ativo) {
+                iniciarFase(proxima);
+            }
+        }, inicioProxima - agora);
     }
 
     /**
+     * Calcula o fim do verde da fase atual (ver ControladorSemaforos.fimVerde).
      *
+     * @param inicioVerdeNs Início do verde
+     * @param ultimoVeiculoNs Passagem do último veículo, ou o início do verde
+     * @return Fim do verde
+     */
+    public long fimVerde(long inicioVerdeNs, long ultimoVeiculoNs) {
+        return controlador.fimVerde(inicioVerdeNs, ultimoVeiculoNs);
+    }
+
+    /**
+     * Obtém o agendador onde correm as fases.
+     */
+    public Agendador getAgendador() {
+        return agendador;
+    }
+
+    /**
+     * Obtém o controlador usado por este cruzamento.
+     */
+    public ControladorSemaforos getControlador() {
+        return controlador;
+    }
+
+    /**
+     * Calcula a razão de verde efetivo: fração do tempo, desde o arranque,
+     * em que alguma fase do cruzamento esteve verde (até à última mudança de fase).
      *
+     * @return Razão entre 0 e 1
      */
-    public synchronized void acordarTodos() {
-        notifyAll();
+    public synchronized double getRazaoVerde() {
+        long decorrido = ultimaMudancaNs - inicioNs;
+        return decorrido <= 0 ? 0.0 : (double) tempoVerdeNs / decorrido;
     }
-}
 
+    /**
+     * Para o ciclo de fases; as fases já agendadas deixam de começar.
+     */
+    public void parar() {
+        ativo = false;
+    }
+}
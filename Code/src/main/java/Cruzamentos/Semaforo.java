@@ -3,47 +3,63 @@ package Cruzamentos;
 import Dashboard.Estatisticas.EstatisticaSemaforo;
 import Veiculo.Veiculo;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Classe responsável por controlar um semáforo associado a uma fila.
- * Funciona em ciclo: VERDE durante X ms → VERMELHO durante Y ms → passa ao próximo semáforo.
+ * Classe responsável por controlar o semáforo de uma faixa: os veículos que
+ * chegam de uma origem e seguem para o mesmo próximo nó.
+ * Funciona em ciclo: VERDE enquanto o controlador do cruzamento o permitir
+ * → VERMELHO → avisa o monitor; as faixas da mesma origem partilham a fase
+ * e ficam verdes em simultâneo.
  *
+ * Não tem thread própria: o verde, a passagem de cada veículo e a espera
+ * por chegadas são tarefas no Agendador do cruzamento.
  */
-public class Semaforo extends Thread {
-    private static final long INTERVALO_VERIFICACAO_FILA_MS = 100;
-    private static final long T_SEM_BASE = 300; //Variavél para o tempo base de passagem mencionado no enunciado
+public class Semaforo {
+    static final long T_SEM_BASE = 300; //Variavél para o tempo base de passagem mencionado no enunciado
 
     private final int semaforoId;
     private final String origem;
+    private final String proximo;
     private final MonitorSemaforos monitorSemaforos;
-    private final long duracaoSinalVerdeMs;
-    private final long duracaoSinalVermelhoMs = 4000;
 
     private final FilaVeiculos filaVeiculos;
     private final Cruzamento cruzamentoAtual;
 
-    private boolean estadoVerde = false;
+    private final Agendador agendador;
+
+    private volatile boolean estadoVerde = false;
     private volatile boolean semaforoAtivo = true;
 
+    // Estado do verde atual (lido e escrito apenas no agendador)
+    private long inicioVerde;
+    private long ultimoVeiculo;
+
+    // Espera por um veículo com a fila vazia: id da espera pendente, ou 0 se não houver
+    private final AtomicLong esperaPendente = new AtomicLong(0);
+    private long ultimaEspera = 0;
+
     /**
      * Construtor da classe
      *
      * @param semaforoId  Identificador do semáforo
      * @param origem Identificador de qual entrada este semáforo controla a fila (Por exemplo E3 ou Cr1)
-     * @param monitorSemaforos Coordena qual semáforo está verde
-     * @param duracaoSinalVerdeMs Tempo de sinal verde
+     * @param proximo Próximo nó dos veículos desta faixa (Por exemplo Cr2 ou S)
+     * @param monitorSemaforos Coordena qual semáforo está verde e durante quanto tempo
      * @param filaVeiculos  Fila associada
      * @param cruzamentoAtual Cruzamento ao qual pertence
      */
-    public Semaforo(int semaforoId, String origem, MonitorSemaforos monitorSemaforos, long duracaoSinalVerdeMs, FilaVeiculos filaVeiculos, Cruzamento cruzamentoAtual) {
+    public Semaforo(int semaforoId, String origem, String proximo, MonitorSemaforos monitorSemaforos, FilaVeiculos filaVeiculos, Cruzamento cruzamentoAtual) {
         if (origem == null || origem.trim().isEmpty()) {
             throw new IllegalArgumentException("Origem não pode ser null ou vazia");
         }
+        if (proximo == null || proximo.trim().isEmpty()) {
+            throw new IllegalArgumentException("Próximo nó não pode ser null ou vazio");
+        }
         if (monitorSemaforos == null) {
             throw new IllegalArgumentException("MonitorSemaforos não pode ser null");
         }
-        if (duracaoSinalVerdeMs <= 0) {
-            throw new IllegalArgumentException("Duração do sinal verde deve ser positiva");
-        }
         if (filaVeiculos == null) {
             throw new IllegalArgumentException("FilaVeiculos não pode ser null");
         }
@@ -53,12 +69,13 @@ public class Semaforo extends Thread {
 
         this.semaforoId = semaforoId;
         this.monitorSemaforos = monitorSemaforos;
-        this.duracaoSinalVerdeMs = duracaoSinalVerdeMs;
         this.filaVeiculos = filaVeiculos;
         this.origem = origem;
+        this.proximo = proximo;
         this.cruzamentoAtual = cruzamentoAtual;
+        this.agendador = monitorSemaforos.getAgendador();
 
-        setDaemon(true);
+        filaVeiculos.definirOuvinteChegada(this::aoChegarVeiculo);
     }
 
     /**
@@ -79,6 +96,15 @@ public class Semaforo extends Thread {
         return origem;
     }
 
+    /**
+     * Obter o próximo nó dos veículos desta faixa
+     *
+     * @return Identificador do nó seguinte (Por exemplo Cr2 ou S)
+     */
+    public String getProximo() {
+        return proximo;
+    }
+
     /**
      * Obter a cor do semaforo
      *
@@ -98,10 +124,10 @@ public class Semaforo extends Thread {
     }
 
     /**
+     * Obter o estado do semáforo para o Dashboard
      *
-     *
-     * @param destino
-     * @return
+     * @param destino Cruzamento a que a faixa chega (identifica a aproximação no mapa)
+     * @return Estatística do semáforo
      */
     public EstatisticaSemaforo getEstatistica(String destino) {
         return new EstatisticaSemaforo(
@@ -109,71 +135,105 @@ public class Semaforo extends Thread {
                 estadoVerde ? "VERDE" : "VERMELHO",
                 getTamanhoFila(),
                 origem,
-                destino
+                destino,
+                proximo
         );
     }
 
     /**
-     *
+     * Início do verde deste semáforo (tarefa agendada pelo MonitorSemaforos).
+     */
+    void iniciarVerde() {
+        if (!semaforoAtivo) {
+            return;
+        }
+
+        estadoVerde = true;
+        inicioVerde = agendador.agora();
+        ultimoVeiculo = inicioVerde;
+        servir();
+    }
+
+    /**
+     * Deixa passar o próximo veículo, se houver, ou espera pela chegada de um
+     * veículo até ao fim do verde. O fim é recalculado após cada veículo:
+     * o controlador pode prolongá-lo.
+     */
+    private void servir() {
+        if (!semaforoAtivo) {
+            return;
+        }
+
+        long restanteNs = monitorSemaforos.fimVerde(inicioVerde, ultimoVeiculo) - agendador.agora();
+        if (restanteNs <= 0) {
+            terminarVerde();
+            return;
+        }
+
+        Veiculo veiculo = filaVeiculos.removerSeDisponivel();
+        if (veiculo != null) {
+            // Lido antes de enviar: depois do envio o veículo pode já ter voltado ao PoolVeiculos
+            long tempoPassagem = (long) (T_SEM_BASE * veiculo.getTipo().getFatorVelocidade());
+            cruzamentoAtual.enviarVeiculoAposPassarSemaforo(veiculo, filaVeiculos);
+
+            agendador.agendar(() -> {
+                ultimoVeiculo = agendador.agora();
+                servir();
+            }, TimeUnit.MILLISECONDS.toNanos(tempoPassagem));
+            return;
+        }
+
+        esperarChegada(restanteNs);
+    }
+
+    /**
+     * Fila vazia durante o verde: retoma quando chegar um veículo
+     * ou quando o verde terminar, o que acontecer primeiro.
      */
-    @Override
-    public void run() {
-        try {
-            while (semaforoAtivo) {
-                monitorSemaforos.esperarVez(semaforoId);
-
-                if (!semaforoAtivo) {
-                    break;
-                }
-
-                estadoVerde = true;
-
-                long inicioVerde = System.currentTimeMillis();
-
-                while (semaforoAtivo && (System.currentTimeMillis() - inicioVerde) < duracaoSinalVerdeMs) {
-                    Veiculo veiculo = filaVeiculos.removerSeDisponivel();
-
-                    if (veiculo != null) {
-                        cruzamentoAtual.enviarVeiculoAposPassarSemaforo(veiculo, filaVeiculos);
-                        long tempoPassagem = (long) (T_SEM_BASE * veiculo.getTipo().getFatorVelocidade());
-
-                        try {
-                            Thread.sleep(tempoPassagem);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            break;
-                        }
-                    } else {
-                        try {
-                            Thread.sleep(INTERVALO_VERIFICACAO_FILA_MS);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            break;
-                        }
-                    }
-                }
-
-                estadoVerde = false;
-
-                try {
-                    Thread.sleep(duracaoSinalVermelhoMs);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-
-                monitorSemaforos.proximaVez();
+    private void esperarChegada(long restanteNs) {
+        long espera = ++ultimaEspera;
+        esperaPendente.set(espera);
+
+        // Um veículo pode ter chegado antes de a espera ficar registada
+        if (!filaVeiculos.isVazia() && esperaPendente.compareAndSet(espera, 0)) {
+            servir();
+            return;
+        }
+
+        agendador.agendar(() -> {
+            if (esperaPendente.compareAndSet(espera, 0)) {
+                servir();
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        }, restanteNs);
+    }
+
+    /**
+     * Chamado na thread de quem adiciona um veículo à fila.
+     */
+    private void aoChegarVeiculo() {
+        long espera = esperaPendente.get();
+        if (espera != 0 && esperaPendente.compareAndSet(espera, 0)) {
+            agendador.executar(this::servir);
         }
     }
 
+    /**
+     * Fim do verde desta faixa: quando todas as faixas da fase terminarem,
+     * o monitor escolhe e agenda a fase seguinte.
+     */
+    private void terminarVerde() {
+        estadoVerde = false;
+
+        // O intervalo de limpeza (vermelho para todos) é aplicado pelo monitor
+        monitorSemaforos.terminarVerde(inicioVerde, ultimoVeiculo);
+    }
+
     /**
      * Para o semáforo de forma segura.
      */
     public void pararSemaforo() {
         semaforoAtivo = false;
-        interrupt();
-        monitorSemaforos.acordarTodos();
+        esperaPendente.set(0);
+        filaVeiculos.definirOuvinteChegada(null);
     }
 }
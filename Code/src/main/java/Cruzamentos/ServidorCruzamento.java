@@ -4,14 +4,16 @@ import Logging.LogClienteDashboard;
 import Dashboard.Logs.TipoLog;
 import Veiculo.Veiculo;
 import Rede.Mensagem;
+import Rede.ResumoFilas;
 import Rede.Servidor;
-
-import com.google.gson.Gson;
+import Rede.Transporte;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
 
 
 /**
@@ -19,7 +21,6 @@ import java.net.Socket;
  */
 public class ServidorCruzamento extends Servidor {
     private final Cruzamento cruzamento;
-    private final Gson gson = new Gson();
 
     public ServidorCruzamento(String ip, int porta, Cruzamento cruzamento) {
         super(ip, porta, "Servidor-" + cruzamento.getNomeCruzamento());
@@ -44,24 +45,42 @@ public class ServidorCruzamento extends Servidor {
      */
     @Override
     protected void tratarMensagem(String linha, BufferedReader leitor, PrintWriter escritor, Socket socket) throws IOException {
-        Mensagem mensagem = Mensagem.fromJson(linha);
+        tratarMensagemDescodificada(Mensagem.fromJson(linha), escritor, socket);
+    }
 
+    /**
+     *
+     *
+     * @param mensagem Mensagem recebida
+     * @param escritor PrintWriter para enviar respostas
+     * @param socket Socket da conexão
+     */
+    @Override
+    protected void tratarMensagemDescodificada(Mensagem mensagem, PrintWriter escritor, Socket socket) {
         if ("VEICULO".equalsIgnoreCase(mensagem.tipo())) {
             processarVeiculo(mensagem);
+        } else if ("RESUMO_FILAS".equalsIgnoreCase(mensagem.tipo())) {
+            processarResumo(mensagem);
         }
     }
 
+    /**
+     * Os veículos das conexões binárias seguem diretamente para o cruzamento.
+     */
+    @Override
+    protected Transporte.Recetor recetorVeiculos() {
+        return cruzamento::receberVeiculo;
+    }
+
     /**
      *
      *
      * @param mensagem
      */
     private void processarVeiculo(Mensagem mensagem) {
-        Object conteudoObj = mensagem.conteudo().get("veiculo");
-
-        if (conteudoObj != null) {
-            Veiculo veiculo = gson.fromJson(gson.toJson(conteudoObj), Veiculo.class);
+        Veiculo veiculo = mensagem.getVeiculo();
 
+        if (veiculo != null) {
             String origem = mensagem.origem();
             Object origemObj = mensagem.conteudo().get("origem");
 
@@ -73,6 +92,31 @@ public class ServidorCruzamento extends Servidor {
         }
     }
 
+    /**
+     * Entrega ao cruzamento o resumo de filas de um vizinho (encaminhamento dinâmico).
+     *
+     * @param mensagem Mensagem RESUMO_FILAS
+     */
+    private void processarResumo(Mensagem mensagem) {
+        Object tempos = mensagem.conteudo() == null ? null : mensagem.conteudo().get("tempos");
+
+        if (!(tempos instanceof Map<?, ?> mapa)) {
+            return;
+        }
+
+        Map<String, Long> temposMs = new HashMap<>();
+        for (Map.Entry<?, ?> entrada : mapa.entrySet()) {
+            if (entrada.getValue() instanceof Number tempo) {
+                temposMs.put(entrada.getKey().toString(), tempo.longValue());
+            }
+        }
+
+        Object acrescimo = mensagem.conteudo().get("acrescimo");
+        long acrescimoMs = acrescimo instanceof Number n ? n.longValue() : 0;
+
+        cruzamento.receberResumo(new ResumoFilas(mensagem.origem(), temposMs, acrescimoMs));
+    }
+
     /**
      *
      * @param e
@@ -0,0 +1,42 @@
+package Cruzamentos;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Enum que define a estratégia de controlo dos semáforos de um cruzamento.
+ *
+ * FIXO: verde de duração fixa, fases em rotação (comportamento original)
+ * ATUADO: verde entre um mínimo e um máximo, termina quando deixam de chegar
+ *         veículos (gap-out) ou no máximo (max-out); salta fases com fila vazia
+ * FILA_MAIS_LONGA: verde atuado, dado à fase com a maior fila; uma fase com
+ *                  veículos preterida maxSaltos vezes passa à frente
+ *
+ * Escolhido no campo "tipo" do objeto "controlador" de cada cruzamento no configMapa.json.
+ */
+public enum TipoControlador {
+    FIXO,
+    ATUADO,
+    FILA_MAIS_LONGA;
+
+    private static final TipoControlador POR_OMISSAO = FIXO;
+
+    /**
+     * Obtém a estratégia definida na configuração do controlador.
+     * Se não estiver definida ou for inválida, usa FIXO.
+     *
+     * @param configControlador Objeto "controlador" do cruzamento (pode ser null)
+     * @return Estratégia de controlo
+     */
+    public static TipoControlador configurado(JsonObject configControlador) {
+        if (configControlador == null || !configControlador.has("tipo")) {
+            return POR_OMISSAO;
+        }
+
+        try {
+            return TipoControlador.valueOf(configControlador.get("tipo").getAsString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[TipoControlador] Controlador desconhecido no configMapa.json, a usar " + POR_OMISSAO);
+            return POR_OMISSAO;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package Cruzamentos;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Enum que define a implementação das filas de veículos de um cruzamento.
+ *
+ * BLOQUEANTE: LinkedQueue protegida por ReentrantLock/Condition
+ * MPSC: fila sem locks para vários produtores e um consumidor (o semáforo)
+ *
+ * Escolhido no campo "tipoFila" de cada cruzamento no configMapa.json.
+ */
+public enum TipoFila {
+    BLOQUEANTE,
+    MPSC;
+
+    private static final TipoFila POR_OMISSAO = MPSC;
+
+    /**
+     * Obtém o tipo de fila definido na configuração de um cruzamento.
+     * Se não estiver definido ou for inválido, usa MPSC.
+     *
+     * @param configCruzamento Configuração do cruzamento
+     * @return Tipo de fila
+     */
+    public static TipoFila configurado(JsonObject configCruzamento) {
+        if (configCruzamento == null || !configCruzamento.has("tipoFila")) {
+            return POR_OMISSAO;
+        }
+
+        try {
+            return TipoFila.valueOf(configCruzamento.get("tipoFila").getAsString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[TipoFila] Tipo de fila desconhecido no configMapa.json, a usar " + POR_OMISSAO);
+            return POR_OMISSAO;
+        }
+    }
+}
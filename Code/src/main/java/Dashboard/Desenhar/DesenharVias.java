@@ -6,6 +6,8 @@ package Dashboard.Desenhar;
 
 import java.awt.*;
 import java.awt.geom.Point2D;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Responsável por desenhar todas as vias (ligações) no PainelMapa.
@@ -15,7 +17,8 @@ public class DesenharVias {
     private static final int ESPACAMENTO_VIA_DUPLA = 10;
 
     /**
-     * Desenha todas as vias principais do mapa.
+     * Desenha todas as vias do grafo do mapa; as que têm os dois sentidos
+     * são desenhadas como via dupla.
      *
      * @param g2d
      * @param gp
@@ -24,19 +27,17 @@ public class DesenharVias {
         g2d.setStroke(new BasicStroke(2f));
         g2d.setColor(Color.DARK_GRAY);
 
-        // Vias simples
-        desenharViaSimples(g2d, gp, "E1", "Cr1");
-        desenharViaSimples(g2d, gp, "E2", "Cr2");
-        desenharViaSimples(g2d, gp, "E3", "Cr3");
-        desenharViaSimples(g2d, gp, "Cr1", "Cr4");
-        desenharViaSimples(g2d, gp, "Cr2", "Cr5");
-        desenharViaSimples(g2d, gp, "Cr3", "S");
-        desenharViaSimples(g2d, gp, "Cr4", "Cr5");
-        desenharViaSimples(g2d, gp, "Cr5", "S");
-
-        // Vias bidirecionais
-        desenharViaBidirecional(g2d, gp, "Cr1", "Cr2");
-        desenharViaBidirecional(g2d, gp, "Cr2", "Cr3");
+        for (Map.Entry<String, Set<String>> vias : gp.getGrafo().getVias().entrySet()) {
+            String origem = vias.getKey();
+            for (String destino : vias.getValue()) {
+                if (!gp.getGrafo().isBidirecional(origem, destino)) {
+                    desenharViaSimples(g2d, gp, origem, destino);
+                } else if (origem.compareTo(destino) < 0) {
+                    // Via dupla desenhada uma só vez
+                    desenharViaBidirecional(g2d, gp, origem, destino);
+                }
+            }
+        }
     }
 
     /**
@@ -4,6 +4,8 @@
  */
 package Dashboard.Desenhar;
 
+import Mapa.GrafoMapa;
+
 import java.awt.geom.Point2D;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,6 +17,7 @@ import java.util.Map;
 public class GestorPosicoes {
     private final Map<String, Point2D> posicoes = new HashMap<>();
     private final Map<String, Point2D> posicoesSemaforos = new HashMap<>();
+    private final GrafoMapa grafo = GrafoMapa.configurado();
 
     private static final int ESPACAMENTO_VIA_DUPLA = 10;
     
@@ -44,6 +47,15 @@ public class GestorPosicoes {
         return posicoesSemaforos;
     }
     
+    /**
+     * Obtém o grafo do mapa (vias a desenhar).
+     *
+     * @return Grafo do configMapa.json
+     */
+    public GrafoMapa getGrafo() {
+        return grafo;
+    }
+
     /**
      * @param origem
      * @param destino
@@ -55,13 +67,7 @@ public class GestorPosicoes {
 
         if (p1 == null || p2 == null) return new Point2D[]{p1, p2};
 
-        boolean isBidirecional =
-                (origem.equals("Cr1") && destino.equals("Cr2")) ||
-                        (origem.equals("Cr2") && destino.equals("Cr1")) ||
-                        (origem.equals("Cr2") && destino.equals("Cr3")) ||
-                        (origem.equals("Cr3") && destino.equals("Cr2"));
-
-        if (!isBidirecional) return new Point2D[]{p1, p2};
+        if (!grafo.isBidirecional(origem, destino)) return new Point2D[]{p1, p2};
 
         double dx = p2.getX() - p1.getX();
         double dy = p2.getY() - p1.getY();
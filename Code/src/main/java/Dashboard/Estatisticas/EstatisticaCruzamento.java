@@ -15,16 +15,19 @@ import java.util.stream.Collectors;
 public class EstatisticaCruzamento {
     private final String nome;
     private final List<EstatisticaSemaforo> semaforos;
+    private final double razaoVerde;
 
     /**
      *
      *
      * @param nome
      * @param semaforos
+     * @param razaoVerde Fração do tempo com alguma fase verde (0 a 1)
      */
-    public EstatisticaCruzamento(String nome, List<EstatisticaSemaforo> semaforos) {
+    public EstatisticaCruzamento(String nome, List<EstatisticaSemaforo> semaforos, double razaoVerde) {
         this.nome = nome;
         this.semaforos = semaforos;
+        this.razaoVerde = razaoVerde;
     }
 
     /**
@@ -45,6 +48,15 @@ public class EstatisticaCruzamento {
         return semaforos;
     }
 
+    /**
+     * Obtém a razão de verde efetivo do cruzamento.
+     *
+     * @return Fração do tempo com alguma fase verde (0 a 1)
+     */
+    public double getRazaoVerde() {
+        return razaoVerde;
+    }
+
     /**
      *
      *
@@ -53,6 +65,7 @@ public class EstatisticaCruzamento {
     public Map<String, Object> toMap() {
         return Map.of(
                 "cruzamento", nome,
+                "razaoVerde", razaoVerde,
                 "semaforos", semaforos.stream()
                         .map(EstatisticaSemaforo::toMap)
                         .collect(Collectors.toList())
@@ -16,6 +16,7 @@ public class EstatisticaSemaforo {
     private final int tamanhoFila;
     private final String origem;
     private final String destino;
+    private final String proximo;
 
     /**
      * Construtor da classe
@@ -25,13 +26,15 @@ public class EstatisticaSemaforo {
      * @param tamanhoFila
      * @param origem
      * @param destino
+     * @param proximo Próximo nó dos veículos desta faixa
      */
-    public EstatisticaSemaforo(int id, String estado, int tamanhoFila, String origem, String destino) {
+    public EstatisticaSemaforo(int id, String estado, int tamanhoFila, String origem, String destino, String proximo) {
         this.id = id;
         this.estado = estado;
         this.tamanhoFila = tamanhoFila;
         this.origem = origem;
         this.destino = destino;
+        this.proximo = proximo;
     }
 
     /**
@@ -79,6 +82,15 @@ public class EstatisticaSemaforo {
         return destino;
     }
 
+    /**
+     * Obtém o próximo nó dos veículos da faixa deste semáforo.
+     *
+     * @return Próximo nó (cruzamento ou "S")
+     */
+    public String getProximo() {
+        return proximo;
+    }
+
     /**
      *
      *
@@ -90,7 +102,8 @@ public class EstatisticaSemaforo {
                 "estado", estado,
                 "tamanhoFila", tamanhoFila,
                 "origem", origem,
-                "destino", destino
+                "destino", destino,
+                "proximo", proximo
         );
     }
 }
\ No newline at end of file
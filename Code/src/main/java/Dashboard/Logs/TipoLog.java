@@ -6,28 +6,44 @@ package Dashboard.Logs;
 
 /**
  * Enum para identificar tipo de log e respetivo icone
- * 
+ *
+ * A prioridade serve para filtrar logs por nível mínimo (ver LogClienteDashboard):
+ * FILA/SEMAFORO são detalhe por veículo em cada cruzamento, VEICULO é um log
+ * por veículo, e os restantes são eventos do sistema, avisos e erros.
  */
 public enum TipoLog {
-    SISTEMA("⚙️"),
-    GERADOR("🚀"),
-    VEICULO("🚗"),
-    CRUZAMENTO("➕"),
-    FILA("📊"),
-    SEMAFORO("🚦"),
-    ERRO("❌"),
-    AVISO("⚠️"),
-    SUCESSO("✅");
+    SISTEMA("⚙️", 2),
+    GERADOR("🚀", 2),
+    VEICULO("🚗", 1),
+    CRUZAMENTO("➕", 2),
+    FILA("📊", 0),
+    SEMAFORO("🚦", 0),
+    ERRO("❌", 5),
+    AVISO("⚠️", 4),
+    SUCESSO("✅", 3);
 
     private final String icone;
+    private final int prioridade;
     
     /**
      * Construtor da classe
      * 
      * @param icone Icone associado ao texto (log)
+     * @param prioridade Prioridade para filtragem (maior = mais importante)
      */
-    TipoLog(String icone) {
+    TipoLog(String icone, int prioridade) {
         this.icone = icone;
+        this.prioridade = prioridade;
+    }
+
+    /**
+     * Verifica se este tipo passa um nível mínimo.
+     *
+     * @param minimo Nível mínimo configurado
+     * @return True se a prioridade deste tipo é pelo menos a do mínimo
+     */
+    public boolean passa(TipoLog minimo) {
+        return prioridade >= minimo.prioridade;
     }
     
     /**
@@ -0,0 +1,92 @@
+package Dashboard.Mensagens;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Campos extraídos de uma mensagem recebida pelo Dashboard.
+ *
+ * É preenchido numa única passagem pelo LeitorMensagens e reutilizado
+ * entre mensagens da mesma thread, por isso não deve sair do tratamento
+ * da mensagem: os records de cada tipo copiam daqui o que precisam.
+ *
+ * Os campos do topo da mensagem e os do "conteudo" estão separados porque
+ * alguns nomes se repetem (ex: "tipo" e "origem").
+ */
+public class CamposMensagem {
+
+    // Topo da mensagem
+    String tipo;
+    String origem;
+    String processo;
+    String nivel;
+    String mensagem;
+    long timestamp;
+
+    // Conteúdo
+    String id;
+    String tipoConteudo;
+    String tipoVeiculo;
+    String entrada;
+    String origemConteudo;
+    String destinoConteudo;
+    double tempoTotal = Double.NaN;
+    final List<String> caminho = new ArrayList<>();
+    boolean temCaminho;
+
+    // Conteúdo -> eventos (lote de movimentos)
+    final List<MensagemVeiculoMovimento> eventos = new ArrayList<>();
+    boolean temEventos;
+
+    // Conteúdo -> linhas (lote de logs)
+    final List<MensagemLog> linhas = new ArrayList<>();
+    boolean temLinhas;
+
+    // Conteúdo -> estado (estatística do cruzamento)
+    String cruzamento;
+    double razaoVerde = Double.NaN;
+    final List<MensagemEstatistica.Semaforo> semaforos = new ArrayList<>();
+    boolean temSemaforos;
+
+    /**
+     * Limpa todos os campos para reutilizar a instância.
+     */
+    void limpar() {
+        tipo = null;
+        origem = null;
+        processo = null;
+        nivel = null;
+        mensagem = null;
+        timestamp = 0;
+
+        id = null;
+        tipoConteudo = null;
+        tipoVeiculo = null;
+        entrada = null;
+        origemConteudo = null;
+        destinoConteudo = null;
+        tempoTotal = Double.NaN;
+        caminho.clear();
+        temCaminho = false;
+
+        eventos.clear();
+        temEventos = false;
+
+        linhas.clear();
+        temLinhas = false;
+
+        cruzamento = null;
+        razaoVerde = Double.NaN;
+        semaforos.clear();
+        temSemaforos = false;
+    }
+
+    /**
+     * Obtém o tipo da mensagem (campo "tipo" do topo).
+     *
+     * @return Tipo da mensagem, ou null se não existir
+     */
+    public String getTipo() {
+        return tipo;
+    }
+}
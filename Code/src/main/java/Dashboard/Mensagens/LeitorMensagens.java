@@ -0,0 +1,395 @@
+package Dashboard.Mensagens;
+
+import Rede.Mensagem;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitor em streaming (JsonReader) das mensagens recebidas pelo Dashboard.
+ *
+ * Percorre cada linha JSON uma única vez e guarda os campos conhecidos
+ * num CamposMensagem, sem construir a árvore JsonObject intermédia.
+ * Campos desconhecidos são ignorados, pela ordem em que aparecerem.
+ *
+ * As mensagens que chegam por conexões binárias já vêm descodificadas
+ * (Mensagem com o conteúdo em Map/List/Double, como o Gson o devolve) e são
+ * lidas diretamente desse mapa, sem voltar a passar por texto JSON.
+ */
+public class LeitorMensagens {
+
+    private LeitorMensagens() {}
+
+    /**
+     * Lê uma linha JSON para os campos indicados.
+     *
+     * @param json Linha recebida
+     * @param campos Destino dos campos (é limpo antes da leitura)
+     * @throws IOException se o JSON for inválido
+     */
+    public static void ler(String json, CamposMensagem campos) throws IOException {
+        campos.limpar();
+
+        try (JsonReader leitor = new JsonReader(new StringReader(json))) {
+            leitor.beginObject();
+            while (leitor.hasNext()) {
+                switch (leitor.nextName()) {
+                    case "tipo" -> campos.tipo = texto(leitor);
+                    case "origem", "remetente" -> {
+                        String origem = texto(leitor);
+                        if (campos.origem == null) {
+                            campos.origem = origem;
+                        }
+                    }
+                    case "processo" -> campos.processo = texto(leitor);
+                    case "nivel" -> campos.nivel = texto(leitor);
+                    case "mensagem" -> campos.mensagem = texto(leitor);
+                    case "timestamp" -> campos.timestamp = inteiro(leitor);
+                    case "conteudo" -> lerConteudo(leitor, campos);
+                    default -> leitor.skipValue();
+                }
+            }
+            leitor.endObject();
+        }
+    }
+
+    /**
+     * Lê uma mensagem já descodificada (conexão binária) para os campos indicados.
+     *
+     * @param mensagem Mensagem recebida
+     * @param campos Destino dos campos (é limpo antes da leitura)
+     */
+    public static void ler(Mensagem mensagem, CamposMensagem campos) {
+        campos.limpar();
+
+        campos.tipo = mensagem.tipo();
+        campos.origem = mensagem.origem();
+        campos.timestamp = mensagem.timestamp();
+
+        Map<String, Object> conteudo = mensagem.conteudo();
+        if (conteudo == null) {
+            return;
+        }
+
+        campos.id = texto(conteudo.get("id"));
+        campos.tipoConteudo = texto(conteudo.get("tipo"));
+        campos.tipoVeiculo = texto(conteudo.get("tipoVeiculo"));
+        campos.entrada = texto(conteudo.get("entrada"));
+        campos.origemConteudo = texto(conteudo.get("origem"));
+        campos.destinoConteudo = texto(conteudo.get("destino"));
+        campos.tempoTotal = numero(conteudo.get("tempoTotal"));
+
+        if (conteudo.get("caminho") instanceof List<?> caminho) {
+            campos.temCaminho = true;
+            for (Object no : caminho) {
+                campos.caminho.add(texto(no));
+            }
+        }
+
+        if (conteudo.get("estado") instanceof Map<?, ?> estado) {
+            campos.cruzamento = texto(estado.get("cruzamento"));
+            campos.razaoVerde = numero(estado.get("razaoVerde"));
+            if (estado.get("semaforos") instanceof List<?> semaforos) {
+                lerSemaforos(semaforos, campos);
+            }
+        }
+
+        if (conteudo.get("eventos") instanceof List<?> eventos) {
+            lerEventos(eventos, campos);
+        }
+
+        if (conteudo.get("linhas") instanceof List<?> linhas) {
+            lerLinhas(linhas, campos);
+        }
+    }
+
+    private static void lerEventos(List<?> eventos, CamposMensagem campos) {
+        campos.temEventos = true;
+        for (Object elemento : eventos) {
+            if (!(elemento instanceof Map<?, ?> evento)) {
+                continue;
+            }
+
+            String id = texto(evento.get("id"));
+            String tipo = texto(evento.get("tipo"));
+            String origem = texto(evento.get("origem"));
+            String destino = texto(evento.get("destino"));
+            long t = inteiro(evento.get("t"));
+
+            if (id != null && tipo != null && origem != null && destino != null) {
+                campos.eventos.add(new MensagemVeiculoMovimento(id, tipo, origem, destino, t));
+            }
+        }
+    }
+
+    private static void lerLinhas(List<?> linhas, CamposMensagem campos) {
+        campos.temLinhas = true;
+        for (Object elemento : linhas) {
+            if (!(elemento instanceof Map<?, ?> linha)) {
+                continue;
+            }
+
+            MensagemLog log = MensagemLog.de(texto(linha.get("processo")), texto(linha.get("nivel")), texto(linha.get("mensagem")));
+            if (log != null) {
+                campos.linhas.add(log);
+            }
+        }
+    }
+
+    private static void lerSemaforos(List<?> semaforos, CamposMensagem campos) {
+        campos.temSemaforos = true;
+        for (Object elemento : semaforos) {
+            if (!(elemento instanceof Map<?, ?> semaforo)) {
+                continue;
+            }
+
+            double id = numero(semaforo.get("id"));
+            String estado = texto(semaforo.get("estado"));
+            double tamanhoFila = numero(semaforo.get("tamanhoFila"));
+
+            if (id >= 0 && estado != null) {
+                campos.semaforos.add(new MensagemEstatistica.Semaforo((int) id, "VERDE".equals(estado),
+                        texto(semaforo.get("origem")), texto(semaforo.get("destino")), texto(semaforo.get("proximo")),
+                        Double.isNaN(tamanhoFila) ? 0 : (int) tamanhoFila));
+            }
+        }
+    }
+
+    private static void lerConteudo(JsonReader leitor, CamposMensagem campos) throws IOException {
+        if (leitor.peek() != JsonToken.BEGIN_OBJECT) {
+            leitor.skipValue();
+            return;
+        }
+
+        leitor.beginObject();
+        while (leitor.hasNext()) {
+            switch (leitor.nextName()) {
+                case "id" -> campos.id = texto(leitor);
+                case "tipo" -> campos.tipoConteudo = texto(leitor);
+                case "tipoVeiculo" -> campos.tipoVeiculo = texto(leitor);
+                case "entrada" -> campos.entrada = texto(leitor);
+                case "origem" -> campos.origemConteudo = texto(leitor);
+                case "destino" -> campos.destinoConteudo = texto(leitor);
+                case "tempoTotal" -> campos.tempoTotal = numero(leitor);
+                case "caminho" -> lerCaminho(leitor, campos);
+                case "estado" -> lerEstado(leitor, campos);
+                case "eventos" -> lerEventos(leitor, campos);
+                case "linhas" -> lerLinhas(leitor, campos);
+                default -> leitor.skipValue();
+            }
+        }
+        leitor.endObject();
+    }
+
+    private static void lerCaminho(JsonReader leitor, CamposMensagem campos) throws IOException {
+        if (leitor.peek() != JsonToken.BEGIN_ARRAY) {
+            leitor.skipValue();
+            return;
+        }
+
+        campos.temCaminho = true;
+        leitor.beginArray();
+        while (leitor.hasNext()) {
+            campos.caminho.add(leitor.nextString());
+        }
+        leitor.endArray();
+    }
+
+    private static void lerEventos(JsonReader leitor, CamposMensagem campos) throws IOException {
+        if (leitor.peek() != JsonToken.BEGIN_ARRAY) {
+            leitor.skipValue();
+            return;
+        }
+
+        campos.temEventos = true;
+        leitor.beginArray();
+        while (leitor.hasNext()) {
+            String id = null;
+            String tipo = null;
+            String origem = null;
+            String destino = null;
+            long t = 0;
+
+            leitor.beginObject();
+            while (leitor.hasNext()) {
+                switch (leitor.nextName()) {
+                    case "id" -> id = texto(leitor);
+                    case "tipo" -> tipo = texto(leitor);
+                    case "origem" -> origem = texto(leitor);
+                    case "destino" -> destino = texto(leitor);
+                    case "t" -> t = inteiro(leitor);
+                    default -> leitor.skipValue();
+                }
+            }
+            leitor.endObject();
+
+            if (id != null && tipo != null && origem != null && destino != null) {
+                campos.eventos.add(new MensagemVeiculoMovimento(id, tipo, origem, destino, t));
+            }
+        }
+        leitor.endArray();
+    }
+
+    private static void lerLinhas(JsonReader leitor, CamposMensagem campos) throws IOException {
+        if (leitor.peek() != JsonToken.BEGIN_ARRAY) {
+            leitor.skipValue();
+            return;
+        }
+
+        campos.temLinhas = true;
+        leitor.beginArray();
+        while (leitor.hasNext()) {
+            String processo = null;
+            String nivel = null;
+            String mensagem = null;
+
+            leitor.beginObject();
+            while (leitor.hasNext()) {
+                switch (leitor.nextName()) {
+                    case "processo" -> processo = texto(leitor);
+                    case "nivel" -> nivel = texto(leitor);
+                    case "mensagem" -> mensagem = texto(leitor);
+                    default -> leitor.skipValue();
+                }
+            }
+            leitor.endObject();
+
+            MensagemLog linha = MensagemLog.de(processo, nivel, mensagem);
+            if (linha != null) {
+                campos.linhas.add(linha);
+            }
+        }
+        leitor.endArray();
+    }
+
+    private static void lerEstado(JsonReader leitor, CamposMensagem campos) throws IOException {
+        if (leitor.peek() != JsonToken.BEGIN_OBJECT) {
+            leitor.skipValue();
+            return;
+        }
+
+        leitor.beginObject();
+        while (leitor.hasNext()) {
+            switch (leitor.nextName()) {
+                case "cruzamento" -> campos.cruzamento = texto(leitor);
+                case "razaoVerde" -> campos.razaoVerde = numero(leitor);
+                case "semaforos" -> lerSemaforos(leitor, campos);
+                default -> leitor.skipValue();
+            }
+        }
+        leitor.endObject();
+    }
+
+    private static void lerSemaforos(JsonReader leitor, CamposMensagem campos) throws IOException {
+        if (leitor.peek() != JsonToken.BEGIN_ARRAY) {
+            leitor.skipValue();
+            return;
+        }
+
+        campos.temSemaforos = true;
+        leitor.beginArray();
+        while (leitor.hasNext()) {
+            int id = -1;
+            String estado = null;
+            String origem = null;
+            String destino = null;
+            String proximo = null;
+            int tamanhoFila = 0;
+
+            leitor.beginObject();
+            while (leitor.hasNext()) {
+                switch (leitor.nextName()) {
+                    case "id" -> id = (int) numero(leitor);
+                    case "estado" -> estado = texto(leitor);
+                    case "origem" -> origem = texto(leitor);
+                    case "destino" -> destino = texto(leitor);
+                    case "proximo" -> proximo = texto(leitor);
+                    case "tamanhoFila" -> tamanhoFila = (int) numero(leitor);
+                    default -> leitor.skipValue();
+                }
+            }
+            leitor.endObject();
+
+            if (id >= 0 && estado != null) {
+                campos.semaforos.add(new MensagemEstatistica.Semaforo(id, "VERDE".equals(estado), origem, destino, proximo, tamanhoFila));
+            }
+        }
+        leitor.endArray();
+    }
+
+    /**
+     * Lê um valor textual (null se o valor for null ou não for primitivo).
+     */
+    private static String texto(JsonReader leitor) throws IOException {
+        JsonToken token = leitor.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+            return token == JsonToken.BOOLEAN ? String.valueOf(leitor.nextBoolean()) : leitor.nextString();
+        }
+        leitor.skipValue();
+        return null;
+    }
+
+    /**
+     * Lê um valor numérico (aceita também números em texto).
+     */
+    private static double numero(JsonReader leitor) throws IOException {
+        JsonToken token = leitor.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            return leitor.nextDouble();
+        }
+        leitor.skipValue();
+        return Double.NaN;
+    }
+
+    /**
+     * Lê um valor inteiro (ex: instantes em ms), ou 0 se não for numérico.
+     */
+    private static long inteiro(JsonReader leitor) throws IOException {
+        double valor = numero(leitor);
+        return Double.isNaN(valor) ? 0 : (long) valor;
+    }
+
+    /**
+     * Valor textual de um valor descodificado (os números inteiros, que o Gson
+     * devolve como Double, ficam sem casas decimais, como no JSON original).
+     */
+    private static String texto(Object valor) {
+        if (valor instanceof Double d && d == Math.rint(d) && !Double.isInfinite(d)) {
+            return Long.toString(d.longValue());
+        }
+        if (valor instanceof String || valor instanceof Number || valor instanceof Boolean) {
+            return valor.toString();
+        }
+        return null;
+    }
+
+    /**
+     * Valor numérico de um valor descodificado (aceita também números em texto).
+     */
+    private static double numero(Object valor) {
+        if (valor instanceof Number n) {
+            return n.doubleValue();
+        }
+        if (valor instanceof String s) {
+            try {
+                return Double.parseDouble(s);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Valor inteiro de um valor descodificado, ou 0 se não for numérico.
+     */
+    private static long inteiro(Object valor) {
+        double numero = numero(valor);
+        return Double.isNaN(numero) ? 0 : (long) numero;
+    }
+}
@@ -0,0 +1,38 @@
+package Dashboard.Mensagens;
+
+import java.util.List;
+
+/**
+ * Mensagem ESTATISTICA: estado dos semáforos de um cruzamento.
+ *
+ * @param cruzamento Nome do cruzamento
+ * @param semaforos Estado de cada semáforo
+ * @param razaoVerde Razão de verde efetivo (0 a 1), ou NaN se não for enviada
+ */
+public record MensagemEstatistica(String cruzamento, List<Semaforo> semaforos, double razaoVerde) {
+
+    /**
+     * Estado de um semáforo no momento do envio.
+     *
+     * @param id Identificador do semáforo no cruzamento
+     * @param verde True se o semáforo está verde
+     * @param origem Origem controlada (pode ser null)
+     * @param destino Destino controlado (pode ser null)
+     * @param proximo Próximo nó da faixa (pode ser null)
+     * @param tamanhoFila Número de veículos em fila
+     */
+    public record Semaforo(int id, boolean verde, String origem, String destino, String proximo, int tamanhoFila) {}
+
+    /**
+     * Constrói a mensagem a partir dos campos lidos.
+     *
+     * @param c Campos da mensagem
+     * @return Mensagem, ou null se faltar o cruzamento ou a lista de semáforos
+     */
+    public static MensagemEstatistica de(CamposMensagem c) {
+        if (c.origem == null || !c.temSemaforos) {
+            return null;
+        }
+        return new MensagemEstatistica(c.origem, List.copyOf(c.semaforos), c.razaoVerde);
+    }
+}
@@ -0,0 +1,45 @@
+package Dashboard.Mensagens;
+
+import Dashboard.Logs.TipoLog;
+
+/**
+ * Mensagem LOG enviada por um processo para o painel de logs.
+ *
+ * @param processo Nome do processo que enviou o log
+ * @param nivel Nível do log (AVISO se o recebido for desconhecido)
+ * @param mensagem Texto do log
+ */
+public record MensagemLog(String processo, TipoLog nivel, String mensagem) {
+
+    /**
+     * Constrói a mensagem a partir dos campos lidos.
+     *
+     * @param c Campos da mensagem
+     * @return Mensagem, ou null se faltarem campos obrigatórios
+     */
+    public static MensagemLog de(CamposMensagem c) {
+        return de(c.processo, c.nivel, c.mensagem);
+    }
+
+    /**
+     * Constrói a mensagem a partir dos campos de uma linha de log.
+     *
+     * @param processo Nome do processo
+     * @param nivelTxt Nível recebido
+     * @param mensagem Texto do log
+     * @return Mensagem, ou null se faltarem campos obrigatórios
+     */
+    static MensagemLog de(String processo, String nivelTxt, String mensagem) {
+        if (processo == null || nivelTxt == null || mensagem == null) {
+            return null;
+        }
+
+        TipoLog nivel;
+        try {
+            nivel = TipoLog.valueOf(nivelTxt);
+        } catch (IllegalArgumentException e) {
+            nivel = TipoLog.AVISO;
+        }
+        return new MensagemLog(processo, nivel, mensagem);
+    }
+}
@@ -0,0 +1,22 @@
+package Dashboard.Mensagens;
+
+import java.util.List;
+
+/**
+ * Mensagem LOG_LOTE: várias linhas de log enviadas de uma vez pelo LogSender
+ * de um processo, pela ordem em que foram registadas.
+ *
+ * @param linhas Linhas do lote
+ */
+public record MensagemLogLote(List<MensagemLog> linhas) {
+
+    /**
+     * Constrói a mensagem a partir dos campos lidos.
+     *
+     * @param c Campos da mensagem
+     * @return Mensagem, ou null se não existir a lista de linhas
+     */
+    public static MensagemLogLote de(CamposMensagem c) {
+        return c.temLinhas ? new MensagemLogLote(List.copyOf(c.linhas)) : null;
+    }
+}
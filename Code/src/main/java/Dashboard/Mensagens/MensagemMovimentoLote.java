@@ -0,0 +1,22 @@
+package Dashboard.Mensagens;
+
+import java.util.List;
+
+/**
+ * Mensagem VEICULO_MOVIMENTO_LOTE: vários movimentos agrupados pelo
+ * PublicadorEventos de um processo, pela ordem em que ocorreram.
+ *
+ * @param eventos Movimentos do lote
+ */
+public record MensagemMovimentoLote(List<MensagemVeiculoMovimento> eventos) {
+
+    /**
+     * Constrói a mensagem a partir dos campos lidos.
+     *
+     * @param c Campos da mensagem
+     * @return Mensagem, ou null se não existir a lista de eventos
+     */
+    public static MensagemMovimentoLote de(CamposMensagem c) {
+        return c.temEventos ? new MensagemMovimentoLote(List.copyOf(c.eventos)) : null;
+    }
+}
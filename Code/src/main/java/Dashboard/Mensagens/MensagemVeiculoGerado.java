@@ -0,0 +1,19 @@
+package Dashboard.Mensagens;
+
+/**
+ * Mensagem VEICULO_GERADO: um veículo foi criado num ponto de entrada.
+ *
+ * @param entrada Ponto de entrada que gerou o veículo
+ */
+public record MensagemVeiculoGerado(String entrada) {
+
+    /**
+     * Constrói a mensagem a partir dos campos lidos.
+     *
+     * @param c Campos da mensagem
+     * @return Mensagem, ou null se faltar a origem
+     */
+    public static MensagemVeiculoGerado de(CamposMensagem c) {
+        return c.origem == null ? null : new MensagemVeiculoGerado(c.origem);
+    }
+}
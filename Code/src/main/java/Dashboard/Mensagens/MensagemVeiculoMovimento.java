@@ -0,0 +1,26 @@
+package Dashboard.Mensagens;
+
+/**
+ * Mensagem VEICULO_MOVIMENTO: um veículo passou de um nó para outro.
+ *
+ * @param id Identificador do veículo
+ * @param tipoVeiculo Tipo do veículo
+ * @param origem Nó de origem
+ * @param destino Nó de destino
+ * @param t Instante do movimento (ms), ou 0 se não for conhecido
+ */
+public record MensagemVeiculoMovimento(String id, String tipoVeiculo, String origem, String destino, long t) {
+
+    /**
+     * Constrói a mensagem a partir dos campos lidos.
+     *
+     * @param c Campos da mensagem
+     * @return Mensagem, ou null se faltarem campos obrigatórios
+     */
+    public static MensagemVeiculoMovimento de(CamposMensagem c) {
+        if (c.id == null || c.tipoConteudo == null || c.origemConteudo == null || c.destinoConteudo == null) {
+            return null;
+        }
+        return new MensagemVeiculoMovimento(c.id, c.tipoConteudo, c.origemConteudo, c.destinoConteudo, c.timestamp);
+    }
+}
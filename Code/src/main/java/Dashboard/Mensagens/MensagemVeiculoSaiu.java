@@ -0,0 +1,28 @@
+package Dashboard.Mensagens;
+
+import java.util.List;
+
+/**
+ * Mensagem VEICULO_SAIU: um veículo chegou à saída.
+ *
+ * @param id Identificador do veículo
+ * @param tipoVeiculo Tipo do veículo
+ * @param entrada Ponto de entrada
+ * @param caminho Caminho percorrido
+ * @param tempoTotal Tempo total no sistema (segundos)
+ */
+public record MensagemVeiculoSaiu(String id, String tipoVeiculo, String entrada, List<String> caminho, long tempoTotal) {
+
+    /**
+     * Constrói a mensagem a partir dos campos lidos.
+     *
+     * @param c Campos da mensagem
+     * @return Mensagem, ou null se faltarem campos obrigatórios
+     */
+    public static MensagemVeiculoSaiu de(CamposMensagem c) {
+        if (c.id == null || c.tipoVeiculo == null || c.entrada == null || !c.temCaminho || Double.isNaN(c.tempoTotal)) {
+            return null;
+        }
+        return new MensagemVeiculoSaiu(c.id, c.tipoVeiculo, c.entrada, List.copyOf(c.caminho), (long) c.tempoTotal);
+    }
+}
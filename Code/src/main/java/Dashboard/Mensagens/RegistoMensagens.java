@@ -0,0 +1,133 @@
+package Dashboard.Mensagens;
+
+import Rede.Mensagem;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Registo de tipos de mensagem recebidos pelo Dashboard.
+ *
+ * Cada tipo é registado uma vez, com a função que constrói o record a partir
+ * dos campos lidos e o tratador que o recebe. O despacho lê cada linha uma
+ * única vez em streaming (ou o conteúdo de uma Mensagem já descodificada)
+ * e chama diretamente o tratador do tipo.
+ *
+ * Os registos devem ser feitos antes de o servidor começar a aceitar ligações;
+ * depois disso o registo é apenas lido e pode ser usado por várias threads.
+ */
+public class RegistoMensagens {
+
+    /**
+     * Tratador de um tipo de mensagem.
+     *
+     * @param <T> Record da mensagem
+     */
+    @FunctionalInterface
+    public interface Tratador<T> {
+        void tratar(T mensagem, Socket socket);
+    }
+
+    /**
+     * Resultado do despacho de uma linha.
+     */
+    public enum Resultado {
+        TRATADA,
+        SEM_TIPO,
+        TIPO_DESCONHECIDO,
+        CAMPOS_EM_FALTA
+    }
+
+    private record Entrada<T>(Function<CamposMensagem, T> descodificador, Tratador<? super T> tratador) {
+        boolean despachar(CamposMensagem campos, Socket socket) {
+            T mensagem = descodificador.apply(campos);
+            if (mensagem == null) {
+                return false;
+            }
+            tratador.tratar(mensagem, socket);
+            return true;
+        }
+    }
+
+    private final Map<String, Entrada<?>> entradas = new HashMap<>();
+
+    // Campos reutilizados por cada thread de ligação
+    private final ThreadLocal<CamposMensagem> campos = ThreadLocal.withInitial(CamposMensagem::new);
+
+    /**
+     * Regista o tratador de um tipo de mensagem.
+     *
+     * @param tipo Valor do campo "tipo"
+     * @param descodificador Constrói o record (devolve null se faltarem campos)
+     * @param tratador Recebe o record
+     * @param <T> Record da mensagem
+     */
+    public <T> void registar(String tipo, Function<CamposMensagem, T> descodificador, Tratador<? super T> tratador) {
+        if (entradas.putIfAbsent(tipo, new Entrada<>(descodificador, tratador)) != null) {
+            throw new IllegalArgumentException("Tipo de mensagem já registado: " + tipo);
+        }
+    }
+
+    /**
+     * Regista um tipo de mensagem que é aceite mas não tratado.
+     *
+     * @param tipo Valor do campo "tipo"
+     */
+    public void ignorar(String tipo) {
+        registar(tipo, c -> Boolean.TRUE, (m, s) -> {});
+    }
+
+    /**
+     * Lê uma linha JSON e entrega-a ao tratador do respetivo tipo.
+     *
+     * @param json Linha recebida
+     * @param socket Ligação de onde veio a mensagem
+     * @return Resultado do despacho
+     * @throws IOException se o JSON for inválido
+     */
+    public Resultado despachar(String json, Socket socket) throws IOException {
+        CamposMensagem c = campos.get();
+        LeitorMensagens.ler(json, c);
+        return despachar(c, socket);
+    }
+
+    /**
+     * Entrega uma mensagem já descodificada (conexão binária) ao tratador do
+     * respetivo tipo, lendo os campos diretamente do conteúdo.
+     *
+     * @param mensagem Mensagem recebida
+     * @param socket Ligação de onde veio a mensagem
+     * @return Resultado do despacho
+     */
+    public Resultado despachar(Mensagem mensagem, Socket socket) {
+        CamposMensagem c = campos.get();
+        LeitorMensagens.ler(mensagem, c);
+        return despachar(c, socket);
+    }
+
+    private Resultado despachar(CamposMensagem c, Socket socket) {
+        if (c.tipo == null) {
+            return Resultado.SEM_TIPO;
+        }
+
+        Entrada<?> entrada = entradas.get(c.tipo);
+        if (entrada == null) {
+            return Resultado.TIPO_DESCONHECIDO;
+        }
+
+        return entrada.despachar(c, socket) ? Resultado.TRATADA : Resultado.CAMPOS_EM_FALTA;
+    }
+
+    /**
+     * Obtém o tipo da última mensagem despachada pela thread atual
+     * (útil para registar avisos depois do despacho).
+     *
+     * @return Tipo lido, ou null se não existir
+     */
+    public String ultimoTipo() {
+        return campos.get().tipo;
+    }
+}
@@ -1,6 +1,7 @@
 package Dashboard;
 
 import Dashboard.Utils.DashboardUIUtils;
+import PontosEntrada.Carga;
 import PontosEntrada.TipoCenario;
 
 import com.google.gson.Gson;
@@ -22,12 +23,10 @@ public class MenuInicial {
     // Constantes de configuração
     private static final String FICHEIRO_CONFIG = "configCargas.json";
     private static final String CHAVE_CARGAS = "cargas";
-    private static final String CHAVE_VEICULOS = "totalVeiculos";
-    private static final String CHAVE_INTERVALO = "intervaloMs";
 
     // Constantes de UI
     private static final int LARGURA_PAINEL = 350;
-    private static final int ALTURA_PAINEL = 340;
+    private static final int ALTURA_PAINEL = 400;
     private static final int LARGURA_COMBO = 250;
     private static final int ALTURA_COMBO = 30;
     private static final int ESPACAMENTO_PEQUENO = 5;
@@ -200,11 +199,7 @@ public class MenuInicial {
     }
 
     private static String formatarInfoCarga(String nome) {
-        JsonObject info = obterInfoCarga(nome);
-        int veiculos = info.get(CHAVE_VEICULOS).getAsInt();
-        double intervaloSeg = info.get(CHAVE_INTERVALO).getAsLong() / 1000.0;
-
-        return String.format(" • %s: %d veículos (~%.1fs intervalo)\n", nome, veiculos, intervaloSeg);
+        return " • " + Carga.de(nome, obterInfoCarga(nome)) + "\n";
     }
 
     // ========================================================================
@@ -19,6 +19,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.UIManager;
+import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableModel;
 
 /**
@@ -28,10 +29,12 @@ import javax.swing.table.DefaultTableModel;
 public class PainelEstatsCruzamentos extends JPanel {
 
     private final Map<String, DefaultTableModel> modelosTabelas;
+    private final Map<String, TitledBorder> titulos;
 
     public PainelEstatsCruzamentos() {
 
         modelosTabelas = new HashMap<>();
+        titulos = new HashMap<>();
 
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
         setBackground(UIManager.getColor("Panel.background"));
@@ -50,13 +53,15 @@ public class PainelEstatsCruzamentos extends JPanel {
         JPanel painel = new JPanel(new BorderLayout());
         painel.setBackground(UIManager.getColor("Panel.background"));
 
-        painel.setBorder(BorderFactory.createTitledBorder(
+        TitledBorder titulo = BorderFactory.createTitledBorder(
                 UIManager.getBorder("TitledBorder.border"),
                 "Estatísticas — " + cruzamento,
                 0, 0,
                 DashboardUIUtils.FONTE_TITULO,
                 UIManager.getColor("Label.foreground")
-        ));
+        );
+        painel.setBorder(titulo);
+        titulos.put(cruzamento, titulo);
 
         String[] colunas = {"Semáforo", "Atual", "Médio", "Máximo"};
 
@@ -106,4 +111,16 @@ public class PainelEstatsCruzamentos extends JPanel {
             });
         }
     }
+
+    /**
+     * Mostra no título do cruzamento a razão de verde efetivo
+     * (fração do tempo em que alguma fase esteve verde).
+     */
+    public void atualizarRazaoVerde(String cruzamento, double razaoVerde) {
+        TitledBorder titulo = titulos.get(cruzamento);
+        if (titulo == null) return;
+
+        titulo.setTitle(String.format("Estatísticas — %s (verde efetivo: %.0f%%)", cruzamento, razaoVerde * 100));
+        repaint();
+    }
 }
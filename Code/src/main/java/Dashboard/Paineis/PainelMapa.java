@@ -30,7 +30,7 @@ public class PainelMapa extends JPanel {
     private final DesenharVeiculos desenharVeiculos = new DesenharVeiculos();
 
     // Estado dos veículos e semáforos
-    private final Map<Integer, String> mapaIds = new HashMap<>();
+    private final Map<String, String> mapaIds = new HashMap<>();
     private final List<VeiculoNoMapa> veiculosEmTransito = new CopyOnWriteArrayList<>();
     private final Map<String, VeiculoNoMapa> veiculosPorId = new ConcurrentHashMap<>();
     private final Map<String, Boolean> estadosSemaforos = new ConcurrentHashMap<>();
@@ -61,7 +61,11 @@ public class PainelMapa extends JPanel {
         animationTimer.start();
     }
 
-    private void atualizarVeiculos() {
+    /**
+     * Avança a animação de todos os veículos um passo (chamado pelo Timer no EDT).
+     * Visível no pacote para os benchmarks.
+     */
+    void atualizarVeiculos() {
         Map<String, Integer> contadorFila = new HashMap<>();
 
         for (VeiculoNoMapa veiculo : veiculosEmTransito) {
@@ -80,14 +84,23 @@ public class PainelMapa extends JPanel {
         veiculosEmTransito.removeIf(VeiculoNoMapa::terminouTodosSegmentos);
     }
 
+    /**
+     * Para o Timer da animação (ex: ao fechar o Dashboard).
+     */
+    public void pararAnimacao() {
+        if (animationTimer != null) {
+            animationTimer.stop();
+        }
+    }
+
     public void registarSemaforoId(String cruzamento, int id, String origem, String destino) {
         String chave = cruzamento + "_" + origem + "-" + destino;
-        mapaIds.put(id, chave);
+        mapaIds.put(cruzamento + "#" + id, chave);
         estadosSemaforos.putIfAbsent(chave, false);
     }
 
     public void atualizarSemaforoPorId(String cruzamento, int id, boolean verde) {
-        String chave = mapaIds.get(id);
+        String chave = mapaIds.get(cruzamento + "#" + id);
         if (chave == null) return;
 
         estadosSemaforos.put(chave, verde);
@@ -3,21 +3,27 @@ package Dashboard;
 import Dashboard.Estatisticas.GestorEstatisticas;
 import Dashboard.Logs.DashLogger;
 import Dashboard.Logs.TipoLog;
+import Rede.Mensagem;
 import Rede.Servidor;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonArray;
-import com.google.gson.Gson;
+import Dashboard.Mensagens.MensagemEstatistica;
+import Dashboard.Mensagens.MensagemLog;
+import Dashboard.Mensagens.MensagemLogLote;
+import Dashboard.Mensagens.MensagemMovimentoLote;
+import Dashboard.Mensagens.MensagemVeiculoGerado;
+import Dashboard.Mensagens.MensagemVeiculoMovimento;
+import Dashboard.Mensagens.MensagemVeiculoSaiu;
+import Dashboard.Mensagens.RegistoMensagens;
 
 import javax.swing.SwingUtilities;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.io.BufferedReader;
 import java.io.PrintWriter;
-import java.util.ArrayList;
 import java.net.Socket;
-import java.util.List;
 
 /**
  * 
@@ -27,7 +33,9 @@ public class ServidorDashboard extends Servidor {
 
     private final DashboardFrame dashboardFrame;
     private final GestorEstatisticas gestor;
-    private final Gson gson = new Gson();
+    private final RegistoMensagens registo = new RegistoMensagens();
+
+    private static final Pattern REGEX_ENDERECO = Pattern.compile("(?:localhost|[\\d\\.]+):(\\d+)");
     
     /**
      * 
@@ -41,6 +49,7 @@ public class ServidorDashboard extends Servidor {
         super(ip, porta, "ServidorDashboard");
         this.dashboardFrame = dashboardFrame;
         this.gestor = gestor;
+        registarTratadores();
     }
     
     /**
@@ -63,6 +72,23 @@ public class ServidorDashboard extends Servidor {
     protected void tratarMensagem(String linha, BufferedReader leitor, PrintWriter escritor, Socket socket) {
         processarMensagem(linha, socket);
     }
+
+    /**
+     * Mensagens de conexões binárias: os campos são lidos diretamente do
+     * conteúdo já descodificado, sem voltar a converter a Mensagem para JSON.
+     *
+     * @param mensagem Mensagem recebida
+     * @param escritor PrintWriter para enviar respostas
+     * @param socket Socket da conexão
+     */
+    @Override
+    protected void tratarMensagemDescodificada(Mensagem mensagem, PrintWriter escritor, Socket socket) {
+        try {
+            avisarResultado(registo.despachar(mensagem, socket));
+        } catch (Exception e) {
+            DashLogger.log(TipoLog.ERRO, "Erro ao interpretar mensagem: " + e.getMessage());
+        }
+    }
     
     /**
      * 
@@ -72,6 +98,20 @@ public class ServidorDashboard extends Servidor {
         DashLogger.log(TipoLog.SISTEMA, "Servidor Dashboard encerrado");
     }
     
+    /**
+     * Regista os tratadores de cada tipo de mensagem (feito uma única vez).
+     */
+    private void registarTratadores() {
+        registo.registar("VEICULO_SAIU", MensagemVeiculoSaiu::de, (m, s) -> processarVeiculoSaida(m));
+        registo.registar("VEICULO_GERADO", MensagemVeiculoGerado::de, (m, s) -> processarVeiculoGerado(m));
+        registo.registar("VEICULO_MOVIMENTO", MensagemVeiculoMovimento::de, (m, s) -> processarVeiculoMovimento(m));
+        registo.registar("VEICULO_MOVIMENTO_LOTE", MensagemMovimentoLote::de, (m, s) -> processarMovimentoLote(m));
+        registo.registar("ESTATISTICA", MensagemEstatistica::de, (m, s) -> processarEstatisticaCruzamento(m));
+        registo.registar("LOG", MensagemLog::de, this::processarLog);
+        registo.registar("LOG_LOTE", MensagemLogLote::de, (m, s) -> m.linhas().forEach(l -> processarLog(l, s)));
+        registo.ignorar("ESTATISTICA_SAIDA");
+    }
+
     /**
      * 
      * 
@@ -80,99 +120,63 @@ public class ServidorDashboard extends Servidor {
      */
     private void processarMensagem(String json, Socket socket) {
         try {
-            JsonObject obj = gson.fromJson(json, JsonObject.class);
-
-            if (obj == null || !obj.has("tipo")) {
-                DashLogger.log(TipoLog.AVISO, "JSON inválido recebido.");
-                return;
-            }
-
-            String tipo = obj.get("tipo").getAsString();
-
-            switch (tipo) {
-                case "VEICULO_SAIU" -> processarVeiculoSaida(obj);
-                case "VEICULO_GERADO" -> processarVeiculoGerado(obj);
-                case "VEICULO_MOVIMENTO" -> processarVeiculoMovimento(obj);
-                case "ESTATISTICA" -> processarEstatisticaCruzamento(obj);
-                case "LOG" -> processarLog(obj, socket);
-                case "ESTATISTICA_SAIDA" -> {}
-                default -> DashLogger.log(TipoLog.AVISO, "Mensagem desconhecida: " + tipo);
-            }
-
+            avisarResultado(registo.despachar(json, socket));
         } catch (Exception e) {
             DashLogger.log(TipoLog.ERRO, "Erro ao interpretar JSON: " + e.getMessage());
         }
     }
+
+    /**
+     * Regista um aviso se a mensagem não chegou a ser tratada.
+     */
+    private void avisarResultado(RegistoMensagens.Resultado resultado) {
+        switch (resultado) {
+            case TRATADA -> {}
+            case SEM_TIPO -> DashLogger.log(TipoLog.AVISO, "JSON inválido recebido.");
+            case TIPO_DESCONHECIDO -> DashLogger.log(TipoLog.AVISO, "Mensagem desconhecida: " + registo.ultimoTipo());
+            case CAMPOS_EM_FALTA -> DashLogger.log(TipoLog.AVISO, registo.ultimoTipo() + " recebido mas campos obrigatórios em falta.");
+        }
+    }
     
     /**
      * 
      * 
-     * @param jsonObjeto
+     * @param log
      * @param socketCliente 
      */
-    private void processarLog(JsonObject jsonObjeto, Socket socketCliente) {
-        try {
+    private void processarLog(MensagemLog log, Socket socketCliente) {
+        String processo = log.processo();
+        String mensagem = log.mensagem();
 
-            if (!jsonObjeto.has("processo") || !jsonObjeto.has("nivel") || !jsonObjeto.has("mensagem")) {
-                DashLogger.log(TipoLog.AVISO, "LOG recebido mas campos obrigatórios em falta.");
-                return;
-            }
-
-            String processo = jsonObjeto.get("processo").getAsString();
-            String nivelTxt = jsonObjeto.get("nivel").getAsString();
-            String mensagem = jsonObjeto.get("mensagem").getAsString();
-
-            TipoLog nivel;
-            try { nivel = TipoLog.valueOf(nivelTxt); }
-            catch (Exception e) { nivel = TipoLog.AVISO; }
-
-            if (mensagem.contains("escutar em") || mensagem.contains("iniciada em")) {
-                String ip = socketCliente.getInetAddress().getHostAddress();
+        if (mensagem.contains("escutar em") || mensagem.contains("iniciada em")) {
+            String ip = socketCliente.getInetAddress().getHostAddress();
 
-                Pattern regex = Pattern.compile("(?:localhost|[\\d\\.]+):(\\d+)");
-                Matcher matcher = regex.matcher(mensagem);
+            Matcher matcher = REGEX_ENDERECO.matcher(mensagem);
 
-                if (matcher.find()) {
-                    int porta = Integer.parseInt(matcher.group(1));
-                    SwingUtilities.invokeLater(() -> 
-                        dashboardFrame.getPainelServidores().adicionarServidor(processo, ip, porta)
-                    );
-                }
+            if (matcher.find()) {
+                int porta = Integer.parseInt(matcher.group(1));
+                SwingUtilities.invokeLater(() -> 
+                    dashboardFrame.getPainelServidores().adicionarServidor(processo, ip, porta)
+                );
             }
-
-            DashLogger.log(nivel, "[" + processo + "] " + mensagem);
-        } catch (Exception e) {
-            DashLogger.log(TipoLog.ERRO, "Erro ao processar LOG: " + e.getMessage());
         }
+
+        DashLogger.log(log.nivel(), "[" + processo + "] " + mensagem);
     }
     
     /**
      * 
      * 
-     * @param obj 
+     * @param msg 
      */
-    private void processarVeiculoSaida(JsonObject obj) {
-        JsonObject c = obj.getAsJsonObject("conteudo");
-
-        String id = c.get("id").getAsString();
-        String tipo = c.get("tipoVeiculo").getAsString();
-        String entrada = c.get("entrada").getAsString();
-        JsonArray caminhoJson = c.getAsJsonArray("caminho");
-        long tempo = c.get("tempoTotal").getAsLong();
-
-        // ----> Converter JsonArray -> List<String>
-        List<String> caminhoList = new ArrayList<>();
-        caminhoJson.forEach(e -> caminhoList.add(e.getAsString()));
+    private void processarVeiculoSaida(MensagemVeiculoSaiu msg) {
+        String id = msg.id();
+        String tipo = msg.tipoVeiculo();
+        long tempo = msg.tempoTotal();
 
-        // ----> Atualizar o gestor
-        JsonObject estat = new JsonObject();
-        estat.addProperty("tipo", tipo);
-        estat.addProperty("dwelling", tempo);
-        estat.add("caminho", caminhoJson);
+        gestor.registarVeiculoSaiu(tipo, tempo, msg.caminho());
 
-        gestor.registarSaidaVeiculoJSON(estat);
-
-        SwingUtilities.invokeLater(() -> dashboardFrame.getPainelVeiculos().adicionarVeiculoSaiu(id, tipo, entrada, caminhoList, tempo)
+        SwingUtilities.invokeLater(() -> dashboardFrame.getPainelVeiculos().adicionarVeiculoSaiu(id, tipo, msg.entrada(), msg.caminho(), tempo)
         );
 
         DashLogger.log(TipoLog.VEICULO, "Veículo saiu: " + id + " (" + tipo + "), tempo=" + tempo + "s");
@@ -181,80 +185,75 @@ public class ServidorDashboard extends Servidor {
     /**
      *
      *
-     * @param obj
+     * @param msg
      */
-    private void processarVeiculoGerado(JsonObject obj) {
-        String entrada = obj.get("origem").getAsString();
-
-        gestor.registarVeiculoGerado(entrada);
+    private void processarVeiculoGerado(MensagemVeiculoGerado msg) {
+        gestor.registarVeiculoGerado(msg.entrada());
 
-        DashLogger.log(TipoLog.GERADOR, "Veículo gerado em " + entrada);
+        DashLogger.log(TipoLog.GERADOR, "Veículo gerado em " + msg.entrada());
     }
 
     /**
      *
      *
-     * @param obj
+     * @param msg
      */
-    private void processarVeiculoMovimento(JsonObject obj) {
-        JsonObject c = obj.getAsJsonObject("conteudo");
-
-        String id = c.get("id").getAsString();
-        String tipo = c.get("tipo").getAsString();
-        String origem = c.get("origem").getAsString();
-        String destino = c.get("destino").getAsString();
-
+    private void processarVeiculoMovimento(MensagemVeiculoMovimento msg) {
         SwingUtilities.invokeLater(() ->
-                dashboardFrame.getPainelMapa().atualizarOuCriarVeiculo(id, tipo, origem, destino)
+                dashboardFrame.getPainelMapa().atualizarOuCriarVeiculo(msg.id(), msg.tipoVeiculo(), msg.origem(), msg.destino())
         );
     }
 
     /**
+     * Aplica todos os movimentos de um lote numa única tarefa no EDT.
      *
-     *
-     * @param obj
+     * @param lote
      */
-    private void processarEstatisticaCruzamento(JsonObject obj) {
-
-        String cruzamento = obj.get("origem").getAsString();
-        JsonObject conteudo = obj.getAsJsonObject("conteudo");
-
-        if (conteudo == null || !conteudo.has("estado")) return;
-
-        JsonObject estado = conteudo.get("estado").getAsJsonObject();
-
-        if (!estado.has("semaforos")) return;
-
-        JsonArray semaforos = estado.get("semaforos").getAsJsonArray();
-
-        for (int i = 0; i < semaforos.size(); i++) {
-
-            JsonObject sm = semaforos.get(i).getAsJsonObject();
-
-            int id = sm.get("id").getAsInt();
-            String estadoSem = sm.get("estado").getAsString();
-            boolean verde = estadoSem.equals("VERDE");
-
-            String origem = sm.has("origem") ? sm.get("origem").getAsString() : null;
-            String destino = sm.has("destino") ? sm.get("destino").getAsString() : null;
-
-            int fila = sm.has("tamanhoFila") ? sm.get("tamanhoFila").getAsInt() : 0;
-
-            if (origem != null && destino != null) {
-
-                String nomeSemaforo = origem + "→" + destino;
+    private void processarMovimentoLote(MensagemMovimentoLote lote) {
+        if (lote.eventos().isEmpty()) {
+            return;
+        }
 
-                gestor.registarFilaAtualizada(cruzamento, nomeSemaforo, fila);
+        SwingUtilities.invokeLater(() -> {
+            for (MensagemVeiculoMovimento msg : lote.eventos()) {
+                dashboardFrame.getPainelMapa().atualizarOuCriarVeiculo(msg.id(), msg.tipoVeiculo(), msg.origem(), msg.destino());
+            }
+        });
+    }
 
-                SwingUtilities.invokeLater(() ->
-                        dashboardFrame.getPainelMapa().registarSemaforoId(cruzamento, id, origem, destino)
-                );
+    /**
+     *
+     *
+     * @param msg
+     */
+    private void processarEstatisticaCruzamento(MensagemEstatistica msg) {
+        String cruzamento = msg.cruzamento();
+
+        for (MensagemEstatistica.Semaforo sm : msg.semaforos()) {
+            if (sm.origem() != null && sm.destino() != null) {
+                // Uma fila por faixa: origem → próximo nó (ou o destino, em mensagens sem faixa)
+                String nomeSemaforo = sm.origem() + "→" + (sm.proximo() != null ? sm.proximo() : sm.destino());
+                gestor.registarFilaAtualizada(cruzamento, nomeSemaforo, sm.tamanhoFila());
             }
+        }
 
-            SwingUtilities.invokeLater(() ->
-                    dashboardFrame.getPainelMapa().atualizarSemaforoPorId(cruzamento, id, verde)
-            );
+        // No mapa há um semáforo por aproximação: verde se alguma das suas faixas estiver verde
+        Map<String, Boolean> verdePorOrigem = new HashMap<>();
+        for (MensagemEstatistica.Semaforo sm : msg.semaforos()) {
+            verdePorOrigem.merge(String.valueOf(sm.origem()), sm.verde(), Boolean::logicalOr);
         }
+
+        // Uma única tarefa no EDT para todos os semáforos do cruzamento
+        SwingUtilities.invokeLater(() -> {
+            for (MensagemEstatistica.Semaforo sm : msg.semaforos()) {
+                if (sm.origem() != null && sm.destino() != null) {
+                    dashboardFrame.getPainelMapa().registarSemaforoId(cruzamento, sm.id(), sm.origem(), sm.destino());
+                }
+                dashboardFrame.getPainelMapa().atualizarSemaforoPorId(cruzamento, sm.id(), verdePorOrigem.get(String.valueOf(sm.origem())));
+            }
+            if (!Double.isNaN(msg.razaoVerde())) {
+                dashboardFrame.getPainelEstatisticasCruzamentos().atualizarRazaoVerde(cruzamento, msg.razaoVerde());
+            }
+        });
     }
 }
-
@@ -0,0 +1,131 @@
+package Logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular limitado e sem locks (algoritmo de D. Vyukov).
+ *
+ * Cada posição tem um número de sequência que indica se está livre para
+ * escrita ou pronta para leitura. Produtores e consumidores reservam posições
+ * com CAS sobre "cauda" e "cabeca", por isso nunca bloqueiam: quando o buffer
+ * está cheio, oferecer() devolve false e cabe a quem chama decidir o que fazer.
+ *
+ * Suporta vários produtores e vários consumidores; o LogSender usa um único
+ * consumidor e deixa os produtores retirar o elemento mais antigo quando
+ * a política de descarte o pede.
+ *
+ * @param <T> Tipo dos elementos
+ */
+class BufferCircular<T> {
+    private final int mascara;
+    private final AtomicReferenceArray<T> elementos;
+    private final AtomicLongArray sequencias;
+    private final AtomicLong cauda = new AtomicLong();
+    private final AtomicLong cabeca = new AtomicLong();
+
+    /**
+     * Construtor da classe
+     *
+     * @param capacidade Capacidade pretendida (arredondada para a potência de 2 seguinte)
+     */
+    BufferCircular(int capacidade) {
+        if (capacidade < 2) {
+            throw new IllegalArgumentException("Capacidade do buffer deve ser pelo menos 2");
+        }
+
+        int tamanho = Integer.highestOneBit(capacidade - 1) << 1;
+        this.mascara = tamanho - 1;
+        this.elementos = new AtomicReferenceArray<>(tamanho);
+        this.sequencias = new AtomicLongArray(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    /**
+     * Insere um elemento sem bloquear.
+     *
+     * @param elemento Elemento a inserir
+     * @return True se foi inserido, false se o buffer está cheio
+     */
+    boolean oferecer(T elemento) {
+        while (true) {
+            long posicao = cauda.get();
+            int indice = (int) posicao & mascara;
+            long diferenca = sequencias.get(indice) - posicao;
+
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    elementos.lazySet(indice, elemento);
+                    sequencias.set(indice, posicao + 1);
+                    return true;
+                }
+            } else if (diferenca < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Retira o elemento mais antigo sem bloquear.
+     *
+     * @return Elemento retirado, ou null se o buffer está vazio
+     */
+    T retirar() {
+        while (true) {
+            long posicao = cabeca.get();
+            int indice = (int) posicao & mascara;
+            long diferenca = sequencias.get(indice) - (posicao + 1);
+
+            if (diferenca == 0) {
+                if (cabeca.compareAndSet(posicao, posicao + 1)) {
+                    T elemento = elementos.get(indice);
+                    elementos.lazySet(indice, null);
+                    sequencias.set(indice, posicao + mascara + 1);
+                    return elemento;
+                }
+            } else if (diferenca < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Retira até "maximo" elementos para uma lista.
+     *
+     * @param destino Lista onde colocar os elementos
+     * @param maximo Número máximo de elementos a retirar
+     * @return Número de elementos retirados
+     */
+    int drenar(List<T> destino, int maximo) {
+        int retirados = 0;
+        T elemento;
+        while (retirados < maximo && (elemento = retirar()) != null) {
+            destino.add(elemento);
+            retirados++;
+        }
+        return retirados;
+    }
+
+    /**
+     * Obtém uma estimativa do número de elementos no buffer.
+     *
+     * @return Número aproximado de elementos
+     */
+    int tamanho() {
+        long tamanho = cauda.get() - cabeca.get();
+        return (int) Math.max(0, Math.min(tamanho, capacidade()));
+    }
+
+    /**
+     * Obtém a capacidade real do buffer.
+     *
+     * @return Capacidade
+     */
+    int capacidade() {
+        return mascara + 1;
+    }
+}
@@ -1,16 +1,30 @@
 package Logging;
 
 import Dashboard.Logs.TipoLog;
+import Utils.ConfigLoader;
+import com.google.gson.JsonObject;
+
+import java.util.function.Supplier;
 
 /**
  * Utilitário para envio de logs para o Dashboard centralizado.
  *
  * Agora utiliza internamente o LogSender para evitar duplicação
  * de código e centralizar a lógica de envio TCP.
+ *
+ * Os logs abaixo do nível mínimo do processo são ignorados. O nível é lido
+ * da propriedade de sistema "logs.nivelMinimo" ou, se não existir, do campo
+ * "nivelMinimo" da secção "logs" do configMapa.json (por omissão VEICULO).
+ * Para mensagens construídas por veículo, usar as variantes com formato ou
+ * Supplier: se o nível estiver desligado, a mensagem nem chega a ser formatada.
  */
 public class LogClienteDashboard {
 
+    public static final String PROPRIEDADE_NIVEL_MINIMO = "logs.nivelMinimo";
+    private static final TipoLog NIVEL_MINIMO_POR_OMISSAO = TipoLog.VEICULO;
+
     private static String nomeProcesso = "Desconhecido";
+    private static volatile TipoLog nivelMinimo = null;
 
     /**
      * Define o nome do processo que está a enviar logs.
@@ -24,6 +38,33 @@ public class LogClienteDashboard {
         nomeProcesso = nome.trim();
     }
 
+    /**
+     * Define o nível mínimo dos logs enviados por este processo.
+     *
+     * @param nivel Nível mínimo
+     */
+    public static void definirNivelMinimo(TipoLog nivel) {
+        if (nivel == null) {
+            throw new IllegalArgumentException("Nível mínimo não pode ser null");
+        }
+        nivelMinimo = nivel;
+    }
+
+    /**
+     * Verifica se os logs de um nível são enviados.
+     *
+     * @param nivel Nível do log
+     * @return True se o nível passa o nível mínimo do processo
+     */
+    public static boolean ativo(TipoLog nivel) {
+        TipoLog minimo = nivelMinimo;
+        if (minimo == null) {
+            minimo = carregarNivelMinimo();
+            nivelMinimo = minimo;
+        }
+        return nivel.passa(minimo);
+    }
+
     /**
      * Envia uma mensagem de log para o Dashboard.
      *
@@ -38,6 +79,73 @@ public class LogClienteDashboard {
             throw new IllegalArgumentException("Mensagem do log não pode ser null");
         }
 
+        if (ativo(nivel)) {
+            enviarDireto(nivel, mensagem);
+        }
+    }
+
+    /**
+     * Envia uma mensagem de log construída apenas se o nível estiver ativo.
+     *
+     * @param nivel Nível do log
+     * @param mensagem Fornecedor do conteúdo textual do log
+     */
+    public static void enviar(TipoLog nivel, Supplier<String> mensagem) {
+        if (nivel == null) {
+            throw new IllegalArgumentException("Nível do log não pode ser null");
+        }
+
+        if (ativo(nivel)) {
+            enviar(nivel, mensagem.get());
+        }
+    }
+
+    /**
+     * Envia uma mensagem de log com formato (String.format), formatada apenas
+     * se o nível estiver ativo.
+     *
+     * @param nivel Nível do log
+     * @param formato Formato da mensagem
+     * @param arg1 Argumento do formato
+     */
+    public static void enviar(TipoLog nivel, String formato, Object arg1) {
+        if (ativo(nivel)) {
+            enviarDireto(nivel, String.format(formato, arg1));
+        }
+    }
+
+    /**
+     * Envia uma mensagem de log com formato (String.format), formatada apenas
+     * se o nível estiver ativo.
+     *
+     * @param nivel Nível do log
+     * @param formato Formato da mensagem
+     * @param arg1 Primeiro argumento do formato
+     * @param arg2 Segundo argumento do formato
+     */
+    public static void enviar(TipoLog nivel, String formato, Object arg1, Object arg2) {
+        if (ativo(nivel)) {
+            enviarDireto(nivel, String.format(formato, arg1, arg2));
+        }
+    }
+
+    /**
+     * Envia uma mensagem de log com formato (String.format), formatada apenas
+     * se o nível estiver ativo.
+     *
+     * @param nivel Nível do log
+     * @param formato Formato da mensagem
+     * @param arg1 Primeiro argumento do formato
+     * @param arg2 Segundo argumento do formato
+     * @param arg3 Terceiro argumento do formato
+     */
+    public static void enviar(TipoLog nivel, String formato, Object arg1, Object arg2, Object arg3) {
+        if (ativo(nivel)) {
+            enviarDireto(nivel, String.format(formato, arg1, arg2, arg3));
+        }
+    }
+
+    private static void enviarDireto(TipoLog nivel, String mensagem) {
         LogSender.enviar(
                 "LOG",
                 nomeProcesso,
@@ -45,4 +153,29 @@ public class LogClienteDashboard {
                 mensagem
         );
     }
+
+    /**
+     * Lê o nível mínimo da propriedade de sistema ou do configMapa.json.
+     */
+    private static TipoLog carregarNivelMinimo() {
+        String valor = System.getProperty(PROPRIEDADE_NIVEL_MINIMO);
+
+        if (valor == null) {
+            JsonObject logs = ConfigLoader.carregarLogs();
+            if (logs != null && logs.has("nivelMinimo")) {
+                valor = logs.get("nivelMinimo").getAsString();
+            }
+        }
+
+        if (valor == null) {
+            return NIVEL_MINIMO_POR_OMISSAO;
+        }
+
+        try {
+            return TipoLog.valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[LogClienteDashboard] Nível mínimo desconhecido '" + valor + "', a usar " + NIVEL_MINIMO_POR_OMISSAO);
+            return NIVEL_MINIMO_POR_OMISSAO;
+        }
+    }
 }
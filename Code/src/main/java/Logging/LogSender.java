@@ -1,13 +1,18 @@
 package Logging;
 
+import Dashboard.Logs.TipoLog;
+import Rede.Cliente;
+import Rede.Mensagem;
 import Utils.ConfigLoader;
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
-import java.io.PrintWriter;
-import java.net.Socket;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Classe de baixo nível responsável por enviar logs para o Dashboard via TCP.
@@ -16,61 +21,254 @@ import java.util.Map;
  * que tanto LogClienteDashboard como DashLogger a utilizem sem duplicação.
  *
  * Responsabilidades:
- *   Construir o JSON do log
- *   Abrir socket e enviar para o Dashboard
- *   Lidar com erros de forma segura sem interromper o programa
+ *   Colocar cada linha num buffer circular sem locks (a thread que regista o log nunca espera pela rede)
+ *   Drenar o buffer numa thread própria e enviar as linhas em lotes (LOG_LOTE) por uma ligação persistente
+ *   Aplicar a política de descarte quando o buffer enche e contar as linhas descartadas
+ *
+ * No fim do processo, o shutdown hook pede à thread de envio que esvazie o
+ * buffer e espera por ela (no máximo TEMPO_MAXIMO_FECHO_MS): só essa thread
+ * envia, por isso os últimos lotes chegam pela ordem em que foram registados.
+ *
+ * Configuração na secção "logs" do configMapa.json:
+ *   capacidade, tamanhoLote, intervaloMs, politica (ver PoliticaDescarte) e taxaAmostragem
  */
 public class LogSender {
 
-    private static final Gson gson = new Gson();
+    public static final String TIPO_LOTE = "LOG_LOTE";
 
-    private static String host = null;
-    private static int port = -1;
+    private static final int CAPACIDADE_POR_OMISSAO = 4096;
+    private static final int TAMANHO_LOTE_POR_OMISSAO = 128;
+    private static final long INTERVALO_POR_OMISSAO_MS = 100;
+    private static final int TAXA_AMOSTRAGEM_POR_OMISSAO = 10;
+    private static final double LIMIAR_AMOSTRAGEM = 0.75;
+    private static final long TEMPO_MAXIMO_FECHO_MS = 2000;
 
-    private LogSender() {}
+    private static final TipoLog[] TIPOS = TipoLog.values();
 
     /**
-     * Carrega configuração do Dashboard (lazy loading)
+     * Linha de log pendente de envio.
+     *
+     * @param processo Nome do processo remetente
+     * @param nivel Nível do log
+     * @param mensagem Conteúdo textual do log
      */
-    private static void carregarConfiguracao() {
-        if (host == null) {
-            try {
-                JsonObject config = ConfigLoader.carregarDashboard();
-                host = config.get("ipServidor").getAsString();
-                port = config.get("portaServidor").getAsInt();
-            } catch (Exception e) {
-                // Fallback para valores padrão
-                host = "localhost";
-                port = 6000;
+    record Linha(String processo, String nivel, String mensagem) {}
+
+    /** Instância criada no primeiro log do processo */
+    private static final class Instancia {
+        static final LogSender LOG_SENDER = new LogSender();
+    }
+
+    private final BufferCircular<Linha> buffer;
+    private final int tamanhoLote;
+    private final long intervaloNs;
+    private final PoliticaDescarte politica;
+    private final int taxaAmostragem;
+    private final int limiarAmostragem;
+
+    private final Cliente cliente;
+    private final Thread envio;
+
+    // Contadores por TipoLog (índice = ordinal; o último é para níveis desconhecidos)
+    private final AtomicLongArray descartados = new AtomicLongArray(TIPOS.length + 1);
+    private final AtomicLongArray amostragem = new AtomicLongArray(TIPOS.length + 1);
+    private final AtomicLong descartadosReportados = new AtomicLong();
+
+    // Pedido do shutdown hook para a thread de envio esvaziar o buffer e terminar
+    private volatile boolean aTerminar = false;
+
+    /**
+     * Construtor da classe
+     */
+    private LogSender() {
+        String host;
+        int port;
+        try {
+            JsonObject config = ConfigLoader.carregarDashboard();
+            host = config.get("ipServidor").getAsString();
+            port = config.get("portaServidor").getAsInt();
+        } catch (Exception e) {
+            // Fallback para valores padrão
+            host = "localhost";
+            port = 6000;
+        }
+
+        int capacidade = CAPACIDADE_POR_OMISSAO;
+        int lote = TAMANHO_LOTE_POR_OMISSAO;
+        long intervaloMs = INTERVALO_POR_OMISSAO_MS;
+        PoliticaDescarte politicaLida = PoliticaDescarte.DESCARTAR_ANTIGOS;
+        int taxa = TAXA_AMOSTRAGEM_POR_OMISSAO;
+
+        JsonObject logs = ConfigLoader.carregarLogs();
+        if (logs != null) {
+            if (logs.has("capacidade")) capacidade = logs.get("capacidade").getAsInt();
+            if (logs.has("tamanhoLote")) lote = logs.get("tamanhoLote").getAsInt();
+            if (logs.has("intervaloMs")) intervaloMs = logs.get("intervaloMs").getAsLong();
+            if (logs.has("taxaAmostragem")) taxa = logs.get("taxaAmostragem").getAsInt();
+            if (logs.has("politica")) {
+                try {
+                    politicaLida = PoliticaDescarte.valueOf(logs.get("politica").getAsString().trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("[LogSender] Política de descarte desconhecida, a usar " + politicaLida);
+                }
             }
         }
+
+        if (capacidade < 2 || lote <= 0 || intervaloMs <= 0 || taxa <= 0) {
+            throw new IllegalArgumentException("Configuração de logs inválida");
+        }
+
+        this.buffer = new BufferCircular<>(capacidade);
+        this.tamanhoLote = lote;
+        this.intervaloNs = TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+        this.politica = politicaLida;
+        this.taxaAmostragem = taxa;
+        this.limiarAmostragem = (int) (buffer.capacidade() * LIMIAR_AMOSTRAGEM);
+        this.cliente = new Cliente(host, port);
+
+        this.envio = new Thread(this::cicloEnvio, "LogSender");
+        envio.setDaemon(true);
+        envio.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::terminar));
     }
 
     /**
-     * Envia um log genérico para o Dashboard através de socket TCP.
+     * Envia um log genérico para o Dashboard.
+     * A linha é apenas colocada no buffer; o envio é feito em lote pela thread do LogSender.
      *
-     * @param tipo       Tipo da mensagem (geralmente "LOG")
+     * @param tipo       Tipo da mensagem (mantido por compatibilidade; as linhas seguem em LOG_LOTE)
      * @param origem     Nome do processo remetente
      * @param nivel      Nível do log (INFO, ERRO, etc.)
      * @param mensagem   Conteúdo textual do log
      */
     public static void enviar(String tipo, String origem, String nivel, String mensagem) {
-        carregarConfiguracao();
+        Instancia.LOG_SENDER.registar(new Linha(origem, nivel, mensagem));
+    }
 
-        try (Socket socket = new Socket(host, port);
-             PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
+    /**
+     * Obtém o total de linhas descartadas neste processo.
+     *
+     * @return Número de linhas descartadas
+     */
+    public static long getDescartados() {
+        AtomicLongArray contadores = Instancia.LOG_SENDER.descartados;
+        long total = 0;
+        for (int i = 0; i < contadores.length(); i++) {
+            total += contadores.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Obtém o número de linhas descartadas de um tipo.
+     *
+     * @param tipo Tipo de log
+     * @return Número de linhas descartadas desse tipo
+     */
+    public static long getDescartados(TipoLog tipo) {
+        return Instancia.LOG_SENDER.descartados.get(tipo.ordinal());
+    }
 
-            Map<String, Object> json = new HashMap<>();
-            json.put("tipo", tipo);
-            json.put("processo", origem);
-            json.put("origem", origem);
-            json.put("nivel", nivel);
-            json.put("mensagem", mensagem);
+    private void registar(Linha linha) {
+        int indice = indiceTipo(linha.nivel());
 
-            out.println(gson.toJson(json));
+        if (politica == PoliticaDescarte.AMOSTRAR && !essencial(indice)
+                && buffer.tamanho() >= limiarAmostragem
+                && amostragem.getAndIncrement(indice) % taxaAmostragem != 0) {
+            descartados.incrementAndGet(indice);
+            return;
+        }
 
-        } catch (Exception e) {
-            System.err.println("[LogSender] Erro ao enviar log: " + e.getMessage());
+        while (!buffer.oferecer(linha)) {
+            if (politica == PoliticaDescarte.AMOSTRAR && !essencial(indice)) {
+                descartados.incrementAndGet(indice);
+                return;
+            }
+
+            // Buffer cheio: abdicar da linha mais antiga
+            Linha antiga = buffer.retirar();
+            if (antiga != null) {
+                descartados.incrementAndGet(indiceTipo(antiga.nivel()));
+            }
+        }
+
+        if (buffer.tamanho() >= tamanhoLote) {
+            LockSupport.unpark(envio);
+        }
+    }
+
+    private void cicloEnvio() {
+        List<Linha> lote = new ArrayList<>(tamanhoLote + 1);
+
+        while (true) {
+            // Lido antes de drenar: as linhas registadas antes do pedido ainda seguem
+            boolean terminar = aTerminar;
+
+            lote.clear();
+            buffer.drenar(lote, tamanhoLote);
+
+            if (!lote.isEmpty()) {
+                enviarLote(lote);
+            }
+
+            if (lote.size() < tamanhoLote) {
+                if (terminar) {
+                    return;
+                }
+                LockSupport.parkNanos(this, intervaloNs);
+            }
+        }
+    }
+
+    /**
+     * Pede à thread de envio que envie o que está no buffer e espera que termine
+     * (usado no fim do processo).
+     */
+    private void terminar() {
+        aTerminar = true;
+        LockSupport.unpark(envio);
+        try {
+            envio.join(TEMPO_MAXIMO_FECHO_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enviarLote(List<Linha> lote) {
+        long total = getDescartadosInterno();
+        long reportados = descartadosReportados.getAndAccumulate(total, Math::max);
+        if (total > reportados) {
+            lote.add(new Linha(lote.get(0).processo(), TipoLog.AVISO.name(),
+                    "[LogSender] " + (total - reportados) + " linhas de log descartadas (buffer cheio)"));
+        }
+
+        Mensagem mensagem = new Mensagem(TIPO_LOTE, lote.get(0).processo(), "Dashboard", Map.of("linhas", lote));
+        cliente.enviarMensagem(mensagem);
+    }
+
+    private long getDescartadosInterno() {
+        long total = 0;
+        for (int i = 0; i < descartados.length(); i++) {
+            total += descartados.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * ERRO, AVISO e SUCESSO nunca são amostrados.
+     */
+    private static boolean essencial(int indice) {
+        return indice == TipoLog.ERRO.ordinal() || indice == TipoLog.AVISO.ordinal()
+                || indice == TipoLog.SUCESSO.ordinal() || indice == TIPOS.length;
+    }
+
+    private static int indiceTipo(String nivel) {
+        for (TipoLog tipo : TIPOS) {
+            if (tipo.name().equals(nivel)) {
+                return tipo.ordinal();
+            }
         }
+        return TIPOS.length;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package Logging;
+
+/**
+ * Enum que define o que o LogSender faz quando o buffer de logs enche.
+ *
+ * DESCARTAR_ANTIGOS: a linha nova substitui a linha mais antiga do buffer
+ * AMOSTRAR: acima de LIMIAR_AMOSTRAGEM do buffer, os tipos de log informativos
+ *           passam a ser aceites apenas 1 em cada "taxaAmostragem" (por tipo);
+ *           ERRO, AVISO e SUCESSO são sempre aceites e, com o buffer cheio,
+ *           substituem a linha mais antiga
+ */
+public enum PoliticaDescarte {
+    DESCARTAR_ANTIGOS,
+    AMOSTRAR
+}
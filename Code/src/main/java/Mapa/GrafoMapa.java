@@ -0,0 +1,180 @@
+package Mapa;
+
+import Utils.ConfigLoader;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grafo da rede de cruzamentos, construído a partir do configMapa.json.
+ *
+ * Cada ligação de um cruzamento é um movimento permitido: quem chega de
+ * "origem" pode seguir para "destino". As vias (arestas dirigidas) são as
+ * das entradas para o seu primeiro cruzamento (pela porta) e as de cada
+ * cruzamento para os destinos das suas ligações. Os caminhos dos veículos
+ * têm de respeitar os movimentos, não apenas as vias (ver TabelaRotas).
+ *
+ * Os nós são os nomes usados nos caminhos: entradas (E1...), cruzamentos
+ * (Cr1...) e a Saída (S).
+ */
+public class GrafoMapa {
+
+    /**
+     * Nome do nó da Saída nos caminhos.
+     */
+    public static final String SAIDA = "S";
+
+    private final Map<String, String> primeiroCruzamento = new LinkedHashMap<>();
+    private final Map<String, Map<String, List<String>>> movimentos = new LinkedHashMap<>();
+    private final Map<String, Set<String>> vias = new LinkedHashMap<>();
+
+    /**
+     * Constrói o grafo a partir das secções "entradas" e "cruzamentos".
+     *
+     * @param entradas Array "entradas" do configMapa.json
+     * @param cruzamentos Array "cruzamentos" do configMapa.json
+     * @throws IllegalArgumentException se uma entrada não ligar a nenhum cruzamento
+     */
+    public GrafoMapa(JsonArray entradas, JsonArray cruzamentos) {
+        Map<Integer, String> cruzamentoPorPorta = new HashMap<>();
+
+        for (JsonElement elem : cruzamentos) {
+            JsonObject config = elem.getAsJsonObject();
+            String nome = config.get("nome").getAsString();
+            cruzamentoPorPorta.put(config.get("portaServidor").getAsInt(), nome);
+
+            Map<String, List<String>> movimentosCruzamento = new LinkedHashMap<>();
+            movimentos.put(nome, movimentosCruzamento);
+
+            if (!config.has("ligacoes")) {
+                continue;
+            }
+            for (JsonElement l : config.getAsJsonArray("ligacoes")) {
+                JsonObject ligacao = l.getAsJsonObject();
+                String origem = ligacao.get("origem").getAsString();
+                String destino = ligacao.get("destino").getAsString();
+
+                movimentosCruzamento.computeIfAbsent(origem, k -> new ArrayList<>()).add(destino);
+                adicionarVia(nome, destino);
+            }
+        }
+
+        for (JsonElement elem : entradas) {
+            JsonObject config = elem.getAsJsonObject();
+            String id = config.get("id").getAsString();
+            String cruzamento = cruzamentoPorPorta.get(config.get("cruzamentoPorta").getAsInt());
+
+            if (cruzamento == null) {
+                throw new IllegalArgumentException("Entrada " + id + " não liga a nenhum cruzamento do configMapa.json");
+            }
+            primeiroCruzamento.put(id, cruzamento);
+            adicionarVia(id, cruzamento);
+        }
+    }
+
+    /** Grafo do configMapa.json, construído no primeiro uso */
+    private static final class Instancia {
+        static final GrafoMapa GRAFO = new GrafoMapa(ConfigLoader.carregarEntradas(), ConfigLoader.carregarCruzamentos());
+    }
+
+    /**
+     * Obtém o grafo do configMapa.json (construído uma vez por processo).
+     *
+     * @return Grafo configurado
+     */
+    public static GrafoMapa configurado() {
+        return Instancia.GRAFO;
+    }
+
+    private void adicionarVia(String origem, String destino) {
+        vias.computeIfAbsent(origem, k -> new LinkedHashSet<>()).add(destino);
+    }
+
+    /**
+     * Obtém o primeiro cruzamento de uma entrada.
+     *
+     * @param entrada Id da entrada (ex: "E1")
+     * @return Nome do cruzamento, ou null se a entrada não existir
+     */
+    public String getPrimeiroCruzamento(String entrada) {
+        return primeiroCruzamento.get(entrada);
+    }
+
+    /**
+     * Obtém as entradas, pela ordem do configMapa.json.
+     */
+    public Set<String> getEntradas() {
+        return Collections.unmodifiableSet(primeiroCruzamento.keySet());
+    }
+
+    /**
+     * Obtém os cruzamentos, pela ordem do configMapa.json.
+     */
+    public Set<String> getCruzamentos() {
+        return Collections.unmodifiableSet(movimentos.keySet());
+    }
+
+    /**
+     * Verifica se o nó é um cruzamento.
+     */
+    public boolean isCruzamento(String no) {
+        return movimentos.containsKey(no);
+    }
+
+    /**
+     * Obtém os destinos permitidos a quem chega a um cruzamento vindo de origem.
+     *
+     * @param cruzamento Nome do cruzamento
+     * @param origem Nó de onde o veículo vem
+     * @return Destinos pela ordem das ligações (vazio se não houver)
+     */
+    public List<String> getDestinos(String cruzamento, String origem) {
+        Map<String, List<String>> movimentosCruzamento = movimentos.get(cruzamento);
+        if (movimentosCruzamento == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(movimentosCruzamento.getOrDefault(origem, List.of()));
+    }
+
+    /**
+     * Obtém as origens de quem entra num cruzamento, pela ordem das ligações.
+     *
+     * @param cruzamento Nome do cruzamento
+     * @return Origens com pelo menos um movimento
+     */
+    public Set<String> getOrigens(String cruzamento) {
+        Map<String, List<String>> movimentosCruzamento = movimentos.get(cruzamento);
+        return movimentosCruzamento == null ? Set.of() : Collections.unmodifiableSet(movimentosCruzamento.keySet());
+    }
+
+    /**
+     * Obtém as vias dirigidas do mapa (origem → destinos), pela ordem da configuração.
+     */
+    public Map<String, Set<String>> getVias() {
+        return Collections.unmodifiableMap(vias);
+    }
+
+    /**
+     * Verifica se existe uma via de origem para destino.
+     */
+    public boolean temVia(String origem, String destino) {
+        Set<String> destinos = vias.get(origem);
+        return destinos != null && destinos.contains(destino);
+    }
+
+    /**
+     * Verifica se há vias nos dois sentidos entre dois nós.
+     */
+    public boolean isBidirecional(String a, String b) {
+        return temVia(a, b) && temVia(b, a);
+    }
+}
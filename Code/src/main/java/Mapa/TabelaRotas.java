@@ -0,0 +1,296 @@
+package Mapa;
+
+import Dashboard.Logs.TipoLog;
+import Logging.LogClienteDashboard;
+import Utils.ConfigLoader;
+import Veiculo.CaminhoNos;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.random.RandomGenerator;
+
+/**
+ * Tabela de rotas para a Saída, calculada uma vez a partir do GrafoMapa.
+ *
+ * Para cada estado (origem, cruzamento), isto é, para cada via por onde um
+ * veículo pode chegar a um cruzamento, guarda as k rotas mais curtas até à
+ * Saída (em número de cruzamentos), sem repetir cruzamentos e respeitando os
+ * movimentos de cada cruzamento. As rotas têm o formato dos caminhos dos
+ * veículos: [cruzamento, ..., "S"], já com os identificadores do RegistoNos
+ * (CaminhoNos). Escolher uma rota é O(1).
+ *
+ * As rotas de cada estado são encontradas por procura A* sobre os estados,
+ * com a distância mínima à Saída (sem a restrição de não repetir) como
+ * heurística; as rotas completas saem por ordem de comprimento.
+ *
+ * Só contam como alternativas as rotas com, no máximo, desvioMaximo
+ * cruzamentos a mais do que a distância mínima: sem este limite, um estado
+ * com menos de k rotas obrigaria a percorrer todos os caminhos do mapa.
+ *
+ * Configurado em "rotas": {"alternativas": k, "desvioMaximo": d} no
+ * configMapa.json (por omissão 3 e 4).
+ */
+public class TabelaRotas {
+
+    private static final int ALTERNATIVAS_POR_OMISSAO = 3;
+    private static final int DESVIO_POR_OMISSAO = 4;
+
+    // Evita procuras sem fim em mapas muito grandes e densos
+    private static final int LIMITE_EXPANSOES = 200_000;
+
+    private static final int INALCANCAVEL = Integer.MAX_VALUE;
+
+    /**
+     * Rotas de um estado, por ordem de comprimento.
+     *
+     * @param curtas Quantas das primeiras rotas têm o comprimento mínimo
+     */
+    private record Alternativas(List<List<String>> rotas, int curtas) {}
+
+    /**
+     * Rota parcial na procura (lista ligada até à origem).
+     */
+    private record Parcial(String origem, String no, Parcial anterior, int cruzamentos, int estimativa, long sequencia)
+            implements Comparable<Parcial> {
+        @Override
+        public int compareTo(Parcial outra) {
+            int c = Integer.compare(estimativa, outra.estimativa);
+            if (c != 0) {
+                return c;
+            }
+            // Em empate, avança primeiro as mais longas: chegam mais cedo à Saída
+            c = Integer.compare(outra.cruzamentos, cruzamentos);
+            return c != 0 ? c : Long.compare(sequencia, outra.sequencia);
+        }
+
+        boolean visitou(String n) {
+            for (Parcial p = this; p != null; p = p.anterior) {
+                if (p.no.equals(n) || (p.anterior == null && p.origem.equals(n))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<String> caminho() {
+            List<String> caminho = new ArrayList<>();
+            for (Parcial p = this; p != null; p = p.anterior) {
+                caminho.add(p.no);
+            }
+            Collections.reverse(caminho);
+            return CaminhoNos.de(caminho);
+        }
+    }
+
+    private final GrafoMapa grafo;
+    private final int alternativas;
+    private final int desvioMaximo;
+    private final Map<String, Integer> distancias = new HashMap<>();
+    private final Map<String, Alternativas> rotas = new HashMap<>();
+
+    /**
+     * Calcula as rotas de todos os estados do grafo.
+     *
+     * @param grafo Grafo do mapa
+     * @param alternativas Número máximo de rotas por estado (k)
+     * @param desvioMaximo Máximo de cruzamentos a mais do que a rota mais curta
+     */
+    public TabelaRotas(GrafoMapa grafo, int alternativas, int desvioMaximo) {
+        if (alternativas < 1 || desvioMaximo < 0) {
+            throw new IllegalArgumentException("Rotas: alternativas >= 1 e desvioMaximo >= 0");
+        }
+        this.grafo = grafo;
+        this.alternativas = alternativas;
+        this.desvioMaximo = desvioMaximo;
+
+        calcularDistancias();
+
+        for (String cruzamento : grafo.getCruzamentos()) {
+            for (String origem : grafo.getOrigens(cruzamento)) {
+                rotas.put(chave(origem, cruzamento), procurar(origem, cruzamento));
+            }
+        }
+    }
+
+    /** Tabela do configMapa.json, calculada no primeiro uso */
+    private static final class Instancia {
+        static final TabelaRotas TABELA = criar(GrafoMapa.configurado(), ConfigLoader.carregarRotas());
+    }
+
+    /**
+     * Obtém a tabela do configMapa.json (calculada uma vez por processo).
+     *
+     * @return Tabela de rotas configurada
+     */
+    public static TabelaRotas configurada() {
+        return Instancia.TABELA;
+    }
+
+    private static TabelaRotas criar(GrafoMapa grafo, JsonObject config) {
+        int alternativas = (config != null && config.has("alternativas"))
+                ? config.get("alternativas").getAsInt() : ALTERNATIVAS_POR_OMISSAO;
+        int desvio = (config != null && config.has("desvioMaximo"))
+                ? config.get("desvioMaximo").getAsInt() : DESVIO_POR_OMISSAO;
+        return new TabelaRotas(grafo, alternativas, desvio);
+    }
+
+    private static String chave(String origem, String cruzamento) {
+        return origem + "→" + cruzamento;
+    }
+
+    /**
+     * Distância mínima (em cruzamentos, incluindo o cruzamento) de cada estado
+     * à Saída, por procura em largura para trás a partir da Saída.
+     */
+    private void calcularDistancias() {
+        // Estados que antecedem cada estado: (o, c) → (c, d) para cada movimento o → d em c
+        Map<String, List<String[]>> anteriores = new HashMap<>();
+        ArrayDeque<String[]> porVisitar = new ArrayDeque<>();
+
+        for (String cruzamento : grafo.getCruzamentos()) {
+            for (String origem : grafo.getOrigens(cruzamento)) {
+                for (String destino : grafo.getDestinos(cruzamento, origem)) {
+                    if (GrafoMapa.SAIDA.equals(destino)) {
+                        if (distancias.putIfAbsent(chave(origem, cruzamento), 1) == null) {
+                            porVisitar.add(new String[]{origem, cruzamento});
+                        }
+                    } else {
+                        anteriores.computeIfAbsent(chave(cruzamento, destino), k -> new ArrayList<>())
+                                .add(new String[]{origem, cruzamento});
+                    }
+                }
+            }
+        }
+
+        while (!porVisitar.isEmpty()) {
+            String[] estado = porVisitar.poll();
+            int distancia = distancias.get(chave(estado[0], estado[1]));
+            for (String[] anterior : anteriores.getOrDefault(chave(estado[0], estado[1]), List.of())) {
+                if (distancias.putIfAbsent(chave(anterior[0], anterior[1]), distancia + 1) == null) {
+                    porVisitar.add(anterior);
+                }
+            }
+        }
+    }
+
+    private int distancia(String origem, String no) {
+        if (GrafoMapa.SAIDA.equals(no)) {
+            return 0;
+        }
+        return distancias.getOrDefault(chave(origem, no), INALCANCAVEL);
+    }
+
+    /**
+     * Procura as k rotas mais curtas de um estado até à Saída.
+     */
+    private Alternativas procurar(String origem, String cruzamento) {
+        List<List<String>> encontradas = new ArrayList<>();
+        int inicial = distancia(origem, cruzamento);
+        if (inicial == INALCANCAVEL) {
+            return new Alternativas(List.of(), 0);
+        }
+
+        PriorityQueue<Parcial> fronteira = new PriorityQueue<>();
+        long sequencia = 0;
+        fronteira.add(new Parcial(origem, cruzamento, null, 1, inicial, sequencia++));
+
+        int expansoes = 0;
+        int limite = inicial + desvioMaximo;
+        while (!fronteira.isEmpty() && encontradas.size() < alternativas) {
+            Parcial atual = fronteira.poll();
+
+            // A estimativa nunca excede o comprimento real: as restantes também passam o limite
+            if (atual.estimativa() > limite) {
+                break;
+            }
+
+            if (GrafoMapa.SAIDA.equals(atual.no())) {
+                encontradas.add(atual.caminho());
+                continue;
+            }
+
+            if (++expansoes > LIMITE_EXPANSOES) {
+                LogClienteDashboard.enviar(TipoLog.AVISO, "[TabelaRotas] Procura interrompida em " + chave(origem, cruzamento)
+                        + " com " + encontradas.size() + " rotas");
+                break;
+            }
+
+            String anterior = atual.anterior() == null ? origem : atual.anterior().no();
+            for (String destino : grafo.getDestinos(atual.no(), anterior)) {
+                boolean saida = GrafoMapa.SAIDA.equals(destino);
+                if (!saida && atual.visitou(destino)) {
+                    continue;
+                }
+
+                int restante = distancia(atual.no(), destino);
+                if (restante == INALCANCAVEL) {
+                    continue;
+                }
+
+                int cruzamentos = atual.cruzamentos() + (saida ? 0 : 1);
+                fronteira.add(new Parcial(origem, destino, atual, cruzamentos,
+                        cruzamentos + (saida ? 0 : restante - 1), sequencia++));
+            }
+        }
+
+        int curtas = 0;
+        while (curtas < encontradas.size() && encontradas.get(curtas).size() == encontradas.get(0).size()) {
+            curtas++;
+        }
+        return new Alternativas(List.copyOf(encontradas), curtas);
+    }
+
+    /**
+     * Obtém o grafo usado para calcular as rotas.
+     */
+    public GrafoMapa getGrafo() {
+        return grafo;
+    }
+
+    /**
+     * Obtém as rotas de um estado, da mais curta para a mais longa.
+     *
+     * @param origem Nó de onde o veículo chega ao cruzamento
+     * @param cruzamento Cruzamento onde o veículo está
+     * @return Rotas [cruzamento, ..., "S"] (vazia se a Saída for inalcançável)
+     */
+    public List<List<String>> getRotas(String origem, String cruzamento) {
+        Alternativas a = rotas.get(chave(origem, cruzamento));
+        return a == null ? List.of() : a.rotas();
+    }
+
+    /**
+     * Escolhe uma das k rotas de um estado, com igual probabilidade.
+     *
+     * @return Rota escolhida
+     * @throws IllegalArgumentException se não houver rota para a Saída
+     */
+    public List<String> rotaAleatoria(String origem, String cruzamento, RandomGenerator aleatorio) {
+        List<List<String>> r = getRotas(origem, cruzamento);
+        if (r.isEmpty()) {
+            throw new IllegalArgumentException("Não há rota para a Saída a partir de " + chave(origem, cruzamento));
+        }
+        return r.size() == 1 ? r.get(0) : r.get(aleatorio.nextInt(r.size()));
+    }
+
+    /**
+     * Escolhe uma das rotas mais curtas de um estado, com igual probabilidade
+     * (divide o tráfego entre rotas empatadas).
+     *
+     * @return Rota escolhida
+     * @throws IllegalArgumentException se não houver rota para a Saída
+     */
+    public List<String> rotaCurta(String origem, String cruzamento, RandomGenerator aleatorio) {
+        Alternativas a = rotas.get(chave(origem, cruzamento));
+        if (a == null || a.curtas() == 0) {
+            throw new IllegalArgumentException("Não há rota para a Saída a partir de " + chave(origem, cruzamento));
+        }
+        return a.curtas() == 1 ? a.rotas().get(0) : a.rotas().get(aleatorio.nextInt(a.curtas()));
+    }
+}
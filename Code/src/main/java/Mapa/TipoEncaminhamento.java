@@ -0,0 +1,46 @@
+package Mapa;
+
+import Utils.ConfigLoader;
+import com.google.gson.JsonObject;
+
+/**
+ * Enum que define como os cruzamentos encaminham os veículos.
+ *
+ * ESTATICO: o caminho escolhido na geração não muda (comportamento original)
+ * DINAMICO: à saída de cada cruzamento, o resto do caminho é reescrito pela
+ *           rota com menor tempo estimado até à Saída, a partir dos resumos
+ *           de filas enviados pelos cruzamentos vizinhos
+ *
+ * Escolhido no campo "encaminhamento" de cada cruzamento ou, se não estiver
+ * definido, no campo "encaminhamento" da secção "rotas" do configMapa.json.
+ */
+public enum TipoEncaminhamento {
+    ESTATICO,
+    DINAMICO;
+
+    private static final TipoEncaminhamento POR_OMISSAO = ESTATICO;
+
+    /**
+     * Obtém o encaminhamento definido para um cruzamento.
+     * Se não estiver definido ou for inválido, usa ESTATICO.
+     *
+     * @param configCruzamento Configuração do cruzamento (pode ser null)
+     * @return Tipo de encaminhamento
+     */
+    public static TipoEncaminhamento configurado(JsonObject configCruzamento) {
+        JsonObject config = configCruzamento;
+        if (config == null || !config.has("encaminhamento")) {
+            config = ConfigLoader.carregarRotas();
+        }
+        if (config == null || !config.has("encaminhamento")) {
+            return POR_OMISSAO;
+        }
+
+        try {
+            return TipoEncaminhamento.valueOf(config.get("encaminhamento").getAsString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[TipoEncaminhamento] Encaminhamento desconhecido no configMapa.json, a usar " + POR_OMISSAO);
+            return POR_OMISSAO;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package PontosEntrada;
+
+import Dashboard.Logs.TipoLog;
+import Logging.LogClienteDashboard;
+import Utils.ConfigLoader;
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de tráfego de uma execução, lida do configCargas.json:
+ *
+ *   totalVeiculos  total a gerar (todas as entradas), dividido pelas entradas
+ *   duracaoS       tempo de geração; sem totalVeiculos, gera sem limite de
+ *                  veículos durante este tempo (ensaio de resistência)
+ *   intervaloMs    intervalo entre chegadas do processo FIXO
+ *   chegadas       processo de chegada de cada entrada (ver TipoChegada);
+ *                  por omissão, FIXO com intervaloMs
+ *
+ * Deve ter totalVeiculos, duracaoS ou ambos (termina no que chegar primeiro).
+ */
+public final class Carga {
+
+    /**
+     * Limite de veículos de uma carga só com duração.
+     */
+    public static final int SEM_LIMITE = Integer.MAX_VALUE;
+
+    private static final String CARGA_POR_OMISSAO = "BAIXA";
+
+    private final String nome;
+    private final int totalVeiculos;
+    private final long duracaoMs;
+    private final long intervaloMs;
+    private final JsonObject chegadas;
+
+    private Carga(String nome, int totalVeiculos, long duracaoMs, long intervaloMs, JsonObject chegadas) {
+        if (totalVeiculos < 1 || duracaoMs < 0 || (totalVeiculos == SEM_LIMITE && duracaoMs == 0)) {
+            throw new IllegalArgumentException("Carga '" + nome + "': totalVeiculos >= 1 ou duracaoS > 0");
+        }
+        this.nome = nome;
+        this.totalVeiculos = totalVeiculos;
+        this.duracaoMs = duracaoMs;
+        this.intervaloMs = intervaloMs;
+        this.chegadas = chegadas;
+
+        // Valida já o processo de chegada, em vez de só quando os geradores arrancam
+        criarProcesso();
+    }
+
+    /**
+     * Cria uma carga a partir do seu objeto no configCargas.json.
+     *
+     * @param nome Nome da carga (ex: "ALTA")
+     * @param config Objeto da carga
+     * @return Carga
+     * @throws IllegalArgumentException se a configuração for inválida
+     */
+    public static Carga de(String nome, JsonObject config) {
+        int total = config.has("totalVeiculos") ? config.get("totalVeiculos").getAsInt() : SEM_LIMITE;
+        long duracaoMs = config.has("duracaoS") ? TimeUnit.SECONDS.toMillis(config.get("duracaoS").getAsLong()) : 0;
+        long intervaloMs = config.has("intervaloMs") ? config.get("intervaloMs").getAsLong() : 0;
+        JsonObject chegadas = config.has("chegadas") ? config.getAsJsonObject("chegadas") : null;
+
+        if (chegadas == null && !config.has("intervaloMs")) {
+            throw new IllegalArgumentException("Carga '" + nome + "' sem intervaloMs nem chegadas");
+        }
+        return new Carga(nome, total, duracaoMs, intervaloMs, chegadas);
+    }
+
+    /**
+     * Cria uma carga de intervalo fixo (comportamento original).
+     *
+     * @param totalVeiculos Total de veículos a gerar (todas as entradas)
+     * @param intervaloMs Intervalo entre gerações em cada entrada
+     * @return Carga
+     */
+    public static Carga fixa(int totalVeiculos, long intervaloMs) {
+        return new Carga("FIXA", totalVeiculos, 0, intervaloMs, null);
+    }
+
+    /**
+     * Obtém uma carga do configCargas.json pelo nome.
+     * Se não existir, usa BAIXA.
+     *
+     * @param nome Nome da carga
+     * @return Carga configurada
+     */
+    public static Carga configurada(String nome) {
+        JsonObject cargas = ConfigLoader.carregarCargas();
+        if (!cargas.has(nome)) {
+            LogClienteDashboard.enviar(TipoLog.AVISO, "Carga '" + nome + "' desconhecida. A usar '" + CARGA_POR_OMISSAO + "'.");
+            nome = CARGA_POR_OMISSAO;
+        }
+        return de(nome, cargas.getAsJsonObject(nome));
+    }
+
+    /**
+     * Lê uma carga da linha de comandos: um total de veículos (intervalo fixo)
+     * ou o nome de uma carga do configCargas.json.
+     *
+     * @param argumento Total de veículos ou nome da carga
+     * @param intervaloMs Intervalo usado se o argumento for um total
+     * @return Carga
+     */
+    public static Carga deArgumento(String argumento, long intervaloMs) {
+        try {
+            return fixa(Integer.parseInt(argumento), intervaloMs);
+        } catch (NumberFormatException e) {
+            return configurada(argumento);
+        }
+    }
+
+    /**
+     * Cria um processo de chegada novo (um por gerador).
+     *
+     * @return Processo de chegada desta carga
+     */
+    public ProcessoChegada criarProcesso() {
+        return ProcessoChegada.configurado(chegadas, intervaloMs);
+    }
+
+    /**
+     * Obtém quantos veículos uma entrada deve gerar, dividindo o total pelas
+     * entradas (as primeiras ficam com o resto).
+     *
+     * @param indice Índice da entrada
+     * @param nEntradas Número de entradas
+     * @return Limite de veículos da entrada, ou SEM_LIMITE
+     */
+    public int limitePorEntrada(int indice, int nEntradas) {
+        if (!temLimite()) {
+            return SEM_LIMITE;
+        }
+        return totalVeiculos / nEntradas + (indice < totalVeiculos % nEntradas ? 1 : 0);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * @return Total de veículos, ou SEM_LIMITE numa carga só com duração
+     */
+    public int getTotalVeiculos() {
+        return totalVeiculos;
+    }
+
+    public boolean temLimite() {
+        return totalVeiculos != SEM_LIMITE;
+    }
+
+    /**
+     * @return Tempo de geração (ms), ou 0 sem limite de tempo
+     */
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    /**
+     * Descrição para os logs (ex: "ALTA: 90 veículos, POISSON").
+     */
+    @Override
+    public String toString() {
+        String limite = temLimite() ? totalVeiculos + " veículos" : "sem limite";
+        String duracao = duracaoMs > 0 ? ", " + TimeUnit.MILLISECONDS.toSeconds(duracaoMs) + " s" : "";
+        TipoChegada tipo = TipoChegada.configurado(chegadas);
+        String processo = tipo == TipoChegada.FIXO && chegadas == null ? "FIXO " + intervaloMs + " ms" : tipo.name();
+        return nome + ": " + limite + duracao + ", " + processo;
+    }
+}
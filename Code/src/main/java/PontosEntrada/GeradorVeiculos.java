@@ -4,20 +4,30 @@ import Logging.LogClienteDashboard;
 import Dashboard.Logs.TipoLog;
 import Veiculo.TipoVeiculo;
 import Veiculo.Veiculo;
+import Rede.Cliente;
 import Rede.Mensagem;
+import Rede.PublicadorEventos;
+import Rede.Transporte;
 
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.net.Socket;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
 
 /**
  * Gerador de veículos com limite máximo.
- * Para automaticamente após gerar o número especificado de veículos.
+ * Para automaticamente após gerar o número especificado de veículos
+ * ou quando termina a duração da carga.
+ *
+ * Os instantes de chegada vêm do processo de chegada (ver TipoChegada) e são
+ * medidos desde o arranque do gerador: o tempo gasto a enviar um veículo não
+ * atrasa os seguintes.
+ *
+ * Os tipos e caminhos vêm de um gerador de números aleatórios próprio,
+ * derivado de uma semente (ver PontosEntradaMain.criarGeradores), e os ids
+ * são numerados por entrada: com a mesma semente, uma execução repete
+ * exatamente os mesmos veículos.
  */
 public class GeradorVeiculos extends Thread {
 
@@ -25,34 +35,40 @@ public class GeradorVeiculos extends Thread {
     private final TipoCenario cenario;
     private final String ipPrimeiroCruzamento;
     private final int portaPrimeiroCruzamento;
-    private final long intervaloGeracaoMs;
+    private final ProcessoChegada processoChegada;
     private final int limiteVeiculos;
+    private final long duracaoMs;
 
-    private final com.google.gson.Gson gson = new com.google.gson.Gson();
     private volatile boolean ativo = true;
 
     private final AtomicInteger contadorGerados = new AtomicInteger(0);
-    private static final AtomicInteger contadorIdsGlobal = new AtomicInteger(0);
+    private final RandomGenerator aleatorio;
 
     private final String ipDashboard;
     private final int portaDashboard;
 
+    private final Transporte.Destino primeiroCruzamento;
+    private final Cliente clienteDashboard;
+    private final PublicadorEventos publicadorEventos;
+
     /**
      * Construtor do gerador de veículos.
      *
      * @param pontoEntrada Ponto de entrada associado
      * @param ipPrimeiroCruzamento IP do primeiro cruzamento
      * @param portaPrimeiroCruzamento Porta do primeiro cruzamento
-     * @param intervaloGeracaoMs Intervalo entre gerações em ms
-     * @param limiteVeiculos Número máximo de veículos a gerar
+     * @param processoChegada Processo de chegada desta entrada (uma instância por gerador)
+     * @param limiteVeiculos Número máximo de veículos a gerar (Carga.SEM_LIMITE para só usar a duração)
+     * @param duracaoMs Tempo máximo de geração em ms (0 sem limite de tempo)
      * @param ipDashboard IP do Dashboard
      * @param portaDashboard Porta do Dashboard
      * @param cenario Tipo de cenário para geração de caminhos
+     * @param aleatorio Gerador de números aleatórios deste gerador (ex: SplittableRandom com semente)
      */
     public GeradorVeiculos(PontoEntrada pontoEntrada, String ipPrimeiroCruzamento,
-                           int portaPrimeiroCruzamento, long intervaloGeracaoMs,
-                           int limiteVeiculos, String ipDashboard, int portaDashboard,
-                           TipoCenario cenario) {
+                           int portaPrimeiroCruzamento, ProcessoChegada processoChegada,
+                           int limiteVeiculos, long duracaoMs, String ipDashboard, int portaDashboard,
+                           TipoCenario cenario, RandomGenerator aleatorio) {
 
         super("Gerador-" + pontoEntrada.name());
         this.pontoEntrada = pontoEntrada;
@@ -61,8 +77,13 @@ public class GeradorVeiculos extends Thread {
         this.portaDashboard = portaDashboard;
         this.ipPrimeiroCruzamento = ipPrimeiroCruzamento;
         this.portaPrimeiroCruzamento = portaPrimeiroCruzamento;
-        this.intervaloGeracaoMs = intervaloGeracaoMs;
+        this.processoChegada = processoChegada;
         this.limiteVeiculos = limiteVeiculos;
+        this.duracaoMs = duracaoMs;
+        this.aleatorio = aleatorio;
+        this.primeiroCruzamento = Transporte.configurado().ligar(ipPrimeiroCruzamento, portaPrimeiroCruzamento);
+        this.clienteDashboard = new Cliente(ipDashboard, portaDashboard);
+        this.publicadorEventos = PublicadorEventos.obter(ipDashboard, portaDashboard);
         setDaemon(false);
     }
 
@@ -78,14 +99,21 @@ public class GeradorVeiculos extends Thread {
     @Override
     public void run() {
         LogClienteDashboard.definirNomeProcesso(pontoEntrada.toString());
+        String limite = limiteVeiculos != Carga.SEM_LIMITE
+                ? "Vai gerar " + limiteVeiculos + " veículos"
+                : "Vai gerar veículos durante " + TimeUnit.MILLISECONDS.toSeconds(duracaoMs) + " s";
         LogClienteDashboard.enviar(TipoLog.SISTEMA, "Gerador " + pontoEntrada.name() +
-                " iniciado (" + cenario.getDescricao() + "). Vai gerar " + limiteVeiculos + " veículos.");
+                " iniciado (" + cenario.getDescricao() + ", chegadas " + processoChegada.getTipo() + "). " + limite + ".");
+
+        long inicioNs = System.nanoTime();
+        long chegadaNs = 0;
+        long duracaoNs = duracaoMs > 0 ? TimeUnit.MILLISECONDS.toNanos(duracaoMs) : ProcessoChegada.SEM_CHEGADAS;
 
         try {
             while (ativo && contadorGerados.get() < limiteVeiculos) {
                 Veiculo veiculo = gerarVeiculo();
 
-                String primeiroCruzamento = veiculo.getCaminho().isEmpty() ? "S" : veiculo.getCaminho().get(0);
+                String primeiroCruzamento = veiculo.getProximoNo();
 
                 notificarMovimento(
                         veiculo.getId(),
@@ -103,13 +131,23 @@ public class GeradorVeiculos extends Thread {
                     break;
                 }
 
-                Thread.sleep(intervaloGeracaoMs);
+                chegadaNs = processoChegada.proximaChegadaNs(chegadaNs, aleatorio);
+                if (chegadaNs >= duracaoNs) {
+                    break;
+                }
+
+                long esperaNs = inicioNs + chegadaNs - System.nanoTime();
+                if (esperaNs > 0) {
+                    TimeUnit.NANOSECONDS.sleep(esperaNs);
+                }
             }
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
 
+        publicadorEventos.descarregar();
+
         LogClienteDashboard.enviar(TipoLog.SUCESSO, "Gerador " + pontoEntrada.name() + " terminou (" +
                 contadorGerados.get() + " veículos criados).");
     }
@@ -120,57 +158,68 @@ public class GeradorVeiculos extends Thread {
      * @return Novo veículo criado
      */
     private Veiculo gerarVeiculo() {
-        double p = ThreadLocalRandom.current().nextDouble();
-        TipoVeiculo tipo;
+        return criarVeiculo(pontoEntrada, cenario, aleatorio, contadorGerados.get() + 1, System.currentTimeMillis());
+    }
 
-        if (p < 0.4) {
-            tipo = TipoVeiculo.CARRO;
-        } else if (p < 0.8) {
-            tipo = TipoVeiculo.MOTA;
-        } else {
-            tipo = TipoVeiculo.CAMIAO;
-        }
+    /**
+     * Cria o n-ésimo veículo de uma entrada: sorteia o tipo e depois o caminho,
+     * sempre por esta ordem, para que a mesma sequência aleatória produza os
+     * mesmos veículos em tempo real e em tempo virtual (SimulacaoVirtual).
+     *
+     * @param entrada Ponto de entrada
+     * @param cenario Cenário para geração de caminhos
+     * @param aleatorio Gerador de números aleatórios da entrada
+     * @param numero Número do veículo nesta entrada (1, 2, ...)
+     * @param tempoChegada Instante de chegada ao sistema (ms)
+     * @return Novo veículo
+     */
+    public static Veiculo criarVeiculo(PontoEntrada entrada, TipoCenario cenario, RandomGenerator aleatorio,
+                                       int numero, long tempoChegada) {
+        TipoVeiculo tipo = sortearTipo(aleatorio);
 
-        String id = String.format("%s-%03d", pontoEntrada.name(), contadorIdsGlobal.incrementAndGet());
+        String id = String.format("%s-%03d", entrada.name(), numero);
 
         // Usa o cenário para gerar o caminho
-        List<String> caminho = Caminhos.gerarCaminho(pontoEntrada, cenario);
+        List<String> caminho = Caminhos.gerarCaminho(entrada, cenario, aleatorio);
 
-        return new Veiculo(id, tipo, pontoEntrada, caminho);
+        return new Veiculo(id, tipo, entrada, caminho, tempoChegada, -1, 0);
+    }
+
+    /**
+     * Sorteia o tipo de um novo veículo (40% carros, 40% motas, 20% camiões).
+     *
+     * @param aleatorio Gerador de números aleatórios
+     * @return Tipo do veículo
+     */
+    public static TipoVeiculo sortearTipo(RandomGenerator aleatorio) {
+        double p = aleatorio.nextDouble();
+
+        if (p < 0.4) {
+            return TipoVeiculo.CARRO;
+        } else if (p < 0.8) {
+            return TipoVeiculo.MOTA;
+        }
+        return TipoVeiculo.CAMIAO;
     }
 
     /**
      * Envia um veículo para o primeiro cruzamento.
      */
     private void enviarVeiculo(Veiculo veiculo) {
-        try (Socket socket = new Socket(ipPrimeiroCruzamento, portaPrimeiroCruzamento);
-             PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
-
-            Mensagem mensagem = new Mensagem(
-                    "VEICULO",
-                    pontoEntrada.name(),
-                    veiculo.getCaminho().isEmpty() ? "S" : veiculo.getCaminho().get(0),
-                    Map.of("veiculo", veiculo)
-            );
-
-            String json = gson.toJson(mensagem);
-            out.println(json);
-
-        } catch (IOException e) {
-            LogClienteDashboard.enviar(TipoLog.AVISO, "Falha ao enviar veículo " + veiculo.getId() +
-                    " a partir de " + pontoEntrada.name() + ": " + e.getMessage());
+        // O veículo não é lido depois do envio (pode voltar ao PoolVeiculos)
+        String idVeiculo = veiculo.getId();
+        if (!primeiroCruzamento.enviarVeiculo(veiculo, pontoEntrada.name())) {
+            LogClienteDashboard.enviar(TipoLog.AVISO, "Falha ao enviar veículo " + idVeiculo +
+                    " a partir de " + pontoEntrada.name());
         }
     }
 
     /**
-     * Envia uma mensagem ao Dashboard via socket TCP.
+     * Envia uma mensagem ao Dashboard pela ligação persistente.
      */
     private void enviarParaDashboard(Mensagem msg) {
-        try (Socket socket = new Socket(ipDashboard, portaDashboard);
-             PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
-            out.println(gson.toJson(msg));
-        } catch (IOException e) {
-            LogClienteDashboard.enviar(TipoLog.AVISO, "Falha ao notificar Dashboard: " + e.getMessage());
+        if (!clienteDashboard.enviarMensagem(msg)) {
+            LogClienteDashboard.enviar(TipoLog.AVISO, "Falha ao notificar Dashboard (" + msg.tipo() + ")");
         }
     }
 
@@ -191,18 +240,6 @@ public class GeradorVeiculos extends Thread {
      * Notifica o Dashboard sobre o movimento de um veículo.
      */
     private void notificarMovimento(String idVeiculo, String tipo, String origem, String destino) {
-        Map<String, Object> conteudo = new HashMap<>();
-        conteudo.put("id", idVeiculo);
-        conteudo.put("tipo", tipo);
-        conteudo.put("origem", origem);
-        conteudo.put("destino", destino);
-
-        Mensagem msg = new Mensagem(
-                "VEICULO_MOVIMENTO",
-                origem,
-                "Dashboard",
-                conteudo
-        );
-        enviarParaDashboard(msg);
+        publicadorEventos.publicarMovimento(idVeiculo, tipo, origem, destino);
     }
-}
\ No newline at end of file
+}
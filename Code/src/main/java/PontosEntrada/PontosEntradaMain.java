@@ -3,29 +3,27 @@ package PontosEntrada;
 import Logging.LogClienteDashboard;
 import Dashboard.Logs.TipoLog;
 
+import Mapa.TabelaRotas;
 import Utils.ConfigLoader;
-import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
 
 /**
  * Processo responsável por gerir a entrada de veículos no sistema.
  *
  * Argumentos esperados:
- *   args[0] - Carga selecionada (BAIXA, MEDIA, ALTA)
+ *   args[0] - Carga selecionada (uma das cargas do configCargas.json, ex: BAIXA, MEDIA, ALTA)
  *   args[1] - Cenário selecionado (ALEATORIO, CAMINHO_CURTO)
+ *   args[2] - Semente dos números aleatórios (opcional; por omissão a do configCargas.json)
  */
 public class PontosEntradaMain {
     public static void main(String[] args) throws Exception {
-        Gson gson = new Gson();
-
         // Ler argumentos
         String cargaSelecionada = (args.length > 0) ? args[0] : "BAIXA";
         String cenarioStr = (args.length > 1) ? args[1] : "ALEATORIO";
+        long semente = (args.length > 2) ? Long.parseLong(args[2]) : sementeConfigurada();
 
         // Converter string para enum TipoCenario
         TipoCenario cenario;
@@ -36,6 +34,92 @@ public class PontosEntradaMain {
             cenario = TipoCenario.ALEATORIO;
         }
 
+        // 2. LER CONFIGURAÇÃO DAS CARGAS
+        Carga carga = Carga.configurada(cargaSelecionada);
+
+        LogClienteDashboard.enviar(TipoLog.SISTEMA,
+                String.format("Geradores: Carga=%s | Cenário=%s | Semente=%d",
+                        carga, cenario.getDescricao(), semente));
+
+        GeradorVeiculos[] geradores = criarGeradores(carga, cenario, semente);
+
+        // 4. INICIAR GERADORES
+        LogClienteDashboard.enviar(TipoLog.SISTEMA, "Geradores de entrada iniciados.");
+
+        for (GeradorVeiculos g : geradores) {
+            g.start();
+        }
+
+        // 5. AGUARDAR CONCLUSÃO
+        for (GeradorVeiculos g : geradores) {
+            g.join();
+        }
+        LogClienteDashboard.enviar(TipoLog.SUCESSO, "Todos os geradores concluíram a criação de veículos.");
+    }
+
+    /**
+     * Obtém a semente configurada em configCargas.json. Se não houver, sorteia
+     * uma e regista-a no log, para que a execução possa ser repetida.
+     *
+     * @return Semente dos números aleatórios
+     */
+    public static long sementeConfigurada() {
+        Long semente = ConfigLoader.carregarSemente();
+        if (semente != null) {
+            return semente;
+        }
+        long sorteada = new SplittableRandom().nextLong();
+        LogClienteDashboard.enviar(TipoLog.SISTEMA, "Sem semente configurada. Semente sorteada: " + sorteada);
+        return sorteada;
+    }
+
+    /**
+     * Cria os geradores com a semente configurada (ver sementeConfigurada()).
+     *
+     * @param totalVeiculos Total de veículos a gerar (todas as entradas)
+     * @param intervaloMs Intervalo entre gerações em cada entrada
+     * @param cenario Cenário para geração de caminhos
+     * @return Geradores prontos a iniciar
+     */
+    public static GeradorVeiculos[] criarGeradores(int totalVeiculos, long intervaloMs, TipoCenario cenario) {
+        return criarGeradores(totalVeiculos, intervaloMs, cenario, sementeConfigurada());
+    }
+
+    /**
+     * Cria geradores de intervalo fixo (ver Carga.fixa()).
+     *
+     * @param totalVeiculos Total de veículos a gerar (todas as entradas)
+     * @param intervaloMs Intervalo entre gerações em cada entrada
+     * @param cenario Cenário para geração de caminhos
+     * @param semente Semente dos números aleatórios (tipos e caminhos)
+     * @return Geradores prontos a iniciar
+     */
+    public static GeradorVeiculos[] criarGeradores(int totalVeiculos, long intervaloMs, TipoCenario cenario,
+                                                   long semente) {
+        return criarGeradores(Carga.fixa(totalVeiculos, intervaloMs), cenario, semente);
+    }
+
+    /**
+     * Cria um gerador (ainda não iniciado) por cada entrada do configMapa.json,
+     * dividindo o total de veículos da carga entre as entradas. Cada gerador
+     * tem o seu processo de chegada.
+     *
+     * Cada gerador recebe o seu próprio SplittableRandom, separado (split) de
+     * um gerador raiz com a semente, pela ordem das entradas na configuração.
+     * Assim os veículos de cada entrada dependem só da semente, e não da
+     * ordem em que as threads dos geradores correm.
+     *
+     * Usado por este processo e pela simulação num único processo (Simulacao).
+     *
+     * @param carga Carga de tráfego
+     * @param cenario Cenário para geração de caminhos
+     * @param semente Semente dos números aleatórios (chegadas, tipos e caminhos)
+     * @return Geradores prontos a iniciar
+     */
+    public static GeradorVeiculos[] criarGeradores(Carga carga, TipoCenario cenario, long semente) {
+        // Calcula já as rotas, em vez de no primeiro veículo
+        TabelaRotas.configurada();
+
         JsonObject configDashboard = ConfigLoader.carregarDashboard();
         String ipDashboard = configDashboard.get("ipServidor").getAsString();
         int portaDashboard = configDashboard.get("portaServidor").getAsInt();
@@ -48,32 +132,11 @@ public class PontosEntradaMain {
             throw new IllegalArgumentException("Nenhuma entrada encontrada.");
         }
 
-        LogClienteDashboard.enviar(TipoLog.SISTEMA, "A gerar veículos para todas as entradas: E1, E2, E3");
-
-        // 2. LER CONFIGURAÇÃO DAS CARGAS
-        String jsonCargas = readResourceAsString("configCargas.json");
-        JsonObject rootCargas = gson.fromJson(jsonCargas, JsonObject.class);
-
-        if (!rootCargas.getAsJsonObject("cargas").has(cargaSelecionada)) {
-            LogClienteDashboard.enviar(TipoLog.AVISO, "Carga '" + cargaSelecionada + "' desconhecida. A usar 'BAIXA'.");
-            cargaSelecionada = "BAIXA";
-        }
-
-        JsonObject carga = rootCargas.getAsJsonObject("cargas").getAsJsonObject(cargaSelecionada);
-
-        int totalVeiculos = carga.get("totalVeiculos").getAsInt();
-        long intervaloMs = carga.get("intervaloMs").getAsLong();
-
-        LogClienteDashboard.enviar(TipoLog.SISTEMA,
-                String.format("Geradores: Carga=%s | Cenário=%s | Total=%d | Intervalo=%dms",
-                        cargaSelecionada, cenario.getDescricao(), totalVeiculos, intervaloMs));
-
         // 3. DISTRIBUIR ENTRE E1/E2/E3
         int nEntradas = entradasJson.size();
-        int base = totalVeiculos / nEntradas;
-        int resto = totalVeiculos % nEntradas;
 
         GeradorVeiculos[] geradores = new GeradorVeiculos[nEntradas];
+        SplittableRandom raiz = new SplittableRandom(semente);
 
         for (int idx = 0; idx < nEntradas; idx++) {
             JsonObject e = entradasJson.get(idx).getAsJsonObject();
@@ -81,50 +144,26 @@ public class PontosEntradaMain {
             String host = e.get("cruzamentoHost").getAsString();
             int porta = e.get("cruzamentoPorta").getAsInt();
 
-            int limiteLocal = base + (idx < resto ? 1 : 0);
+            int limiteLocal = carga.limitePorEntrada(idx, nEntradas);
 
-            LogClienteDashboard.enviar(TipoLog.SISTEMA, "Entrada " + id + " → vai gerar " + limiteLocal + " veículos.");
+            if (carga.temLimite()) {
+                LogClienteDashboard.enviar(TipoLog.SISTEMA, "Entrada " + id + " → vai gerar " + limiteLocal + " veículos.");
+            }
 
             geradores[idx] = new GeradorVeiculos(
                     PontoEntrada.valueOf(id),
                     host,
                     porta,
-                    intervaloMs,
+                    carga.criarProcesso(),
                     limiteLocal,
+                    carga.getDuracaoMs(),
                     ipDashboard,
                     portaDashboard,
-                    cenario
+                    cenario,
+                    raiz.split()
             );
         }
 
-        // 4. INICIAR GERADORES
-        LogClienteDashboard.enviar(TipoLog.SISTEMA, "Geradores de entrada iniciados.");
-
-        for (GeradorVeiculos g : geradores) {
-            g.start();
-        }
-
-        // 5. AGUARDAR CONCLUSÃO
-        for (GeradorVeiculos g : geradores) {
-            g.join();
-        }
-        LogClienteDashboard.enviar(TipoLog.SUCESSO, "Todos os geradores concluíram a criação de veículos.");
-    }
-
-    /**
-     * Utilitário para ler ficheiros de recursos do JAR/Classpath.
-     *
-     * @param resourceName Nome do recurso a ler
-     * @return Conteúdo do ficheiro como String
-     * @throws IOException Se o recurso não for encontrado
-     */
-    private static String readResourceAsString(String resourceName) throws IOException {
-        ClassLoader cl = PontosEntradaMain.class.getClassLoader();
-        try (InputStream is = cl.getResourceAsStream(resourceName)) {
-            if (is == null) {
-                throw new IOException("Recurso não encontrado: " + resourceName);
-            }
-            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
-        }
+        return geradores;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package PontosEntrada;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Processo de chegada de veículos a uma entrada.
+ *
+ * Dá o instante de cada chegada, medido desde o início da geração, a partir
+ * do instante da chegada anterior. Os instantes não dependem do tempo que
+ * o envio de cada veículo demora (tráfego em malha aberta). A implementação
+ * é escolhida por TipoChegada (ver configurado()).
+ *
+ * Cada gerador deve ter a sua instância: alguns processos guardam estado
+ * (ex: o estado atual do MMPP).
+ */
+public abstract class ProcessoChegada {
+
+    /**
+     * Devolvido quando não há mais chegadas (ex: perfil horário que termina com taxa 0).
+     */
+    public static final long SEM_CHEGADAS = Long.MAX_VALUE;
+
+    /**
+     * Cria o processo definido no objeto "chegadas" de uma carga.
+     * Sem objeto "chegadas", usa intervalo fixo de intervaloMs.
+     *
+     * @param configChegadas Objeto "chegadas" da carga (pode ser null)
+     * @param intervaloMs Intervalo da carga, usado pelo processo FIXO se "chegadas" não o definir
+     * @return Processo de chegada
+     * @throws IllegalArgumentException se a configuração for inválida
+     */
+    public static ProcessoChegada configurado(JsonObject configChegadas, long intervaloMs) {
+        return switch (TipoChegada.configurado(configChegadas)) {
+            case FIXO -> new ProcessoChegadaFixo(
+                    (configChegadas != null && configChegadas.has("intervaloMs"))
+                            ? configChegadas.get("intervaloMs").getAsLong() : intervaloMs);
+            case POISSON -> new ProcessoChegadaPoisson(lerTaxa(configChegadas));
+            case MMPP -> {
+                JsonArray estados = lerLista(configChegadas, "estados");
+                double[] taxas = new double[estados.size()];
+                double[] duracoesS = new double[estados.size()];
+                for (int i = 0; i < estados.size(); i++) {
+                    JsonObject estado = estados.get(i).getAsJsonObject();
+                    taxas[i] = lerTaxa(estado);
+                    duracoesS[i] = ler(estado, "duracaoMediaS");
+                }
+                yield new ProcessoChegadaMmpp(taxas, duracoesS);
+            }
+            case HORARIO -> {
+                JsonArray perfil = lerLista(configChegadas, "perfil");
+                double[] inicioS = new double[perfil.size()];
+                double[] taxas = new double[perfil.size()];
+                for (int i = 0; i < perfil.size(); i++) {
+                    JsonObject troco = perfil.get(i).getAsJsonObject();
+                    inicioS[i] = ler(troco, "inicioS");
+                    taxas[i] = lerTaxa(troco);
+                }
+                double periodoS = configChegadas.has("periodoS") ? configChegadas.get("periodoS").getAsDouble() : 0;
+                yield new ProcessoChegadaHorario(inicioS, taxas, periodoS);
+            }
+        };
+    }
+
+    private static double lerTaxa(JsonObject config) {
+        return ler(config, "taxaPorSegundo");
+    }
+
+    private static double ler(JsonObject config, String campo) {
+        if (!config.has(campo)) {
+            throw new IllegalArgumentException("Campo '" + campo + "' em falta nas chegadas");
+        }
+        return config.get(campo).getAsDouble();
+    }
+
+    private static JsonArray lerLista(JsonObject config, String campo) {
+        JsonElement lista = config.get(campo);
+        if (lista == null || !lista.isJsonArray() || lista.getAsJsonArray().isEmpty()) {
+            throw new IllegalArgumentException("Campo '" + campo + "' das chegadas deve ser uma lista não vazia");
+        }
+        return lista.getAsJsonArray();
+    }
+
+    /**
+     * Obtém o tipo deste processo.
+     *
+     * @return Tipo do processo de chegada
+     */
+    public abstract TipoChegada getTipo();
+
+    /**
+     * Calcula o instante da chegada seguinte. A primeira chegada é no instante 0.
+     *
+     * @param anteriorNs Instante da chegada anterior (ns desde o início)
+     * @param aleatorio Gerador de números aleatórios da entrada
+     * @return Instante da chegada seguinte (ns desde o início), ou SEM_CHEGADAS
+     */
+    public abstract long proximaChegadaNs(long anteriorNs, RandomGenerator aleatorio);
+
+    /**
+     * Sorteia um intervalo exponencial (ns) de um processo de Poisson com a taxa indicada.
+     */
+    static long exponencialNs(double taxaPorSegundo, RandomGenerator aleatorio) {
+        return Math.round(aleatorio.nextExponential() / taxaPorSegundo * 1e9);
+    }
+
+    static long ns(double segundos) {
+        return Math.round(segundos * 1e9);
+    }
+
+    static long ns(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+}
@@ -0,0 +1,32 @@
+package PontosEntrada;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chegadas a intervalo fixo: um veículo a cada intervaloMs.
+ */
+class ProcessoChegadaFixo extends ProcessoChegada {
+    private final long intervaloNs;
+
+    /**
+     * Construtor da classe
+     *
+     * @param intervaloMs Intervalo entre chegadas
+     */
+    ProcessoChegadaFixo(long intervaloMs) {
+        if (intervaloMs < 0) {
+            throw new IllegalArgumentException("Intervalo entre chegadas não pode ser negativo");
+        }
+        this.intervaloNs = ns(intervaloMs);
+    }
+
+    @Override
+    public TipoChegada getTipo() {
+        return TipoChegada.FIXO;
+    }
+
+    @Override
+    public long proximaChegadaNs(long anteriorNs, RandomGenerator aleatorio) {
+        return anteriorNs + intervaloNs;
+    }
+}
@@ -0,0 +1,98 @@
+package PontosEntrada;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chegadas de Poisson com taxa variável no tempo, constante por troços
+ * (ex: hora de ponta de manhã, vazio a meio do dia). Cada troço começa em
+ * inicioS e dura até ao início do seguinte. Com periodoS > 0 o perfil
+ * repete-se; sem período, o último troço dura para sempre.
+ *
+ * A chegada seguinte é exata: sorteia-se uma exponencial de média 1 e
+ * percorrem-se os troços até a taxa acumulada a igualar.
+ */
+class ProcessoChegadaHorario extends ProcessoChegada {
+    private final long[] iniciosNs;
+    private final double[] taxas;
+    private final long periodoNs;
+
+    /**
+     * Construtor da classe
+     *
+     * @param inicioS Início (s) de cada troço, por ordem crescente, o primeiro em 0
+     * @param taxas Taxa de chegada (por segundo) de cada troço; pode ser 0
+     * @param periodoS Período do perfil (s), ou 0 para não repetir
+     */
+    ProcessoChegadaHorario(double[] inicioS, double[] taxas, double periodoS) {
+        if (inicioS.length == 0 || inicioS.length != taxas.length) {
+            throw new IllegalArgumentException("Cada troço do perfil horário precisa de início e taxa");
+        }
+        if (inicioS[0] != 0) {
+            throw new IllegalArgumentException("O primeiro troço do perfil horário deve começar em 0");
+        }
+
+        this.iniciosNs = new long[inicioS.length];
+        this.taxas = taxas.clone();
+        this.periodoNs = ns(periodoS);
+
+        boolean algumaChegada = false;
+        for (int i = 0; i < inicioS.length; i++) {
+            iniciosNs[i] = ns(inicioS[i]);
+            if (!(taxas[i] >= 0) || (i > 0 && iniciosNs[i] <= iniciosNs[i - 1])) {
+                throw new IllegalArgumentException("Perfil horário: taxas >= 0 e inícios por ordem crescente");
+            }
+            algumaChegada |= taxas[i] > 0;
+        }
+        if (periodoNs < 0 || (periodoNs > 0 && iniciosNs[iniciosNs.length - 1] >= periodoNs)) {
+            throw new IllegalArgumentException("Perfil horário: todos os troços devem começar antes do fim do período");
+        }
+        if (!algumaChegada) {
+            throw new IllegalArgumentException("Pelo menos um troço do perfil horário deve ter taxa positiva");
+        }
+    }
+
+    @Override
+    public TipoChegada getTipo() {
+        return TipoChegada.HORARIO;
+    }
+
+    @Override
+    public long proximaChegadaNs(long anteriorNs, RandomGenerator aleatorio) {
+        double restante = aleatorio.nextExponential();
+        long instanteNs = anteriorNs;
+
+        while (true) {
+            long noPeriodoNs = periodoNs > 0 ? instanteNs % periodoNs : instanteNs;
+            int troco = troco(noPeriodoNs);
+
+            long fimTrocoNs;
+            if (troco + 1 < iniciosNs.length) {
+                fimTrocoNs = iniciosNs[troco + 1];
+            } else if (periodoNs > 0) {
+                fimTrocoNs = periodoNs;
+            } else {
+                // Último troço, sem fim
+                return taxas[troco] > 0 ? instanteNs + Math.round(restante / taxas[troco] * 1e9) : SEM_CHEGADAS;
+            }
+
+            long duracaoNs = fimTrocoNs - noPeriodoNs;
+            double esperadas = taxas[troco] * duracaoNs / 1e9;
+            if (restante < esperadas) {
+                return instanteNs + Math.round(restante / taxas[troco] * 1e9);
+            }
+            restante -= esperadas;
+            instanteNs += duracaoNs;
+        }
+    }
+
+    /**
+     * Índice do troço que contém o instante indicado (dentro do período).
+     */
+    private int troco(long noPeriodoNs) {
+        int troco = 0;
+        while (troco + 1 < iniciosNs.length && iniciosNs[troco + 1] <= noPeriodoNs) {
+            troco++;
+        }
+        return troco;
+    }
+}
@@ -0,0 +1,76 @@
+package PontosEntrada;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Poisson modulado por Markov (MMPP): o processo está num de vários estados,
+ * cada um com a sua taxa de chegada, e muda para o estado seguinte (em ciclo)
+ * ao fim de um tempo exponencial com a duração média do estado.
+ * Com dois estados (ex: 0.5 veículos/s durante 20 s e 5 veículos/s durante
+ * 5 s) gera rajadas de tráfego.
+ *
+ * Como os intervalos são exponenciais (sem memória), basta sortear de novo a
+ * chegada sempre que o estado muda.
+ */
+class ProcessoChegadaMmpp extends ProcessoChegada {
+    private final double[] taxas;
+    private final double[] duracoesMediasS;
+
+    private int estado = 0;
+    private long fimEstadoNs = -1;
+
+    /**
+     * Construtor da classe
+     *
+     * @param taxas Taxa de chegada (por segundo) de cada estado; pode ser 0
+     * @param duracoesMediasS Duração média (s) de cada estado
+     */
+    ProcessoChegadaMmpp(double[] taxas, double[] duracoesMediasS) {
+        if (taxas.length == 0 || taxas.length != duracoesMediasS.length) {
+            throw new IllegalArgumentException("Cada estado do MMPP precisa de taxa e duração média");
+        }
+        boolean algumaChegada = false;
+        for (int i = 0; i < taxas.length; i++) {
+            if (!(taxas[i] >= 0) || !(duracoesMediasS[i] > 0)) {
+                throw new IllegalArgumentException("Estados do MMPP: taxa >= 0 e duração média > 0");
+            }
+            algumaChegada |= taxas[i] > 0;
+        }
+        if (!algumaChegada) {
+            throw new IllegalArgumentException("Pelo menos um estado do MMPP deve ter taxa positiva");
+        }
+        this.taxas = taxas.clone();
+        this.duracoesMediasS = duracoesMediasS.clone();
+    }
+
+    @Override
+    public TipoChegada getTipo() {
+        return TipoChegada.MMPP;
+    }
+
+    @Override
+    public long proximaChegadaNs(long anteriorNs, RandomGenerator aleatorio) {
+        if (fimEstadoNs < 0) {
+            fimEstadoNs = duracaoEstadoNs(aleatorio);
+        }
+
+        long instanteNs = anteriorNs;
+        while (true) {
+            if (taxas[estado] > 0) {
+                long chegadaNs = instanteNs + exponencialNs(taxas[estado], aleatorio);
+                if (chegadaNs < fimEstadoNs) {
+                    return chegadaNs;
+                }
+            }
+
+            // Sem chegada neste estado: passa ao seguinte no instante da mudança
+            instanteNs = fimEstadoNs;
+            estado = (estado + 1) % taxas.length;
+            fimEstadoNs = instanteNs + duracaoEstadoNs(aleatorio);
+        }
+    }
+
+    private long duracaoEstadoNs(RandomGenerator aleatorio) {
+        return Math.max(1, ns(aleatorio.nextExponential() * duracoesMediasS[estado]));
+    }
+}
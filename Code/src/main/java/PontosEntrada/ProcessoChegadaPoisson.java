@@ -0,0 +1,34 @@
+package PontosEntrada;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chegadas de Poisson: intervalos exponenciais independentes, com média
+ * 1 / taxaPorSegundo. Ao contrário do intervalo fixo, há períodos com
+ * várias chegadas seguidas, que fazem crescer as filas.
+ */
+class ProcessoChegadaPoisson extends ProcessoChegada {
+    private final double taxaPorSegundo;
+
+    /**
+     * Construtor da classe
+     *
+     * @param taxaPorSegundo Número médio de chegadas por segundo (λ)
+     */
+    ProcessoChegadaPoisson(double taxaPorSegundo) {
+        if (!(taxaPorSegundo > 0)) {
+            throw new IllegalArgumentException("Taxa de chegada deve ser positiva");
+        }
+        this.taxaPorSegundo = taxaPorSegundo;
+    }
+
+    @Override
+    public TipoChegada getTipo() {
+        return TipoChegada.POISSON;
+    }
+
+    @Override
+    public long proximaChegadaNs(long anteriorNs, RandomGenerator aleatorio) {
+        return anteriorNs + exponencialNs(taxaPorSegundo, aleatorio);
+    }
+}
@@ -0,0 +1,43 @@
+package PontosEntrada;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Enum que define o processo de chegada de veículos em cada entrada.
+ *
+ * FIXO: um veículo a cada intervaloMs (comportamento original)
+ * POISSON: chegadas independentes à taxa taxaPorSegundo (intervalos exponenciais)
+ * MMPP: Poisson modulado por uma cadeia de Markov: alterna entre estados com
+ *       taxas diferentes (ex: tráfego normal e rajadas)
+ * HORARIO: Poisson com taxa variável ao longo do tempo, por troços (perfil horário)
+ *
+ * Escolhido no campo "tipo" do objeto "chegadas" de cada carga no configCargas.json.
+ */
+public enum TipoChegada {
+    FIXO,
+    POISSON,
+    MMPP,
+    HORARIO;
+
+    private static final TipoChegada POR_OMISSAO = FIXO;
+
+    /**
+     * Obtém o processo definido na configuração das chegadas.
+     * Se não estiver definido ou for inválido, usa FIXO.
+     *
+     * @param configChegadas Objeto "chegadas" da carga (pode ser null)
+     * @return Processo de chegada
+     */
+    public static TipoChegada configurado(JsonObject configChegadas) {
+        if (configChegadas == null || !configChegadas.has("tipo")) {
+            return POR_OMISSAO;
+        }
+
+        try {
+            return TipoChegada.valueOf(configChegadas.get("tipo").getAsString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[TipoChegada] Processo de chegada desconhecido no configCargas.json, a usar " + POR_OMISSAO);
+            return POR_OMISSAO;
+        }
+    }
+}
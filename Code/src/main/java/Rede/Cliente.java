@@ -1,41 +1,70 @@
 package Rede;
 
+import Veiculo.Veiculo;
+
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.net.Socket;
 
 /**
+ * Cliente TCP genérico para envio de mensagens.
  *
+ * As mensagens são enviadas por ligações persistentes partilhadas
+ * (ver PoolLigacoes), em vez de abrir um socket por mensagem, no
+ * formato definido em CodecMensagem.
  */
 public class Cliente {
-    private String endereco;
-    private int porta;
+    private final String endereco;
+    private final int porta;
+    private final PoolLigacoes pool;
 
     /**
+     * Construtor da classe
      *
-     *
-     * @param endereco
-     * @param porta
+     * @param endereco Endereço do destino
+     * @param porta Porta do destino
      */
     public Cliente(String endereco, int porta) {
         this.endereco = endereco;
         this.porta = porta;
+        this.pool = PoolLigacoes.obter(endereco, porta);
     }
 
     /**
+     * Envia uma mensagem ao destino.
      *
-     *
-     * @param msg
+     * @param msg Mensagem a enviar
+     * @return True se a mensagem foi entregue à ligação, false em caso de erro
      */
-    public void enviarMensagem(Mensagem msg) {
-        try (Socket socket = new Socket(endereco, porta);
-             PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
+    public boolean enviarMensagem(Mensagem msg) {
+        try {
+            pool.enviar(msg);
+            return true;
+        } catch (IOException e) {
+            System.err.println("[Cliente] Erro ao enviar mensagem para " + endereco + ":" + porta + ": " + e.getMessage());
+            return false;
+        }
+    }
 
-            String json = msg.toJson();
-            out.println(json);
+    /**
+     * Envia um veículo ao destino (mensagem VEICULO).
+     *
+     * @param veiculo Veículo a enviar
+     * @param origem Nó de onde o veículo sai
+     * @return True se o veículo foi entregue à ligação, false em caso de erro
+     */
+    public boolean enviarVeiculo(Veiculo veiculo, String origem) {
+        try {
+            pool.enviarVeiculo(veiculo, origem);
+            return true;
         } catch (IOException e) {
-            System.err.println("[Cliente] Erro ao enviar mensagem: " + e.getMessage());
+            System.err.println("[Cliente] Erro ao enviar veículo para " + endereco + ":" + porta + ": " + e.getMessage());
+            return false;
         }
     }
-}
 
+    /**
+     * Fecha as ligações persistentes para o destino deste cliente.
+     */
+    public void fechar() {
+        pool.fechar();
+    }
+}
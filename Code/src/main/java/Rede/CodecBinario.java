@@ -0,0 +1,447 @@
+package Rede;
+
+import PontosEntrada.PontoEntrada;
+import Veiculo.CaminhoNos;
+import Veiculo.PoolVeiculos;
+import Veiculo.RegistoNos;
+import Veiculo.TipoVeiculo;
+import Veiculo.Veiculo;
+
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Codec binário compacto para Mensagem, com prefixo de tamanho.
+ *
+ * Formato de cada trama:
+ *   int   tamanho do corpo
+ *   byte  formato do conteúdo (CONTEUDO_JSON ou CONTEUDO_VEICULO)
+ *   texto tipo, texto origem, texto destino, long timestamp
+ *   conteúdo
+ *
+ * Mensagens de veículo (conteúdo "veiculo" + "origem" opcional) são escritas
+ * campo a campo: ordinais dos enums TipoVeiculo/PontoEntrada e identificadores
+ * do RegistoNos para o caminho e a origem. Qualquer outro conteúdo segue como JSON.
+ * Uma trama mal formada (ordinal, nó ou tamanho fora do intervalo) dá IOException.
+ *
+ * No salto de um veículo entre nós, escreverVeiculo() e ler() com um
+ * Transporte.Recetor evitam a Mensagem e o mapa de conteúdo: o veículo
+ * recebido vem do PoolVeiculos, com o caminho partilhado (CaminhoNos), e a
+ * origem é o nome do RegistoNos. Em regime estável, só o id do veículo é
+ * alocado em cada salto.
+ *
+ * Cada instância reutiliza os seus buffers, por isso deve ser usada por
+ * uma única ligação (uma thread de cada vez).
+ */
+public class CodecBinario {
+
+    /** Linha enviada pelo cliente no início da ligação para pedir o formato binário */
+    public static final String CABECALHO = "#CODEC BINARIO";
+
+    private static final byte CONTEUDO_JSON = 0;
+    private static final byte CONTEUDO_VEICULO = 1;
+    private static final int TAMANHO_MAXIMO_TRAMA = 16 * 1024 * 1024;
+
+    // Origem de um veículo ausente (os restantes valores seguem o caminho: id ou DESCONHECIDO + nome)
+    private static final short SEM_ORIGEM = -2;
+
+    private static final String TIPO_VEICULO = "VEICULO";
+    private static final byte[] BYTES_TIPO_VEICULO = TIPO_VEICULO.getBytes(StandardCharsets.US_ASCII);
+
+    private static final TipoVeiculo[] TIPOS = TipoVeiculo.values();
+    private static final PontoEntrada[] ENTRADAS = PontoEntrada.values();
+
+    // Escrita
+    private final ByteArrayOutputStream corpo = new ByteArrayOutputStream(256);
+    private final DataOutputStream escritorCorpo = new DataOutputStream(corpo);
+    private final byte[] prefixo = new byte[4];
+
+    // Leitura
+    private byte[] bufferLeitura = new byte[256];
+    private ByteBuffer leitor = ByteBuffer.wrap(bufferLeitura);
+    private short[] idsLidos = new short[16];
+
+    /**
+     * Escreve o cabeçalho de negociação no início de uma ligação.
+     *
+     * @param saida Stream da ligação
+     * @throws IOException em caso de erro de escrita
+     */
+    public static void escreverCabecalho(OutputStream saida) throws IOException {
+        saida.write((CABECALHO + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Verifica se uma ligação começa com o cabeçalho binário.
+     * Se não começar, a stream fica exatamente na mesma posição.
+     *
+     * @param entrada Stream da ligação
+     * @return True se o cliente pediu o formato binário
+     * @throws IOException em caso de erro de leitura
+     */
+    public static boolean detetarCabecalho(BufferedInputStream entrada) throws IOException {
+        entrada.mark(1);
+        if (entrada.read() != '#') {
+            entrada.reset();
+            return false;
+        }
+
+        StringBuilder linha = new StringBuilder("#");
+        int c;
+        while ((c = entrada.read()) != -1 && c != '\n') {
+            linha.append((char) c);
+        }
+
+        if (!CABECALHO.contentEquals(linha)) {
+            throw new IOException("Cabeçalho de ligação desconhecido: " + linha);
+        }
+        return true;
+    }
+
+    /**
+     * Escreve uma mensagem como trama binária.
+     *
+     * @param mensagem Mensagem a escrever
+     * @param saida Stream da ligação (não é feito flush)
+     * @throws IOException em caso de erro de escrita
+     */
+    public void escrever(Mensagem mensagem, OutputStream saida) throws IOException {
+        corpo.reset();
+
+        Veiculo veiculo = veiculoSimples(mensagem.conteudo());
+        escritorCorpo.writeByte(veiculo != null ? CONTEUDO_VEICULO : CONTEUDO_JSON);
+        escreverTexto(mensagem.tipo());
+        escreverTexto(mensagem.origem());
+        escreverTexto(mensagem.destino());
+        escritorCorpo.writeLong(mensagem.timestamp());
+
+        if (veiculo != null) {
+            escreverVeiculo(veiculo);
+            Object origem = mensagem.conteudo().get("origem");
+            escreverNo(origem == null ? null : origem.toString());
+        } else {
+            escreverTexto(mensagem.conteudo() == null ? null : Mensagem.GSON.toJson(mensagem.conteudo()));
+        }
+
+        escreverTrama(saida);
+    }
+
+    /**
+     * Escreve uma mensagem VEICULO como trama binária, sem construir a Mensagem
+     * (a mesma trama que escrever() produz para {"veiculo", "origem"}).
+     *
+     * @param veiculo Veículo a enviar
+     * @param origem Nó de onde o veículo sai
+     * @param saida Stream da ligação (não é feito flush)
+     * @throws IOException em caso de erro de escrita
+     */
+    public void escreverVeiculo(Veiculo veiculo, String origem, OutputStream saida) throws IOException {
+        corpo.reset();
+
+        escritorCorpo.writeByte(CONTEUDO_VEICULO);
+        escreverTexto(TIPO_VEICULO);
+        escreverTexto(origem);
+        escreverTexto(null);
+        escritorCorpo.writeLong(System.currentTimeMillis());
+
+        escreverVeiculo(veiculo);
+        escreverNo(origem);
+
+        escreverTrama(saida);
+    }
+
+    private void escreverTrama(OutputStream saida) throws IOException {
+        int tamanho = corpo.size();
+        prefixo[0] = (byte) (tamanho >>> 24);
+        prefixo[1] = (byte) (tamanho >>> 16);
+        prefixo[2] = (byte) (tamanho >>> 8);
+        prefixo[3] = (byte) tamanho;
+        saida.write(prefixo);
+        corpo.writeTo(saida);
+    }
+
+    /**
+     * Lê a próxima trama de uma ligação.
+     *
+     * @param entrada Stream da ligação
+     * @return Mensagem lida, ou null se a ligação foi fechada entre tramas
+     * @throws IOException em caso de erro de leitura ou trama inválida
+     */
+    public Mensagem ler(DataInputStream entrada) throws IOException {
+        return ler(entrada, null);
+    }
+
+    /**
+     * Lê tramas de uma ligação, entregando as mensagens VEICULO diretamente ao
+     * recetor (sem Mensagem), até chegar outra mensagem.
+     *
+     * @param entrada Stream da ligação
+     * @param recetorVeiculos Recetor dos veículos (null: os veículos também são devolvidos como Mensagem)
+     * @return Próxima mensagem que não foi entregue ao recetor, ou null se a ligação foi fechada entre tramas
+     * @throws IOException em caso de erro de leitura ou trama inválida
+     */
+    public Mensagem ler(DataInputStream entrada, Transporte.Recetor recetorVeiculos) throws IOException {
+        while (lerTrama(entrada)) {
+            Veiculo veiculo;
+            String origem;
+
+            // Uma trama mal formada passa a IOException, como os erros de leitura:
+            // as exceções de runtime não seriam tratadas por quem lê a ligação
+            try {
+                byte formato = leitor.get();
+                if (formato != CONTEUDO_VEICULO || recetorVeiculos == null || !proximoTextoIgual(BYTES_TIPO_VEICULO)) {
+                    return lerMensagem(formato);
+                }
+
+                saltarTexto();
+                int posicaoOrigem = leitor.position();
+                saltarTexto();
+                saltarTexto();
+                leitor.getLong();
+
+                veiculo = lerVeiculo();
+                origem = lerNo();
+                if (origem == null) {
+                    leitor.position(posicaoOrigem);
+                    origem = lerTexto();
+                }
+            } catch (BufferUnderflowException | JsonParseException e) {
+                throw tramaInvalida(e.toString());
+            }
+
+            recetorVeiculos.receberVeiculo(veiculo, origem);
+        }
+        return null;
+    }
+
+    private static IOException tramaInvalida(String detalhe) {
+        return new IOException("Trama inválida: " + detalhe);
+    }
+
+    /**
+     * Lê o corpo da próxima trama para o buffer de leitura.
+     *
+     * @return False se a ligação foi fechada entre tramas
+     */
+    private boolean lerTrama(DataInputStream entrada) throws IOException {
+        int tamanho;
+        try {
+            tamanho = entrada.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+
+        if (tamanho < 0 || tamanho > TAMANHO_MAXIMO_TRAMA) {
+            throw new IOException("Tamanho de trama inválido: " + tamanho);
+        }
+
+        if (tamanho > bufferLeitura.length) {
+            bufferLeitura = new byte[Math.max(tamanho, bufferLeitura.length * 2)];
+            leitor = ByteBuffer.wrap(bufferLeitura);
+        }
+
+        entrada.readFully(bufferLeitura, 0, tamanho);
+        leitor.clear().limit(tamanho);
+        return true;
+    }
+
+    private Mensagem lerMensagem(byte formato) throws IOException {
+        String tipo = lerTexto();
+        String origem = lerTexto();
+        String destino = lerTexto();
+        long timestamp = leitor.getLong();
+
+        Map<String, Object> conteudo;
+        if (formato == CONTEUDO_VEICULO) {
+            conteudo = new HashMap<>(4);
+            conteudo.put("veiculo", lerVeiculo());
+            String origemConteudo = lerNo();
+            if (origemConteudo != null) {
+                conteudo.put("origem", origemConteudo);
+            }
+        } else {
+            String json = lerTexto();
+            conteudo = json == null ? null : Mensagem.GSON.fromJson(json, Mensagem.TIPO_CONTEUDO);
+        }
+
+        return new Mensagem(tipo, origem, destino, conteudo, timestamp);
+    }
+
+    /**
+     * Devolve o veículo se o conteúdo for apenas {"veiculo", "origem"},
+     * ou seja, se puder ser escrito no formato compacto.
+     */
+    private static Veiculo veiculoSimples(Map<String, Object> conteudo) {
+        if (conteudo == null || conteudo.size() > 2 || !(conteudo.get("veiculo") instanceof Veiculo veiculo)) {
+            return null;
+        }
+        if (conteudo.size() == 2 && !conteudo.containsKey("origem")) {
+            return null;
+        }
+        return veiculo;
+    }
+
+    private void escreverVeiculo(Veiculo veiculo) throws IOException {
+        escreverTexto(veiculo.getId());
+        escritorCorpo.writeByte(veiculo.getTipo().ordinal());
+        escritorCorpo.writeByte(veiculo.getPontoEntrada().ordinal());
+        escritorCorpo.writeLong(veiculo.getTempoChegada());
+        escritorCorpo.writeLong(veiculo.getTempoSaida());
+        escritorCorpo.writeShort(veiculo.getIndiceCaminhoAtual());
+
+        int tamanhoCaminho = veiculo.getTamanhoCaminho();
+        escritorCorpo.writeShort(tamanhoCaminho);
+        for (int i = 0; i < tamanhoCaminho; i++) {
+            int id = veiculo.getIdNo(i);
+            // Nós fora do configMapa.json têm identificadores locais: seguem pelo nome
+            if (id < RegistoNos.configurados()) {
+                escritorCorpo.writeShort(id);
+            } else {
+                escritorCorpo.writeShort(RegistoNos.DESCONHECIDO);
+                escreverTexto(RegistoNos.nome(id));
+            }
+        }
+    }
+
+    private Veiculo lerVeiculo() throws IOException {
+        String id = lerTexto();
+        int ordinalTipo = leitor.get();
+        int ordinalEntrada = leitor.get();
+        if (id == null || ordinalTipo < 0 || ordinalTipo >= TIPOS.length
+                || ordinalEntrada < 0 || ordinalEntrada >= ENTRADAS.length) {
+            throw tramaInvalida("veículo " + id + " com tipo " + ordinalTipo + " e entrada " + ordinalEntrada);
+        }
+        TipoVeiculo tipo = TIPOS[ordinalTipo];
+        PontoEntrada entrada = ENTRADAS[ordinalEntrada];
+        long tempoChegada = leitor.getLong();
+        long tempoSaida = leitor.getLong();
+        int indice = leitor.getShort();
+
+        int tamanhoCaminho = leitor.getShort();
+        if (tamanhoCaminho <= 0 || indice < 0 || indice >= tamanhoCaminho) {
+            throw tramaInvalida("caminho de " + tamanhoCaminho + " nós com índice " + indice);
+        }
+        if (tamanhoCaminho > idsLidos.length) {
+            idsLidos = new short[Math.max(tamanhoCaminho, idsLidos.length * 2)];
+        }
+        for (int i = 0; i < tamanhoCaminho; i++) {
+            idsLidos[i] = (short) lerIdNo(leitor.getShort());
+        }
+
+        return PoolVeiculos.obter(id, tipo, entrada, CaminhoNos.partilhado(idsLidos, tamanhoCaminho),
+                tempoChegada, tempoSaida, indice);
+    }
+
+    /**
+     * Escreve um nó pelo identificador do RegistoNos (ou pelo nome, se não for configurado).
+     */
+    private void escreverNo(String nome) throws IOException {
+        if (nome == null) {
+            escritorCorpo.writeShort(SEM_ORIGEM);
+            return;
+        }
+        int id = RegistoNos.id(nome);
+        if (id >= 0 && id < RegistoNos.configurados()) {
+            escritorCorpo.writeShort(id);
+        } else {
+            escritorCorpo.writeShort(RegistoNos.DESCONHECIDO);
+            escreverTexto(nome);
+        }
+    }
+
+    /**
+     * Lê um nó escrito por escreverNo(): o nome devolvido é a instância do RegistoNos.
+     */
+    private String lerNo() throws IOException {
+        int idNo = leitor.getShort();
+        return idNo == SEM_ORIGEM ? null : RegistoNos.nome(lerIdNo(idNo));
+    }
+
+    private int lerIdNo(int idNo) throws IOException {
+        if (idNo == RegistoNos.DESCONHECIDO) {
+            String nome = lerTexto();
+            if (nome == null) {
+                throw tramaInvalida("nó desconhecido sem nome");
+            }
+            return RegistoNos.interno(nome);
+        }
+        if (idNo >= 0 && idNo < RegistoNos.configurados()) {
+            return idNo;
+        }
+        throw tramaInvalida("identificador de nó " + idNo);
+    }
+
+    /**
+     * Escreve um texto UTF-8 com prefixo de tamanho (-1 representa null).
+     * Os textos ASCII (ids e nomes de nós) são escritos sem criar o array de bytes.
+     */
+    private void escreverTexto(String texto) throws IOException {
+        if (texto == null) {
+            escritorCorpo.writeInt(-1);
+            return;
+        }
+        if (isAscii(texto)) {
+            escritorCorpo.writeInt(texto.length());
+            escritorCorpo.writeBytes(texto);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        escritorCorpo.writeInt(bytes.length);
+        escritorCorpo.write(bytes);
+    }
+
+    private static boolean isAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verifica, sem avançar, se o próximo texto tem exatamente estes bytes.
+     */
+    private boolean proximoTextoIgual(byte[] esperado) {
+        int inicio = leitor.position() + 4;
+        return inicio + esperado.length <= leitor.limit()
+                && leitor.getInt(leitor.position()) == esperado.length
+                && Arrays.equals(bufferLeitura, inicio, inicio + esperado.length, esperado, 0, esperado.length);
+    }
+
+    private void saltarTexto() throws IOException {
+        int tamanho = leitor.getInt();
+        if (tamanho > leitor.remaining()) {
+            throw tramaInvalida("texto de " + tamanho + " bytes");
+        }
+        if (tamanho > 0) {
+            leitor.position(leitor.position() + tamanho);
+        }
+    }
+
+    private String lerTexto() throws IOException {
+        int tamanho = leitor.getInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        if (tamanho > leitor.remaining()) {
+            throw tramaInvalida("texto de " + tamanho + " bytes");
+        }
+        String texto = new String(bufferLeitura, leitor.position(), tamanho, StandardCharsets.UTF_8);
+        leitor.position(leitor.position() + tamanho);
+        return texto;
+    }
+}
@@ -0,0 +1,43 @@
+package Rede;
+
+import Utils.ConfigLoader;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Enum que define o formato em que um cliente envia as mensagens numa ligação.
+ *
+ * JSON: uma mensagem JSON por linha (legível, útil para debug)
+ * BINARIO: tramas binárias com prefixo de tamanho (ver CodecBinario)
+ *
+ * O formato é anunciado pelo cliente no início de cada ligação, por isso
+ * os servidores aceitam os dois ao mesmo tempo. O formato usado pelos
+ * clientes é escolhido no campo "codec" da secção "rede" do configMapa.json.
+ */
+public enum CodecMensagem {
+    JSON,
+    BINARIO;
+
+    private static final CodecMensagem POR_OMISSAO = JSON;
+
+    /**
+     * Obtém o codec definido no configMapa.json.
+     * Se não estiver definido ou for inválido, usa JSON.
+     *
+     * @return Codec configurado
+     */
+    public static CodecMensagem configurado() {
+        JsonObject rede = ConfigLoader.carregarRede();
+
+        if (rede == null || !rede.has("codec")) {
+            return POR_OMISSAO;
+        }
+
+        try {
+            return CodecMensagem.valueOf(rede.get("codec").getAsString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[CodecMensagem] Codec desconhecido no configMapa.json, a usar " + POR_OMISSAO);
+            return POR_OMISSAO;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package Rede;
+
+import Veiculo.Veiculo;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ligação TCP persistente para um destino.
+ *
+ * A ligação é aberta apenas quando é necessária e reaberta de forma
+ * transparente quando o destino a fecha ou fica indisponível.
+ * O formato das mensagens (JSON ou binário) é anunciado ao abrir a ligação.
+ *
+ * Uma mensagem só é repetida numa ligação nova se nenhum dos seus bytes
+ * chegou a ser aceite pelo socket antigo (ex: a ligação reutilizada já tinha
+ * sido fechada pelo destino). Se parte já foi escrita, o erro é propagado em
+ * vez de repetir: assim o destino nunca recebe a mesma mensagem duas vezes
+ * (o veículo não é duplicado), mas a mensagem pode perder-se.
+ * Não é thread-safe: cada instância é usada por uma única thread de cada vez
+ * (garantido pelo PoolLigacoes).
+ */
+class Ligacao {
+    private static final int TIMEOUT_LIGACAO_MS = 1000;
+    private static final long INTERVALO_RELIGACAO_MS = 500;
+
+    private final String endereco;
+    private final int porta;
+    private final CodecMensagem codec;
+    private final CodecBinario codecBinario;
+
+    private Socket socket;
+    private OutputStream saida;
+    private ContadorBytes contador;
+    private long ultimaFalha = 0;
+
+    /**
+     * Construtor da classe
+     *
+     * @param endereco Endereço do destino
+     * @param porta Porta do destino
+     * @param codec Formato das mensagens nesta ligação
+     */
+    Ligacao(String endereco, int porta, CodecMensagem codec) {
+        this.endereco = endereco;
+        this.porta = porta;
+        this.codec = codec;
+        this.codecBinario = (codec == CodecMensagem.BINARIO) ? new CodecBinario() : null;
+    }
+
+    /**
+     * Escreve uma mensagem na ligação, abrindo-a se necessário.
+     * Se a escrita falhar numa ligação já existente sem que nenhum byte da
+     * mensagem tenha sido aceite pelo socket, tenta uma vez numa ligação nova
+     * antes de propagar o erro.
+     *
+     * @param mensagem Mensagem a enviar
+     * @throws IOException se não for possível entregar a mensagem
+     */
+    void escrever(Mensagem mensagem) throws IOException {
+        escrever(mensagem, null, null);
+    }
+
+    /**
+     * Escreve uma mensagem VEICULO. Com o codec binário, o veículo é escrito
+     * diretamente, sem construir a Mensagem nem o mapa de conteúdo.
+     *
+     * @param veiculo Veículo a enviar
+     * @param origem Nó de onde o veículo sai
+     * @throws IOException se não for possível entregar o veículo
+     */
+    void escreverVeiculo(Veiculo veiculo, String origem) throws IOException {
+        if (codecBinario != null) {
+            escrever(null, veiculo, origem);
+        } else {
+            escrever(Mensagem.veiculo(veiculo, origem));
+        }
+    }
+
+    private void escrever(Mensagem mensagem, Veiculo veiculo, String origem) throws IOException {
+        boolean reutilizada = isAberta();
+        long escritosAntes = reutilizada ? contador.total : 0;
+
+        try {
+            escreverDireto(mensagem, veiculo, origem);
+        } catch (IOException e) {
+            // Parte da mensagem pode já ter chegado ao destino: repetir podia duplicá-la
+            boolean algoEscrito = contador != null && contador.total != escritosAntes;
+            fechar();
+            if (!reutilizada || algoEscrito) {
+                throw e;
+            }
+            escreverDireto(mensagem, veiculo, origem);
+        }
+    }
+
+    private void escreverDireto(Mensagem mensagem, Veiculo veiculo, String origem) throws IOException {
+        abrirSeNecessario();
+
+        if (mensagem == null) {
+            codecBinario.escreverVeiculo(veiculo, origem, saida);
+        } else if (codecBinario != null) {
+            codecBinario.escrever(mensagem, saida);
+        } else {
+            saida.write(mensagem.toJson().getBytes(StandardCharsets.UTF_8));
+            saida.write('\n');
+        }
+        saida.flush();
+    }
+
+    /**
+     * Abre a ligação se ainda não estiver aberta.
+     * Após uma falha, espera INTERVALO_RELIGACAO_MS antes de tentar novamente
+     * para não martelar um destino que está em baixo.
+     */
+    private void abrirSeNecessario() throws IOException {
+        if (isAberta()) {
+            return;
+        }
+
+        long agora = System.currentTimeMillis();
+        if (agora - ultimaFalha < INTERVALO_RELIGACAO_MS) {
+            throw new IOException("Destino " + endereco + ":" + porta + " indisponível (a aguardar nova tentativa)");
+        }
+
+        Socket novo = new Socket();
+        try {
+            novo.setTcpNoDelay(true);
+            novo.setKeepAlive(true);
+            novo.connect(new InetSocketAddress(endereco, porta), TIMEOUT_LIGACAO_MS);
+        } catch (IOException e) {
+            ultimaFalha = agora;
+            try { novo.close(); } catch (IOException ignored) {}
+            throw e;
+        }
+
+        socket = novo;
+        contador = new ContadorBytes(socket.getOutputStream());
+        saida = new BufferedOutputStream(contador);
+
+        if (codec == CodecMensagem.BINARIO) {
+            CodecBinario.escreverCabecalho(saida);
+        }
+    }
+
+    /**
+     * Verifica se a ligação está aberta.
+     *
+     * @return True se existir um socket ligado e não fechado
+     */
+    boolean isAberta() {
+        return socket != null && socket.isConnected() && !socket.isClosed();
+    }
+
+    /**
+     * Fecha a ligação. Uma escrita posterior volta a abri-la.
+     */
+    void fechar() {
+        if (socket != null) {
+            try { socket.close(); } catch (IOException ignored) {}
+        }
+        socket = null;
+        saida = null;
+        contador = null;
+    }
+
+    /**
+     * Conta os bytes aceites pelo socket (escritos sem exceção).
+     */
+    private static final class ContadorBytes extends FilterOutputStream {
+        long total = 0;
+
+        ContadorBytes(OutputStream destino) {
+            super(destino);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            total++;
+        }
+
+        @Override
+        public void write(byte[] b, int inicio, int tamanho) throws IOException {
+            out.write(b, inicio, tamanho);
+            total += tamanho;
+        }
+    }
+}
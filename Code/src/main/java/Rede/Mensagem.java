@@ -1,6 +1,12 @@
 package Rede;
 
+import Veiculo.Veiculo;
+
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -8,6 +14,10 @@ import java.util.Map;
  */
 public record Mensagem(String tipo, String origem, String destino, Map<String, Object> conteudo, long timestamp) {
 
+    /** Instância partilhada (o Gson é thread-safe) */
+    static final Gson GSON = new Gson();
+    static final Type TIPO_CONTEUDO = new TypeToken<Map<String, Object>>() {}.getType();
+
     /**
      * Construtor
      *
@@ -20,13 +30,28 @@ public record Mensagem(String tipo, String origem, String destino, Map<String, O
         this(tipo, origem, destino, conteudo, System.currentTimeMillis());
     }
 
+    /**
+     * Cria uma mensagem VEICULO, com o veículo e o nó de onde sai.
+     *
+     * @param veiculo Veículo a enviar
+     * @param origem Nó de onde o veículo sai
+     * @return Mensagem VEICULO
+     */
+    public static Mensagem veiculo(Veiculo veiculo, String origem) {
+        Map<String, Object> conteudo = new HashMap<>();
+        conteudo.put("veiculo", veiculo);
+        conteudo.put("origem", origem);
+
+        return new Mensagem("VEICULO", origem, null, conteudo);
+    }
+
     /**
      *
      *
      * @return
      */
     public String toJson() {
-        return new Gson().toJson(this);
+        return GSON.toJson(this);
     }
 
     /**
@@ -36,6 +61,24 @@ public record Mensagem(String tipo, String origem, String destino, Map<String, O
      * @return
      */
     public static Mensagem fromJson(String json) {
-        return new Gson().fromJson(json, Mensagem.class);
+        return GSON.fromJson(json, Mensagem.class);
+    }
+
+    /**
+     * Obtém o veículo transportado no campo "veiculo" do conteúdo.
+     *
+     * Se a mensagem veio pelo codec binário, o veículo já está descodificado.
+     * Se veio em JSON, é convertido diretamente da árvore Gson, sem passar
+     * por uma String intermédia.
+     *
+     * @return Veículo da mensagem, ou null se não existir
+     */
+    public Veiculo getVeiculo() {
+        Object obj = conteudo == null ? null : conteudo.get("veiculo");
+
+        if (obj == null || obj instanceof Veiculo) {
+            return (Veiculo) obj;
+        }
+        return GSON.fromJson(GSON.toJsonTree(obj), Veiculo.class);
     }
 }
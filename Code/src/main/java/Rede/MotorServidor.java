@@ -0,0 +1,57 @@
+package Rede;
+
+import Utils.ConfigLoader;
+
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Enum que define como um Servidor atende as suas conexões.
+ *
+ * PLATAFORMA: uma thread de plataforma por conexão (comportamento original)
+ * VIRTUAL: uma thread virtual (Java 21) por conexão, muito mais barata de criar
+ *
+ * O motor é escolhido no campo "motorServidor" da secção "rede" do configMapa.json.
+ */
+public enum MotorServidor {
+    PLATAFORMA,
+    VIRTUAL;
+
+    private static final MotorServidor POR_OMISSAO = VIRTUAL;
+
+    /**
+     * Cria o executor que vai correr o atendimento de cada conexão.
+     *
+     * @param nome Prefixo do nome das threads criadas
+     * @return Executor com uma thread nova por tarefa
+     */
+    public ExecutorService criarExecutor(String nome) {
+        return switch (this) {
+            case PLATAFORMA -> Executors.newThreadPerTaskExecutor(Thread.ofPlatform().name(nome + "-", 0).factory());
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(nome + "-", 0).factory());
+        };
+    }
+
+    /**
+     * Obtém o motor definido no configMapa.json.
+     * Se não estiver definido ou for inválido, usa VIRTUAL.
+     *
+     * @return Motor configurado
+     */
+    public static MotorServidor configurado() {
+        JsonObject rede = ConfigLoader.carregarRede();
+
+        if (rede == null || !rede.has("motorServidor")) {
+            return POR_OMISSAO;
+        }
+
+        try {
+            return MotorServidor.valueOf(rede.get("motorServidor").getAsString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[MotorServidor] Motor desconhecido no configMapa.json, a usar " + POR_OMISSAO);
+            return POR_OMISSAO;
+        }
+    }
+}
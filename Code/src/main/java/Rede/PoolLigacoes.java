@@ -0,0 +1,161 @@
+package Rede;
+
+import Veiculo.Veiculo;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool de ligações TCP persistentes para um destino (endereço:porta).
+ *
+ * Existe um único pool por destino em cada processo, partilhado por todos
+ * os Cliente que apontam para esse destino. O pool tem um número fixo de
+ * ligações: quando o destino está lento, as escritas bloqueiam e as threads
+ * seguintes esperam por uma ligação livre (backpressure) até TIMEOUT_ESPERA_MS.
+ * As ligações usam o codec configurado (ver CodecMensagem).
+ *
+ * As ligações livres formam uma pilha: é usada a última que foi devolvida.
+ * Assim, quem envia sozinho e em sequência (ex: LogSender, PublicadorEventos)
+ * usa sempre a mesma ligação e as mensagens chegam pela ordem de envio; as
+ * outras só são usadas quando há envios em simultâneo.
+ */
+public class PoolLigacoes {
+    private static final int TAMANHO_POOL = 2;
+    private static final long TIMEOUT_ESPERA_MS = 2000;
+
+    private static final Map<String, PoolLigacoes> pools = new ConcurrentHashMap<>();
+
+    private final String endereco;
+    private final int porta;
+
+    // Pilha de ligações livres (array e lock: obter e devolver não alocam)
+    private final Ligacao[] livres = new Ligacao[TAMANHO_POOL];
+    private int totalLivres = 0;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition haLivre = lock.newCondition();
+
+    /**
+     * Construtor da classe
+     *
+     * @param endereco Endereço do destino
+     * @param porta Porta do destino
+     */
+    private PoolLigacoes(String endereco, int porta) {
+        this.endereco = endereco;
+        this.porta = porta;
+
+        CodecMensagem codec = CodecMensagem.configurado();
+        for (int i = 0; i < TAMANHO_POOL; i++) {
+            livres[totalLivres++] = new Ligacao(endereco, porta, codec);
+        }
+    }
+
+    /**
+     * Obtém o pool associado a um destino, criando-o se ainda não existir.
+     *
+     * @param endereco Endereço do destino
+     * @param porta Porta do destino
+     * @return Pool partilhado para esse destino
+     */
+    public static PoolLigacoes obter(String endereco, int porta) {
+        return pools.computeIfAbsent(endereco + ":" + porta, k -> new PoolLigacoes(endereco, porta));
+    }
+
+    /**
+     * Envia uma mensagem por uma das ligações do pool.
+     *
+     * @param mensagem Mensagem a enviar
+     * @throws IOException se não houver ligação livre a tempo ou se o envio falhar
+     */
+    public void enviar(Mensagem mensagem) throws IOException {
+        Ligacao ligacao = obterLivre();
+        try {
+            ligacao.escrever(mensagem);
+        } finally {
+            devolver(ligacao);
+        }
+    }
+
+    /**
+     * Envia um veículo (mensagem VEICULO) por uma das ligações do pool,
+     * sem construir a Mensagem quando o codec é binário.
+     *
+     * @param veiculo Veículo a enviar
+     * @param origem Nó de onde o veículo sai
+     * @throws IOException se não houver ligação livre a tempo ou se o envio falhar
+     */
+    public void enviarVeiculo(Veiculo veiculo, String origem) throws IOException {
+        Ligacao ligacao = obterLivre();
+        try {
+            ligacao.escreverVeiculo(veiculo, origem);
+        } finally {
+            devolver(ligacao);
+        }
+    }
+
+    /**
+     * Espera por uma ligação livre, até TIMEOUT_ESPERA_MS.
+     */
+    private Ligacao obterLivre() throws IOException {
+        lock.lock();
+        try {
+            long esperaNs = TimeUnit.MILLISECONDS.toNanos(TIMEOUT_ESPERA_MS);
+            while (totalLivres == 0) {
+                if (esperaNs <= 0) {
+                    throw new IOException("Destino " + endereco + ":" + porta + " sem ligações livres (sobrecarregado)");
+                }
+                esperaNs = haLivre.awaitNanos(esperaNs);
+            }
+
+            Ligacao ligacao = livres[--totalLivres];
+            livres[totalLivres] = null;
+            return ligacao;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Envio interrompido para " + endereco + ":" + porta);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devolve uma ligação ao topo da pilha.
+     */
+    private void devolver(Ligacao ligacao) {
+        lock.lock();
+        try {
+            livres[totalLivres++] = ligacao;
+            haLivre.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fecha as ligações livres deste pool.
+     * As que estiverem em uso são fechadas quando voltarem a falhar ou no fim do processo.
+     */
+    public void fechar() {
+        lock.lock();
+        try {
+            for (int i = 0; i < totalLivres; i++) {
+                livres[i].fechar();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fecha todas as ligações de todos os pools do processo.
+     */
+    public static void fecharTodos() {
+        for (PoolLigacoes pool : pools.values()) {
+            pool.fechar();
+        }
+    }
+}
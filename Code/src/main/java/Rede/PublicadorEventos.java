@@ -0,0 +1,249 @@
+package Rede;
+
+import Utils.ConfigLoader;
+
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Publicador de eventos de movimento de veículos para o Dashboard.
+ *
+ * Existe um único publicador por destino em cada processo. Os eventos são
+ * acumulados e enviados em lote (mensagem VEICULO_MOVIMENTO_LOTE) por uma
+ * ligação persistente, a cada "intervaloLoteMs" ou quando o lote atinge
+ * "tamanhoLote" eventos (secção "rede" do configMapa.json).
+ *
+ * Se o Dashboard não acompanhar o ritmo, os eventos acima de
+ * MAX_LOTES_PENDENTES lotes são descartados: são apenas visuais e o
+ * movimento seguinte do mesmo veículo corrige a posição.
+ *
+ * Só a thread de envio envia lotes, para que cheguem pela ordem dos eventos:
+ * descarregar() pede-lhe um envio imediato e espera por ele, e no fim do
+ * processo o shutdown hook pede-lhe o último envio e espera que termine
+ * (no máximo TEMPO_MAXIMO_ESPERA_MS em ambos os casos).
+ */
+public class PublicadorEventos {
+    public static final String TIPO_LOTE = "VEICULO_MOVIMENTO_LOTE";
+
+    private static final long INTERVALO_POR_OMISSAO_MS = 50;
+    private static final int TAMANHO_POR_OMISSAO = 64;
+    private static final int MAX_LOTES_PENDENTES = 16;
+    private static final long TEMPO_MAXIMO_ESPERA_MS = 2000;
+
+    private static final Map<String, PublicadorEventos> publicadores = new ConcurrentHashMap<>();
+
+    /**
+     * Movimento de um veículo entre dois nós.
+     *
+     * @param id Identificador do veículo
+     * @param tipo Tipo do veículo
+     * @param origem Nó de origem
+     * @param destino Nó de destino
+     * @param t Instante do movimento (ms)
+     */
+    public record EventoMovimento(String id, String tipo, String origem, String destino, long t) {}
+
+    private final Cliente cliente;
+    private final long intervaloMs;
+    private final int tamanhoLote;
+    private final int maxPendentes;
+
+    private final Object trinco = new Object();
+    private List<EventoMovimento> pendentes;
+    private long descartados = 0;
+
+    // Pedidos de descarregar() e o último atendido pela thread de envio
+    private long pedidosDescarga = 0;
+    private long descargasFeitas = 0;
+    private boolean aTerminar = false;
+
+    private final Thread envio;
+
+    /**
+     * Construtor da classe
+     *
+     * @param endereco Endereço do Dashboard
+     * @param porta Porta do Dashboard
+     */
+    private PublicadorEventos(String endereco, int porta) {
+        this.cliente = new Cliente(endereco, porta);
+
+        JsonObject rede = ConfigLoader.carregarRede();
+        this.intervaloMs = (rede != null && rede.has("intervaloLoteMs"))
+                ? rede.get("intervaloLoteMs").getAsLong() : INTERVALO_POR_OMISSAO_MS;
+        this.tamanhoLote = (rede != null && rede.has("tamanhoLote"))
+                ? rede.get("tamanhoLote").getAsInt() : TAMANHO_POR_OMISSAO;
+
+        if (intervaloMs <= 0 || tamanhoLote <= 0) {
+            throw new IllegalArgumentException("intervaloLoteMs e tamanhoLote devem ser positivos");
+        }
+
+        this.maxPendentes = tamanhoLote * MAX_LOTES_PENDENTES;
+        this.pendentes = new ArrayList<>(tamanhoLote);
+
+        this.envio = new Thread(this::cicloEnvio, "PublicadorEventos-" + endereco + ":" + porta);
+        envio.setDaemon(true);
+        envio.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::terminar));
+    }
+
+    /**
+     * Obtém o publicador associado a um destino, criando-o se ainda não existir.
+     *
+     * @param endereco Endereço do Dashboard
+     * @param porta Porta do Dashboard
+     * @return Publicador partilhado para esse destino
+     */
+    public static PublicadorEventos obter(String endereco, int porta) {
+        return publicadores.computeIfAbsent(endereco + ":" + porta, k -> new PublicadorEventos(endereco, porta));
+    }
+
+    /**
+     * Regista o movimento de um veículo. Não bloqueia à espera da rede.
+     *
+     * @param id Identificador do veículo
+     * @param tipo Tipo do veículo
+     * @param origem Nó de origem
+     * @param destino Nó de destino
+     */
+    public void publicarMovimento(String id, String tipo, String origem, String destino) {
+        EventoMovimento evento = new EventoMovimento(id, tipo, origem, destino, System.currentTimeMillis());
+
+        synchronized (trinco) {
+            if (pendentes.size() >= maxPendentes) {
+                descartados++;
+                return;
+            }
+            pendentes.add(evento);
+            if (pendentes.size() == tamanhoLote) {
+                trinco.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Pede à thread de envio que envie já os eventos pendentes e espera que
+     * os envie (no máximo TEMPO_MAXIMO_ESPERA_MS; não espera se a thread que
+     * chama estiver interrompida).
+     */
+    public void descarregar() {
+        synchronized (trinco) {
+            long pedido = ++pedidosDescarga;
+            trinco.notifyAll();
+            esperar(() -> descargasFeitas >= pedido);
+        }
+    }
+
+    /**
+     * Pede o último envio e espera que a thread de envio termine (fim do processo).
+     */
+    private void terminar() {
+        synchronized (trinco) {
+            aTerminar = true;
+            trinco.notifyAll();
+        }
+        try {
+            envio.join(TEMPO_MAXIMO_ESPERA_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Espera no trinco até a condição se verificar, a thread de envio terminar
+     * ou passar TEMPO_MAXIMO_ESPERA_MS. Chamado com o trinco adquirido.
+     */
+    private void esperar(BooleanSupplier condicao) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TEMPO_MAXIMO_ESPERA_MS);
+        try {
+            while (!condicao.getAsBoolean() && envio.isAlive()) {
+                long restanteMs = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+                if (restanteMs <= 0) {
+                    return;
+                }
+                trinco.wait(restanteMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Obtém o número de eventos descartados por excesso de pendentes.
+     *
+     * @return Total de eventos descartados
+     */
+    public long getDescartados() {
+        synchronized (trinco) {
+            return descartados;
+        }
+    }
+
+    private void cicloEnvio() {
+        while (true) {
+            List<EventoMovimento> lote;
+            long pedido;
+            boolean terminar;
+
+            synchronized (trinco) {
+                if (pendentes.size() < tamanhoLote && pedidosDescarga == descargasFeitas && !aTerminar) {
+                    try {
+                        trinco.wait(intervaloMs);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                // Lidos com os pendentes: o pedido fica atendido com o envio deste lote
+                lote = retirarPendentes();
+                pedido = pedidosDescarga;
+                terminar = aTerminar;
+            }
+
+            if (lote != null) {
+                enviarLote(lote);
+            }
+
+            synchronized (trinco) {
+                if (pedido > descargasFeitas) {
+                    descargasFeitas = pedido;
+                    trinco.notifyAll();
+                }
+            }
+            if (terminar) {
+                return;
+            }
+        }
+    }
+
+    private List<EventoMovimento> retirarPendentes() {
+        synchronized (trinco) {
+            if (pendentes.isEmpty()) {
+                return null;
+            }
+            List<EventoMovimento> lote = pendentes;
+            pendentes = new ArrayList<>(tamanhoLote);
+            return lote;
+        }
+    }
+
+    /**
+     * Envia um lote, dividido em mensagens de no máximo tamanhoLote eventos.
+     */
+    private void enviarLote(List<EventoMovimento> lote) {
+        for (int inicio = 0; inicio < lote.size(); inicio += tamanhoLote) {
+            List<EventoMovimento> parte = lote.subList(inicio, Math.min(lote.size(), inicio + tamanhoLote));
+
+            Mensagem mensagem = new Mensagem(TIPO_LOTE, null, "Dashboard", Map.of("eventos", parte));
+            if (!cliente.enviarMensagem(mensagem)) {
+                return;
+            }
+        }
+    }
+}
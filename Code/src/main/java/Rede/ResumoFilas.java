@@ -0,0 +1,17 @@
+package Rede;
+
+import java.util.Map;
+
+/**
+ * Resumo das filas de um cruzamento, enviado aos cruzamentos vizinhos a
+ * montante no encaminhamento dinâmico (ver Mapa.TipoEncaminhamento).
+ *
+ * Para cada próximo nó das faixas que vêm do vizinho, indica o tempo
+ * estimado (ms) até à Saída de um veículo que entre nessa faixa agora,
+ * e quanto esse tempo aumenta por cada veículo enviado para a faixa.
+ *
+ * @param cruzamento Cruzamento que envia o resumo
+ * @param temposMs Próximo nó → tempo estimado até à Saída (ms)
+ * @param acrescimoPorVeiculoMs Aumento do tempo de uma faixa por veículo enviado (ms)
+ */
+public record ResumoFilas(String cruzamento, Map<String, Long> temposMs, long acrescimoPorVeiculoMs) {}
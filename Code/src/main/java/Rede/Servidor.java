@@ -1,23 +1,35 @@
 package Rede;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Classe base genérica para servidores TCP.
  * Implementa a lógica comum de aceitar conexões e delega o processamento
  * específico para as subclasses através do método abstrato tratarMensagem().
+ *
+ * O atendimento de cada conexão corre no MotorServidor configurado
+ * (threads de plataforma ou threads virtuais). Cada conexão pode usar
+ * linhas JSON ou o formato binário (ver CodecBinario), conforme o que
+ * o cliente anunciar ao ligar.
  */
 public abstract class Servidor extends Thread {
     protected final String ip;
     protected final int porta;
     protected volatile boolean ativo = true;
 
+    private final MotorServidor motor;
+    private ExecutorService executorConexoes;
+
     /**
      * Construtor base
      *
@@ -26,6 +38,18 @@ public abstract class Servidor extends Thread {
      * @param nomeThread Nome da thread (para identificação)
      */
     public Servidor(String ip, int porta, String nomeThread) {
+        this(ip, porta, nomeThread, MotorServidor.configurado());
+    }
+
+    /**
+     * Construtor com motor explícito
+     *
+     * @param ip Endereço IP onde o servidor irá escutar
+     * @param porta Porta TCP onde o servidor irá escutar
+     * @param nomeThread Nome da thread (para identificação)
+     * @param motor Motor usado para atender as conexões
+     */
+    public Servidor(String ip, int porta, String nomeThread, MotorServidor motor) {
         super(nomeThread);
 
         if (porta < 1 || porta > 65535) {
@@ -34,14 +58,16 @@ public abstract class Servidor extends Thread {
 
         this.ip = (ip == null || ip.isEmpty()) ? "localhost" : ip;
         this.porta = porta;
+        this.motor = (motor == null) ? MotorServidor.configurado() : motor;
     }
 
     /**
      * Execução principal do servidor.
-     * Aceita conexões e cria threads para cada cliente.
+     * Aceita conexões e entrega cada uma ao motor configurado.
      */
     @Override
     public void run() {
+        executorConexoes = motor.criarExecutor(getName() + "-conexao");
         onInicio();
 
         // Agora especificamos o IP (bindAddr) além da porta
@@ -49,7 +75,7 @@ public abstract class Servidor extends Thread {
             while (ativo) {
                 try {
                     Socket socket = serverSocket.accept();
-                    new Thread(() -> tratarConexao(socket)).start();
+                    executorConexoes.execute(() -> tratarConexao(socket));
                 } catch (IOException e) {
                     if (ativo) {
                         onErroAceitarConexao(e);
@@ -59,28 +85,56 @@ public abstract class Servidor extends Thread {
         } catch (IOException e) {
             onErroInicializacao(e);
         } finally {
+            executorConexoes.shutdown();
             onEncerramento();
         }
     }
 
     /**
      * Trata uma conexão individual.
-     * Lê mensagens linha a linha e delega o processamento.
+     * Deteta o formato anunciado pelo cliente e delega o processamento.
      */
     private void tratarConexao(Socket socket) {
         try (
-                BufferedReader leitor = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                BufferedInputStream entrada = new BufferedInputStream(socket.getInputStream());
                 PrintWriter escritor = new PrintWriter(socket.getOutputStream(), true)
         ) {
-            String linha;
-            while ((linha = leitor.readLine()) != null) {
-                tratarMensagem(linha, leitor, escritor, socket);
+            if (CodecBinario.detetarCabecalho(entrada)) {
+                tratarConexaoBinaria(entrada, escritor, socket);
+            } else {
+                tratarConexaoTexto(entrada, escritor, socket);
             }
         } catch (IOException e) {
             onErroProcessamento(e, socket);
         }
     }
 
+    /**
+     * Lê mensagens JSON linha a linha e delega o processamento.
+     */
+    private void tratarConexaoTexto(BufferedInputStream entrada, PrintWriter escritor, Socket socket) throws IOException {
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+        String linha;
+        while ((linha = leitor.readLine()) != null) {
+            tratarMensagem(linha, leitor, escritor, socket);
+        }
+    }
+
+    /**
+     * Lê tramas binárias e delega o processamento das mensagens já descodificadas.
+     */
+    private void tratarConexaoBinaria(BufferedInputStream entrada, PrintWriter escritor, Socket socket) throws IOException {
+        DataInputStream dados = new DataInputStream(entrada);
+        CodecBinario codec = new CodecBinario();
+        Transporte.Recetor recetor = recetorVeiculos();
+
+        Mensagem mensagem;
+        while ((mensagem = codec.ler(dados, recetor)) != null) {
+            tratarMensagemDescodificada(mensagem, escritor, socket);
+        }
+    }
+
     /**
      * Método abstrato que cada servidor específico deve implementar
      * para processar mensagens recebidas.
@@ -92,6 +146,30 @@ public abstract class Servidor extends Thread {
      */
     protected abstract void tratarMensagem(String linha, BufferedReader leitor, PrintWriter escritor, Socket socket) throws IOException;
 
+    /**
+     * Processa uma mensagem recebida já descodificada (conexões binárias).
+     * Por omissão converte-a para JSON e chama tratarMensagem(); os servidores
+     * que trabalham com Mensagem devem sobrescrever para evitar essa conversão.
+     *
+     * @param mensagem Mensagem recebida
+     * @param escritor PrintWriter para enviar respostas
+     * @param socket Socket da conexão (para obter informações do cliente)
+     */
+    protected void tratarMensagemDescodificada(Mensagem mensagem, PrintWriter escritor, Socket socket) throws IOException {
+        tratarMensagem(mensagem.toJson(), null, escritor, socket);
+    }
+
+    /**
+     * Recetor para onde as conexões binárias entregam as mensagens VEICULO
+     * diretamente, sem Mensagem nem mapa de conteúdo (ver CodecBinario).
+     * Por omissão null: chegam a tratarMensagemDescodificada() como as restantes.
+     *
+     * @return Recetor dos veículos, ou null
+     */
+    protected Transporte.Recetor recetorVeiculos() {
+        return null;
+    }
+
     /**
      * Chamado quando o servidor inicia.
      * Sobrescreva para adicionar lógica de inicialização.
@@ -141,4 +219,11 @@ public abstract class Servidor extends Thread {
     public int getPorta() {
         return porta;
     }
+
+    /**
+     * Obtém o motor usado para atender as conexões.
+     */
+    public MotorServidor getMotor() {
+        return motor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package Rede;
+
+import Utils.ConfigLoader;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Enum que define como os veículos são entregues entre nós (cruzamentos, Saída).
+ *
+ * TCP: mensagem VEICULO por uma ligação TCP (ver Cliente)
+ * MEMORIA: entrega direta do objeto Veiculo quando o destino corre no mesmo
+ *          processo; se não correr, usa TCP
+ *
+ * Escolhido no campo "transporte" da secção "rede" do configMapa.json,
+ * ou pela propriedade de sistema rede.transporte (que tem prioridade).
+ */
+public enum TipoTransporte {
+    TCP,
+    MEMORIA;
+
+    public static final String PROPRIEDADE_TRANSPORTE = "rede.transporte";
+    private static final TipoTransporte POR_OMISSAO = TCP;
+
+    /**
+     * Obtém o transporte definido na propriedade de sistema ou no configMapa.json.
+     * Se não estiver definido ou for inválido, usa TCP.
+     *
+     * @return Tipo de transporte configurado
+     */
+    public static TipoTransporte configurado() {
+        String valor = System.getProperty(PROPRIEDADE_TRANSPORTE);
+
+        if (valor == null) {
+            JsonObject rede = ConfigLoader.carregarRede();
+            if (rede == null || !rede.has("transporte")) {
+                return POR_OMISSAO;
+            }
+            valor = rede.get("transporte").getAsString();
+        }
+
+        try {
+            return TipoTransporte.valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[TipoTransporte] Transporte desconhecido no configMapa.json, a usar " + POR_OMISSAO);
+            return POR_OMISSAO;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package Rede;
+
+import Veiculo.Veiculo;
+
+/**
+ * Transporte de veículos entre nós da rede (geradores, cruzamentos e Saída).
+ *
+ * Quem envia obtém um Destino com ligar(); quem recebe regista-se com
+ * registar() e continua a ter o seu Servidor TCP para os envios de outros
+ * processos. A implementação é escolhida por TipoTransporte (ver criar()).
+ */
+public abstract class Transporte {
+
+    /**
+     * Recebe os veículos entregues a um nó.
+     */
+    @FunctionalInterface
+    public interface Recetor {
+        void receberVeiculo(Veiculo veiculo, String origem);
+
+        /**
+         * Recebe o resumo das filas de um cruzamento vizinho.
+         * Por omissão é ignorado (só os cruzamentos com encaminhamento dinâmico o usam).
+         *
+         * @param resumo Resumo recebido
+         */
+        default void receberResumo(ResumoFilas resumo) {}
+    }
+
+    /**
+     * Destino para onde um nó envia veículos.
+     */
+    public interface Destino {
+
+        /**
+         * Envia um veículo ao destino.
+         *
+         * @param veiculo Veículo a enviar (deixa de ser usado por quem envia: pode voltar ao PoolVeiculos
+         *                antes de este método terminar, por isso não deve ser lido depois)
+         * @param origem Nó de onde o veículo sai
+         * @return True se o veículo foi entregue, false em caso de erro
+         */
+        boolean enviarVeiculo(Veiculo veiculo, String origem);
+
+        /**
+         * Envia ao destino o resumo das filas de um cruzamento.
+         *
+         * @param resumo Resumo a enviar
+         * @return True se o resumo foi entregue, false em caso de erro
+         */
+        boolean enviarResumo(ResumoFilas resumo);
+
+        /**
+         * Liberta os recursos associados ao destino.
+         */
+        void fechar();
+    }
+
+    /**
+     * Cria um transporte do tipo indicado.
+     *
+     * @param tipo Implementação a usar
+     * @return Transporte
+     */
+    public static Transporte criar(TipoTransporte tipo) {
+        return switch (tipo) {
+            case TCP -> new TransporteTcp();
+            case MEMORIA -> new TransporteMemoria();
+        };
+    }
+
+    /**
+     * Cria o transporte definido no configMapa.json.
+     *
+     * @return Transporte configurado
+     */
+    public static Transporte configurado() {
+        return criar(TipoTransporte.configurado());
+    }
+
+    /**
+     * Cria um transporte em memória com registo próprio e sem recurso a TCP:
+     * só entrega a nós registados nele. Usado pelas simulações num único
+     * processo (ex: em tempo virtual), que podem correr várias em paralelo.
+     *
+     * @return Transporte isolado
+     */
+    public static Transporte isolado() {
+        return TransporteMemoria.criarIsolado();
+    }
+
+    /**
+     * Obtém um destino para o nó que escuta em endereco:porta.
+     *
+     * @param endereco Endereço do nó destino
+     * @param porta Porta do nó destino
+     * @return Destino para envio de veículos
+     */
+    public abstract Destino ligar(String endereco, int porta);
+
+    /**
+     * Regista o nó que escuta em endereco:porta como recetor de veículos.
+     *
+     * @param endereco Endereço do nó
+     * @param porta Porta do nó
+     * @param recetor Recetor dos veículos entregues ao nó
+     */
+    public abstract void registar(String endereco, int porta, Recetor recetor);
+
+    /**
+     * Remove o registo de um nó.
+     *
+     * @param endereco Endereço do nó
+     * @param porta Porta do nó
+     */
+    public abstract void remover(String endereco, int porta);
+}
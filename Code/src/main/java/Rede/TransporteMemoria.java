@@ -0,0 +1,112 @@
+package Rede;
+
+import Veiculo.Veiculo;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transporte dentro do mesmo processo: o objeto Veiculo é entregue
+ * diretamente ao recetor do destino, sem serialização nem sockets.
+ *
+ * Os recetores ficam num registo partilhado por todo o processo, indexado
+ * por endereço:porta (os mesmos do configMapa.json). Se o destino não
+ * estiver registado neste processo, o envio segue por TCP.
+ *
+ * Um transporte isolado (ver isolado()) tem registo próprio e nunca usa TCP,
+ * para várias simulações poderem correr no mesmo processo sem se cruzarem.
+ */
+class TransporteMemoria extends Transporte {
+    private static final Map<String, Recetor> recetoresPartilhados = new ConcurrentHashMap<>();
+
+    private final Map<String, Recetor> recetores;
+    private final boolean alternativaTcp;
+
+    /**
+     * Transporte com o registo partilhado pelo processo e recurso a TCP.
+     */
+    TransporteMemoria() {
+        this(recetoresPartilhados, true);
+    }
+
+    private TransporteMemoria(Map<String, Recetor> recetores, boolean alternativaTcp) {
+        this.recetores = recetores;
+        this.alternativaTcp = alternativaTcp;
+    }
+
+    /**
+     * Cria um transporte com registo próprio e sem recurso a TCP.
+     *
+     * @return Transporte isolado
+     */
+    static TransporteMemoria criarIsolado() {
+        return new TransporteMemoria(new ConcurrentHashMap<>(), false);
+    }
+
+    @Override
+    public Destino ligar(String endereco, int porta) {
+        return new DestinoMemoria(endereco, porta);
+    }
+
+    @Override
+    public void registar(String endereco, int porta, Recetor recetor) {
+        if (recetor == null) {
+            throw new IllegalArgumentException("Recetor não pode ser null");
+        }
+        recetores.put(chave(endereco, porta), recetor);
+    }
+
+    @Override
+    public void remover(String endereco, int porta) {
+        recetores.remove(chave(endereco, porta));
+    }
+
+    private static String chave(String endereco, int porta) {
+        return endereco.trim().toLowerCase() + ":" + porta;
+    }
+
+    /**
+     * Destino em memória, com recurso a TCP enquanto o recetor não estiver registado
+     * (exceto no transporte isolado, em que o envio falha).
+     */
+    private class DestinoMemoria implements Destino {
+        private final String chave;
+        private final TransporteTcp.DestinoTcp alternativa;
+
+        DestinoMemoria(String endereco, int porta) {
+            this.chave = chave(endereco, porta);
+            this.alternativa = alternativaTcp ? new TransporteTcp.DestinoTcp(endereco, porta) : null;
+        }
+
+        @Override
+        public boolean enviarVeiculo(Veiculo veiculo, String origem) {
+            Recetor recetor = recetores.get(chave);
+
+            if (recetor == null) {
+                return alternativa != null && alternativa.enviarVeiculo(veiculo, origem);
+            }
+
+            recetor.receberVeiculo(veiculo, origem);
+            return true;
+        }
+
+        @Override
+        public boolean enviarResumo(ResumoFilas resumo) {
+            Recetor recetor = recetores.get(chave);
+
+            if (recetor == null) {
+                return alternativa != null && alternativa.enviarResumo(resumo);
+            }
+
+            recetor.receberResumo(resumo);
+            return true;
+        }
+
+        @Override
+        public void fechar() {
+            if (alternativa != null) {
+                alternativa.fechar();
+            }
+        }
+    }
+}
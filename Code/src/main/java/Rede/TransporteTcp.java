@@ -0,0 +1,65 @@
+package Rede;
+
+import Veiculo.PoolVeiculos;
+import Veiculo.Veiculo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Transporte por TCP: cada veículo segue numa mensagem VEICULO (e cada
+ * resumo de filas numa mensagem RESUMO_FILAS) pela ligação persistente ao
+ * destino. A receção é feita pelo Servidor do nó, por isso registar() e
+ * remover() não fazem nada. Os veículos enviados voltam ao PoolVeiculos.
+ */
+class TransporteTcp extends Transporte {
+
+    @Override
+    public Destino ligar(String endereco, int porta) {
+        return new DestinoTcp(endereco, porta);
+    }
+
+    @Override
+    public void registar(String endereco, int porta, Recetor recetor) {}
+
+    @Override
+    public void remover(String endereco, int porta) {}
+
+    /**
+     * Destino TCP, com ligações partilhadas pelo PoolLigacoes.
+     */
+    static class DestinoTcp implements Destino {
+        private final Cliente cliente;
+
+        DestinoTcp(String endereco, int porta) {
+            this.cliente = new Cliente(endereco, porta);
+        }
+
+        /**
+         * Envia o veículo e, se foi entregue, devolve-o ao PoolVeiculos: depois
+         * de escrito na ligação, já não é usado por ninguém neste processo.
+         */
+        @Override
+        public boolean enviarVeiculo(Veiculo veiculo, String origem) {
+            if (!cliente.enviarVeiculo(veiculo, origem)) {
+                return false;
+            }
+            PoolVeiculos.devolver(veiculo);
+            return true;
+        }
+
+        @Override
+        public boolean enviarResumo(ResumoFilas resumo) {
+            Map<String, Object> conteudo = new HashMap<>();
+            conteudo.put("tempos", resumo.temposMs());
+            conteudo.put("acrescimo", resumo.acrescimoPorVeiculoMs());
+
+            return cliente.enviarMensagem(new Mensagem("RESUMO_FILAS", resumo.cruzamento(), null, conteudo));
+        }
+
+        @Override
+        public void fechar() {
+            cliente.fechar();
+        }
+    }
+}
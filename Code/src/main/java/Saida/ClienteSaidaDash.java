@@ -2,14 +2,14 @@ package Saida;
 
 import Logging.LogClienteDashboard;
 import Dashboard.Logs.TipoLog;
+import PontosEntrada.PontoEntrada;
+import Veiculo.TipoVeiculo;
 import Veiculo.Veiculo;
+import Rede.Cliente;
+import Rede.Mensagem;
 
-import com.google.gson.Gson;
-
-import java.io.PrintWriter;
-import java.net.Socket;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -19,7 +19,7 @@ import java.util.Map;
  *  Envia estatísticas periódicas (a cada 5 segundos) sobre veículos que saíram
  *  Envia notificações imediatas quando um veículo sai do sistema
  *
- * A comunicação é feita através de mensagens JSON enviadas via socket TCP.
+ * A comunicação é feita através de mensagens JSON enviadas por uma ligação TCP persistente.
  */
 public class ClienteSaidaDash extends Thread {
 
@@ -28,7 +28,7 @@ public class ClienteSaidaDash extends Thread {
     private final String ipDashboard;
     private final int portaDashboard;
     private final Saida saida;
-    private final Gson gson = new Gson();
+    private final Cliente clienteDashboard;
     private volatile boolean ativo = true;
 
     /**
@@ -55,6 +55,7 @@ public class ClienteSaidaDash extends Thread {
         this.ipDashboard = ipDashboard;
         this.portaDashboard = portaDashboard;
         this.saida = saida;
+        this.clienteDashboard = new Cliente(ipDashboard, portaDashboard);
         setDaemon(true);
     }
 
@@ -88,25 +89,32 @@ public class ClienteSaidaDash extends Thread {
     /**
      * Envia estatísticas agregadas sobre veículos que saíram do sistema.
      *
-     * Constrói e envia uma mensagem JSON com:
-     *  Total de saídas registadas
-     *  Lista completa de veículos que saíram
+     * Constrói e envia uma mensagem JSON com os totais do HistoricoSaidas
+     * (sem a lista de veículos):
+     *  Total de saídas registadas, por tipo e por entrada
+     *  Permanência média e máxima no sistema (ms)
      *
      */
     private void enviarEstatisticas() {
-        List<Veiculo> veiculosSaidos = saida.getVeiculosSaidos();
+        HistoricoSaidas historico = saida.getHistorico();
 
-        Map<String, Object> conteudo = new HashMap<>();
-        conteudo.put("totalSaidas", veiculosSaidos.size());
-        conteudo.put("veiculos", veiculosSaidos);
+        Map<String, Long> porTipo = new LinkedHashMap<>();
+        for (TipoVeiculo tipo : TipoVeiculo.values()) {
+            porTipo.put(tipo.name(), historico.getTotal(tipo));
+        }
+        Map<String, Long> porEntrada = new LinkedHashMap<>();
+        for (PontoEntrada entrada : PontoEntrada.values()) {
+            porEntrada.put(entrada.name(), historico.getTotal(entrada));
+        }
 
-        Map<String, Object> mensagem = new HashMap<>();
-        mensagem.put("tipo", "ESTATISTICA_SAIDA");
-        mensagem.put("origem", "Saida");
-        mensagem.put("destino", "Dashboard");
-        mensagem.put("conteudo", conteudo);
+        Map<String, Object> conteudo = new HashMap<>();
+        conteudo.put("totalSaidas", historico.getTotal());
+        conteudo.put("porTipo", porTipo);
+        conteudo.put("porEntrada", porEntrada);
+        conteudo.put("permanenciaMediaMs", historico.getPermanenciaMediaMs());
+        conteudo.put("permanenciaMaximaMs", historico.getPermanenciaMaximaMs());
 
-        enviarJson(mensagem);
+        enviar(new Mensagem("ESTATISTICA_SAIDA", "Saida", "Dashboard", conteudo));
     }
 
     /**
@@ -126,36 +134,24 @@ public class ClienteSaidaDash extends Thread {
         conteudo.put("entrada", veiculo.getPontoEntrada().name());
         conteudo.put("caminho", veiculo.getCaminho());
         conteudo.put("tempoTotal", tempoTotal);
-        conteudo.put("totalSaidas", saida.getVeiculosSaidos().size());
-
-        Map<String, Object> mensagem = new HashMap<>();
-        mensagem.put("tipo", "VEICULO_SAIU");
-        mensagem.put("origem", "Saida");
-        mensagem.put("destino", "Dashboard");
-        mensagem.put("conteudo", conteudo);
+        conteudo.put("totalSaidas", saida.getTotalSaidas());
 
-        enviarJson(mensagem);
+        enviar(new Mensagem("VEICULO_SAIU", "Saida", "Dashboard", conteudo));
 
-        LogClienteDashboard.enviar( TipoLog.VEICULO, String.format("Veículo %s (%s) saiu do sistema. Tempo total: %.2f s", veiculo.getId(), veiculo.getTipo(), tempoTotal));
+        LogClienteDashboard.enviar(TipoLog.VEICULO, "Veículo %s (%s) saiu do sistema. Tempo total: %.2f s", veiculo.getId(), veiculo.getTipo(), tempoTotal);
     }
 
     /**
-     * Serializa e envia uma mensagem JSON ao Dashboard via socket TCP.
+     * Envia uma mensagem ao Dashboard pela ligação persistente.
      *
-     * Cria uma nova conexão para cada mensagem (stateless) e fecha-a
-     * automaticamente após o envio. Em caso de falha na comunicação,
-     * regista um aviso nos logs mas não interrompe a execução.
+     * Em caso de falha na comunicação, regista um aviso nos logs
+     * mas não interrompe a execução.
      *
-     * @param dados Map com os dados a serializar e enviar
+     * @param mensagem Mensagem a enviar
      */
-    private void enviarJson(Map<String, Object> dados) {
-        String json = gson.toJson(dados);
-
-        try (Socket socket = new Socket(ipDashboard, portaDashboard); PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
-            out.println(json);
-        } catch (Exception e) {
-            LogClienteDashboard.enviar(TipoLog.AVISO, "Saída: falha ao enviar dados ao Dashboard (" + e.getMessage() + ")"
-            );
+    private void enviar(Mensagem mensagem) {
+        if (!clienteDashboard.enviarMensagem(mensagem)) {
+            LogClienteDashboard.enviar(TipoLog.AVISO, "Saída: falha ao enviar dados ao Dashboard (" + mensagem.tipo() + ")");
         }
     }
 
@@ -0,0 +1,362 @@
+package Saida;
+
+import Dashboard.Logs.TipoLog;
+import Logging.LogClienteDashboard;
+import PontosEntrada.PontoEntrada;
+import Utils.ConfigLoader;
+import Veiculo.TipoVeiculo;
+
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Histórico dos veículos que saíram do sistema, guardado por colunas.
+ *
+ * Cada saída é uma linha de valores primitivos (sequência do id, ordinais do
+ * tipo e da entrada, tempos de chegada e de saída), acrescentada ao último
+ * bloco de TAMANHO_BLOCO linhas; cada bloco tem um array por coluna. Não são
+ * guardados objetos Veiculo nem caminhos: são 22 bytes por veículo.
+ *
+ * Com "capacidade" > 0, só as últimas linhas (arredondadas a blocos inteiros)
+ * ficam em memória: o bloco mais antigo é reutilizado para as novas linhas.
+ * Com "ficheiro", os blocos que saem da memória são antes copiados para esse
+ * ficheiro, mapeado em memória por segmentos, e continuam a contar nas
+ * consultas. Sem ficheiro, são descartados.
+ *
+ * Um ficheiro que já exista (de uma execução anterior) não é apagado: é usado
+ * o primeiro nome livre com sufixo ".1", ".2", etc. Se o ficheiro falhar (ex:
+ * disco cheio), o erro é registado uma vez e os blocos seguintes passam a ser
+ * descartados; a Saída continua a receber veículos.
+ *
+ * Os totais (por tipo, por entrada e da permanência no sistema) contam todas
+ * as saídas, mesmo as descartadas. paraCada() percorre as linhas guardadas
+ * sem criar objetos por linha.
+ *
+ * Configurado em "saida": {"historico": {"capacidade": n, "ficheiro": caminho}}
+ * no configMapa.json (por omissão sem limite e sem ficheiro).
+ */
+public class HistoricoSaidas {
+
+    static final int TAMANHO_BLOCO = 4096;
+
+    // int sequência + byte tipo + byte entrada + long chegada + long saída
+    private static final int BYTES_POR_LINHA = 4 + 1 + 1 + 8 + 8;
+    private static final long BYTES_POR_BLOCO = (long) TAMANHO_BLOCO * BYTES_POR_LINHA;
+    private static final int BLOCOS_POR_SEGMENTO = 64;
+
+    // Início de cada coluna dentro de um bloco no ficheiro
+    private static final int INICIO_TIPOS = 4 * TAMANHO_BLOCO;
+    private static final int INICIO_ENTRADAS = 5 * TAMANHO_BLOCO;
+    private static final int INICIO_CHEGADAS = 6 * TAMANHO_BLOCO;
+    private static final int INICIO_SAIDAS = 14 * TAMANHO_BLOCO;
+
+    /** Sequência guardada quando o id não tem o formato "entrada-número" */
+    public static final int SEM_SEQUENCIA = -1;
+
+    private static final TipoVeiculo[] TIPOS = TipoVeiculo.values();
+    private static final PontoEntrada[] ENTRADAS = PontoEntrada.values();
+
+    /**
+     * Recebe as linhas do histórico, uma a uma.
+     */
+    @FunctionalInterface
+    public interface Visitante {
+        void visitar(int sequencia, TipoVeiculo tipo, PontoEntrada entrada, long tempoChegada, long tempoSaida);
+    }
+
+    /**
+     * Bloco de linhas em memória, um array por coluna.
+     */
+    private static final class Bloco {
+        final int[] sequencias = new int[TAMANHO_BLOCO];
+        final byte[] tipos = new byte[TAMANHO_BLOCO];
+        final byte[] entradas = new byte[TAMANHO_BLOCO];
+        final long[] chegadas = new long[TAMANHO_BLOCO];
+        final long[] saidas = new long[TAMANHO_BLOCO];
+        int tamanho = 0;
+    }
+
+    private final int maximoBlocos;
+
+    // null sem ficheiro ou depois de uma falha ao escrever nele
+    private Path ficheiro;
+
+    private final ArrayDeque<Bloco> blocos = new ArrayDeque<>();
+    private final List<MappedByteBuffer> segmentos = new ArrayList<>();
+    private FileChannel canal;
+    private int blocosNoFicheiro = 0;
+
+    // Totais de todas as saídas registadas
+    private long total = 0;
+    private long descartados = 0;
+    private final long[] totalPorTipo = new long[TIPOS.length];
+    private final long[] totalPorEntrada = new long[ENTRADAS.length];
+    private long somaPermanenciaMs = 0;
+    private long maximaPermanenciaMs = 0;
+
+    /**
+     * Construtor da classe
+     *
+     * @param capacidade Número de linhas a manter em memória (0 para sem limite)
+     * @param ficheiro Ficheiro para onde vão os blocos que saem da memória (null para os descartar)
+     * @throws IllegalArgumentException se a capacidade for negativa
+     */
+    public HistoricoSaidas(int capacidade, Path ficheiro) {
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("Capacidade do histórico não pode ser negativa");
+        }
+        this.maximoBlocos = capacidade == 0 ? Integer.MAX_VALUE : (capacidade + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+        this.ficheiro = ficheiro;
+    }
+
+    /**
+     * Cria o histórico com a configuração "saida.historico" do configMapa.json.
+     *
+     * @return Histórico vazio
+     */
+    public static HistoricoSaidas configurado() {
+        JsonObject saida = ConfigLoader.carregarSaida();
+        JsonObject config = (saida != null && saida.has("historico")) ? saida.getAsJsonObject("historico") : null;
+
+        int capacidade = (config != null && config.has("capacidade")) ? config.get("capacidade").getAsInt() : 0;
+        String ficheiro = (config != null && config.has("ficheiro")) ? config.get("ficheiro").getAsString().trim() : "";
+
+        return new HistoricoSaidas(capacidade, ficheiro.isEmpty() ? null : Path.of(ficheiro));
+    }
+
+    /**
+     * Regista a saída de um veículo.
+     *
+     * @param id Id do veículo (só é guardada a sequência de "entrada-número")
+     * @param tipo Tipo do veículo
+     * @param entrada Ponto de entrada do veículo
+     * @param tempoChegada Timestamp de chegada ao sistema
+     * @param tempoSaida Timestamp de saída do sistema
+     */
+    public synchronized void registar(String id, TipoVeiculo tipo, PontoEntrada entrada, long tempoChegada, long tempoSaida) {
+        Bloco bloco = blocos.peekLast();
+        if (bloco == null || bloco.tamanho == TAMANHO_BLOCO) {
+            bloco = novoBloco();
+        }
+
+        int i = bloco.tamanho++;
+        bloco.sequencias[i] = sequencia(id, entrada);
+        bloco.tipos[i] = (byte) tipo.ordinal();
+        bloco.entradas[i] = (byte) entrada.ordinal();
+        bloco.chegadas[i] = tempoChegada;
+        bloco.saidas[i] = tempoSaida;
+
+        long permanencia = tempoSaida - tempoChegada;
+        total++;
+        totalPorTipo[tipo.ordinal()]++;
+        totalPorEntrada[entrada.ordinal()]++;
+        somaPermanenciaMs += permanencia;
+        maximaPermanenciaMs = Math.max(maximaPermanenciaMs, permanencia);
+    }
+
+    /**
+     * Obtém um bloco vazio no fim: um novo ou, com a memória cheia, o mais antigo.
+     */
+    private Bloco novoBloco() {
+        Bloco bloco;
+        if (blocos.size() < maximoBlocos) {
+            bloco = new Bloco();
+        } else {
+            bloco = blocos.pollFirst();
+            if (ficheiro != null) {
+                copiarParaFicheiro(bloco);
+            } else {
+                descartados += bloco.tamanho;
+            }
+            bloco.tamanho = 0;
+        }
+        blocos.addLast(bloco);
+        return bloco;
+    }
+
+    /**
+     * Copia um bloco para o ficheiro. Se falhar, deixa de usar o ficheiro e
+     * conta o bloco como descartado, em vez de parar quem regista a saída.
+     */
+    private void copiarParaFicheiro(Bloco bloco) {
+        try {
+            MappedByteBuffer segmento = segmento(blocosNoFicheiro / BLOCOS_POR_SEGMENTO);
+            int inicio = (int) ((blocosNoFicheiro % BLOCOS_POR_SEGMENTO) * BYTES_POR_BLOCO);
+
+            for (int i = 0; i < TAMANHO_BLOCO; i++) {
+                segmento.putInt(inicio + 4 * i, bloco.sequencias[i]);
+                segmento.put(inicio + INICIO_TIPOS + i, bloco.tipos[i]);
+                segmento.put(inicio + INICIO_ENTRADAS + i, bloco.entradas[i]);
+                segmento.putLong(inicio + INICIO_CHEGADAS + 8 * i, bloco.chegadas[i]);
+                segmento.putLong(inicio + INICIO_SAIDAS + 8 * i, bloco.saidas[i]);
+            }
+            blocosNoFicheiro++;
+        } catch (IOException | InternalError e) {
+            // Com o disco cheio, a escrita num segmento mapeado falha com InternalError (SIGBUS)
+            LogClienteDashboard.enviar(TipoLog.ERRO, "Histórico de saídas: falha no ficheiro " + ficheiro
+                    + " (" + e.getMessage() + "). As saídas mais antigas passam a ser descartadas.");
+            ficheiro = null;
+            descartados += bloco.tamanho;
+        }
+    }
+
+    /**
+     * Obtém um segmento mapeado do ficheiro, abrindo-o e aumentando-o se necessário.
+     */
+    private MappedByteBuffer segmento(int indice) throws IOException {
+        if (canal == null) {
+            canal = abrirFicheiroNovo();
+        }
+        while (segmentos.size() <= indice) {
+            long tamanho = BLOCOS_POR_SEGMENTO * BYTES_POR_BLOCO;
+            segmentos.add(canal.map(FileChannel.MapMode.READ_WRITE, segmentos.size() * tamanho, tamanho));
+        }
+        return segmentos.get(indice);
+    }
+
+    /**
+     * Cria o ficheiro sem apagar um já existente: se o nome estiver ocupado,
+     * usa o primeiro livre com sufixo numérico.
+     */
+    private FileChannel abrirFicheiroNovo() throws IOException {
+        Path configurado = ficheiro;
+        for (int n = 1; ; n++) {
+            try {
+                FileChannel novo = FileChannel.open(ficheiro, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                if (!ficheiro.equals(configurado)) {
+                    LogClienteDashboard.enviar(TipoLog.SISTEMA, "Histórico de saídas: " + configurado
+                            + " já existe, a usar " + ficheiro);
+                }
+                return novo;
+            } catch (FileAlreadyExistsException e) {
+                ficheiro = configurado.resolveSibling(configurado.getFileName() + "." + n);
+            }
+        }
+    }
+
+    /**
+     * Percorre as linhas guardadas (ficheiro e memória), da mais antiga para a mais recente.
+     *
+     * @param visitante Recebe cada linha
+     */
+    public synchronized void paraCada(Visitante visitante) {
+        for (int b = 0; b < blocosNoFicheiro; b++) {
+            MappedByteBuffer segmento = segmentos.get(b / BLOCOS_POR_SEGMENTO);
+            int inicio = (int) ((b % BLOCOS_POR_SEGMENTO) * BYTES_POR_BLOCO);
+
+            for (int i = 0; i < TAMANHO_BLOCO; i++) {
+                visitante.visitar(segmento.getInt(inicio + 4 * i),
+                        TIPOS[segmento.get(inicio + INICIO_TIPOS + i)],
+                        ENTRADAS[segmento.get(inicio + INICIO_ENTRADAS + i)],
+                        segmento.getLong(inicio + INICIO_CHEGADAS + 8 * i),
+                        segmento.getLong(inicio + INICIO_SAIDAS + 8 * i));
+            }
+        }
+
+        for (Bloco bloco : blocos) {
+            for (int i = 0; i < bloco.tamanho; i++) {
+                visitante.visitar(bloco.sequencias[i], TIPOS[bloco.tipos[i]], ENTRADAS[bloco.entradas[i]],
+                        bloco.chegadas[i], bloco.saidas[i]);
+            }
+        }
+    }
+
+    /**
+     * Número total de saídas registadas (incluindo as descartadas).
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * Número de saídas registadas de um tipo de veículo.
+     */
+    public synchronized long getTotal(TipoVeiculo tipo) {
+        return totalPorTipo[tipo.ordinal()];
+    }
+
+    /**
+     * Número de saídas registadas de veículos de uma entrada.
+     */
+    public synchronized long getTotal(PontoEntrada entrada) {
+        return totalPorEntrada[entrada.ordinal()];
+    }
+
+    /**
+     * Número de saídas descartadas (capacidade cheia, sem ficheiro ou com o ficheiro em falha).
+     */
+    public synchronized long getDescartados() {
+        return descartados;
+    }
+
+    /**
+     * Permanência média no sistema de todas as saídas registadas.
+     *
+     * @return Média em milissegundos, ou 0 se não houver saídas
+     */
+    public synchronized double getPermanenciaMediaMs() {
+        return total == 0 ? 0 : (double) somaPermanenciaMs / total;
+    }
+
+    /**
+     * Maior permanência no sistema de todas as saídas registadas.
+     *
+     * @return Máximo em milissegundos
+     */
+    public synchronized long getPermanenciaMaximaMs() {
+        return maximaPermanenciaMs;
+    }
+
+    /**
+     * Fecha o ficheiro, se existir. As linhas já guardadas continuam acessíveis.
+     */
+    public synchronized void fechar() {
+        if (canal != null) {
+            try { canal.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    /**
+     * Reconstrói o id de um veículo a partir da sequência guardada.
+     *
+     * @return Id no formato do GeradorVeiculos ("E1-007"), ou null se a sequência não foi guardada
+     */
+    public static String id(PontoEntrada entrada, int sequencia) {
+        return sequencia == SEM_SEQUENCIA ? null : String.format("%s-%03d", entrada.name(), sequencia);
+    }
+
+    /**
+     * Número do id "entrada-número" (o formato do GeradorVeiculos).
+     */
+    private static int sequencia(String id, PontoEntrada entrada) {
+        String prefixo = entrada.name();
+        int inicio = prefixo.length() + 1;
+        if (id == null || id.length() <= inicio || id.length() - inicio > 9
+                || !id.startsWith(prefixo) || id.charAt(prefixo.length()) != '-') {
+            return SEM_SEQUENCIA;
+        }
+
+        int numero = 0;
+        for (int i = inicio; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return SEM_SEQUENCIA;
+            }
+            numero = numero * 10 + (c - '0');
+        }
+
+        // Só se id() o reconstruir igual (ex: "E1-07" não tem o formato "%03d")
+        int algarismos = Math.max(3, Integer.toString(numero).length());
+        return algarismos == id.length() - inicio ? numero : SEM_SEQUENCIA;
+    }
+}
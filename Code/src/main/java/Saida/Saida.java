@@ -2,12 +2,10 @@ package Saida;
 
 import Logging.LogClienteDashboard;
 import Dashboard.Logs.TipoLog;
+import Rede.Transporte;
+import Veiculo.PoolVeiculos;
 import Veiculo.Veiculo;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Representa o ponto de saída do sistema de tráfego.
  *
@@ -15,7 +13,7 @@ import java.util.List;
  *  Receber veículos que completam o percurso no sistema
  *  Registar o tempo de saída e calcular o tempo de permanência
  *  Comunicar com o Dashboard para reportar estatísticas
- *  Manter histórico de todos os veículos que saíram
+ *  Manter histórico dos veículos que saíram (ver HistoricoSaidas)
  *
  * A Saída opera como um componente independente com servidor próprio
  * que aceita conexões de cruzamentos finais (Cr3 e Cr5).
@@ -29,8 +27,9 @@ public class Saida {
 
     private final ServidorSaida servidorSaida;
     private final ClienteSaidaDash clienteSaidaDash;
+    private final Transporte transporte;
 
-    private final List<Veiculo> veiculosSaidos = Collections.synchronizedList(new ArrayList<>());
+    private final HistoricoSaidas historico;
 
     /**
      * Construtor da classe
@@ -59,16 +58,24 @@ public class Saida {
         // Passamos o IP para o servidor
         this.servidorSaida = new ServidorSaida(this.ipServidor, portaServidor, this);
         this.clienteSaidaDash = new ClienteSaidaDash(ipDashboard, portaDashboard, this);
+        this.transporte = Transporte.configurado();
+        this.historico = HistoricoSaidas.configurado();
     }
 
     /**
-     * Retorna a lista de veículos que já saíram do sistema.
-     * A lista retornada é imutável para prevenir modificações externas.
+     * Retorna o histórico dos veículos que já saíram do sistema.
      *
-     * @return Lista não-modificável de veículos que saíram
+     * @return Histórico de saídas
+     */
+    public HistoricoSaidas getHistorico() {
+        return historico;
+    }
+
+    /**
+     * Retorna o número de veículos que já saíram do sistema.
      */
-    public List<Veiculo> getVeiculosSaidos() {
-        return Collections.unmodifiableList(veiculosSaidos);
+    public long getTotalSaidas() {
+        return historico.getTotal();
     }
 
     /**
@@ -77,6 +84,9 @@ public class Saida {
      * Arranca duas threads:
      *  Servidor TCP para receber veículos dos cruzamentos
      *  Cliente para enviar estatísticas ao Dashboard
+     *
+     * Regista-se também no transporte, para receber diretamente os veículos
+     * de cruzamentos no mesmo processo.
      */
     public void iniciar() {
         LogClienteDashboard.enviar(
@@ -87,6 +97,7 @@ public class Saida {
 
         servidorSaida.start();
         clienteSaidaDash.start();
+        transporte.registar(ipServidor, portaServidor, (veiculo, origem) -> registarVeiculo(veiculo));
     }
 
     /**
@@ -95,10 +106,10 @@ public class Saida {
      * Operações realizadas:
      *  Define o tempo de saída do veículo
      *  Calcula o tempo de permanência no sistema
-     *  Adiciona à lista de veículos saídos
+     *  Acrescenta uma linha ao histórico
      *  Envia log do evento
      *  Notifica o Dashboard com as estatísticas
-     *
+     *  Devolve o veículo ao PoolVeiculos (o histórico não o guarda)
      *
      * @param veiculo Veículo que completou o percurso e saiu do sistema
      */
@@ -109,21 +120,24 @@ public class Saida {
         long tempoTotal = tempoSaida - veiculo.getTempoChegada();
         double tempoTotalSegundos = tempoTotal / 1000.0;
 
-        veiculosSaidos.add(veiculo);
+        historico.registar(veiculo.getId(), veiculo.getTipo(), veiculo.getPontoEntrada(),
+                veiculo.getTempoChegada(), tempoSaida);
 
-        LogClienteDashboard.enviar(TipoLog.VEICULO, String.format("Veículo %s (%s) saiu do sistema. Tempo total: %.2f s",
-                veiculo.getId(), veiculo.getTipo(), tempoTotalSegundos)
-        );
+        LogClienteDashboard.enviar(TipoLog.VEICULO, "Veículo %s (%s) saiu do sistema. Tempo total: %.2f s",
+                veiculo.getId(), veiculo.getTipo(), tempoTotalSegundos);
 
         clienteSaidaDash.enviarVeiculoSaiu(veiculo, tempoTotalSegundos);
+        PoolVeiculos.devolver(veiculo);
     }
 
     /**
      * Para o servidor e encerra todas as threads associadas.
      */
     public void parar() {
+        transporte.remover(ipServidor, portaServidor);
         servidorSaida.pararServidor();
         clienteSaidaDash.parar();
+        historico.fechar();
         LogClienteDashboard.enviar(TipoLog.SISTEMA, "Saída encerrada.");
     }
 }
\ No newline at end of file
@@ -17,24 +17,9 @@ public class SaidaMain {
         LogClienteDashboard.definirNomeProcesso("Saida");
         LogClienteDashboard.enviar(TipoLog.SISTEMA, "Processo Saída iniciado");
 
-        JsonObject config = ConfigLoader.carregarSaida();
-
-        // Ler IP e Porta da configuração
-        String ipServidor = config.has("ipServidor")
-                ? config.get("ipServidor").getAsString()
-                : "localhost";
-        int portaServidor = config.get("portaServidor").getAsInt();
-
-        String ipDashboard = config.get("ipDashboard").getAsString();
-        int portaDashboard = config.get("portaDashboard").getAsInt();
-
-        Saida saida = new Saida(ipServidor, portaServidor, ipDashboard, portaDashboard);
+        Saida saida = criarSaida();
         saida.iniciar();
 
-        LogClienteDashboard.enviar(TipoLog.SISTEMA, String.format("Saída configurada: local %s:%d → Dashboard %s:%d",
-                ipServidor, portaServidor, ipDashboard, portaDashboard)
-        );
-
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             LogClienteDashboard.enviar(TipoLog.SISTEMA, "A encerrar Saída");
             saida.parar();
@@ -49,4 +34,30 @@ public class SaidaMain {
             saida.parar();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Cria a Saída (ainda não iniciada) a partir do configMapa.json.
+     *
+     * Usado por este processo e pela simulação num único processo (Simulacao).
+     *
+     * @return Saída pronta a iniciar
+     */
+    public static Saida criarSaida() {
+        JsonObject config = ConfigLoader.carregarSaida();
+
+        // Ler IP e Porta da configuração
+        String ipServidor = config.has("ipServidor")
+                ? config.get("ipServidor").getAsString()
+                : "localhost";
+        int portaServidor = config.get("portaServidor").getAsInt();
+
+        String ipDashboard = config.get("ipDashboard").getAsString();
+        int portaDashboard = config.get("portaDashboard").getAsInt();
+
+        LogClienteDashboard.enviar(TipoLog.SISTEMA, String.format("Saída configurada: local %s:%d → Dashboard %s:%d",
+                ipServidor, portaServidor, ipDashboard, portaDashboard)
+        );
+
+        return new Saida(ipServidor, portaServidor, ipDashboard, portaDashboard);
+    }
+}
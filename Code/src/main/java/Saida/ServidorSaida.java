@@ -6,8 +6,6 @@ import Rede.Mensagem;
 import Rede.Servidor;
 import Veiculo.Veiculo;
 
-import com.google.gson.Gson;
-
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -18,7 +16,6 @@ import java.net.Socket;
  */
 public class ServidorSaida extends Servidor {
     private final Saida saida;
-    private final Gson gson = new Gson();
 
     /**
      * Construtor da classe
@@ -57,23 +54,28 @@ public class ServidorSaida extends Servidor {
     @Override
     protected void tratarMensagem(String linha, BufferedReader leitor,
                                   PrintWriter escritor, Socket socket) throws IOException {
-        Mensagem mensagem = Mensagem.fromJson(linha);
+        tratarMensagemDescodificada(Mensagem.fromJson(linha), escritor, socket);
+    }
 
+    /**
+     *
+     *
+     * @param mensagem Mensagem recebida
+     * @param escritor PrintWriter para enviar respostas
+     * @param socket Socket da conexão
+     */
+    @Override
+    protected void tratarMensagemDescodificada(Mensagem mensagem, PrintWriter escritor, Socket socket) {
         if ("VEICULO".equalsIgnoreCase(mensagem.tipo())) {
-            Object objVeiculo = mensagem.conteudo().get("veiculo");
+            Veiculo veiculo = mensagem.getVeiculo();
 
-            if (objVeiculo == null) {
+            if (veiculo == null) {
                 LogClienteDashboard.enviar(TipoLog.AVISO, "Mensagem de saída inválida: campo 'veiculo' ausente.");
                 return;
             }
 
-            Veiculo veiculo = gson.fromJson(gson.toJson(objVeiculo), Veiculo.class);
-
-            LogClienteDashboard.enviar(
-                    TipoLog.VEICULO,
-                    "Veículo " + veiculo.getId() + " (" + veiculo.getTipo() +
-                            ") saiu do sistema via " + mensagem.origem()
-            );
+            LogClienteDashboard.enviar(TipoLog.VEICULO, "Veículo %s (%s) saiu do sistema via %s",
+                    veiculo.getId(), veiculo.getTipo(), mensagem.origem());
 
             saida.registarVeiculo(veiculo);
         }
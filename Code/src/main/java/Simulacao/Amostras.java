@@ -0,0 +1,72 @@
+package Simulacao;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de amostras (ex: tempos em ms) para cálculo de percentis.
+ *
+ * Guarda todos os valores num array que cresce por duplicação;
+ * os percentis são calculados ordenando uma cópia no fim da simulação.
+ * Thread-safe.
+ */
+public class Amostras {
+    private long[] valores = new long[256];
+    private int tamanho = 0;
+
+    /**
+     * Acrescenta uma amostra.
+     *
+     * @param valor Valor a registar
+     */
+    public synchronized void adicionar(long valor) {
+        if (tamanho == valores.length) {
+            valores = Arrays.copyOf(valores, tamanho * 2);
+        }
+        valores[tamanho++] = valor;
+    }
+
+    /**
+     * Obtém o número de amostras registadas.
+     */
+    public synchronized int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Calcula a média das amostras.
+     *
+     * @return Média, ou 0 se não houver amostras
+     */
+    public synchronized double media() {
+        if (tamanho == 0) {
+            return 0;
+        }
+
+        double soma = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += valores[i];
+        }
+        return soma / tamanho;
+    }
+
+    /**
+     * Calcula um percentil pelo método do valor mais próximo (nearest-rank).
+     *
+     * @param percentil Percentil entre 0 e 100
+     * @return Valor do percentil, ou 0 se não houver amostras
+     */
+    public synchronized long percentil(double percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException("Percentil deve estar entre 0 e 100");
+        }
+        if (tamanho == 0) {
+            return 0;
+        }
+
+        long[] ordenados = Arrays.copyOf(valores, tamanho);
+        Arrays.sort(ordenados);
+
+        int posicao = (int) Math.ceil(percentil / 100.0 * tamanho) - 1;
+        return ordenados[Math.max(0, Math.min(posicao, tamanho - 1))];
+    }
+}
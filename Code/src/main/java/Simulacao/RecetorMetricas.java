@@ -0,0 +1,124 @@
+package Simulacao;
+
+import Dashboard.Mensagens.MensagemMovimentoLote;
+import Dashboard.Mensagens.MensagemVeiculoMovimento;
+import Dashboard.Mensagens.RegistoMensagens;
+import Rede.Mensagem;
+import Rede.Servidor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor que ocupa o lugar do Dashboard durante a simulação local.
+ *
+ * Não tem interface gráfica: guarda apenas os movimentos de cada veículo
+ * (com o instante em que ocorreram) para calcular a latência por nó
+ * no fim da simulação. Logs e estatísticas são aceites e descartados.
+ */
+public class RecetorMetricas extends Servidor {
+
+    private final RegistoMensagens registo = new RegistoMensagens();
+    private final Map<String, List<MensagemVeiculoMovimento>> movimentosPorVeiculo = new ConcurrentHashMap<>();
+    private final AtomicLong totalMovimentos = new AtomicLong();
+
+    /**
+     * Construtor da classe
+     *
+     * @param ip Endereço onde escutar (o do Dashboard no configMapa.json)
+     * @param porta Porta onde escutar (a do Dashboard no configMapa.json)
+     */
+    public RecetorMetricas(String ip, int porta) {
+        super(ip, porta, "RecetorMetricas");
+
+        registo.registar("VEICULO_MOVIMENTO", MensagemVeiculoMovimento::de, (m, s) -> registarMovimento(m));
+        registo.registar("VEICULO_MOVIMENTO_LOTE", MensagemMovimentoLote::de, (m, s) -> m.eventos().forEach(this::registarMovimento));
+        registo.ignorar("VEICULO_GERADO");
+        registo.ignorar("VEICULO_SAIU");
+        registo.ignorar("ESTATISTICA");
+        registo.ignorar("ESTATISTICA_SAIDA");
+        registo.ignorar("LOG");
+        registo.ignorar("LOG_LOTE");
+    }
+
+    @Override
+    protected void tratarMensagem(String linha, BufferedReader leitor, PrintWriter escritor, Socket socket) {
+        try {
+            registo.despachar(linha, socket);
+        } catch (IOException e) {
+            System.err.println("[RecetorMetricas] JSON inválido: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected void tratarMensagemDescodificada(Mensagem mensagem, PrintWriter escritor, Socket socket) {
+        registo.despachar(mensagem, socket);
+    }
+
+    @Override
+    protected void onErroInicializacao(IOException e) {
+        System.err.println("[RecetorMetricas] Não foi possível escutar em " + ip + ":" + porta + ": " + e.getMessage());
+    }
+
+    private void registarMovimento(MensagemVeiculoMovimento movimento) {
+        List<MensagemVeiculoMovimento> movimentos =
+                movimentosPorVeiculo.computeIfAbsent(movimento.id(), k -> new ArrayList<>());
+        synchronized (movimentos) {
+            movimentos.add(movimento);
+        }
+        totalMovimentos.incrementAndGet();
+    }
+
+    /**
+     * Obtém o número de movimentos recebidos até ao momento.
+     */
+    public long getTotalMovimentos() {
+        return totalMovimentos.get();
+    }
+
+    /**
+     * Calcula, para cada nó, o tempo entre a chegada de um veículo
+     * (movimento para o nó) e a sua partida (movimento seguinte a partir do nó).
+     *
+     * @param saidas Instante de saída de cada veículo (ms); fecha o último troço até à Saída
+     * @param nomeSaida Nome do nó de saída (ex: "S")
+     * @return Amostras de latência (ms) por nó
+     */
+    public Map<String, Amostras> latenciaPorNo(Map<String, Long> saidas, String nomeSaida) {
+        Map<String, Amostras> latencias = new ConcurrentHashMap<>();
+
+        for (Map.Entry<String, List<MensagemVeiculoMovimento>> entrada : movimentosPorVeiculo.entrySet()) {
+            List<MensagemVeiculoMovimento> movimentos;
+            synchronized (entrada.getValue()) {
+                movimentos = new ArrayList<>(entrada.getValue());
+            }
+            movimentos.sort(Comparator.comparingLong(MensagemVeiculoMovimento::t));
+
+            for (int i = 1; i < movimentos.size(); i++) {
+                MensagemVeiculoMovimento anterior = movimentos.get(i - 1);
+                MensagemVeiculoMovimento atual = movimentos.get(i);
+                if (anterior.destino().equals(atual.origem())) {
+                    latencias.computeIfAbsent(atual.origem(), k -> new Amostras()).adicionar(atual.t() - anterior.t());
+                }
+            }
+
+            Long saida = saidas.get(entrada.getKey());
+            if (saida != null && !movimentos.isEmpty()) {
+                MensagemVeiculoMovimento ultimo = movimentos.get(movimentos.size() - 1);
+                if (ultimo.destino().equals(nomeSaida)) {
+                    latencias.computeIfAbsent(nomeSaida, k -> new Amostras()).adicionar(saida - ultimo.t());
+                }
+            }
+        }
+
+        return latencias;
+    }
+}
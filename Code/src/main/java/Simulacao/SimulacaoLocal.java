@@ -0,0 +1,244 @@
+package Simulacao;
+
+import Cruzamentos.Cruzamento;
+import Cruzamentos.CruzamentoMain;
+import Dashboard.Logs.TipoLog;
+import Logging.LogClienteDashboard;
+import PontosEntrada.Carga;
+import PontosEntrada.GeradorVeiculos;
+import PontosEntrada.PontosEntradaMain;
+import PontosEntrada.TipoCenario;
+import Rede.PublicadorEventos;
+import Rede.TipoTransporte;
+import Saida.HistoricoSaidas;
+import Saida.Saida;
+import Saida.SaidaMain;
+import Utils.ConfigLoader;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Simulação completa num único processo, sem interface gráfica.
+ *
+ * Arranca a Saída, todos os cruzamentos do configMapa.json e os geradores
+ * de entrada na mesma JVM, ligados por loopback com as mesmas portas da
+ * execução distribuída. O Dashboard é substituído por um RecetorMetricas.
+ * Em vez de esperas fixas (como no ProcessManager), espera que cada porta
+ * aceite ligações e termina quando todos os veículos saírem.
+ *
+ * Com -Drede.transporte=MEMORIA os veículos passam entre nós sem sockets
+ * nem serialização (ver TipoTransporte).
+ *
+ * No fim imprime o débito, os percentis p50/p99 do tempo no sistema
+ * e a latência por nó.
+ *
+ * Uso: java Simulacao.SimulacaoLocal [totalVeiculos|carga] [intervaloMs] [cenario] [timeoutSegundos] [semente]
+ * (carga: nome de uma carga do configCargas.json, que ignora o intervaloMs;
+ * uma carga só com duração serve de ensaio de resistência)
+ */
+public class SimulacaoLocal {
+
+    private static final int TOTAL_POR_OMISSAO = 300;
+    private static final long INTERVALO_POR_OMISSAO_MS = 50;
+    private static final long TIMEOUT_POR_OMISSAO_S = 300;
+
+    private static final long TIMEOUT_PORTA_MS = 10_000;
+    private static final long INTERVALO_VERIFICACAO_MS = 50;
+    private static final String NOME_SAIDA = "S";
+
+    /**
+     * Ponto de entrada da simulação local.
+     *
+     * @param args [totalVeiculos|carga] [intervaloMs] [cenario] [timeoutSegundos] [semente]
+     */
+    public static void main(String[] args) throws Exception {
+        long intervaloMs = (args.length > 1) ? Long.parseLong(args[1]) : INTERVALO_POR_OMISSAO_MS;
+        Carga carga = (args.length > 0) ? Carga.deArgumento(args[0], intervaloMs) : Carga.fixa(TOTAL_POR_OMISSAO, intervaloMs);
+        TipoCenario cenario = (args.length > 2) ? TipoCenario.valueOf(args[2]) : TipoCenario.ALEATORIO;
+        long timeoutS = (args.length > 3) ? Long.parseLong(args[3]) : TIMEOUT_POR_OMISSAO_S;
+        long semente = (args.length > 4) ? Long.parseLong(args[4]) : PontosEntradaMain.sementeConfigurada();
+
+        if (timeoutS < 1) {
+            throw new IllegalArgumentException("Argumentos inválidos: timeout >= 1");
+        }
+
+        // Só avisos e erros: os logs por veículo distorcem as medições
+        LogClienteDashboard.definirNomeProcesso("Simulacao");
+        LogClienteDashboard.definirNivelMinimo(TipoLog.AVISO);
+
+        // 1. RECETOR NO LUGAR DO DASHBOARD
+        JsonObject configDashboard = ConfigLoader.carregarDashboard();
+        String ipDashboard = configDashboard.get("ipServidor").getAsString();
+        int portaDashboard = configDashboard.get("portaServidor").getAsInt();
+
+        RecetorMetricas recetor = new RecetorMetricas(ipDashboard, portaDashboard);
+        recetor.start();
+        aguardarPorta(ipDashboard, portaDashboard);
+
+        // 2. SAÍDA
+        JsonObject configSaida = ConfigLoader.carregarSaida();
+        Saida saida = SaidaMain.criarSaida();
+        saida.iniciar();
+        aguardarPorta(configSaida.get("ipServidor").getAsString(), configSaida.get("portaServidor").getAsInt());
+
+        // 3. CRUZAMENTOS
+        List<Cruzamento> cruzamentos = new ArrayList<>();
+        for (JsonElement elem : ConfigLoader.carregarCruzamentos()) {
+            JsonObject configCruzamento = elem.getAsJsonObject();
+            Cruzamento cruzamento = CruzamentoMain.criarCruzamento(configCruzamento);
+            cruzamento.iniciar();
+            cruzamentos.add(cruzamento);
+
+            String ip = configCruzamento.has("ipServidor") ? configCruzamento.get("ipServidor").getAsString() : "localhost";
+            aguardarPorta(ip, configCruzamento.get("portaServidor").getAsInt());
+        }
+
+        // 4. GERADORES
+        System.out.printf("Simulação local: carga %s, cenário %s, semente %d, %d cruzamentos, transporte %s%n",
+                carga, cenario.name(), semente, cruzamentos.size(), TipoTransporte.configurado());
+
+        GeradorVeiculos[] geradores = PontosEntradaMain.criarGeradores(carga, cenario, semente);
+
+        long inicio = System.currentTimeMillis();
+        for (GeradorVeiculos g : geradores) {
+            g.start();
+        }
+
+        // 5. AGUARDAR SAÍDA DE TODOS OS VEÍCULOS (numa carga com duração, o total só se sabe no fim)
+        long limite = inicio + timeoutS * 1000;
+        while (!todosSaidos(saida, geradores) && System.currentTimeMillis() < limite) {
+            Thread.sleep(INTERVALO_VERIFICACAO_MS);
+        }
+        long fim = System.currentTimeMillis();
+
+        for (GeradorVeiculos g : geradores) {
+            g.parar();
+            g.join();
+        }
+        int totalVeiculos = totalGerado(geradores);
+
+        // Garante que os últimos movimentos chegaram ao recetor antes de calcular
+        PublicadorEventos publicador = PublicadorEventos.obter(ipDashboard, portaDashboard);
+        publicador.descarregar();
+        aguardarMovimentos(recetor);
+
+        relatorio(saida, recetor, cruzamentos, totalVeiculos, fim - inicio);
+        if (publicador.getDescartados() > 0) {
+            System.out.println("AVISO: " + publicador.getDescartados() + " movimentos descartados; a latência por nó é parcial.");
+        }
+
+        for (Cruzamento cruzamento : cruzamentos) {
+            cruzamento.parar();
+        }
+        saida.parar();
+        recetor.pararServidor();
+
+        System.exit(saida.getTotalSaidas() == totalVeiculos ? 0 : 1);
+    }
+
+    /**
+     * Verifica se os geradores terminaram e todos os veículos gerados saíram.
+     */
+    private static boolean todosSaidos(Saida saida, GeradorVeiculos[] geradores) {
+        for (GeradorVeiculos g : geradores) {
+            if (g.isAlive()) {
+                return false;
+            }
+        }
+        return saida.getTotalSaidas() >= totalGerado(geradores);
+    }
+
+    private static int totalGerado(GeradorVeiculos[] geradores) {
+        int total = 0;
+        for (GeradorVeiculos g : geradores) {
+            total += g.getTotalGerado();
+        }
+        return total;
+    }
+
+    /**
+     * Imprime o relatório final da simulação.
+     */
+    private static void relatorio(Saida saida, RecetorMetricas recetor, List<Cruzamento> cruzamentos,
+                                  int totalVeiculos, long duracaoMs) {
+        long saidos = saida.getTotalSaidas();
+
+        Amostras permanencia = new Amostras();
+        Map<String, Long> instantesSaida = new HashMap<>();
+
+        saida.getHistorico().paraCada((sequencia, tipo, entrada, tempoChegada, tempoSaida) -> {
+            permanencia.adicionar(tempoSaida - tempoChegada);
+            String id = HistoricoSaidas.id(entrada, sequencia);
+            if (id != null) {
+                instantesSaida.put(id, tempoSaida);
+            }
+        });
+
+        double segundos = duracaoMs / 1000.0;
+
+        System.out.println("=============== RESULTADOS ===============");
+        System.out.printf("Veículos saídos:   %d / %d%n", saidos, totalVeiculos);
+        System.out.printf("Duração:           %.2f s%n", segundos);
+        System.out.printf("Débito:            %.2f veículos/s%n", segundos > 0 ? saidos / segundos : 0.0);
+        System.out.printf("Tempo no sistema:  p50 = %d ms | p99 = %d ms%n",
+                permanencia.percentil(50), permanencia.percentil(99));
+
+        System.out.println("Latência por nó (chegada -> partida):");
+        Map<String, Amostras> latencias = new TreeMap<>(recetor.latenciaPorNo(instantesSaida, NOME_SAIDA));
+        for (Map.Entry<String, Amostras> entrada : latencias.entrySet()) {
+            Amostras amostras = entrada.getValue();
+            System.out.printf("  %-4s n = %-6d p50 = %-6d ms p99 = %d ms%n",
+                    entrada.getKey(), amostras.getTamanho(), amostras.percentil(50), amostras.percentil(99));
+        }
+
+        System.out.println("Verde efetivo por cruzamento:");
+        for (Cruzamento cruzamento : cruzamentos) {
+            System.out.printf("  %-4s %.0f%%%n", cruzamento.getNomeCruzamento(), cruzamento.getRazaoVerde() * 100);
+        }
+        System.out.println("==========================================");
+    }
+
+    /**
+     * Espera até que uma porta aceite ligações.
+     *
+     * @throws IllegalStateException se a porta não abrir em TIMEOUT_PORTA_MS
+     */
+    private static void aguardarPorta(String ip, int porta) throws InterruptedException {
+        long limite = System.currentTimeMillis() + TIMEOUT_PORTA_MS;
+
+        while (System.currentTimeMillis() < limite) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(ip, porta), (int) INTERVALO_VERIFICACAO_MS);
+                return;
+            } catch (IOException e) {
+                Thread.sleep(INTERVALO_VERIFICACAO_MS);
+            }
+        }
+
+        throw new IllegalStateException("Porta " + ip + ":" + porta + " não abriu a tempo");
+    }
+
+    /**
+     * Espera até que o recetor deixe de receber movimentos novos.
+     */
+    private static void aguardarMovimentos(RecetorMetricas recetor) throws InterruptedException {
+        long anterior = -1;
+        long atual = recetor.getTotalMovimentos();
+
+        while (atual != anterior) {
+            Thread.sleep(INTERVALO_VERIFICACAO_MS * 2);
+            anterior = atual;
+            atual = recetor.getTotalMovimentos();
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package Simulacao;
+
+import Cruzamentos.AgendadorVirtual;
+import Cruzamentos.Cruzamento;
+import Cruzamentos.CruzamentoMain;
+import Dashboard.Estatisticas.EstatisticaSemaforo;
+import Dashboard.Estatisticas.EstatisticasFila;
+import Dashboard.Estatisticas.EstatisticasGlobais;
+import Dashboard.Estatisticas.EstatisticasSaida;
+import Dashboard.Estatisticas.GestorEstatisticas;
+import Dashboard.Logs.TipoLog;
+import Logging.LogClienteDashboard;
+import PontosEntrada.Carga;
+import PontosEntrada.GeradorVeiculos;
+import PontosEntrada.PontoEntrada;
+import PontosEntrada.PontosEntradaMain;
+import PontosEntrada.ProcessoChegada;
+import PontosEntrada.TipoCenario;
+import Rede.Transporte;
+import Utils.ConfigLoader;
+import Veiculo.Veiculo;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulação por eventos discretos em tempo virtual, sem rede nem interface gráfica.
+ *
+ * Usa a mesma lógica da execução distribuída (Cruzamento, Semaforo,
+ * FilaVeiculos, controladores e caminhos do configMapa.json), mas todos os
+ * cruzamentos partilham um AgendadorVirtual e passam os veículos por um
+ * transporte em memória isolado. Os geradores de entrada e a Saída são
+ * eventos no mesmo calendário, por isso uma hora de tráfego simula-se em
+ * segundos.
+ *
+ * As estatísticas são as do Dashboard (GestorEstatisticas): veículos gerados
+ * por entrada, tempos na Saída por tipo, filas de cada faixa (amostradas com o
+ * período do ClienteCruzamentoDashboard) e veículos por cruzamento. Com a
+ * mesma semente, a simulação é reprodutível.
+ *
+ * Uso: java Simulacao.SimulacaoVirtual [totalVeiculos|carga] [intervaloMs] [cenario] [semente] [limiteVirtualSegundos]
+ * (carga: nome de uma carga do configCargas.json, que ignora o intervaloMs;
+ * semente por omissão: a do configCargas.json)
+ */
+public class SimulacaoVirtual {
+
+    private static final int TOTAL_POR_OMISSAO = 300;
+    private static final long INTERVALO_POR_OMISSAO_MS = 50;
+    private static final long LIMITE_POR_OMISSAO_S = 24 * 3600;
+
+    // Mesmo período do envio de estatísticas dos cruzamentos ao Dashboard
+    private static final long INTERVALO_AMOSTRAGEM_MS = 1000;
+
+    private final Carga carga;
+    private final TipoCenario cenario;
+    private final long semente;
+
+    private final AgendadorVirtual agendador = new AgendadorVirtual();
+    private final Transporte transporte = Transporte.isolado();
+    private final GestorEstatisticas gestor = new GestorEstatisticas();
+    private final Amostras temposNoSistema = new Amostras();
+    private final List<Cruzamento> cruzamentos = new ArrayList<>();
+
+    private JsonObject sinalizacao = new JsonObject();
+    private int veiculosGerados = 0;
+    private int veiculosSaidos = 0;
+    private int geradoresAtivos = 0;
+    private long duracaoRealMs = 0;
+
+    /**
+     * Construtor da classe
+     *
+     * @param totalVeiculos Total de veículos a gerar (todas as entradas)
+     * @param intervaloMs Intervalo virtual entre gerações em cada entrada
+     * @param cenario Cenário para geração de caminhos
+     * @param semente Semente dos números aleatórios (tipos e caminhos)
+     */
+    public SimulacaoVirtual(int totalVeiculos, long intervaloMs, TipoCenario cenario, long semente) {
+        this(Carga.fixa(totalVeiculos, intervaloMs), cenario, semente);
+    }
+
+    /**
+     * Construtor da classe
+     *
+     * @param carga Carga de tráfego (total, duração e processo de chegada, em tempo virtual)
+     * @param cenario Cenário para geração de caminhos
+     * @param semente Semente dos números aleatórios (chegadas, tipos e caminhos)
+     */
+    public SimulacaoVirtual(Carga carga, TipoCenario cenario, long semente) {
+        if (carga == null || cenario == null) {
+            throw new IllegalArgumentException("Carga e cenário não podem ser null");
+        }
+        this.carga = carga;
+        this.cenario = cenario;
+        this.semente = semente;
+    }
+
+    /**
+     * Define campos que substituem os de todos os cruzamentos do configMapa.json
+     * (ex: "limpezaMs" ou "controlador"), para comparar temporizações dos
+     * semáforos. Deve ser chamado antes de executar().
+     *
+     * @param sinalizacao Campos a substituir (vazio para usar a configuração)
+     */
+    public void definirSinalizacao(JsonObject sinalizacao) {
+        if (sinalizacao == null) {
+            throw new IllegalArgumentException("Sinalização não pode ser null");
+        }
+        this.sinalizacao = sinalizacao;
+    }
+
+    /**
+     * Ponto de entrada da simulação em tempo virtual.
+     *
+     * @param args [totalVeiculos|carga] [intervaloMs] [cenario] [semente] [limiteVirtualSegundos]
+     */
+    public static void main(String[] args) {
+        long intervaloMs = (args.length > 1) ? Long.parseLong(args[1]) : INTERVALO_POR_OMISSAO_MS;
+        Carga carga = (args.length > 0) ? Carga.deArgumento(args[0], intervaloMs) : Carga.fixa(TOTAL_POR_OMISSAO, intervaloMs);
+        TipoCenario cenario = (args.length > 2) ? TipoCenario.valueOf(args[2]) : TipoCenario.ALEATORIO;
+        long semente = (args.length > 3) ? Long.parseLong(args[3]) : PontosEntradaMain.sementeConfigurada();
+        long limiteS = (args.length > 4) ? Long.parseLong(args[4]) : LIMITE_POR_OMISSAO_S;
+
+        if (limiteS < 1) {
+            throw new IllegalArgumentException("Argumentos inválidos: limiteVirtualSegundos >= 1");
+        }
+
+        // Não há Dashboard: só os erros são enviados
+        LogClienteDashboard.definirNomeProcesso("SimulacaoVirtual");
+        LogClienteDashboard.definirNivelMinimo(TipoLog.ERRO);
+
+        System.out.printf("Simulação em tempo virtual: carga %s, cenário %s, semente %d%n",
+                carga, cenario.name(), semente);
+
+        SimulacaoVirtual simulacao = new SimulacaoVirtual(carga, cenario, semente);
+        simulacao.executar(TimeUnit.SECONDS.toMillis(limiteS));
+        simulacao.relatorio();
+
+        System.exit(simulacao.isCompleta() ? 0 : 1);
+    }
+
+    /**
+     * Executa a simulação até todos os veículos saírem ou o relógio virtual
+     * atingir o limite.
+     *
+     * @param limiteVirtualMs Limite do tempo virtual (ms)
+     */
+    public void executar(long limiteVirtualMs) {
+        long inicio = System.nanoTime();
+
+        // 1. SAÍDA: regista os veículos diretamente no transporte
+        JsonObject configSaida = ConfigLoader.carregarSaida();
+        transporte.registar(configSaida.get("ipServidor").getAsString(),
+                configSaida.get("portaServidor").getAsInt(), (veiculo, origem) -> registarSaida(veiculo));
+
+        // 2. CRUZAMENTOS, todos no mesmo agendador
+        for (JsonElement elem : ConfigLoader.carregarCruzamentos()) {
+            // Cópia: a configuração em cache é partilhada por todas as simulações
+            JsonObject configCruzamento = elem.getAsJsonObject().deepCopy();
+            for (Map.Entry<String, JsonElement> campo : sinalizacao.entrySet()) {
+                configCruzamento.add(campo.getKey(), campo.getValue().deepCopy());
+            }
+
+            Cruzamento cruzamento = CruzamentoMain.criarCruzamento(configCruzamento, transporte);
+            cruzamento.iniciarSimulado(agendador);
+            cruzamentos.add(cruzamento);
+        }
+
+        // 3. GERADORES E AMOSTRAGEM DAS FILAS
+        iniciarGeradores();
+        long periodoNs = TimeUnit.MILLISECONDS.toNanos(INTERVALO_AMOSTRAGEM_MS);
+        agendador.agendarPeriodico(this::amostrarFilas, periodoNs, periodoNs);
+
+        // 4. CALENDÁRIO
+        long limiteNs = TimeUnit.MILLISECONDS.toNanos(limiteVirtualMs);
+        while (!isCompleta() && agendador.agora() <= limiteNs && agendador.executarProximo()) {
+            // cada iteração executa um evento
+        }
+
+        for (Cruzamento cruzamento : cruzamentos) {
+            cruzamento.parar();
+        }
+        agendador.parar();
+
+        duracaoRealMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Cria um gerador por entrada do configMapa.json, dividindo o total de
+     * veículos como o PontosEntradaMain. Cada entrada tem o seu próprio
+     * gerador de números aleatórios, separado da semente pela mesma ordem,
+     * por isso a mesma semente gera os mesmos veículos que em tempo real.
+     */
+    private void iniciarGeradores() {
+        JsonArray entradasJson = ConfigLoader.carregarEntradas();
+
+        if (entradasJson.size() == 0) {
+            throw new IllegalArgumentException("Nenhuma entrada encontrada.");
+        }
+
+        int nEntradas = entradasJson.size();
+
+        SplittableRandom raiz = new SplittableRandom(semente);
+
+        for (int idx = 0; idx < nEntradas; idx++) {
+            JsonObject e = entradasJson.get(idx).getAsJsonObject();
+            PontoEntrada entrada = PontoEntrada.valueOf(e.get("id").getAsString());
+            Transporte.Destino destino = transporte.ligar(e.get("cruzamentoHost").getAsString(), e.get("cruzamentoPorta").getAsInt());
+
+            int limite = carga.limitePorEntrada(idx, nEntradas);
+            RandomGenerator aleatorio = raiz.split();
+            if (limite > 0) {
+                geradoresAtivos++;
+                agendador.executar(new GeradorVirtual(entrada, destino, limite, carga.criarProcesso(), aleatorio));
+            }
+        }
+    }
+
+    /**
+     * Gera um veículo e agenda a geração seguinte no relógio virtual.
+     */
+    private final class GeradorVirtual implements Runnable {
+        private final PontoEntrada entrada;
+        private final Transporte.Destino destino;
+        private final int limite;
+        private final ProcessoChegada processoChegada;
+        private final RandomGenerator aleatorio;
+        private final long inicioNs = agendador.agora();
+        private final long duracaoNs = carga.getDuracaoMs() > 0
+                ? TimeUnit.MILLISECONDS.toNanos(carga.getDuracaoMs()) : ProcessoChegada.SEM_CHEGADAS;
+        private long chegadaNs = 0;
+        private int gerados = 0;
+
+        GeradorVirtual(PontoEntrada entrada, Transporte.Destino destino, int limite,
+                       ProcessoChegada processoChegada, RandomGenerator aleatorio) {
+            this.entrada = entrada;
+            this.destino = destino;
+            this.limite = limite;
+            this.processoChegada = processoChegada;
+            this.aleatorio = aleatorio;
+        }
+
+        @Override
+        public void run() {
+            gerados++;
+            long agoraMs = TimeUnit.NANOSECONDS.toMillis(agendador.agora());
+
+            Veiculo veiculo = GeradorVeiculos.criarVeiculo(entrada, cenario, aleatorio, gerados, agoraMs);
+            gestor.registarVeiculoGerado(entrada.name());
+            veiculosGerados++;
+
+            if (!destino.enviarVeiculo(veiculo, entrada.name())) {
+                LogClienteDashboard.enviar(TipoLog.ERRO, "Falha ao enviar veículo " + veiculo.getId() + " a partir de " + entrada.name());
+            }
+
+            // Mesma ordem do GeradorVeiculos: veículo primeiro, depois a chegada seguinte
+            if (gerados < limite) {
+                chegadaNs = processoChegada.proximaChegadaNs(chegadaNs, aleatorio);
+                if (chegadaNs < duracaoNs) {
+                    agendador.agendar(this, inicioNs + chegadaNs - agendador.agora());
+                    return;
+                }
+            }
+            geradoresAtivos--;
+        }
+    }
+
+    /**
+     * Regista um veículo que chegou à Saída, no instante virtual atual.
+     */
+    private void registarSaida(Veiculo veiculo) {
+        long tempoSaida = TimeUnit.NANOSECONDS.toMillis(agendador.agora());
+        veiculo.setTempoSaida(tempoSaida);
+
+        long tempoTotal = tempoSaida - veiculo.getTempoChegada();
+        temposNoSistema.adicionar(tempoTotal);
+        veiculosSaidos++;
+
+        // Como o Dashboard: tempo total em segundos inteiros
+        gestor.registarVeiculoSaiu(veiculo.getTipo().name(), (long) (tempoTotal / 1000.0), veiculo.getCaminho());
+    }
+
+    /**
+     * Regista o tamanho atual da fila de cada faixa, como o Dashboard faz a
+     * cada mensagem ESTATISTICA de um cruzamento.
+     */
+    private void amostrarFilas() {
+        for (Cruzamento cruzamento : cruzamentos) {
+            for (EstatisticaSemaforo semaforo : cruzamento.getEstatistica().getSemaforos()) {
+                String nomeSemaforo = semaforo.getOrigem() + "→" + semaforo.getProximo();
+                gestor.registarFilaAtualizada(cruzamento.getNomeCruzamento(), nomeSemaforo, semaforo.getTamanhoFila());
+            }
+        }
+    }
+
+    /**
+     * Obtém as estatísticas recolhidas (as mesmas do Dashboard).
+     */
+    public GestorEstatisticas getGestor() {
+        return gestor;
+    }
+
+    /**
+     * Obtém os tempos no sistema (ms virtuais) dos veículos que saíram.
+     */
+    public Amostras getTemposNoSistema() {
+        return temposNoSistema;
+    }
+
+    /**
+     * Verifica se todos os geradores terminaram e todos os veículos gerados saíram.
+     */
+    public boolean isCompleta() {
+        return geradoresAtivos == 0 && veiculosSaidos == veiculosGerados;
+    }
+
+    /**
+     * Obtém o número de veículos gerados.
+     */
+    public int getVeiculosGerados() {
+        return veiculosGerados;
+    }
+
+    /**
+     * Obtém o número de veículos que chegaram à Saída.
+     */
+    public int getVeiculosSaidos() {
+        return veiculosSaidos;
+    }
+
+    /**
+     * Obtém o tempo virtual simulado (ms).
+     */
+    public long getTempoVirtualMs() {
+        return TimeUnit.NANOSECONDS.toMillis(agendador.agora());
+    }
+
+    /**
+     * Obtém o tempo real que a última execução demorou (ms).
+     */
+    public long getDuracaoRealMs() {
+        return duracaoRealMs;
+    }
+
+    /**
+     * Obtém a razão de verde efetivo de cada cruzamento, pela ordem do configMapa.json.
+     */
+    public Map<String, Double> getRazoesVerde() {
+        Map<String, Double> razoes = new LinkedHashMap<>();
+        for (Cruzamento cruzamento : cruzamentos) {
+            razoes.put(cruzamento.getNomeCruzamento(), cruzamento.getRazaoVerde());
+        }
+        return razoes;
+    }
+
+    /**
+     * Imprime o relatório final, com as estatísticas dos painéis do Dashboard.
+     */
+    public void relatorio() {
+        double segundosVirtuais = getTempoVirtualMs() / 1000.0;
+        double segundosReais = duracaoRealMs / 1000.0;
+        EstatisticasGlobais globais = gestor.getEstatisticasGlobais();
+
+        System.out.println("========== RESULTADOS (tempo virtual) ==========");
+        System.out.printf("Veículos saídos:   %d / %d%n", veiculosSaidos, veiculosGerados);
+        System.out.printf("Tempo virtual:     %.2f s (real %.3f s, %d eventos)%n",
+                segundosVirtuais, segundosReais, agendador.getEventosExecutados());
+        System.out.printf("Débito:            %.2f veículos/s%n", segundosVirtuais > 0 ? veiculosSaidos / segundosVirtuais : 0.0);
+        System.out.printf("Tempo no sistema:  p50 = %d ms | p99 = %d ms%n",
+                temposNoSistema.percentil(50), temposNoSistema.percentil(99));
+        System.out.printf("Gerados:           %d (E1 = %d, E2 = %d, E3 = %d)%n",
+                globais.totalGerado, globais.geradosE1, globais.geradosE2, globais.geradosE3);
+
+        System.out.println("Saída por tipo (tempo no sistema):");
+        for (Map.Entry<String, EstatisticasSaida> entrada : new TreeMap<>(gestor.getEstatisticasSaida()).entrySet()) {
+            EstatisticasSaida s = entrada.getValue();
+            System.out.printf("  %-7s n = %-6d min = %-4d s média = %-7.1f s max = %d s%n",
+                    entrada.getKey(), s.getQuantidade(), s.getMinimo(), s.getMedia(), s.getMaximo());
+        }
+
+        System.out.println("Filas por faixa (veículos):");
+        for (Cruzamento cruzamento : cruzamentos) {
+            String nome = cruzamento.getNomeCruzamento();
+            for (Map.Entry<String, EstatisticasFila> entrada : new TreeMap<>(gestor.getEstatisticasCruzamento(nome)).entrySet()) {
+                EstatisticasFila f = entrada.getValue();
+                System.out.printf("  %-4s %-9s média = %-6.2f max = %d%n", nome, entrada.getKey(), f.getMedia(), f.getMaximo());
+            }
+        }
+
+        System.out.println("Veículos por cruzamento:");
+        for (Map.Entry<String, Map<String, Integer>> entrada : new TreeMap<>(gestor.getResumoCruzamentos()).entrySet()) {
+            System.out.printf("  %-4s %s%n", entrada.getKey(), new TreeMap<>(entrada.getValue()));
+        }
+
+        System.out.println("Verde efetivo por cruzamento:");
+        for (Map.Entry<String, Double> entrada : getRazoesVerde().entrySet()) {
+            System.out.printf("  %-4s %.0f%%%n", entrada.getKey(), entrada.getValue() * 100);
+        }
+        System.out.println("================================================");
+    }
+}
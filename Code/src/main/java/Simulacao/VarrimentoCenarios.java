@@ -0,0 +1,350 @@
+package Simulacao;
+
+import Dashboard.Estatisticas.EstatisticasFila;
+import Dashboard.Logs.TipoLog;
+import Logging.LogClienteDashboard;
+import PontosEntrada.Carga;
+import PontosEntrada.TipoCenario;
+import Utils.ConfigLoader;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Varrimento de cenários: corre, em tempo virtual e em paralelo, todas as
+ * combinações de carga (configCargas.json), cenário, sinalização e semente
+ * definidas num ficheiro com o formato de configVarrimento.json.
+ *
+ * Cada execução é uma SimulacaoVirtual independente (agendador, transporte
+ * e estatísticas próprios), por isso correm tantas em simultâneo quantos os
+ * núcleos disponíveis. Para cada configuração (carga × cenário × sinalização)
+ * agrega as sementes com média, desvio-padrão e intervalo de confiança a 95%
+ * (t de Student), e escreve:
+ *   prefixo-execucoes.csv  uma linha por execução
+ *   prefixo-resumo.csv     uma linha por configuração
+ *   prefixo.json           as duas tabelas
+ *
+ * Uso: java Simulacao.VarrimentoCenarios [ficheiroVarrimento|-] [prefixoResultados] [threads]
+ * ("-" ou sem argumentos usa o configVarrimento.json do classpath)
+ */
+public class VarrimentoCenarios {
+
+    private static final String FICHEIRO_POR_OMISSAO = "/configVarrimento.json";
+    private static final String PREFIXO_POR_OMISSAO = "varrimento";
+    private static final long LIMITE_POR_OMISSAO_S = 24 * 3600;
+
+    // Quantis t de Student (95%, bilateral) para 1 a 30 graus de liberdade
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    /**
+     * Uma simulação a executar.
+     */
+    private record Plano(Carga carga, TipoCenario cenario, String sinalizacao, JsonObject configSinalizacao,
+                         long semente) {}
+
+    /**
+     * Resultado de uma execução (uma semente de uma configuração).
+     *
+     * @param veiculos Veículos gerados (numa carga com duração, depende da semente)
+     * @param tempoMedioMs Tempo médio no sistema (ms virtuais)
+     * @param filaMedia Média, sobre as faixas, do tamanho médio da fila
+     * @param filaMaxima Maior fila observada em qualquer faixa
+     * @param razaoVerde Média, sobre os cruzamentos, da razão de verde efetivo
+     */
+    public record Execucao(String carga, String cenario, String sinalizacao, long semente,
+                           int veiculos, int saidos, double tempoVirtualS, double debito,
+                           double tempoMedioMs, long tempoP50Ms, long tempoP95Ms, long tempoP99Ms,
+                           double filaMedia, int filaMaxima, double razaoVerde, double duracaoRealS) {}
+
+    /**
+     * Uma métrica agregada sobre as sementes de uma configuração.
+     *
+     * @param ic95 Semi-amplitude do intervalo de confiança a 95% (0 com uma só semente)
+     */
+    public record Agregado(double media, double desvioPadrao, double ic95) {}
+
+    /**
+     * Resultados de uma configuração, agregados sobre as sementes.
+     *
+     * @param incompletas Execuções em que nem todos os veículos saíram antes do limite
+     */
+    public record Resumo(String carga, String cenario, String sinalizacao, int execucoes, int incompletas,
+                         Agregado debito, Agregado tempoMedioMs, Agregado tempoP50Ms, Agregado tempoP99Ms,
+                         Agregado filaMedia, Agregado razaoVerde) {}
+
+    /**
+     * Ponto de entrada do varrimento.
+     *
+     * @param args [ficheiroVarrimento|-] [prefixoResultados] [threads]
+     */
+    public static void main(String[] args) throws Exception {
+        String ficheiro = (args.length > 0) ? args[0] : "-";
+        String prefixo = (args.length > 1) ? args[1] : PREFIXO_POR_OMISSAO;
+        int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        if (threads < 1) {
+            throw new IllegalArgumentException("Argumentos inválidos: threads >= 1");
+        }
+
+        // Não há Dashboard: só os erros são enviados
+        LogClienteDashboard.definirNomeProcesso("Varrimento");
+        LogClienteDashboard.definirNivelMinimo(TipoLog.ERRO);
+
+        JsonObject grelha = lerGrelha(ficheiro);
+        List<Plano> planos = criarPlanos(grelha);
+        long limiteS = grelha.has("limiteVirtualSegundos") ? grelha.get("limiteVirtualSegundos").getAsLong() : LIMITE_POR_OMISSAO_S;
+
+        System.out.printf("Varrimento: %d execuções em %d threads%n", planos.size(), threads);
+        long inicio = System.nanoTime();
+
+        List<Execucao> execucoes = executarTodos(planos, threads, TimeUnit.SECONDS.toMillis(limiteS));
+        List<Resumo> resumo = agregar(execucoes);
+
+        escreverExecucoes(Path.of(prefixo + "-execucoes.csv"), execucoes);
+        escreverResumo(Path.of(prefixo + "-resumo.csv"), resumo);
+        escreverJson(Path.of(prefixo + ".json"), execucoes, resumo);
+
+        System.out.printf("Varrimento concluído em %.1f s: %s-execucoes.csv, %s-resumo.csv, %s.json%n",
+                (System.nanoTime() - inicio) / 1e9, prefixo, prefixo, prefixo);
+    }
+
+    /**
+     * Lê a grelha do ficheiro indicado ou, com "-", do classpath.
+     */
+    private static JsonObject lerGrelha(String ficheiro) throws IOException {
+        if (!"-".equals(ficheiro)) {
+            return JsonParser.parseString(Files.readString(Path.of(ficheiro), StandardCharsets.UTF_8)).getAsJsonObject();
+        }
+
+        try (InputStream entrada = VarrimentoCenarios.class.getResourceAsStream(FICHEIRO_POR_OMISSAO)) {
+            if (entrada == null) {
+                throw new IOException("Ficheiro " + FICHEIRO_POR_OMISSAO + " não encontrado no classpath");
+            }
+            return JsonParser.parseString(new String(entrada.readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+        }
+    }
+
+    /**
+     * Expande a grelha em todas as combinações carga × cenário × sinalização × semente.
+     *
+     * @throws IllegalArgumentException se a grelha referir uma carga ou cenário inexistente
+     */
+    private static List<Plano> criarPlanos(JsonObject grelha) {
+        JsonObject cargas = ConfigLoader.carregarCargas();
+
+        Map<String, JsonObject> sinalizacoes = new LinkedHashMap<>();
+        if (grelha.has("sinalizacoes")) {
+            for (Map.Entry<String, JsonElement> s : grelha.getAsJsonObject("sinalizacoes").entrySet()) {
+                sinalizacoes.put(s.getKey(), s.getValue().getAsJsonObject());
+            }
+        } else {
+            sinalizacoes.put("CONFIGURADA", new JsonObject());
+        }
+
+        List<Plano> planos = new ArrayList<>();
+        for (JsonElement c : grelha.getAsJsonArray("cargas")) {
+            String nomeCarga = c.getAsString();
+            if (!cargas.has(nomeCarga)) {
+                throw new IllegalArgumentException("Carga '" + nomeCarga + "' não existe no configCargas.json");
+            }
+            Carga carga = Carga.de(nomeCarga, cargas.getAsJsonObject(nomeCarga));
+
+            for (JsonElement cen : grelha.getAsJsonArray("cenarios")) {
+                TipoCenario cenario = TipoCenario.valueOf(cen.getAsString());
+
+                for (Map.Entry<String, JsonObject> s : sinalizacoes.entrySet()) {
+                    for (JsonElement semente : grelha.getAsJsonArray("sementes")) {
+                        planos.add(new Plano(carga, cenario, s.getKey(), s.getValue(), semente.getAsLong()));
+                    }
+                }
+            }
+        }
+
+        if (planos.isEmpty()) {
+            throw new IllegalArgumentException("A grelha não tem nenhuma combinação");
+        }
+        return planos;
+    }
+
+    /**
+     * Corre todas as simulações num conjunto fixo de threads.
+     * Os resultados ficam pela ordem dos planos.
+     */
+    private static List<Execucao> executarTodos(List<Plano> planos, int threads, long limiteVirtualMs)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Execucao>> futuros = new ArrayList<>();
+            for (Plano plano : planos) {
+                futuros.add(executor.submit(() -> executar(plano, limiteVirtualMs)));
+            }
+
+            List<Execucao> execucoes = new ArrayList<>();
+            for (Future<Execucao> futuro : futuros) {
+                Execucao e = futuro.get();
+                execucoes.add(e);
+                System.out.printf(Locale.ROOT, "  [%d/%d] %s %s %s semente %d: %d/%d saídos, p50 = %d ms%n",
+                        execucoes.size(), planos.size(), e.carga(), e.cenario(), e.sinalizacao(), e.semente(),
+                        e.saidos(), e.veiculos(), e.tempoP50Ms());
+            }
+            return execucoes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executa uma simulação e extrai as suas métricas.
+     */
+    private static Execucao executar(Plano plano, long limiteVirtualMs) {
+        SimulacaoVirtual simulacao = new SimulacaoVirtual(plano.carga(), plano.cenario(), plano.semente());
+        simulacao.definirSinalizacao(plano.configSinalizacao());
+        simulacao.executar(limiteVirtualMs);
+
+        double somaFilas = 0;
+        int faixas = 0;
+        int filaMaxima = 0;
+        for (String cruzamento : simulacao.getRazoesVerde().keySet()) {
+            for (EstatisticasFila fila : simulacao.getGestor().getEstatisticasCruzamento(cruzamento).values()) {
+                somaFilas += fila.getMedia();
+                filaMaxima = Math.max(filaMaxima, fila.getMaximo());
+                faixas++;
+            }
+        }
+
+        double razaoVerde = simulacao.getRazoesVerde().values().stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double tempoVirtualS = simulacao.getTempoVirtualMs() / 1000.0;
+        Amostras tempos = simulacao.getTemposNoSistema();
+
+        return new Execucao(plano.carga().getNome(), plano.cenario().name(), plano.sinalizacao(), plano.semente(),
+                simulacao.getVeiculosGerados(), simulacao.getVeiculosSaidos(), tempoVirtualS,
+                tempoVirtualS > 0 ? simulacao.getVeiculosSaidos() / tempoVirtualS : 0,
+                tempos.media(), tempos.percentil(50), tempos.percentil(95), tempos.percentil(99),
+                faixas > 0 ? somaFilas / faixas : 0, filaMaxima, razaoVerde,
+                simulacao.getDuracaoRealMs() / 1000.0);
+    }
+
+    /**
+     * Agrupa as execuções por configuração (carga × cenário × sinalização).
+     */
+    private static List<Resumo> agregar(List<Execucao> execucoes) {
+        Map<String, List<Execucao>> grupos = new LinkedHashMap<>();
+        for (Execucao e : execucoes) {
+            grupos.computeIfAbsent(e.carga() + "|" + e.cenario() + "|" + e.sinalizacao(), k -> new ArrayList<>()).add(e);
+        }
+
+        List<Resumo> resumo = new ArrayList<>();
+        for (List<Execucao> grupo : grupos.values()) {
+            Execucao primeira = grupo.get(0);
+            int incompletas = (int) grupo.stream().filter(e -> e.saidos() < e.veiculos()).count();
+
+            resumo.add(new Resumo(primeira.carga(), primeira.cenario(), primeira.sinalizacao(), grupo.size(), incompletas,
+                    agregado(grupo, Execucao::debito),
+                    agregado(grupo, Execucao::tempoMedioMs),
+                    agregado(grupo, Execucao::tempoP50Ms),
+                    agregado(grupo, Execucao::tempoP99Ms),
+                    agregado(grupo, Execucao::filaMedia),
+                    agregado(grupo, Execucao::razaoVerde)));
+        }
+        return resumo;
+    }
+
+    /**
+     * Calcula média, desvio-padrão amostral e intervalo de confiança a 95% de uma métrica.
+     */
+    private static Agregado agregado(List<Execucao> grupo, ToDoubleFunction<Execucao> metrica) {
+        int n = grupo.size();
+        double media = grupo.stream().mapToDouble(metrica).average().orElse(0);
+        if (n < 2) {
+            return new Agregado(media, 0, 0);
+        }
+
+        double somaQuadrados = 0;
+        for (Execucao e : grupo) {
+            double d = metrica.applyAsDouble(e) - media;
+            somaQuadrados += d * d;
+        }
+        double desvio = Math.sqrt(somaQuadrados / (n - 1));
+        double t = (n - 1 <= T_95.length) ? T_95[n - 2] : 1.96;
+
+        return new Agregado(media, desvio, t * desvio / Math.sqrt(n));
+    }
+
+    /**
+     * Escreve uma linha por execução.
+     */
+    private static void escreverExecucoes(Path ficheiro, List<Execucao> execucoes) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(ficheiro, StandardCharsets.UTF_8))) {
+            out.println("carga,cenario,sinalizacao,semente,veiculos,saidos,tempoVirtualS,debito,"
+                    + "tempoMedioMs,tempoP50Ms,tempoP95Ms,tempoP99Ms,filaMedia,filaMaxima,razaoVerde,duracaoRealS");
+            for (Execucao e : execucoes) {
+                out.println(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%.3f,%.4f,%.1f,%d,%d,%d,%.4f,%d,%.4f,%.3f",
+                        e.carga(), e.cenario(), e.sinalizacao(), e.semente(), e.veiculos(), e.saidos(),
+                        e.tempoVirtualS(), e.debito(), e.tempoMedioMs(), e.tempoP50Ms(), e.tempoP95Ms(), e.tempoP99Ms(),
+                        e.filaMedia(), e.filaMaxima(), e.razaoVerde(), e.duracaoRealS()));
+            }
+        }
+    }
+
+    /**
+     * Escreve uma linha por configuração: média, desvio-padrão e IC95 de cada métrica.
+     */
+    private static void escreverResumo(Path ficheiro, List<Resumo> resumo) throws IOException {
+        String[] metricas = {"debito", "tempoMedioMs", "tempoP50Ms", "tempoP99Ms", "filaMedia", "razaoVerde"};
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(ficheiro, StandardCharsets.UTF_8))) {
+            StringBuilder cabecalho = new StringBuilder("carga,cenario,sinalizacao,execucoes,incompletas");
+            for (String m : metricas) {
+                cabecalho.append(',').append(m).append("Media,").append(m).append("Desvio,").append(m).append("Ic95");
+            }
+            out.println(cabecalho);
+
+            for (Resumo r : resumo) {
+                StringBuilder linha = new StringBuilder(String.format(Locale.ROOT, "%s,%s,%s,%d,%d",
+                        r.carga(), r.cenario(), r.sinalizacao(), r.execucoes(), r.incompletas()));
+                for (Agregado a : List.of(r.debito(), r.tempoMedioMs(), r.tempoP50Ms(), r.tempoP99Ms(), r.filaMedia(), r.razaoVerde())) {
+                    linha.append(String.format(Locale.ROOT, ",%.4f,%.4f,%.4f", a.media(), a.desvioPadrao(), a.ic95()));
+                }
+                out.println(linha);
+            }
+        }
+    }
+
+    /**
+     * Escreve as execuções e o resumo num único ficheiro JSON.
+     */
+    private static void escreverJson(Path ficheiro, List<Execucao> execucoes, List<Resumo> resumo) throws IOException {
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+        Map<String, Object> raiz = new LinkedHashMap<>();
+        raiz.put("execucoes", execucoes);
+        raiz.put("resumo", resumo);
+
+        Files.writeString(ficheiro, gson.toJson(raiz), StandardCharsets.UTF_8);
+    }
+}
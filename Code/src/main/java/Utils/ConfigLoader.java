@@ -17,23 +17,67 @@ import com.google.gson.JsonObject;
 public class ConfigLoader {
 
     private static final String CONFIG_FILE = "/configMapa.json";
+    private static final String CARGAS_FILE = "/configCargas.json";
     private static final Gson gson = new Gson();
-    private static JsonObject configCache = null;
+    private static volatile JsonObject configCache = null;
 
     /**
      * Carrega o ficheiro configMapa.json do classpath para o cache.
      *
      * @throws Exception se o ficheiro não for encontrado ou for inválido
      */
-    private static void carregarFicheiroConfig() throws Exception {
-        var inputStream = ConfigLoader.class.getResourceAsStream(CONFIG_FILE);
+    private static synchronized void carregarFicheiroConfig() throws Exception {
+        // Várias simulações no mesmo processo podem pedir a configuração ao mesmo tempo
+        if (configCache == null) {
+            configCache = lerRecurso(CONFIG_FILE);
+        }
+    }
+
+    /**
+     * Lê um ficheiro JSON do classpath.
+     *
+     * @throws Exception se o ficheiro não for encontrado ou for inválido
+     */
+    private static JsonObject lerRecurso(String ficheiro) throws Exception {
+        var inputStream = ConfigLoader.class.getResourceAsStream(ficheiro);
 
         if (inputStream == null) {
-            throw new Exception("Ficheiro " + CONFIG_FILE + " não encontrado no classpath (src/resources/)");
+            throw new Exception("Ficheiro " + ficheiro + " não encontrado no classpath (src/resources/)");
+        }
+
+        try (var reader = new java.io.InputStreamReader(inputStream, java.nio.charset.StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, JsonObject.class);
+        }
+    }
+
+    /**
+     * Carrega as cargas de tráfego do ficheiro configCargas.json.
+     *
+     * @return JsonObject com uma entrada por carga (ex: "BAIXA": {totalVeiculos, intervaloMs}; ver PontosEntrada.Carga)
+     */
+    public static JsonObject carregarCargas() {
+        try {
+            return lerRecurso(CARGAS_FILE).getAsJsonObject("cargas");
+        } catch (Exception e) {
+            System.err.println("ERRO: Não foi possível carregar cargas - " + e.getMessage());
+            System.exit(1);
+            return null;
         }
+    }
 
-        try (var reader = new java.io.InputStreamReader(inputStream)) {
-            configCache = gson.fromJson(reader, JsonObject.class);
+    /**
+     * Carrega a semente dos números aleatórios do ficheiro configCargas.json.
+     *
+     * @return Valor de "semente", ou null se não estiver definida
+     */
+    public static Long carregarSemente() {
+        try {
+            JsonObject root = lerRecurso(CARGAS_FILE);
+            return root.has("semente") ? root.get("semente").getAsLong() : null;
+        } catch (Exception e) {
+            System.err.println("ERRO: Não foi possível carregar semente - " + e.getMessage());
+            System.exit(1);
+            return null;
         }
     }
 
@@ -78,6 +122,33 @@ public class ConfigLoader {
         return carregarSecao("dashboard");
     }
 
+    /**
+     * Carrega a configuração de rede (motor dos servidores, etc.).
+     *
+     * @return JsonObject com configuração de rede, ou null se a secção não existir
+     */
+    public static JsonObject carregarRede() {
+        return carregarSecao("rede");
+    }
+
+    /**
+     * Carrega a configuração do envio de logs (buffer, lotes, política de descarte).
+     *
+     * @return JsonObject com configuração dos logs, ou null se a secção não existir
+     */
+    public static JsonObject carregarLogs() {
+        return carregarSecao("logs");
+    }
+
+    /**
+     * Carrega a configuração das rotas (número de alternativas por estado).
+     *
+     * @return JsonObject com configuração das rotas, ou null se a secção não existir
+     */
+    public static JsonObject carregarRotas() {
+        return carregarSecao("rotas");
+    }
+
     /**
      * Carrega a configuração das Entradas
      *
@@ -96,6 +167,24 @@ public class ConfigLoader {
         }
     }
 
+    /**
+     * Carrega a configuração de todos os cruzamentos.
+     *
+     * @return JsonArray com a configuração dos cruzamentos
+     */
+    public static JsonArray carregarCruzamentos() {
+        try {
+            if (configCache == null) {
+                carregarFicheiroConfig();
+            }
+            return configCache.getAsJsonArray("cruzamentos");
+        } catch (Exception e) {
+            System.err.println("ERRO: Não foi possível carregar cruzamentos - " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
     /**
      * Carrega a configuração de um cruzamento específico pelo nome.
      *
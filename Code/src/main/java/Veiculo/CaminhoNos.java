@@ -0,0 +1,137 @@
+package Veiculo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Caminho imutável, guardado como identificadores do RegistoNos.
+ *
+ * As rotas pré-calculadas (ver Mapa.TabelaRotas) usam esta lista: um veículo
+ * criado com ela partilha o array de identificadores, sem converter os nomes.
+ *
+ * Os arrays de identificadores são partilhados (flyweight): como os caminhos
+ * saem de um conjunto finito de rotas, partilhado() devolve sempre o mesmo
+ * array para o mesmo caminho, e o codec binário recebe os veículos sem
+ * alocar um array novo por salto.
+ */
+public final class CaminhoNos extends AbstractList<String> implements RandomAccess {
+
+    // Acima deste número de caminhos diferentes, deixam de ser partilhados (devolve-se uma cópia)
+    private static final int MAXIMO_PARTILHADOS = 1 << 16;
+
+    // Tabela de endereçamento aberto; substituída (volatile) quando cresce
+    private static volatile AtomicReferenceArray<short[]> partilhados = new AtomicReferenceArray<>(256);
+    private static int totalPartilhados = 0;
+
+    private final short[] ids;
+
+    private CaminhoNos(short[] ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Cria um caminho a partir dos nomes dos nós.
+     *
+     * @param nomes Nomes dos nós, pela ordem do caminho
+     * @return Caminho imutável
+     * @throws IllegalArgumentException se algum nome for null
+     */
+    public static CaminhoNos de(List<String> nomes) {
+        short[] ids = new short[nomes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (short) RegistoNos.interno(nomes.get(i));
+        }
+        return new CaminhoNos(partilhado(ids, ids.length));
+    }
+
+    /**
+     * Obtém o array partilhado com os mesmos identificadores que os primeiros
+     * tamanho elementos de ids. Se o caminho ainda não for conhecido, é
+     * copiado e registado. Não aloca quando o caminho já existe.
+     *
+     * @param ids Identificadores do caminho (não é guardado: pode ser reutilizado por quem chama)
+     * @param tamanho Número de nós do caminho
+     * @return Array partilhado (nunca deve ser alterado)
+     */
+    public static short[] partilhado(short[] ids, int tamanho) {
+        int hash = hash(ids, tamanho);
+        short[] existente = procurar(partilhados, ids, tamanho, hash);
+        return existente != null ? existente : registar(ids, tamanho, hash);
+    }
+
+    private static synchronized short[] registar(short[] ids, int tamanho, int hash) {
+        AtomicReferenceArray<short[]> tabela = partilhados;
+        short[] existente = procurar(tabela, ids, tamanho, hash);
+        if (existente != null) {
+            return existente;
+        }
+
+        short[] copia = Arrays.copyOf(ids, tamanho);
+        if (totalPartilhados >= MAXIMO_PARTILHADOS) {
+            return copia;
+        }
+
+        if ((totalPartilhados + 1) * 2 > tabela.length()) {
+            AtomicReferenceArray<short[]> maior = new AtomicReferenceArray<>(tabela.length() * 2);
+            for (int i = 0; i < tabela.length(); i++) {
+                short[] caminho = tabela.get(i);
+                if (caminho != null) {
+                    colocar(maior, caminho, hash(caminho, caminho.length));
+                }
+            }
+            tabela = maior;
+            partilhados = maior;
+        }
+
+        colocar(tabela, copia, hash);
+        totalPartilhados++;
+        return copia;
+    }
+
+    private static short[] procurar(AtomicReferenceArray<short[]> tabela, short[] ids, int tamanho, int hash) {
+        int mascara = tabela.length() - 1;
+        for (int i = hash & mascara; ; i = (i + 1) & mascara) {
+            short[] caminho = tabela.get(i);
+            if (caminho == null || Arrays.equals(caminho, 0, caminho.length, ids, 0, tamanho)) {
+                return caminho;
+            }
+        }
+    }
+
+    private static void colocar(AtomicReferenceArray<short[]> tabela, short[] caminho, int hash) {
+        int mascara = tabela.length() - 1;
+        int i = hash & mascara;
+        while (tabela.get(i) != null) {
+            i = (i + 1) & mascara;
+        }
+        tabela.set(i, caminho);
+    }
+
+    private static int hash(short[] ids, int tamanho) {
+        int h = 1;
+        for (int i = 0; i < tamanho; i++) {
+            h = 31 * h + ids[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Identificadores dos nós (partilhados: nunca são alterados).
+     */
+    short[] ids() {
+        return ids;
+    }
+
+    @Override
+    public String get(int posicao) {
+        return RegistoNos.nome(ids[posicao]);
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+}
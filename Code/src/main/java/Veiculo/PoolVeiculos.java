@@ -0,0 +1,69 @@
+package Veiculo;
+
+import PontosEntrada.PontoEntrada;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool de objetos Veiculo do processo, para o caminho de cada salto por TCP.
+ *
+ * Um cruzamento recebe um veículo (descodificado para um objeto do pool),
+ * guarda-o na fila e, depois de o enviar por TCP ao nó seguinte, já não
+ * precisa dele: o transporte devolve-o ao pool e o próximo veículo recebido
+ * reutiliza o mesmo objeto. Em regime estável, o salto não aloca veículos.
+ *
+ * Regra de posse: quem chama Transporte.Destino.enviarVeiculo() entrega o
+ * veículo ao transporte e não o pode voltar a ler (nem deixá-lo num Supplier
+ * de log ou numa fila onde outra thread o envie); o que for preciso depois,
+ * como o id ou o tipo, é lido antes. O veículo volta ao pool nos dois pontos
+ * onde deixa de ter dono:
+ *  o TransporteTcp, logo que o escreve na ligação (o nó seguinte recebe outro objeto)
+ *  a Saída, depois de o registar no histórico e de notificar o Dashboard
+ * No transporte em memória o mesmo objeto passa ao nó seguinte, por isso não
+ * é devolvido nesse salto. Com o pool vazio, obter() cria um veículo novo.
+ */
+public final class PoolVeiculos {
+
+    // Veículos livres guardados, no máximo (os restantes ficam para o GC)
+    private static final int CAPACIDADE = 1024;
+
+    // ArrayBlockingQueue: offer/poll não alocam nós, ao contrário das filas ligadas
+    private static final BlockingQueue<Veiculo> livres = new ArrayBlockingQueue<>(CAPACIDADE);
+
+    private PoolVeiculos() {}
+
+    /**
+     * Obtém um veículo com o estado indicado, reutilizado do pool se houver.
+     *
+     * @param idsCaminho Identificadores dos nós do caminho (partilhado, ver CaminhoNos.partilhado)
+     * @return Veículo pronto a usar
+     * @throws IllegalArgumentException se algum parâmetro for null ou caminho vazio
+     */
+    public static Veiculo obter(String id, TipoVeiculo tipo, PontoEntrada pontoEntrada, short[] idsCaminho,
+                                long tempoChegada, long tempoSaida, int indiceCaminhoAtual) {
+        Veiculo veiculo = livres.poll();
+        if (veiculo == null) {
+            return new Veiculo(id, tipo, pontoEntrada, idsCaminho, tempoChegada, tempoSaida, indiceCaminhoAtual);
+        }
+
+        veiculo.livre = false;
+        veiculo.reutilizar(id, tipo, pontoEntrada, idsCaminho, tempoChegada, tempoSaida, indiceCaminhoAtual);
+        return veiculo;
+    }
+
+    /**
+     * Devolve ao pool um veículo que já não é usado por ninguém.
+     *
+     * @param veiculo Veículo a devolver (ignorado se for null ou já estiver no pool)
+     */
+    public static void devolver(Veiculo veiculo) {
+        if (veiculo == null || veiculo.livre) {
+            return;
+        }
+        veiculo.livre = true;
+        if (!livres.offer(veiculo)) {
+            veiculo.livre = false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package Veiculo;
+
+import Utils.ConfigLoader;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registo que associa cada nó da rede (E1.., Cr1.., S) a um identificador inteiro pequeno.
+ *
+ * Os identificadores são atribuídos pela ordem em que os nós aparecem no
+ * configMapa.json (entradas, cruzamentos e por fim a saída "S"), por isso
+ * são iguais em todos os processos que leem o mesmo ficheiro.
+ *
+ * Nós que não constam do ficheiro podem ser acrescentados com interno();
+ * os seus identificadores (a partir de configurados()) são locais ao
+ * processo e não devem ser enviados pela rede.
+ */
+public final class RegistoNos {
+
+    /** Identificador devolvido para nós que não constam do configMapa.json */
+    public static final int DESCONHECIDO = -1;
+
+    private static final int MAXIMO_NOS = Short.MAX_VALUE + 1;
+
+    private static final Map<String, Integer> idsPorNome = new ConcurrentHashMap<>();
+
+    // Substituído (cópia) a cada registo: a leitura por id não precisa de lock
+    private static volatile String[] nomesPorId = new String[0];
+    private static final int configurados;
+
+    static {
+        JsonArray entradas = ConfigLoader.carregarEntradas();
+        for (JsonElement entrada : entradas) {
+            registar(entrada.getAsJsonObject().get("id").getAsString());
+        }
+
+        JsonArray cruzamentos = ConfigLoader.carregarCruzamentos();
+        for (JsonElement cruzamento : cruzamentos) {
+            registar(cruzamento.getAsJsonObject().get("nome").getAsString());
+        }
+
+        registar("S");
+        configurados = nomesPorId.length;
+    }
+
+    private RegistoNos() {}
+
+    private static synchronized int registar(String nome) {
+        Integer existente = idsPorNome.get(nome);
+        if (existente != null) {
+            return existente;
+        }
+        if (nomesPorId.length >= MAXIMO_NOS) {
+            throw new IllegalStateException("Demasiados nós registados: " + nomesPorId.length);
+        }
+
+        int id = nomesPorId.length;
+        String[] nomes = Arrays.copyOf(nomesPorId, id + 1);
+        nomes[id] = nome;
+        nomesPorId = nomes;
+        idsPorNome.put(nome, id);
+        return id;
+    }
+
+    /**
+     * Obtém o identificador de um nó, registando-o se ainda não existir.
+     *
+     * @param nome Nome do nó
+     * @return Identificador do nó (cabe num short)
+     * @throws IllegalArgumentException se o nome for null
+     */
+    public static int interno(String nome) {
+        if (nome == null) {
+            throw new IllegalArgumentException("Nome do nó não pode ser null");
+        }
+        Integer id = idsPorNome.get(nome);
+        return id != null ? id : registar(nome);
+    }
+
+    /**
+     * Obtém o identificador de um nó.
+     *
+     * @param nome Nome do nó (ex: "Cr1")
+     * @return Identificador do nó, ou DESCONHECIDO se não existir
+     */
+    public static int id(String nome) {
+        Integer id = idsPorNome.get(nome);
+        return id == null ? DESCONHECIDO : id;
+    }
+
+    /**
+     * Obtém o nome de um nó a partir do seu identificador.
+     *
+     * @param id Identificador do nó
+     * @return Nome do nó (a mesma instância String para todas as chamadas)
+     * @throws IllegalArgumentException se o identificador não existir
+     */
+    public static String nome(int id) {
+        String[] nomes = nomesPorId;
+        if (id < 0 || id >= nomes.length) {
+            throw new IllegalArgumentException("Identificador de nó inválido: " + id);
+        }
+        return nomes[id];
+    }
+
+    /**
+     * Número de nós registados.
+     *
+     * @return Total de nós conhecidos
+     */
+    public static int total() {
+        return nomesPorId.length;
+    }
+
+    /**
+     * Número de nós do configMapa.json: os identificadores abaixo deste valor
+     * são iguais em todos os processos.
+     *
+     * @return Total de nós configurados
+     */
+    public static int configurados() {
+        return configurados;
+    }
+}
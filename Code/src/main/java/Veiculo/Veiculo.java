@@ -1,28 +1,47 @@
 package Veiculo;
 
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
+
 import PontosEntrada.PontoEntrada;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
 /**
  * Representa um veículo no sistema de tráfego urbano distribuído.
  * Cada veículo possui um identificador único, tipo, ponto de entrada,
  * caminho a percorrer e tempos de chegada/saída do sistema.
  *
+ * O caminho é guardado como identificadores do RegistoNos (short[]), e não
+ * como nomes; em JSON continua a ser uma lista de nomes (ver AdaptadorCaminho).
  */
 public class Veiculo implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private final String id;
-    private final TipoVeiculo tipo;
-    private final PontoEntrada pontoEntrada;
-    private final long tempoChegada;
-    private final List<String> caminho;
+    // Não são final para o PoolVeiculos poder reutilizar o objeto
+    private String id;
+    private TipoVeiculo tipo;
+    private PontoEntrada pontoEntrada;
+    private long tempoChegada;
+
+    // Nunca alterado no lugar (pode ser partilhado com um CaminhoNos): reescrever substitui o array
+    @JsonAdapter(AdaptadorCaminho.class)
+    private short[] caminho;
 
     private long tempoSaida;
     private int indiceCaminhoAtual;
 
+    // True enquanto está no PoolVeiculos (evita devolver o mesmo veículo duas vezes)
+    transient boolean livre;
+
     /**
      * Constrói um novo veículo com o caminho especificado.
      * O tempo de chegada é definido automaticamente para o momento da criação.
@@ -43,10 +62,83 @@ public class Veiculo implements Serializable {
         this.pontoEntrada = pontoEntrada;
         this.tempoChegada = System.currentTimeMillis();
         this.tempoSaida = -1;
-        this.caminho = new ArrayList<>(caminho);
+        this.caminho = converterCaminho(caminho);
         this.indiceCaminhoAtual = 0;
     }
 
+    /**
+     * Reconstrói um veículo com todo o seu estado (usado pelos codecs de rede).
+     *
+     * @param id Identificador único do veículo
+     * @param tipo Tipo do veículo
+     * @param pontoEntrada Ponto de entrada do veículo no sistema
+     * @param caminho Lista ordenada de nós que o veículo deve percorrer
+     * @param tempoChegada Timestamp de chegada ao sistema
+     * @param tempoSaida Timestamp de saída (-1 se ainda não saiu)
+     * @param indiceCaminhoAtual Posição atual no caminho
+     * @throws IllegalArgumentException se algum parâmetro for null ou caminho vazio
+     */
+    public Veiculo(String id, TipoVeiculo tipo, PontoEntrada pontoEntrada, List<String> caminho,
+                   long tempoChegada, long tempoSaida, int indiceCaminhoAtual) {
+        if (id == null || tipo == null || pontoEntrada == null || caminho == null || caminho.isEmpty()) {
+            throw new IllegalArgumentException("Todos os parâmetros devem ser não-nulos e caminho não pode ser vazio");
+        }
+
+        this.id = id;
+        this.tipo = tipo;
+        this.pontoEntrada = pontoEntrada;
+        this.tempoChegada = tempoChegada;
+        this.tempoSaida = tempoSaida;
+        this.caminho = converterCaminho(caminho);
+        this.indiceCaminhoAtual = indiceCaminhoAtual;
+    }
+
+    /**
+     * Reconstrói um veículo com o caminho já em identificadores do RegistoNos
+     * (usado pelo codec binário, sem passar pelos nomes).
+     *
+     * @param idsCaminho Identificadores dos nós do caminho (o array passa a ser do veículo e não é alterado)
+     * @throws IllegalArgumentException se algum parâmetro for null ou caminho vazio
+     */
+    public Veiculo(String id, TipoVeiculo tipo, PontoEntrada pontoEntrada, short[] idsCaminho,
+                   long tempoChegada, long tempoSaida, int indiceCaminhoAtual) {
+        definirEstado(id, tipo, pontoEntrada, idsCaminho, tempoChegada, tempoSaida, indiceCaminhoAtual);
+    }
+
+    /**
+     * Substitui todo o estado do veículo (usado pelo PoolVeiculos).
+     */
+    final void reutilizar(String id, TipoVeiculo tipo, PontoEntrada pontoEntrada, short[] idsCaminho,
+                          long tempoChegada, long tempoSaida, int indiceCaminhoAtual) {
+        definirEstado(id, tipo, pontoEntrada, idsCaminho, tempoChegada, tempoSaida, indiceCaminhoAtual);
+    }
+
+    private void definirEstado(String id, TipoVeiculo tipo, PontoEntrada pontoEntrada, short[] idsCaminho,
+                               long tempoChegada, long tempoSaida, int indiceCaminhoAtual) {
+        if (id == null || tipo == null || pontoEntrada == null || idsCaminho == null || idsCaminho.length == 0) {
+            throw new IllegalArgumentException("Todos os parâmetros devem ser não-nulos e caminho não pode ser vazio");
+        }
+
+        this.id = id;
+        this.tipo = tipo;
+        this.pontoEntrada = pontoEntrada;
+        this.tempoChegada = tempoChegada;
+        this.tempoSaida = tempoSaida;
+        this.caminho = idsCaminho;
+        this.indiceCaminhoAtual = indiceCaminhoAtual;
+    }
+
+    private static short[] converterCaminho(List<String> nomes) {
+        if (nomes instanceof CaminhoNos caminhoNos) {
+            return caminhoNos.ids();
+        }
+        short[] ids = new short[nomes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (short) RegistoNos.interno(nomes.get(i));
+        }
+        return ids;
+    }
+
     /**
      * Retorna o identificador único do veículo.
      *
@@ -75,12 +167,30 @@ public class Veiculo implements Serializable {
     }
 
     /**
-     * Retorna uma cópia do caminho completo que o veículo deve percorrer.
+     * Retorna o caminho completo que o veículo deve percorrer, só de leitura.
+     * É uma vista sobre o veículo (sem cópia): reflete o caminho reescrito.
      *
-     * @return Lista com os identificadores dos nós do caminho
+     * @return Lista com os nomes dos nós do caminho
      */
     public List<String> getCaminho() {
-        return new ArrayList<>(caminho); // Cópia defensiva
+        return new VistaCaminho();
+    }
+
+    /**
+     * Número de nós do caminho.
+     */
+    public int getTamanhoCaminho() {
+        return caminho.length;
+    }
+
+    /**
+     * Identificador (RegistoNos) do nó numa posição do caminho.
+     *
+     * @param posicao Posição no caminho
+     * @return Identificador do nó
+     */
+    public int getIdNo(int posicao) {
+        return caminho[posicao];
     }
 
     /**
@@ -99,12 +209,44 @@ public class Veiculo implements Serializable {
      * @return ID do próximo nó ou "S" se chegou ao destino
      */
     public String getProximoNo() {
-        if (indiceCaminhoAtual < caminho.size()) {
-            return caminho.get(indiceCaminhoAtual);
+        if (indiceCaminhoAtual < caminho.length) {
+            return RegistoNos.nome(caminho[indiceCaminhoAtual]);
         }
         return "S";
     }
 
+    /**
+     * Retorna o identificador do nó que se segue ao próximo nó, sem avançar.
+     * Usado pelo cruzamento que recebe o veículo para escolher a faixa
+     * (o destino depois de o atravessar).
+     *
+     * @return ID do nó seguinte ou "S" se o caminho termina antes
+     */
+    public String getNoSeguinte() {
+        if (indiceCaminhoAtual + 1 < caminho.length) {
+            return RegistoNos.nome(caminho[indiceCaminhoAtual + 1]);
+        }
+        return "S";
+    }
+
+    /**
+     * Retorna o timestamp de saída do veículo do sistema.
+     *
+     * @return Tempo de saída em milissegundos, ou -1 se ainda não saiu
+     */
+    public long getTempoSaida() {
+        return tempoSaida;
+    }
+
+    /**
+     * Retorna a posição atual do veículo no caminho.
+     *
+     * @return Índice do próximo nó a visitar
+     */
+    public int getIndiceCaminhoAtual() {
+        return indiceCaminhoAtual;
+    }
+
     /**
      * Define o tempo de saída do veículo do sistema.
      *
@@ -119,11 +261,31 @@ public class Veiculo implements Serializable {
      * Incrementa o índice da posição atual.
      */
     public void avancarCaminho() {
-        if (indiceCaminhoAtual < caminho.size()) {
+        if (indiceCaminhoAtual < caminho.length) {
             indiceCaminhoAtual++;
         }
     }
 
+    /**
+     * Substitui o resto do caminho, a partir do próximo nó (inclusive).
+     * Os nós já percorridos mantêm-se. Usado pelo encaminhamento dinâmico.
+     *
+     * @param restante Novo caminho a partir do próximo nó
+     * @throws IllegalArgumentException se o novo caminho for null ou vazio
+     */
+    public void reescreverCaminho(List<String> restante) {
+        if (restante == null || restante.isEmpty()) {
+            throw new IllegalArgumentException("O novo caminho não pode ser vazio");
+        }
+        int percorridos = Math.min(indiceCaminhoAtual, caminho.length);
+        short[] novo = new short[percorridos + restante.size()];
+        System.arraycopy(caminho, 0, novo, 0, percorridos);
+        for (int i = 0; i < restante.size(); i++) {
+            novo[percorridos + i] = (short) RegistoNos.interno(restante.get(i));
+        }
+        caminho = novo;
+    }
+
     /**
      * Retorna uma representação textual do veículo com informações principais.
      *
@@ -135,8 +297,61 @@ public class Veiculo implements Serializable {
                 id.length() > 8 ? id.substring(0, 8) : id,
                 tipo,
                 pontoEntrada,
-                caminho,
+                getCaminho(),
                 indiceCaminhoAtual,
-                caminho.size());
+                caminho.length);
+    }
+
+    /**
+     * Vista só de leitura do caminho, com os nomes do RegistoNos.
+     */
+    private final class VistaCaminho extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int posicao) {
+            return RegistoNos.nome(caminho[posicao]);
+        }
+
+        @Override
+        public int size() {
+            return caminho.length;
+        }
+    }
+
+    /**
+     * Escreve e lê o caminho em JSON como lista de nomes, o formato anterior
+     * ao short[] (compatível com quem envia ou recebe a lista de nomes).
+     */
+    static final class AdaptadorCaminho extends TypeAdapter<short[]> {
+        @Override
+        public void write(JsonWriter saida, short[] ids) throws IOException {
+            if (ids == null) {
+                saida.nullValue();
+                return;
+            }
+            saida.beginArray();
+            for (short id : ids) {
+                saida.value(RegistoNos.nome(id));
+            }
+            saida.endArray();
+        }
+
+        @Override
+        public short[] read(JsonReader entrada) throws IOException {
+            if (entrada.peek() == JsonToken.NULL) {
+                entrada.nextNull();
+                return null;
+            }
+            short[] ids = new short[8];
+            int n = 0;
+            entrada.beginArray();
+            while (entrada.hasNext()) {
+                if (n == ids.length) {
+                    ids = Arrays.copyOf(ids, n * 2);
+                }
+                ids[n++] = (short) RegistoNos.interno(entrada.nextString());
+            }
+            entrada.endArray();
+            return n == ids.length ? ids : Arrays.copyOf(ids, n);
+        }
     }
 }
\ No newline at end of file